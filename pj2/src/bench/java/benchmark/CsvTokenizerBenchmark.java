@@ -0,0 +1,118 @@
+package benchmark;
+
+import handler.CsvTokenizer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Poredjenje razdvajanja redova CSV fajla: regex sa lookahead-om i replaceAll po polju (ranije u CSVHandler)
+ * i CsvTokenizer (jedan prolaz kroz red). Oba nacina prave sve Stringove polja i parsiraju trajanje,
+ * kao pri ucitavanju iznajmljivanja. Redovi se generisu unaprijed i drze u memoriji, pa se mjeri samo razdvajanje.
+ * Pokretanje iz direktorijuma pj2: benchmark.CsvTokenizerBenchmark [brojRedova]
+ */
+public class CsvTokenizerBenchmark {
+    private static final Pattern CSV_PATTERN = Pattern.compile(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj redova (podrazumijevano milion)
+     * @throws Exception u slucaju greske prilikom generisanja fajla
+     */
+    public static void main(String[] args) throws Exception {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("rentals", ".csv");
+        List<String> lines;
+        try {
+            SyntheticData.writeRentalsCsv(file, 1000, rowCount);
+            lines = Files.readAllLines(file);
+            lines = lines.subList(1, lines.size()); // bez header-a
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Provjera da oba nacina daju ista polja
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (String line : lines.subList(0, Math.min(1000, lines.size()))) {
+            String[] values = regexSplit(line);
+            tokenizer.tokenize(line);
+            for (int i = 0; i < values.length; i++) {
+                if (!values[i].equals(tokenizer.get(i))) {
+                    throw new IllegalStateException("Field " + i + " differs for line: " + line);
+                }
+            }
+        }
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += regex(lines) + tokenizer(lines, tokenizer);
+        }
+        long regexNanos = Long.MAX_VALUE;
+        long tokenizerNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            checksum += regex(lines);
+            regexNanos = Math.min(regexNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            checksum += tokenizer(lines, tokenizer);
+            tokenizerNanos = Math.min(tokenizerNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("%d lines (checksum %d), best of %d rounds%n", lines.size(), checksum, ROUNDS);
+        System.out.printf("%-12s %12s %12s%n", "splitter", "ms", "ns/line");
+        System.out.printf("%-12s %12.1f %12.1f%n", "regex", regexNanos / 1e6, (double) regexNanos / lines.size());
+        System.out.printf("%-12s %12.1f %12.1f%n", "tokenizer", tokenizerNanos / 1e6, (double) tokenizerNanos / lines.size());
+    }
+
+    /**
+     * Pomocna metoda koja razdvaja red kao ranije u CSVHandler.loadRentals
+     * @param line - red CSV fajla
+     * @return vraca polja bez navodnika na krajevima
+     */
+    private static String[] regexSplit(String line) {
+        String[] values = CSV_PATTERN.split(line, -1);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values[i].trim().replaceAll("^\"|\"$", "");
+        }
+        return values;
+    }
+
+    /**
+     * Pomocna metoda koja razdvaja sve redove regexom
+     * @param lines - redovi
+     * @return vraca kontrolni zbir (da JIT ne bi izbacio petlju)
+     */
+    private static long regex(List<String> lines) {
+        long sum = 0;
+        for (String line : lines) {
+            String[] values = regexSplit(line);
+            for (String value : values) {
+                sum += value.length();
+            }
+            sum += Integer.parseInt(values[5]);
+        }
+        return sum;
+    }
+
+    /**
+     * Pomocna metoda koja razdvaja sve redove tokenizer-om
+     * @param lines - redovi
+     * @param tokenizer - tokenizer koji se koristi za sve redove
+     * @return vraca kontrolni zbir (da JIT ne bi izbacio petlju)
+     */
+    private static long tokenizer(List<String> lines, CsvTokenizer tokenizer) {
+        long sum = 0;
+        for (String line : lines) {
+            int fields = tokenizer.tokenize(line);
+            for (int i = 0; i < fields; i++) {
+                sum += tokenizer.get(i).length();
+            }
+            sum += tokenizer.getInt(5, 0);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,159 @@
+package benchmark;
+
+import handler.RentalKeySet;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Poredjenje pravila duplikata prilikom ucitavanja iznajmljivanja: skup stringova "vehicleId_date" (HashSet)
+ * i RentalKeySet (kljuc long u tabeli u memoriji, odnosno Bloom filter i tabela u fajlu kada se premasi budzet).
+ * Mjeri se trajanje dodavanja svih kljuceva (za RentalKeySet ukljucujuci parsiranje datuma) i zauzece heap-a
+ * nakon dodavanja; oko 5% redova su duplikati.
+ * Prije mjerenja se provjerava da sva tri nacina prepoznaju iste duplikate.
+ * Pokretanje: benchmark.DedupBenchmark [brojRedova] [budzetMB za tabelu u fajlu]
+ */
+public class DedupBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj redova i budzet za tabelu u fajlu
+     */
+    public static void main(String[] args) {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        long spillBudget = (args.length > 1 ? Long.parseLong(args[1]) : 4) * 1024 * 1024;
+
+        // Redovi: indeks vozila i minut pocetka (svaki dvadeseti red ponavlja neki raniji)
+        int[] vehicles = new int[rowCount];
+        int[] minutes = new int[rowCount];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0 && random.nextInt(20) == 0) {
+                int earlier = random.nextInt(i);
+                vehicles[i] = vehicles[earlier];
+                minutes[i] = minutes[earlier];
+            } else {
+                vehicles[i] = random.nextInt(VEHICLE_COUNT);
+                minutes[i] = random.nextInt(60 * 24 * 365 * 5);
+            }
+        }
+        String[] dates = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            dates[i] = START.plusMinutes(minutes[i]).format(DATE_FORMAT);
+        }
+
+        long[] strings = run(() -> new StringRule(dates, vehicles));
+        long[] memory = run(() -> new KeyRule(new RentalKeySet(Long.MAX_VALUE), dates, vehicles));
+        long[] spilled = run(() -> new KeyRule(new RentalKeySet(spillBudget), dates, vehicles));
+        if (strings[2] != memory[2] || strings[2] != spilled[2]) {
+            throw new IllegalStateException("Duplicate counts differ: " + strings[2] + ", " + memory[2] + ", " + spilled[2]);
+        }
+
+        System.out.printf("%d rows, %d duplicates, spill budget %d MB%n", rowCount, strings[2], spillBudget / 1024 / 1024);
+        System.out.printf("%-26s %12s %16s%n", "", "ms", "heap bytes/row");
+        System.out.printf("%-26s %12d %16.1f%n", "HashSet<String>", strings[0], (double) strings[1] / rowCount);
+        System.out.printf("%-26s %12d %16.1f%n", "RentalKeySet (memory)", memory[0], (double) memory[1] / rowCount);
+        System.out.printf("%-26s %12d %16.1f%n", "RentalKeySet (Bloom+file)", spilled[0], (double) spilled[1] / rowCount);
+    }
+
+    /**
+     * Pravilo duplikata koje se mjeri (stanje pravila ostaje u memoriji do mjerenja heap-a)
+     */
+    private interface Rule extends AutoCloseable {
+        int run();
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Dosadasnje pravilo: kljuc "vehicleId_date" u skupu stringova
+     */
+    private record StringRule(String[] dates, int[] vehicles, Set<String> keys) implements Rule {
+        private StringRule(String[] dates, int[] vehicles) {
+            this(dates, vehicles, new HashSet<>());
+        }
+
+        @Override
+        public int run() {
+            int duplicates = 0;
+            for (int i = 0; i < dates.length; i++) {
+                if (!keys.add("S" + vehicles[i] + "_" + dates[i])) {
+                    duplicates++;
+                }
+            }
+            return duplicates;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Novo pravilo: datum se parsira i pakuje sa indeksom vozila u kljuc long
+     */
+    private record KeyRule(RentalKeySet keys, String[] dates, int[] vehicles) implements Rule {
+        @Override
+        public int run() {
+            int duplicates = 0;
+            for (int i = 0; i < dates.length; i++) {
+                if (!keys.add(RentalKeySet.key(vehicles[i], LocalDateTime.parse(dates[i], DATE_FORMAT)))) {
+                    duplicates++;
+                }
+            }
+            return duplicates;
+        }
+
+        @Override
+        public void close() {
+            keys.close();
+        }
+    }
+
+    /**
+     * Fabrika pravila (svako mjerenje pocinje od praznog skupa)
+     */
+    private interface RuleFactory {
+        Rule create();
+    }
+
+    /**
+     * Pomocna metoda koja mjeri najkrace od tri izvrsavanja i zauzece heap-a nakon posljednjeg
+     * @param factory - fabrika pravila
+     * @return vraca trajanje u ms, zauzece heap-a u bajtovima i broj duplikata
+     */
+    private static long[] run(RuleFactory factory) {
+        long best = Long.MAX_VALUE;
+        long bytes = 0;
+        int duplicates = 0;
+        for (int round = 0; round < 3; round++) {
+            long before = usedHeap();
+            try (Rule rule = factory.create()) {
+                long start = System.nanoTime();
+                duplicates = rule.run();
+                best = Math.min(best, System.nanoTime() - start);
+                bytes = usedHeap() - before;
+            }
+        }
+        return new long[]{best / 1_000_000, bytes, duplicates};
+    }
+
+    /**
+     * Pomocna metoda koja vraca zauzece heap-a nakon sakupljanja smeca
+     * @return vraca broj zauzetih bajtova
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import handler.ReceiptHandler;
+import main.ExecutionMode;
+import main.SimulationManager;
+import rent.Rental;
+import rent.SimulationClock;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Poredjenje nacina izvrsavanja simulacije (ExecutionMode) po broju niti i trajanju.
+ * Generise sinteticku flotu i grupe iznajmljivanja u kojima je svako vozilo iznajmljeno jednom,
+ * pa svaki nacin izvrsavanja pokrece nad istim podacima.
+ * Pokretanje iz direktorijuma pj2: benchmark.ExecutionModeBenchmark [brojVozila] [brojGrupa] [--real-time]
+ */
+public class ExecutionModeBenchmark {
+
+    /**
+     * main metoda koja pokrece poredjenje i ispisuje tabelu rezultata
+     * @param args - broj vozila, broj grupa i opciono --real-time
+     * @throws Exception u slucaju greske prilikom simulacije
+     */
+    public static void main(String[] args) throws Exception {
+        int vehicleCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int groupCount = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        boolean realTime = args.length > 2 && args[2].equals("--real-time");
+
+        PrintStream console = System.out;
+        ReceiptHandler.setWriteToFile(false);
+        Map<LocalDateTime, List<Rental>> groupedRentals = SimulationManager.groupRentalsByTime(
+                SyntheticData.generateRentals(vehicleCount, groupCount, realTime ? 1 : 20));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        console.printf("%d vehicles, %d groups, real-time: %b%n", vehicleCount, groupCount, realTime);
+        console.printf("%-18s %12s %12s%n", "mode", "peak threads", "elapsed ms");
+
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            SimulationManager.setExecutionMode(mode);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            try {
+                SimulationManager.simulateGroups(groupedRentals, null, realTime ? new SimulationClock(1) : SimulationClock.fullSpeed());
+            } finally {
+                System.setOut(console);
+            }
+            long elapsed = System.nanoTime() - start;
+            console.printf("%-18s %12d %12.1f%n", mode, threads.getPeakThreadCount(), elapsed / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import handler.CSVHandler;
+import handler.MappedRentalLoader;
+import model.Vehicle;
+import model.VehicleRegistry;
+import rent.Rental;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Poredjenje ucitavanja iznajmljivanja: CSVHandler.loadRentals (BufferedReader, jedna nit) i MappedRentalLoader
+ * (fajl mapiran u memoriju, dijelovi na fork-join pool-u sa 1, 2, 4 ... niti, do broja jezgara).
+ * Prije mjerenja se provjerava da oba nacina daju ista iznajmljivanja istim redom i sa istim rednim brojevima.
+ * Pokretanje iz direktorijuma pj2: benchmark.MappedLoaderBenchmark [brojRedova]
+ */
+public class MappedLoaderBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj redova
+     * @throws Exception u slucaju greske prilikom ucitavanja
+     */
+    public static void main(String[] args) throws Exception {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        PrintStream console = System.out;
+        List<Vehicle> fleet = SyntheticData.generateFleet(VEHICLE_COUNT);
+        VehicleRegistry registry = new VehicleRegistry(fleet);
+        Path file = Files.createTempFile("rentals", ".csv");
+        try {
+            SyntheticData.writeRentalsCsv(file, VEHICLE_COUNT, rowCount);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                verify(CSVHandler.loadRentals(file.toString(), registry), MappedRentalLoader.load(file, registry));
+            } finally {
+                System.setOut(console);
+            }
+
+            console.printf("%d rows, %d cores%n", rowCount, Runtime.getRuntime().availableProcessors());
+            console.printf("%-22s %12s%n", "loader", "ms");
+            console.printf("%-22s %12.1f%n", "BufferedReader", time(() -> CSVHandler.loadRentals(file.toString(), registry)));
+            for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+                try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+                    console.printf("%-22s %12.1f%n", "mapped, " + threads + " threads", time(() -> MappedRentalLoader.load(file, registry, pool)));
+                }
+            }
+        } finally {
+            System.setOut(console);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Ucitavanje koje se mjeri
+     */
+    private interface Load {
+        List<Rental> run() throws Exception;
+    }
+
+    /**
+     * Pomocna metoda koja mjeri najkrace od tri ucitavanja (ispis na konzolu je iskljucen)
+     * @param load - ucitavanje
+     * @return vraca trajanje u milisekundama
+     * @throws Exception u slucaju greske prilikom ucitavanja
+     */
+    private static double time(Load load) throws Exception {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                long start = System.nanoTime();
+                load.run();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            return best / 1e6;
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da dva ucitavanja daju ista iznajmljivanja (redni brojevi se porede
+     * relativno, jer brojac iznajmljivanja raste kroz oba ucitavanja)
+     * @param expected - iznajmljivanja iz CSVHandler.loadRentals
+     * @param actual - iznajmljivanja iz MappedRentalLoader
+     */
+    private static void verify(List<Rental> expected, List<Rental> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("Rental count differs: " + expected.size() + " vs " + actual.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Rental e = expected.get(i);
+            Rental a = actual.get(i);
+            if (!e.getStartTime().equals(a.getStartTime()) || e.getVehicle() != a.getVehicle()
+                    || e.getTotalPrice() != a.getTotalPrice() || e.getRentCount() != a.getRentCount()) {
+                throw new IllegalStateException("Rental " + i + " differs");
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package benchmark;
+
+import handler.ReceiptHandler;
+import main.ExecutionMode;
+import main.SimulationManager;
+import rent.PathCursor;
+import rent.Rental;
+import rent.SimulationClock;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mjerenje alokacije memorije po iznajmljivanju prilikom prolaska kroz putanje vozila.
+ * Mjeri se broj alociranih bajtova u tekucoj niti (com.sun.management.ThreadMXBean), posebno za
+ * sam prolazak kroz putanje (PathCursor) i za cijelu simulaciju (dogadjaji, koraci i racuni).
+ * Pokretanje iz direktorijuma pj2: benchmark.PathSteppingBenchmark [brojVozila] [brojGrupa]
+ */
+public class PathSteppingBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj vozila i broj grupa
+     * @throws Exception u slucaju greske prilikom simulacije
+     */
+    public static void main(String[] args) throws Exception {
+        int vehicleCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int groupCount = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PrintStream console = System.out;
+        ReceiptHandler.setWriteToFile(false);
+        SimulationManager.setExecutionMode(ExecutionMode.EVENT_LOOP); // sve u tekucoj niti, zbog mjerenja
+
+        List<Rental> rentals = SyntheticData.generateRentals(vehicleCount, groupCount, 20);
+        Map<LocalDateTime, List<Rental>> groupedRentals = SimulationManager.groupRentalsByTime(rentals);
+        long steps = rentals.stream().mapToLong(Rental::calculateShortestPath).sum();
+
+        // Prolazak kroz putanje, jedan kursor za sva iznajmljivanja
+        PathCursor cursor = new PathCursor();
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += walk(rentals, cursor);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        checksum += walk(rentals, cursor);
+        long pathBytes = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Cijela simulacija (bez ispisa na konzolu i bez upisivanja racuna u fajlove)
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long simulationBytes;
+        try {
+            for (int i = 0; i < 3; i++) {
+                SimulationManager.simulateGroups(groupedRentals, null, SimulationClock.fullSpeed());
+            }
+            before = threads.getCurrentThreadAllocatedBytes();
+            SimulationManager.simulateGroups(groupedRentals, null, SimulationClock.fullSpeed());
+            simulationBytes = threads.getCurrentThreadAllocatedBytes() - before;
+        } finally {
+            System.setOut(console);
+        }
+
+        console.printf("%d rentals, %d steps (checksum %d)%n", rentals.size(), steps, checksum);
+        console.printf("%-22s %16s %14s%n", "phase", "bytes/rental", "bytes/step");
+        console.printf("%-22s %16.1f %14.2f%n", "path stepping", (double) pathBytes / rentals.size(), (double) pathBytes / steps);
+        console.printf("%-22s %16.1f %14.2f%n", "full simulation", (double) simulationBytes / rentals.size(), (double) simulationBytes / steps);
+    }
+
+    /**
+     * Pomocna metoda koja prolazi kroz putanje svih iznajmljivanja
+     * @param rentals - iznajmljivanja
+     * @param cursor - kursor koji se koristi za sve putanje
+     * @return vraca zbir svih pozicija (da JIT ne bi izbacio petlju)
+     */
+    private static long walk(List<Rental> rentals, PathCursor cursor) {
+        long sum = 0;
+        for (Rental rental : rentals) {
+            cursor.reset(rental.getStartX(), rental.getStartY(), rental.getEndX(), rental.getEndY());
+            while (cursor.hasNext()) {
+                int step = cursor.next();
+                sum += PathCursor.x(step) + PathCursor.y(step);
+            }
+        }
+        return sum;
+    }
+}
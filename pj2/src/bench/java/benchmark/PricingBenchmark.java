@@ -0,0 +1,160 @@
+package benchmark;
+
+import model.EBike;
+import model.ECar;
+import model.EScooter;
+import model.Vehicle;
+import pricing.PricingConfig;
+import pricing.PricingEngine;
+import pricing.PricingManager;
+import pricing.TariffTable;
+import pricing.ZoneMap;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Poredjenje racunanja cijena: dosadasnji nacin (lanac instanceof po vrsti vozila, promocija i faktor udaljenosti
+ * za svako iznajmljivanje posebno), tarifna tabela za svako iznajmljivanje posebno (kao Rental.calculateTotalPrice)
+ * i racunanje cijele grupe u jednom prolazu (PricingEngine.price, sa i bez racunanja polja tabele).
+ * Ispisuje se propusnost u milionima iznajmljivanja u sekundi; prije mjerenja se provjerava da svi nacini daju iste cijene.
+ * Pokretanje iz direktorijuma pj2 (zbog konfiguracije): benchmark.PricingBenchmark [brojIznajmljivanja]
+ */
+public class PricingBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+    private static final int ROUNDS = 10;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj iznajmljivanja
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        PricingConfig config = PricingManager.current();
+        TariffTable tariffs = PricingEngine.tariffs(config);
+        List<Vehicle> fleet = SyntheticData.generateFleet(VEHICLE_COUNT);
+
+        Vehicle[] vehicles = new Vehicle[count];
+        double[] durations = new double[count];
+        boolean[] wide = new boolean[count];
+        boolean[] promotions = new boolean[count];
+        boolean[] faults = new boolean[count];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < count; i++) {
+            vehicles[i] = fleet.get(random.nextInt(fleet.size()));
+            durations[i] = 1 + random.nextInt(20);
+            wide[i] = random.nextInt(3) != 0;
+            promotions[i] = random.nextInt(10) == 0;
+            faults[i] = random.nextInt(50) == 0;
+        }
+        int[] cells = new int[count];
+
+        double[] legacyTotal = new double[count];
+        double[] legacyBase = new double[count];
+        double[] singleTotal = new double[count];
+        double[] singleBase = new double[count];
+        double[] batchTotal = new double[count];
+        double[] batchBase = new double[count];
+        Runnable legacy = () -> {
+            for (int i = 0; i < count; i++) {
+                legacyPrice(config, vehicles[i], durations[i], wide[i], promotions[i], faults[i], legacyTotal, legacyBase, i);
+            }
+        };
+        Runnable single = () -> {
+            for (int i = 0; i < count; i++) {
+                int cell = faults[i] ? TariffTable.FAULT
+                        : TariffTable.cell(TariffTable.kindOf(vehicles[i]), zone(wide[i]), promotions[i], (i + 1) % 10 == 0);
+                singleBase[i] = tariffs.basePrice(cell, durations[i]);
+                singleTotal[i] = tariffs.totalPrice(cell, singleBase[i]);
+            }
+        };
+        Runnable batchPricing = () -> PricingEngine.price(tariffs, cells, durations, count, batchTotal, batchBase);
+        Runnable batch = () -> {
+            for (int i = 0; i < count; i++) {
+                cells[i] = faults[i] ? TariffTable.FAULT
+                        : TariffTable.cell(TariffTable.kindOf(vehicles[i]), zone(wide[i]), promotions[i], (i + 1) % 10 == 0);
+            }
+            batchPricing.run();
+        };
+
+        legacy.run();
+        single.run();
+        batch.run();
+        for (int i = 0; i < count; i++) {
+            if (legacyTotal[i] != singleTotal[i] || legacyTotal[i] != batchTotal[i]
+                    || legacyBase[i] != singleBase[i] || legacyBase[i] != batchBase[i]) {
+                throw new IllegalStateException("Price " + i + " differs");
+            }
+        }
+
+        System.out.printf("%d rentals, pricing version %d%n", count, config.version());
+        System.out.printf("%-28s %16s%n", "", "M rentals/s");
+        System.out.printf("%-28s %16.1f%n", "instanceof per rental", count / time(legacy) / 1e6);
+        System.out.printf("%-28s %16.1f%n", "tariff table per rental", count / time(single) / 1e6);
+        System.out.printf("%-28s %16.1f%n", "batch (cells + pricing)", count / time(batch) / 1e6);
+        System.out.printf("%-28s %16.1f%n", "batch pricing pass only", count / time(batchPricing) / 1e6);
+    }
+
+    /**
+     * Pomocna metoda koja racuna cijenu kao ranije Rental.calculateTotalPrice
+     * @param config - konfiguracija cijena
+     * @param vehicle - vozilo
+     * @param duration - trajanje u sekundama simulacije
+     * @param wide - da li je iznajmljivanje u sirem dijelu grada
+     * @param promotion - da li iznajmljivanje ima promociju
+     * @param fault - da li je vozilo pokvareno
+     * @param totalPrices - niz ukupnih cijena
+     * @param basePrices - niz osnovnih cijena
+     * @param i - indeks iznajmljivanja
+     */
+    private static void legacyPrice(PricingConfig config, Vehicle vehicle, double duration, boolean wide, boolean promotion,
+                                    boolean fault, double[] totalPrices, double[] basePrices, int i) {
+        if (fault) {
+            totalPrices[i] = 0;
+            basePrices[i] = 0;
+            return;
+        }
+        double unitPrice = 0;
+        if (vehicle instanceof ECar) {
+            unitPrice = config.carUnitPrice();
+        } else if (vehicle instanceof EBike) {
+            unitPrice = config.bikeUnitPrice();
+        } else if (vehicle instanceof EScooter) {
+            unitPrice = config.scooterUnitPrice();
+        }
+        if (promotion) {
+            unitPrice *= config.discountProm();
+        }
+        double distanceFactor = wide ? config.distanceWide() : config.distanceNarrow();
+        double realDurationInHours = (duration * 30 * 60);
+        totalPrices[i] = unitPrice * realDurationInHours * distanceFactor;
+        basePrices[i] = unitPrice * realDurationInHours;
+    }
+
+    /**
+     * Pomocna metoda koja vraca zonu voznje za podrazumijevani raster zona (jedna zona, uzi dio grada)
+     * @param wide - da li je iznajmljivanje u sirem dijelu grada
+     * @return vraca ZoneMap.OUTSIDE ili prvu zonu
+     */
+    private static int zone(boolean wide) {
+        return wide ? ZoneMap.OUTSIDE : 1;
+    }
+
+    /**
+     * Pomocna metoda koja mjeri najkrace od nekoliko izvrsavanja (nakon zagrijavanja)
+     * @param task - racunanje
+     * @return vraca trajanje u sekundama
+     */
+    private static double time(Runnable task) {
+        for (int i = 0; i < 3; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e9;
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import handler.CSVHandler;
+import model.VehicleRegistry;
+import rent.Rental;
+import rent.RentalTable;
+import rent.Results;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Poredjenje liste objekata Rental i kolonske tabele RentalTable: zauzece heap-a po iznajmljivanju
+ * i trajanje racunanja sumarnih i dnevnih rezultata poslovanja (tokovi nad listom i petlje nad nizovima tabele).
+ * Prije mjerenja se provjerava da oba nacina daju iste iznose.
+ * Pokretanje iz direktorijuma pj2: benchmark.RentalTableBenchmark [brojRedova]
+ */
+public class RentalTableBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj redova
+     * @throws Exception u slucaju greske prilikom ucitavanja
+     */
+    public static void main(String[] args) throws Exception {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        PrintStream console = System.out;
+        VehicleRegistry registry = new VehicleRegistry(SyntheticData.generateFleet(VEHICLE_COUNT));
+        Path file = Files.createTempFile("rentals", ".csv");
+        List<Rental> rentals;
+        long listBytes;
+        try {
+            SyntheticData.writeRentalsCsv(file, VEHICLE_COUNT, rowCount);
+            long before = usedHeap();
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                rentals = CSVHandler.loadRentals(file.toString(), registry);
+            } finally {
+                System.setOut(console);
+            }
+            listBytes = usedHeap() - before;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        long before = usedHeap();
+        RentalTable table = RentalTable.of(rentals);
+        long tableBytes = usedHeap() - before;
+
+        Results fromList = new Results();
+        fromList.calculateSummaryValues(rentals);
+        Results fromTable = new Results();
+        fromTable.calculateSummaryValues(table);
+        if (fromList.getTotalRevenue() != fromTable.getTotalRevenue() || fromList.getTotalPromo() != fromTable.getTotalPromo()
+                || fromList.getTotalNarrowIncome() != fromTable.getTotalNarrowIncome() || fromList.getRepairCost() != fromTable.getRepairCost()) {
+            throw new IllegalStateException("Summary differs");
+        }
+
+        console.printf("%d rentals%n", rentals.size());
+        console.printf("%-22s %14s %14s%n", "", "List<Rental>", "RentalTable");
+        console.printf("%-22s %14.1f %14.1f%n", "heap bytes/rental", (double) listBytes / rentals.size(), (double) tableBytes / table.size());
+        console.printf("%-22s %14.2f %14.2f%n", "summary ms", time(() -> new Results().calculateSummaryValues(rentals)),
+                time(() -> new Results().calculateSummaryValues(table)));
+        console.printf("%-22s %14.2f %14.2f%n", "daily ms", time(() -> new Results().calculateDailyValues(rentals)),
+                time(() -> new Results().calculateDailyValues(table)));
+    }
+
+    /**
+     * Racunanje koje se mjeri
+     */
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Pomocna metoda koja mjeri najkrace od nekoliko izvrsavanja (nakon jednog zagrijavanja)
+     * @param task - racunanje
+     * @return vraca trajanje u milisekundama
+     * @throws Exception u slucaju greske prilikom racunanja
+     */
+    private static double time(Task task) throws Exception {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    /**
+     * Pomocna metoda koja vraca zauzece heap-a nakon sakupljanja smeca
+     * @return vraca broj zauzetih bajtova
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,119 @@
+package benchmark;
+
+import rent.LoyaltyLedger;
+import rent.Rental;
+import rent.RentalTable;
+import rent.Results;
+import rent.ResultsAccumulator;
+
+import java.util.List;
+
+/**
+ * Mjerenje racunanja rezultata poslovanja nad listom iznajmljivanja: dosadasnji nacin (poseban tok za svaki iznos),
+ * jedan prolaz kroz listu (ResultsAccumulator), paralelni tok sa spajanjem djelimicnih rezultata (collector)
+ * i paralelno sabiranje po blokovima (ResultsAccumulator.of, koje koristi Results.calculateSummaryValues).
+ * Prije mjerenja se provjerava da lista i tabela iznajmljivanja daju iste sumarne i dnevne iznose.
+ * Pokretanje iz direktorijuma pj2 (zbog konfiguracije): benchmark.ResultsAccumulatorBenchmark [brojGrupa]
+ * (svaka grupa ima 1000 iznajmljivanja, podrazumijevano 1000 grupa, tj. milion iznajmljivanja)
+ */
+public class ResultsAccumulatorBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj grupa iznajmljivanja
+     * @throws Exception u slucaju greske prilikom racunanja
+     */
+    public static void main(String[] args) throws Exception {
+        int groupCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        List<Rental> rentals = SyntheticData.generateRentals(VEHICLE_COUNT, groupCount, 20);
+        Rental.calculateTotalPrices(rentals);
+        RentalTable table = RentalTable.of(rentals);
+
+        Results fromList = new Results();
+        fromList.calculateSummaryValues(rentals);
+        Results fromTable = new Results();
+        fromTable.calculateSummaryValues(table);
+        if (!same(fromList, fromTable)) {
+            throw new IllegalStateException("Summary differs");
+        }
+        List<Results> dailyFromTable = new Results().calculateDailyValues(table);
+        List<Results> dailyFromList = new Results().calculateDailyValues(rentals);
+        if (dailyFromList.size() != dailyFromTable.size()) {
+            throw new IllegalStateException("Daily report count differs");
+        }
+        for (int i = 0; i < dailyFromList.size(); i++) {
+            if (!dailyFromList.get(i).getResultDate().equals(dailyFromTable.get(i).getResultDate())
+                    || !same(dailyFromList.get(i), dailyFromTable.get(i))) {
+                throw new IllegalStateException("Daily report " + dailyFromList.get(i).getResultDate() + " differs");
+            }
+        }
+
+        System.out.printf("%d rentals, %d days, %d threads%n", rentals.size(), dailyFromList.size(),
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-32s %10s%n", "", "ms");
+        System.out.printf("%-32s %10.2f%n", "stream per metric (summary)", time(() -> streamPerMetric(rentals)));
+        System.out.printf("%-32s %10.2f%n", "one pass (summary + daily)", time(() -> {
+            ResultsAccumulator accumulator = new ResultsAccumulator();
+            rentals.forEach(accumulator::add);
+        }));
+        System.out.printf("%-32s %10.2f%n", "parallel stream collector", time(() -> rentals.parallelStream()
+                .collect(ResultsAccumulator.collector())));
+        System.out.printf("%-32s %10.2f%n", "parallel chunks (of)", time(() -> ResultsAccumulator.of(rentals)));
+    }
+
+    /**
+     * Pomocna metoda koja racuna sumarne iznose kao ranije Results.calculateSummaryValues (poseban tok za svaki iznos,
+     * sa uproscenim formulama promocije i troska popravke)
+     * @param rentals - lista iznajmljivanja
+     * @return vraca zbir iznosa (da racunanje ne bi bilo izostavljeno)
+     */
+    private static double streamPerMetric(List<Rental> rentals) {
+        double revenue = rentals.stream().mapToDouble(Rental::getTotalPrice).sum();
+        double narrow = rentals.stream().filter(Rental::isNarrow).mapToDouble(Rental::getTotalPrice).sum();
+        double wide = rentals.stream().filter(r -> !r.isNarrow()).mapToDouble(Rental::getTotalPrice).sum();
+        double discount = rentals.stream().filter(r -> LoyaltyLedger.isDiscounted(r.getRentCount()))
+                .mapToDouble(r -> r.getBasePrice() - r.getBasePrice() * 0.1).sum();
+        double promo = rentals.stream().filter(r -> r.getPromotion().equalsIgnoreCase("yes"))
+                .mapToDouble(r -> r.getBasePrice() - r.getBasePrice() * 0.15).sum();
+        double repair = rentals.stream().filter(Rental::isFaulty).mapToDouble(r -> 0.07 * r.getVehicle().getPrice()).sum();
+        return revenue + narrow + wide + discount + promo + repair;
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da li dva izvjestaja imaju iste iznose
+     * @param first - prvi izvjestaj
+     * @param second - drugi izvjestaj
+     * @return vraca true ako su svi iznosi jednaki
+     */
+    private static boolean same(Results first, Results second) {
+        return first.getTotalRevenue() == second.getTotalRevenue() && first.getTotalDiscount() == second.getTotalDiscount()
+                && first.getTotalPromo() == second.getTotalPromo() && first.getTotalNarrowIncome() == second.getTotalNarrowIncome()
+                && first.getTotalWideIncome() == second.getTotalWideIncome() && first.getRepairCost() == second.getRepairCost();
+    }
+
+    /**
+     * Racunanje koje se mjeri
+     */
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Pomocna metoda koja mjeri najkrace od nekoliko izvrsavanja (nakon jednog zagrijavanja)
+     * @param task - racunanje
+     * @return vraca trajanje u milisekundama
+     * @throws Exception u slucaju greske prilikom racunanja
+     */
+    private static double time(Task task) throws Exception {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
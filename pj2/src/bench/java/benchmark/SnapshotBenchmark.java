@@ -0,0 +1,115 @@
+package benchmark;
+
+import handler.CSVHandler;
+import handler.SnapshotHandler;
+import model.VehicleRegistry;
+import rent.Rental;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Poredjenje ucitavanja pri pokretanju: parsiranje CSV fajlova vozila i iznajmljivanja (CSVHandler)
+ * i ucitavanje binarnog snapshot-a (SnapshotHandler, ukljucujuci provjeru velicine, vremena izmjene i hesa fajlova).
+ * Prije mjerenja se provjerava da snapshot daje ista iznajmljivanja kao parsiranje.
+ * Pokretanje iz direktorijuma pj2 (zbog konfiguracije): benchmark.SnapshotBenchmark [brojRedova]
+ */
+public class SnapshotBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj redova
+     * @throws Exception u slucaju greske prilikom ucitavanja
+     */
+    public static void main(String[] args) throws Exception {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        PrintStream console = System.out;
+        Path directory = Files.createTempDirectory("snapshot");
+        Path vehiclesFile = directory.resolve("vozila.csv");
+        Path rentalsFile = directory.resolve("iznajmljivanja.csv");
+        Path snapshotFile = directory.resolve("snapshot.bin");
+        try {
+            SyntheticData.writeVehiclesCsv(vehiclesFile, VEHICLE_COUNT);
+            SyntheticData.writeRentalsCsv(rentalsFile, VEHICLE_COUNT, rowCount);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            SnapshotHandler.Snapshot parsed;
+            SnapshotHandler.Snapshot loaded;
+            try {
+                parsed = SnapshotHandler.load(vehiclesFile.toString(), rentalsFile.toString(), snapshotFile.toString());
+                loaded = SnapshotHandler.load(vehiclesFile.toString(), rentalsFile.toString(), snapshotFile.toString());
+            } finally {
+                System.setOut(console);
+            }
+            verify(parsed.rentals(), loaded.rentals());
+
+            console.printf("%d rows, snapshot %d bytes%n", rowCount, Files.size(snapshotFile));
+            console.printf("%-22s %12s%n", "startup", "ms");
+            console.printf("%-22s %12.1f%n", "parse CSV", time(() -> {
+                VehicleRegistry registry = new VehicleRegistry(CSVHandler.loadVehicles(vehiclesFile.toString()));
+                CSVHandler.loadRentals(rentalsFile.toString(), registry);
+            }));
+            console.printf("%-22s %12.1f%n", "load snapshot", time(() ->
+                    SnapshotHandler.load(vehiclesFile.toString(), rentalsFile.toString(), snapshotFile.toString())));
+        } finally {
+            System.setOut(console);
+            for (Path file : List.of(vehiclesFile, rentalsFile, snapshotFile, directory)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Ucitavanje koje se mjeri
+     */
+    private interface Load {
+        void run() throws Exception;
+    }
+
+    /**
+     * Pomocna metoda koja mjeri najkrace od tri ucitavanja (ispis na konzolu je iskljucen)
+     * @param load - ucitavanje
+     * @return vraca trajanje u milisekundama
+     * @throws Exception u slucaju greske prilikom ucitavanja
+     */
+    private static double time(Load load) throws Exception {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                long start = System.nanoTime();
+                load.run();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            return best / 1e6;
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da snapshot daje ista iznajmljivanja kao parsiranje (redni brojevi se porede
+     * relativno, jer brojac iznajmljivanja raste kroz oba ucitavanja)
+     * @param expected - parsirana iznajmljivanja
+     * @param actual - iznajmljivanja iz snapshot-a
+     */
+    private static void verify(List<Rental> expected, List<Rental> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("Rental count differs: " + expected.size() + " vs " + actual.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Rental e = expected.get(i);
+            Rental a = actual.get(i);
+            if (!e.getStartTime().equals(a.getStartTime()) || !e.getEndTime().equals(a.getEndTime())
+                    || !e.getVehicle().getId().equals(a.getVehicle().getId()) || !e.getUserId().equals(a.getUserId())
+                    || e.getTotalPrice() != a.getTotalPrice() || e.getBasePrice() != a.getBasePrice()
+                    || e.getRentCount() != a.getRentCount()) {
+                throw new IllegalStateException("Rental " + i + " differs");
+            }
+        }
+    }
+}
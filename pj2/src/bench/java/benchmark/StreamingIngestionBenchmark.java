@@ -0,0 +1,114 @@
+package benchmark;
+
+import handler.CSVHandler;
+import handler.ReceiptHandler;
+import handler.RentalStream;
+import main.SimulationManager;
+import model.Vehicle;
+import model.VehicleRegistry;
+import rent.Rental;
+import rent.SimulationClock;
+import rent.SimulationListener;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mjerenje zauzeca memorije (heap nakon GC-a) prilikom ucitavanja iznajmljivanja za fajlove razlicite velicine.
+ * Poredi ucitavanje cijelog fajla u listu (loadRentals i groupRentalsByTime) sa tokom (RentalStream)
+ * koji se simulira kroz ograniceni prozor (simulateStream). Kod toka se heap mjeri tokom cijele simulacije,
+ * svakih SAMPLE_EVERY iznajmljivanja, i prijavljuje se najveca izmjerena vrijednost.
+ * Pokretanje iz direktorijuma pj2: benchmark.StreamingIngestionBenchmark [brojRedova ...]
+ */
+public class StreamingIngestionBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+    private static final int RUN_SIZE = 10_000;
+    private static final int WINDOW = 1024;
+    private static final int SAMPLE_EVERY = 5_000;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj redova za svaki generisani fajl
+     * @throws Exception u slucaju greske prilikom ucitavanja ili simulacije
+     */
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{25_000, 50_000, 100_000};
+
+        PrintStream console = System.out;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ReceiptHandler.setWriteToFile(false);
+        SimulationManager.setSeed(42L);
+        List<Vehicle> fleet = SyntheticData.generateFleet(VEHICLE_COUNT);
+
+        console.printf("%10s %16s %18s %12s%n", "rows", "list heap MB", "stream peak MB", "spilled runs");
+        for (int size : sizes) {
+            Path file = Files.createTempFile("rentals", ".csv");
+            try {
+                SyntheticData.writeRentalsCsv(file, VEHICLE_COUNT, size);
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                long listHeap;
+                long streamPeak;
+                int spilledRuns;
+                try {
+                    // Cijeli fajl u listi i u mapi grupa
+                    List<Rental> rentals = CSVHandler.loadRentals(file.toString(), fleet);
+                    Map<LocalDateTime, List<Rental>> grouped = SimulationManager.groupRentalsByTime(rentals);
+                    listHeap = usedHeap(memory);
+                    rentals = null;
+                    grouped = null;
+
+                    // Tok kroz ograniceni prozor, heap se mjeri tokom simulacije
+                    long[] peak = {usedHeap(memory)};
+                    try (RentalStream stream = RentalStream.open(file, new VehicleRegistry(fleet), RUN_SIZE)) {
+                        spilledRuns = stream.getSpilledRuns();
+                        Iterator<Rental> sampled = new Iterator<>() {
+                            private long count = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return stream.hasNext();
+                            }
+
+                            @Override
+                            public Rental next() {
+                                if (++count % SAMPLE_EVERY == 0) {
+                                    peak[0] = Math.max(peak[0], usedHeap(memory));
+                                }
+                                return stream.next();
+                            }
+                        };
+                        SimulationManager.simulateStream(sampled, fleet, new SimulationListener() {
+                        }, SimulationClock.fullSpeed(), WINDOW);
+                    }
+                    streamPeak = peak[0];
+                } finally {
+                    System.setOut(console);
+                }
+                console.printf("%10d %16.1f %18.1f %12d%n", size, listHeap / 1e6, streamPeak / 1e6, spilledRuns);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Pomocna metoda koja vraca zauzeti heap nakon GC-a (priblizno memorija zivih objekata)
+     * @param memory - MXBean za memoriju
+     * @return vraca zauzeti heap u bajtovima
+     */
+    private static long usedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import model.EScooter;
+import model.Vehicle;
+import rent.LoyaltyLedger;
+import rent.Rental;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Klasa SyntheticData generise sinteticke podatke za mjerenja: flotu trotineta i grupe iznajmljivanja
+ * na mrezi 20x20, u kojima je svako vozilo iznajmljeno jednom po grupi, ili CSV fajl iznajmljivanja proizvoljne velicine
+ * Generator je uvijek isti (seed 42), pa sva mjerenja rade nad istim podacima
+ */
+class SyntheticData {
+
+    /**
+     * Metoda koja generise sinteticka iznajmljivanja trotineta na mrezi 20x20
+     * @param vehicleCount - broj vozila
+     * @param groupCount - broj vremenskih grupa
+     * @param maxDuration - najduze trajanje iznajmljivanja u sekundama simulacije (1 za real-time mjerenja)
+     * @return vraca listu iznajmljivanja
+     */
+    static List<Rental> generateRentals(int vehicleCount, int groupCount, int maxDuration) {
+        Random random = new Random(42);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm");
+        LocalDateTime base = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+        List<Vehicle> vehicles = generateFleet(vehicleCount);
+
+        List<Rental> rentals = new ArrayList<>();
+        for (int group = 0; group < groupCount; group++) {
+            String date = base.plusMinutes(30L * group).format(formatter);
+            for (Vehicle vehicle : vehicles) {
+                String start = random.nextInt(20) + "," + random.nextInt(20);
+                String end = random.nextInt(20) + "," + random.nextInt(20);
+                int duration = 1 + random.nextInt(maxDuration);
+                rentals.add(new Rental(date, "K" + (1 + random.nextInt(5)), vehicle, start, end, duration, "ne", "ne"));
+            }
+        }
+        new LoyaltyLedger().assign(rentals);
+        return rentals;
+    }
+
+    /**
+     * Metoda koja generise flotu trotineta sa identifikatorima S0, S1, ...
+     * @param vehicleCount - broj vozila
+     * @return vraca listu vozila
+     */
+    static List<Vehicle> generateFleet(int vehicleCount) {
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < vehicleCount; i++) {
+            vehicles.add(new EScooter("S" + i, "T", "TM1", 500, 30));
+        }
+        return vehicles;
+    }
+
+    /**
+     * Metoda koja upisuje CSV fajl vozila (u formatu vozila.csv) sa flotom trotineta S0, S1, ...
+     * @param file - putanja fajla
+     * @param vehicleCount - broj vozila
+     * @throws IOException ako fajl ne moze da se upise
+     */
+    static void writeVehiclesCsv(Path file, int vehicleCount) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("ID,Proizvodjac,Model,Datum nabavke,Cijena,Domet,Max Brzina,Opis,Vrsta");
+            writer.newLine();
+            for (int i = 0; i < vehicleCount; i++) {
+                writer.write("S" + i + ",T,TM1,,500,,30,,trotinet");
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Metoda koja upisuje CSV fajl iznajmljivanja (u formatu iznajmljivanja.csv) sa nasumicnim vremenima pocetka
+     * tokom 30 dana, koja nisu poredana po vremenu
+     * @param file - putanja fajla
+     * @param vehicleCount - broj vozila (S0 .. S(vehicleCount-1))
+     * @param rowCount - broj redova
+     * @throws IOException ako fajl ne moze da se upise
+     */
+    static void writeRentalsCsv(Path file, int vehicleCount, int rowCount) throws IOException {
+        Random random = new Random(42);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm");
+        LocalDateTime base = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("Datum,Korisnik,ID prevoznog sredstva,Pocetna lokacija,Odrediste,Trajanje,Kvar,Promocija");
+            writer.newLine();
+            for (int i = 0; i < rowCount; i++) {
+                String date = base.plusMinutes(random.nextInt(30 * 24 * 60)).format(formatter);
+                writer.write(date + ",K" + (1 + random.nextInt(5)) + ",S" + random.nextInt(vehicleCount)
+                        + ",\"" + random.nextInt(20) + "," + random.nextInt(20) + "\",\"" + random.nextInt(20) + "," + random.nextInt(20)
+                        + "\"," + (1 + random.nextInt(5)) + ",ne," + (random.nextInt(10) == 0 ? "da" : "ne"));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package benchmark;
+
+import handler.CsvTokenizer;
+import model.Vehicle;
+import model.VehicleRegistry;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Poredjenje trazenja vozila po identifikatoru za svaki red fajla iznajmljivanja: linearni prolaz kroz listu
+ * sa equalsIgnoreCase (ranije u CSVHandler.loadRentals) i VehicleRegistry (hes po identifikatoru), za flote razlicite velicine.
+ * Mjeri se samo trazenje (identifikatori su vec izdvojeni iz redova), da ga ne bi prekrilo pravljenje objekata Rental.
+ * Pokretanje iz direktorijuma pj2: benchmark.VehicleLookupBenchmark [brojRedova]
+ */
+public class VehicleLookupBenchmark {
+    private static final int[] FLEET_SIZES = {1_000, 10_000, 100_000};
+    private static final int LINEAR_ROWS = 10_000; // Linearni prolaz je spor, pa se mjeri na manjem broju redova
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj redova (podrazumijevano milion)
+     * @throws Exception u slucaju greske prilikom generisanja fajla
+     */
+    public static void main(String[] args) throws Exception {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.printf("%10s %16s %18s%n", "fleet", "linear ns/row", "registry ns/row");
+        for (int fleetSize : FLEET_SIZES) {
+            List<Vehicle> fleet = SyntheticData.generateFleet(fleetSize);
+            List<String> ids = readVehicleIds(fleetSize, rowCount);
+            List<String> linearIds = ids.subList(0, Math.min(LINEAR_ROWS, ids.size()));
+
+            long checksum = linear(fleet, linearIds); // zagrijavanje
+            long start = System.nanoTime();
+            checksum += linear(fleet, linearIds);
+            double linearNanos = (double) (System.nanoTime() - start) / linearIds.size();
+
+            VehicleRegistry registry = new VehicleRegistry(fleet);
+            checksum += hashed(registry, ids);
+            start = System.nanoTime();
+            checksum += hashed(registry, ids);
+            double registryNanos = (double) (System.nanoTime() - start) / ids.size();
+
+            System.out.printf("%10d %16.1f %18.1f   (checksum %d)%n", fleetSize, linearNanos, registryNanos, checksum);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja generise fajl iznajmljivanja i izdvaja identifikatore vozila iz svih redova
+     * @param fleetSize - broj vozila
+     * @param rowCount - broj redova
+     * @return vraca identifikatore vozila, po jedan za svaki red
+     * @throws Exception u slucaju greske prilikom generisanja fajla
+     */
+    private static List<String> readVehicleIds(int fleetSize, int rowCount) throws Exception {
+        Path file = Files.createTempFile("rentals", ".csv");
+        try {
+            SyntheticData.writeRentalsCsv(file, fleetSize, rowCount);
+            List<String> ids = new ArrayList<>(rowCount);
+            CsvTokenizer tokenizer = new CsvTokenizer();
+            try (var lines = Files.lines(file)) {
+                lines.skip(1).forEach(line -> {
+                    tokenizer.tokenize(line);
+                    ids.add(tokenizer.get(2).toLowerCase()); // mala slova, da se provjeri i poredjenje bez obzira na slova
+                });
+            }
+            return ids;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja trazi vozila linearnim prolazom kroz listu
+     * @param fleet - lista vozila
+     * @param ids - identifikatori
+     * @return vraca kontrolni zbir (da JIT ne bi izbacio petlju)
+     */
+    private static long linear(List<Vehicle> fleet, List<String> ids) {
+        long sum = 0;
+        for (String id : ids) {
+            for (Vehicle vehicle : fleet) {
+                if (vehicle.getId().equalsIgnoreCase(id)) {
+                    sum += vehicle.getId().length();
+                    break;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Pomocna metoda koja trazi vozila u registru
+     * @param registry - registar vozila
+     * @param ids - identifikatori
+     * @return vraca kontrolni zbir (da JIT ne bi izbacio petlju)
+     */
+    private static long hashed(VehicleRegistry registry, List<String> ids) {
+        long sum = 0;
+        for (String id : ids) {
+            Vehicle vehicle = registry.get(id);
+            if (vehicle != null) {
+                sum += vehicle.getId().length();
+            }
+        }
+        return sum;
+    }
+}
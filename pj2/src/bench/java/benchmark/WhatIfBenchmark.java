@@ -0,0 +1,83 @@
+package benchmark;
+
+import pricing.PricingConfig;
+import pricing.PricingManager;
+import pricing.TariffTable;
+import rent.Rental;
+import rent.RentalTable;
+import rent.Results;
+import rent.WhatIfResults;
+
+import java.util.List;
+
+/**
+ * Mjerenje analize "sta ako" (WhatIfResults): ponovno obracunavanje cijele istorije iznajmljivanja drugom
+ * konfiguracijom cijena (paralelno, RentalTable.repriced) i racunanje sumarnih i dnevnih izvjestaja za poredjenje.
+ * Prije mjerenja se provjerava da obracun trenutnom konfiguracijom daje iste cijene kao simulacija.
+ * Pokretanje iz direktorijuma pj2 (zbog konfiguracije): benchmark.WhatIfBenchmark [brojGrupa]
+ * (svaka grupa ima 1000 iznajmljivanja, podrazumijevano 1000 grupa, tj. milion iznajmljivanja)
+ */
+public class WhatIfBenchmark {
+    private static final int VEHICLE_COUNT = 1000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * main metoda koja pokrece mjerenje i ispisuje rezultate
+     * @param args - broj grupa iznajmljivanja
+     * @throws Exception u slucaju greske prilikom racunanja
+     */
+    public static void main(String[] args) throws Exception {
+        int groupCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        List<Rental> rentals = SyntheticData.generateRentals(VEHICLE_COUNT, groupCount, 20);
+        Rental.calculateTotalPrices(rentals);
+        RentalTable table = RentalTable.of(rentals);
+
+        PricingConfig current = PricingManager.current();
+        RentalTable same = table.repriced(new TariffTable(current));
+        for (int row = 0; row < table.size(); row++) {
+            if (same.getTotalPrice(row) != table.getTotalPrice(row) || same.getBasePrice(row) != table.getBasePrice(row)) {
+                throw new IllegalStateException("Price " + row + " differs");
+            }
+        }
+
+        PricingConfig alternative = new PricingConfig(0, current.carUnitPrice(), current.bikeUnitPrice(),
+                current.scooterUnitPrice(), current.distanceNarrow(), 1.3, current.discount(), 0.20, current.zones());
+        WhatIfResults results = WhatIfResults.compare(table, alternative);
+
+        System.out.printf("%d rentals, %d days, %d threads%n", table.size(), results.getBaselineDaily().size(),
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-28s %14.2f%n", "baseline revenue", results.getBaselineSummary().getTotalRevenue());
+        System.out.printf("%-28s %14.2f%n", "what-if revenue", results.getAlternativeSummary().getTotalRevenue());
+        System.out.printf("%-28s %14.2f%n", "reprice ms", time(() -> table.repriced(new TariffTable(alternative))));
+        System.out.printf("%-28s %14.2f%n", "reprice + reports ms", time(() -> WhatIfResults.compare(table, alternative)));
+        System.out.printf("%-28s %14.2f%n", "reports only ms", time(() -> {
+            Results summary = new Results();
+            summary.calculateDailyValues(table);
+            summary.calculateSummaryValues(table);
+        }));
+    }
+
+    /**
+     * Racunanje koje se mjeri
+     */
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Pomocna metoda koja mjeri najkrace od nekoliko izvrsavanja (nakon jednog zagrijavanja)
+     * @param task - racunanje
+     * @return vraca trajanje u milisekundama
+     * @throws Exception u slucaju greske prilikom racunanja
+     */
+    private static double time(Task task) throws Exception {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
@@ -1,6 +1,8 @@
 package gui;
 
-import handler.CSVHandler;
+import handler.SnapshotHandler;
+import handler.PropertiesHandler;
+import handler.RentalTail;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -10,8 +12,17 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import model.Constants;
 import model.Vehicle;
+import model.VehicleRegistry;
+import pricing.PricingManager;
+import pricing.ZoneMap;
+import rent.LiveResults;
 import rent.Rental;
+import rent.RentalInbox;
+import rent.RentalTable;
 import main.SimulationManager;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
@@ -19,19 +30,25 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import rent.Results;
+import rent.SimulationClock;
+import rent.SimulationListener;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Klasa koja predstavlja glavni kontroler GUI-ja
  * Upravljace simulacijom uglavnom i sluzice kao prozor za biranje drugih opcija u GUI-ju
+ * Implementira SimulationListener, preko kojeg simulacija javlja pozicije vozila i rezultate poslovanja
  */
-public class MainController {
+public class MainController implements SimulationListener {
 
     private VehiclesController vehiclesController;
     private ResultsController resultsController;
@@ -63,15 +80,47 @@ public class MainController {
     @FXML
     private Button bestButton;
 
+    @FXML
+    private ComboBox<String> speedBox;
+
+    @FXML
+    private Button pauseButton;
+
+    @FXML
+    private CheckBox tailBox;
+
     // relativne putanje
     private static final String VEHICLES_FILE_PATH = "src/main/java/resources/vozila.csv";
     private static final String RENTALS_FILE_PATH = "src/main/java/resources/iznajmljivanja.csv";
+    private static final String SNAPSHOT_FILE_PATH = "src/main/java/resources/cache/snapshot.bin";
+
+    private static final String CONFIG_FILE_PATH = "src/main/java/resources/config.properties";
+
+    // Ponudjene brzine simulacije (sekundi simulacije po stvarnoj sekundi), "Max" znaci bez cekanja
+    private static final Map<String, Double> SPEEDS = new LinkedHashMap<>();
+    static {
+        SPEEDS.put("1x", 1.0);
+        SPEEDS.put("2x", 2.0);
+        SPEEDS.put("5x", 5.0);
+        SPEEDS.put("10x", 10.0);
+        SPEEDS.put("100x", 100.0);
+        SPEEDS.put("Max", Double.POSITIVE_INFINITY);
+    }
 
-    public static final int GRID_SIZE = 20; // 20x20 grid
+    public static final int GRID_SIZE = Constants.GRID_SIZE; // 20x20 grid
     public static final int CELL_SIZE = 30;
+    private static final Color[] ZONE_COLORS = {Color.WHITE, Color.LIGHTBLUE, Color.LIGHTGREEN, Color.LIGHTYELLOW,
+            Color.LIGHTPINK, Color.LAVENDER, Color.LIGHTSALMON, Color.LIGHTCYAN, Color.WHEAT}; // Boja po zoni (ZoneMap)
 
     private static List<Vehicle> vehicles;
+    private static VehicleRegistry vehicleRegistry; // Hes indeks vozila po identifikatoru (za azuriranje pozicija)
     private List<Rental> rentals;
+    private RentalTable rentalTable; // Tabela ucitanih iznajmljivanja (za rezultate poslovanja)
+    private long rentalsFileSize; // Velicina fajla iznajmljivanja prije ucitavanja, odatle krece pracenje fajla
+    private RentalTail rentalTail; // Pracenje fajla iznajmljivanja tokom simulacije (null ako se fajl ne prati)
+
+    private SimulationClock simulationClock;
+    private volatile LiveResults liveResults; // Rezultati poslovanja simulacije koja je u toku
 
     private Map<String, Rectangle> vehicleRectangles = new HashMap<>();
     private Map<String, Label> vehicleLabels = new HashMap<>(); // Mapa za čuvanje Label-ova
@@ -84,8 +133,18 @@ public class MainController {
     public void initialize() throws IOException {
         resultsButton.setVisible(false);
         bestButton.setVisible(false);
-        vehicles = CSVHandler.loadVehicles(VEHICLES_FILE_PATH);
-        rentals = CSVHandler.loadRentals(RENTALS_FILE_PATH, vehicles);
+        initializeSpeedBox();
+        try {
+            rentalsFileSize = Files.size(Path.of(RENTALS_FILE_PATH)); // Redovi dopisani tokom ucitavanja ce se procitati ponovo
+        } catch (IOException e) {
+            rentalsFileSize = 0;
+        }
+        // Flota i iznajmljivanja se ucitavaju iz snapshot-a, a CSV fajlovi se parsiraju samo ako su se promijenili
+        SnapshotHandler.Snapshot snapshot = SnapshotHandler.load(VEHICLES_FILE_PATH, RENTALS_FILE_PATH, SNAPSHOT_FILE_PATH);
+        vehicles = snapshot.vehicles();
+        vehicleRegistry = snapshot.registry();
+        rentals = snapshot.rentals();
+        rentalTable = snapshot.table();
 
         if (vehicles.isEmpty()) {
             System.out.println("No vehicles loaded!");
@@ -121,24 +180,65 @@ public class MainController {
      * Metoda koja zapocinje samu simulaciju
      * Povezana je sa dugmetom "Start simulation"
      * Inicijalizuje mrezu, pokrece niti i samu metodu runSimulations
+     * Ako je izabrano pracenje fajla (Live tail), u simulaciju ulaze i redovi dopisani u fajl iznajmljivanja,
+     * a ponovni klik na dugme zaustavlja pracenje (simulacija zatim zavrsava preostala iznajmljivanja)
      */
     @FXML
     protected void onStartSimulationClick() {
-        startButton.setText("Simulating...");
+        if (rentalTail != null) {
+            stopTail();
+            return;
+        }
 
-        resultsButton.setVisible(false);
+        RentalInbox inbox = null;
+        if (tailBox.isSelected()) {
+            inbox = new RentalInbox();
+            try {
+                rentalTail = RentalTail.file(Path.of(RENTALS_FILE_PATH), rentalsFileSize, vehicleRegistry, rentals, inbox);
+            } catch (IOException e) {
+                System.err.println("Failed to watch rentals file: " + e.getMessage());
+                inbox = null;
+            }
+        }
+        RentalInbox liveInbox = inbox;
+        tailBox.setDisable(true);
+
+        startButton.setText(liveInbox != null ? "Stop tailing" : "Simulating...");
+
+        // Rezultati poslovanja se prikazuju i tokom simulacije, sabiraju se kako se iznajmljivanja zavrsavaju
+        resultsButton.setVisible(true);
         bestButton.setVisible(false);
+        LiveResults previous = liveResults;
+        if (previous != null) {
+            previous.close();
+        }
+        LiveResults live = new LiveResults();
+        liveResults = live;
+        if (resultsController != null) {
+            resultsController.watch(live);
+        } else {
+            System.err.println("ResultsController instance not available, results are shown after the simulation.");
+        }
 
         // Prikazivanje mreze
         welcomeText.setText("Java City");
         gridWithLabels.setVisible(true);
         initializeGrid();
 
+        // Sat simulacije, preko kojeg se tokom simulacije mijenja brzina i pauzira simulacija
+        simulationClock = new SimulationClock(SPEEDS.get(speedBox.getValue()));
+        pauseButton.setText("Pause");
+        pauseButton.setDisable(false);
+
         // Pokretanje simulacije u posebnoj niti
         new Thread(() -> {
             Map<LocalDateTime, List<Rental>> groupedRentals = SimulationManager.groupRentalsByTime(rentals);
             try {
-                SimulationManager.runSimulations(groupedRentals, this);
+                if (liveInbox != null) {
+                    SimulationManager.simulateLive(rentals, liveInbox, vehicles, this, simulationClock);
+                } else {
+                    SimulationManager.runSimulations(groupedRentals, rentalTable, vehicles, this, simulationClock);
+                }
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -146,6 +246,8 @@ public class MainController {
             // Kada simulacija zavrsi, azuriramo gui i dodajemo dugmad za rezultate i dodatnu funkcionalnost
             Platform.runLater(() -> {
                 startButton.setText("Simulation Finished");
+                pauseButton.setDisable(true);
+                tailBox.setDisable(false);
 
                 resultsButton.setVisible(true);
                 bestButton.setVisible(true);
@@ -158,6 +260,75 @@ public class MainController {
         }).start();
     }
 
+    /**
+     * Metoda koja zaustavlja pracenje fajla iznajmljivanja (u posebnoj niti, jer se ceka da nit pracenja procita
+     * ono sto je do tada dopisano)
+     */
+    private void stopTail() {
+        RentalTail tail = rentalTail;
+        rentalTail = null;
+        startButton.setText("Simulating...");
+        new Thread(() -> {
+            try {
+                tail.close();
+            } catch (IOException e) {
+                System.err.println("Failed to stop tailing: " + e.getMessage());
+            }
+        }, "tail-stop").start();
+    }
+
+    /**
+     * Metoda koja popunjava izbor brzine simulacije, pocetna brzina se cita iz config.properties
+     */
+    private void initializeSpeedBox() {
+        speedBox.setItems(FXCollections.observableArrayList(SPEEDS.keySet()));
+        double configuredSpeed = 1.0;
+        try {
+            configuredSpeed = new PropertiesHandler(CONFIG_FILE_PATH).getSimulationSpeed();
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Failed to read simulation speed: " + e.getMessage());
+        }
+        double speed = configuredSpeed > 0 ? configuredSpeed : Double.POSITIVE_INFINITY;
+
+        // Biramo ponudjenu brzinu najblizu onoj iz konfiguracije
+        String selected = "1x";
+        for (Map.Entry<String, Double> entry : SPEEDS.entrySet()) {
+            if (entry.getValue() <= speed) {
+                selected = entry.getKey();
+            }
+        }
+        speedBox.setValue(selected);
+    }
+
+    /**
+     * Metoda koja mijenja brzinu simulacije koja je u toku
+     * Povezana je sa izborom brzine
+     */
+    @FXML
+    private void onSpeedChange() {
+        if (simulationClock != null) {
+            simulationClock.setSpeed(SPEEDS.get(speedBox.getValue()));
+        }
+    }
+
+    /**
+     * Metoda koja pauzira, odnosno nastavlja simulaciju
+     * Povezana je sa dugmetom "Pause"/"Resume"
+     */
+    @FXML
+    private void onPauseClick() {
+        if (simulationClock == null) {
+            return;
+        }
+        if (simulationClock.isPaused()) {
+            simulationClock.resume();
+            pauseButton.setText("Pause");
+        } else {
+            simulationClock.pause();
+            pauseButton.setText("Resume");
+        }
+    }
+
     /**
      * Metoda za kreiranje 20x20 mreze
      */
@@ -174,17 +345,13 @@ public class MainController {
             gridWithLabels.add(rowLabel, 0, i + 1);
         }
 
-        // dodajemo 20x20 mrezu
+        // dodajemo 20x20 mrezu, polja se boje prema rasteru zona iz konfiguracije (isti raster se koristi za cijene)
+        ZoneMap zones = PricingManager.current().zones();
         for (int row = 0; row < GRID_SIZE; row++) {
             for (int col = 0; col < GRID_SIZE; col++) {
                 Rectangle cell = new Rectangle(CELL_SIZE, CELL_SIZE);
 
-
-                if (row >= 5 && row < 15 && col >= 5 && col < 15) {
-                    cell.setFill(Color.LIGHTBLUE); // Uzi dio grada
-                } else {
-                    cell.setFill(Color.WHITE); // Siri dio grada
-                }
+                cell.setFill(ZONE_COLORS[zones.zoneOf(row, col)]); // Bijelo je siri dio grada, prva zona (uzi dio) svijetloplava
 
                 cell.setStroke(Color.BLACK);
                 gridWithLabels.add(cell, col + 1, row + 1);
@@ -247,6 +414,84 @@ public class MainController {
         });
     }
 
+    /**
+     * Metoda koju poziva simulacija kada se vozilo pomjeri, prosljedjuje poziv metodi updateVehiclePosition
+     * @param vehicleId - identifikator vozila
+     * @param x - trenutna x koordinata
+     * @param y - trenutna y koordinata
+     * @param endX - x koordinata odredista
+     * @param endY - y koordinata odredista
+     * @param isFinished - da li je iznajmljivanje zavrseno
+     */
+    @Override
+    public void onVehicleMoved(String vehicleId, int x, int y, int endX, int endY, boolean isFinished) {
+        updateVehiclePosition(vehicleId, x, y, endX, endY, isFinished);
+    }
+
+    /**
+     * Metoda koju poziva simulacija kada se iznajmljivanje zavrsi, dodaje ga u rezultate tokom simulacije
+     * @param rental - zavrseno iznajmljivanje
+     */
+    @Override
+    public void onRentalFinished(Rental rental) {
+        LiveResults live = liveResults;
+        if (live != null) {
+            live.add(rental);
+        }
+    }
+
+    /**
+     * Metoda koju poziva simulacija kada je napravljena tabela obracunatih iznajmljivanja,
+     * prosljedjuje je ResultsController-u za analizu "sta ako" (What-if pricing)
+     * @param table - tabela iznajmljivanja sa izracunatim cijenama
+     */
+    @Override
+    public void onRentalTable(RentalTable table) {
+        Platform.runLater(() -> {
+            if (resultsController != null) {
+                resultsController.setRentalTable(table);
+            }
+        });
+    }
+
+    /**
+     * Metoda koju poziva simulacija kada su izracunati rezultati poslovanja
+     * Rezultate dodaje u tabele ResultsController-a i cuva ih u ovom kontroleru, da ih ne bismo izgubili
+     * prilikom inicijalizacije prozora klikom na dugme (tad bi se rezultati svi vratili na nulu)
+     * @param summary - sumarni izvjestaj
+     * @param daily - dnevni izvjestaji
+     */
+    @Override
+    public void onSimulationFinished(Results summary, List<Results> daily) {
+        LiveResults live = liveResults;
+        liveResults = null;
+        if (live != null) {
+            live.close();
+        }
+        Platform.runLater(() -> {
+            setSummaryResults(List.of(summary));
+            setDailyResults(daily);
+
+            if (resultsController == null) {
+                System.err.println("ResultsController instance not available.");
+                return;
+            }
+            // Konacni rezultati zamjenjuju rezultate prikazivane tokom simulacije
+            resultsController.stopWatching();
+            try {
+                for (Results result : daily) {
+                    resultsController.addToTableDaily(result.getResultDate(), result.getTotalRevenue(), result.getTotalDiscount(),
+                            result.getTotalPromo(), result.getTotalNarrowIncome(), result.getTotalWideIncome(),
+                            result.getMaintenanceCost(), result.getRepairCost());
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to add results to table: " + e.getMessage());
+            }
+            //Azuriramo sumarni izvjestaj i cuvamo ga u resultsController-u
+            resultsController.setResults(List.of(summary));
+        });
+    }
+
     /**
      * Metoda za uklanjanje markera vozila sa mape
      * @param vehicleId - identifikator vozila
@@ -271,10 +516,7 @@ public class MainController {
      * @return vraca vozilo prema identifikatoru
      */
     private Vehicle getVehicleById(String vehicleId) {
-        return vehicles.stream()
-                .filter(vehicle -> vehicle.getId().equals(vehicleId))
-                .findFirst()
-                .orElse(null);
+        return vehicleRegistry.get(vehicleId);
     }
 
 
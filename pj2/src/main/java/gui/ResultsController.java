@@ -1,22 +1,34 @@
 package gui;
 
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import pricing.PricingConfig;
+import pricing.PricingManager;
 import rent.*;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Ova klasa predstavlja kontroler za prozor o rezultatima poslovanja
- * Prikazuje dnevne i sumarne izvjestaje poslovanja kompanije
+ * Prikazuje dnevne i sumarne izvjestaje poslovanja kompanije, kao i analizu "sta ako" (What-if pricing):
+ * iste izvjestaje kada se sva iznajmljivanja obracunaju drugom konfiguracijom cijena, uporedo sa stvarnim
+ * Tokom simulacije izvjestaji se osvjezavaju iz rezultata koji se racunaju iznajmljivanje po iznajmljivanje (LiveResults)
  */
 public class ResultsController {
+    private static final Duration LIVE_REFRESH_INTERVAL = Duration.ofMillis(500); // Najcesce osvjezavanje tokom simulacije
 
     @FXML
     private TableView<Results> dailyReportTable;
@@ -40,6 +52,8 @@ public class ResultsController {
 
     @FXML
     private TableView<Results> summaryReportTable;
+    @FXML
+    private Label liveStatus;
 
     @FXML
     private TableColumn<Results, Double> summaryTotalRevenueColumn = new TableColumn<>("Total Revenue");
@@ -60,8 +74,50 @@ public class ResultsController {
     @FXML
     private TableColumn<Results, Double> totalTaxColumn = new TableColumn<>("Total Tax");
 
+    @FXML
+    private TextField carPriceField;
+    @FXML
+    private TextField bikePriceField;
+    @FXML
+    private TextField scooterPriceField;
+    @FXML
+    private TextField distanceNarrowField;
+    @FXML
+    private TextField distanceWideField;
+    @FXML
+    private TextField discountPromField;
+    @FXML
+    private Button repriceButton;
+    @FXML
+    private Label whatIfStatus;
+
+    @FXML
+    private TableView<Comparison> whatIfSummaryTable;
+    @FXML
+    private TableColumn<Comparison, String> whatIfMetricColumn;
+    @FXML
+    private TableColumn<Comparison, Double> whatIfBaselineColumn;
+    @FXML
+    private TableColumn<Comparison, Double> whatIfAlternativeColumn;
+    @FXML
+    private TableColumn<Comparison, Double> whatIfDifferenceColumn;
+
+    @FXML
+    private TableView<Comparison> whatIfDailyTable;
+    @FXML
+    private TableColumn<Comparison, String> whatIfDateColumn;
+    @FXML
+    private TableColumn<Comparison, Double> whatIfDailyBaselineColumn;
+    @FXML
+    private TableColumn<Comparison, Double> whatIfDailyAlternativeColumn;
+    @FXML
+    private TableColumn<Comparison, Double> whatIfDailyDifferenceColumn;
+
     private  ObservableList<Results> dailyResults = FXCollections.observableArrayList();
     private  ObservableList<Results> summaryResults = FXCollections.observableArrayList();
+    private RentalTable rentalTable; // Tabela iznajmljivanja iz posljednje simulacije, za analizu "sta ako"
+    private LiveResults liveResults; // Rezultati simulacije koja je u toku (null kada se ne prate)
+    private LiveResults.Subscription liveSubscription;
 
     /**
      * Prazan konstruktor
@@ -107,6 +163,7 @@ public class ResultsController {
         setColumnWidths(summaryReportTable);
         dailyReportTable.setColumnResizePolicy(TableView.UNCONSTRAINED_RESIZE_POLICY);
         setColumnWidths(dailyReportTable);
+        setupWhatIf();
 
         System.out.println("ResultsController initialize završen.");
     }
@@ -198,6 +255,197 @@ public class ResultsController {
         });
     }
 
+    /**
+     * Red tabele analize "sta ako": iznos iz simulacije i iznos sa drugom konfiguracijom cijena
+     * @param name - naziv iznosa (ili datum kod dnevnog poredjenja)
+     * @param baseline - iznos iz simulacije
+     * @param alternative - iznos sa drugom konfiguracijom cijena
+     */
+    private record Comparison(String name, double baseline, double alternative) {
+    }
+
+    /**
+     * Metoda koja postavlja kolone tabela analize "sta ako" i popunjava polja trenutnom konfiguracijom cijena
+     * (dugme je onemoguceno dok simulacija ne preda tabelu iznajmljivanja)
+     */
+    private void setupWhatIf() {
+        if (whatIfSummaryTable == null) {
+            return;
+        }
+        whatIfMetricColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().name()));
+        whatIfBaselineColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(roundToTwoDecimals(data.getValue().baseline())));
+        whatIfAlternativeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(roundToTwoDecimals(data.getValue().alternative())));
+        whatIfDifferenceColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+                roundToTwoDecimals(data.getValue().alternative() - data.getValue().baseline())));
+        whatIfDateColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().name()));
+        whatIfDailyBaselineColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(roundToTwoDecimals(data.getValue().baseline())));
+        whatIfDailyAlternativeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(roundToTwoDecimals(data.getValue().alternative())));
+        whatIfDailyDifferenceColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+                roundToTwoDecimals(data.getValue().alternative() - data.getValue().baseline())));
+
+        PricingConfig config = PricingManager.current();
+        carPriceField.setText(String.valueOf(config.carUnitPrice()));
+        bikePriceField.setText(String.valueOf(config.bikeUnitPrice()));
+        scooterPriceField.setText(String.valueOf(config.scooterUnitPrice()));
+        distanceNarrowField.setText(String.valueOf(config.distanceNarrow()));
+        distanceWideField.setText(String.valueOf(config.distanceWide()));
+        discountPromField.setText(String.valueOf(config.discountProm()));
+        repriceButton.setDisable(rentalTable == null);
+    }
+
+    /**
+     * Metoda koja prikazuje rezultate simulacije koja je u toku: tabele se osvjezavaju najvise jednom
+     * u LIVE_REFRESH_INTERVAL, sa svim iznajmljivanjima zavrsenim do tada (poziva se na JavaFX niti)
+     * @param results - rezultati koji se racunaju tokom simulacije
+     */
+    public void watch(LiveResults results) {
+        stopWatching();
+        liveResults = results;
+        liveSubscription = results.subscribe(snapshot -> Platform.runLater(() -> {
+            // Osvjezavanje koje stigne nakon prestanka pracenja ne smije prepisati konacne rezultate
+            if (liveResults == results) {
+                showLive(snapshot);
+            }
+        }), LIVE_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Metoda koja prekida prikaz rezultata tokom simulacije i prazni tabele za konacne rezultate
+     * (poziva se na JavaFX niti, prije dodavanja konacnih rezultata)
+     */
+    public void stopWatching() {
+        if (liveSubscription == null) {
+            return;
+        }
+        liveSubscription.close();
+        liveSubscription = null;
+        liveResults = null;
+        dailyResults.clear();
+        summaryResults.clear();
+        if (liveStatus != null) {
+            liveStatus.setText("");
+        }
+    }
+
+    /**
+     * Pomocna metoda koja prikazuje trenutno stanje rezultata u tabelama
+     * @param snapshot - presjek stanja rezultata
+     */
+    private void showLive(LiveResults.Snapshot snapshot) {
+        dailyResults.setAll(snapshot.daily());
+        summaryResults.setAll(snapshot.summary());
+        if (summaryReportTable != null) {
+            summaryReportTable.setItems(summaryResults);
+        }
+        if (liveStatus != null) {
+            liveStatus.setText("Simulation in progress: " + snapshot.rentals() + " rentals completed.");
+        }
+    }
+
+    /**
+     * Metoda koja postavlja tabelu iznajmljivanja nad kojom se radi analiza "sta ako" (poziva se po zavrsetku simulacije)
+     * @param table - tabela iznajmljivanja sa izracunatim cijenama
+     */
+    public void setRentalTable(RentalTable table) {
+        rentalTable = table;
+        if (repriceButton != null) {
+            repriceButton.setDisable(table == null);
+            whatIfStatus.setText(table != null ? table.size() + " rentals available for repricing." : "");
+        }
+    }
+
+    /**
+     * Metoda koja se poziva klikom na dugme Reprice: sva iznajmljivanja se obracunavaju konfiguracijom iz polja
+     * (u posebnoj niti, da se prozor ne zaustavi), a sumarni i dnevni izvjestaji se prikazuju uporedo sa stvarnim
+     */
+    @FXML
+    private void onRepriceClick() {
+        PricingConfig current = PricingManager.current();
+        PricingConfig alternative;
+        try {
+            // Verzija 0, konfiguracija se ne postavlja kao trenutna
+            alternative = new PricingConfig(0, parse(carPriceField), parse(bikePriceField), parse(scooterPriceField),
+                    parse(distanceNarrowField), parse(distanceWideField), current.discount(), parse(discountPromField),
+                    current.zones());
+        } catch (NumberFormatException e) {
+            whatIfStatus.setText("Invalid value: " + e.getMessage());
+            return;
+        }
+
+        RentalTable table = rentalTable;
+        repriceButton.setDisable(true);
+        whatIfStatus.setText("Repricing " + table.size() + " rentals...");
+        Thread worker = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                WhatIfResults results = WhatIfResults.compare(table, alternative);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                Platform.runLater(() -> {
+                    showWhatIf(results);
+                    whatIfStatus.setText("Repriced " + table.size() + " rentals in " + millis + " ms.");
+                    repriceButton.setDisable(false);
+                });
+            } catch (IOException | RuntimeException e) {
+                Platform.runLater(() -> {
+                    whatIfStatus.setText("Repricing failed: " + e.getMessage());
+                    repriceButton.setDisable(false);
+                });
+            }
+        }, "what-if");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Pomocna metoda koja prikazuje rezultate analize "sta ako" u tabelama
+     * @param results - izvjestaji iz simulacije i sa drugom konfiguracijom cijena
+     */
+    private void showWhatIf(WhatIfResults results) {
+        Results baseline = results.getBaselineSummary();
+        Results alternative = results.getAlternativeSummary();
+        List<Comparison> summary = new ArrayList<>();
+        summary.add(compare("Total Revenue", baseline, alternative, Results::getTotalRevenue));
+        summary.add(compare("Total Discount", baseline, alternative, Results::getTotalDiscount));
+        summary.add(compare("Total Promotions", baseline, alternative, Results::getTotalPromo));
+        summary.add(compare("Narrow City Rides", baseline, alternative, Results::getTotalNarrowIncome));
+        summary.add(compare("Wide City Rides", baseline, alternative, Results::getTotalWideIncome));
+        summary.add(compare("Maintenance Cost", baseline, alternative, Results::getMaintenanceCost));
+        summary.add(compare("Repair Cost", baseline, alternative, Results::getRepairCost));
+        summary.add(compare("Company Costs", baseline, alternative, Results::getCompanyCosts));
+        summary.add(compare("Total Tax", baseline, alternative, Results::getTotalTax));
+        whatIfSummaryTable.setItems(FXCollections.observableArrayList(summary));
+
+        // Dnevni izvjestaji obje tabele imaju iste datume, istim redom
+        List<Comparison> daily = new ArrayList<>();
+        for (int i = 0; i < results.getBaselineDaily().size(); i++) {
+            Results day = results.getBaselineDaily().get(i);
+            daily.add(compare(String.valueOf(day.getResultDate()), day, results.getAlternativeDaily().get(i), Results::getTotalRevenue));
+        }
+        whatIfDailyTable.setItems(FXCollections.observableArrayList(daily));
+    }
+
+    /**
+     * Pomocna metoda koja pravi red tabele poredjenja
+     * @param name - naziv reda
+     * @param baseline - izvjestaj iz simulacije
+     * @param alternative - izvjestaj sa drugom konfiguracijom cijena
+     * @param value - iznos koji se poredi
+     * @return vraca red tabele
+     */
+    private static Comparison compare(String name, Results baseline, Results alternative, ToDoubleFunction<Results> value) {
+        return new Comparison(name, value.applyAsDouble(baseline), value.applyAsDouble(alternative));
+    }
+
+    /**
+     * Pomocna metoda koja cita broj iz polja
+     * @param field - polje
+     * @return vraca procitanu vrijednost
+     * @throws NumberFormatException ako vrijednost nije broj
+     */
+    private static double parse(TextField field) {
+        return Double.parseDouble(field.getText().trim());
+    }
+
     /**
      * Pomocna metoda za zaokruzivanje na dve decimale
      * @param value - vrijednost koju prosljedjujemo
@@ -4,23 +4,31 @@ import model.ECar;
 import model.EBike;
 import model.EScooter;
 import model.Vehicle;
+import model.VehicleRegistry;
+import rent.LoyaltyLedger;
 import rent.Rental; // Pretpostavljamo da imamo ovu klasu Rental
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 public class CSVHandler {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm"); // Isti format kao u klasi Rental
 
     // Metoda za učitavanje vozila
     public static List<Vehicle> loadVehicles(String filePath) {
         List<Vehicle> vehicles = new ArrayList<>();
-        Set<String> loadedIds = new HashSet<>();  // Set za praćenje već učitavanih ID-ova
+        VehicleIdSet loadedIds = new VehicleIdSet(vehicles);  // Već učitani ID-ovi (indeksi u listi vozila)
+        CsvTokenizer tokenizer = new CsvTokenizer(); // Razdvajanje polja, isti objekat za sve redove
+        RejectionSink rejected = new RejectionSink(Path.of(filePath)); // Odbačeni redovi, umjesto ispisa svakog reda
 
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+        try (rejected; BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             // Preskočimo header (prvi red)
             line = br.readLine();
@@ -28,32 +36,29 @@ public class CSVHandler {
                 // Preskakanje praznih linija
                 if (line.trim().isEmpty()) continue;
 
-                String[] values = line.split(",");
-                if (values.length < 8) {  // Ako nedostaju obavezni podaci, preskoči red
-                    System.out.println("Invalid data: " + line);
+                int fields = tokenizer.tokenize(line);
+                if (fields < 9) {  // Ako nedostaju obavezni podaci (uključujući tip vozila), preskoči red
+                    rejected.reject(RejectionSink.Reason.INVALID_FORMAT, line);
                     continue;
                 }
 
-                String id = values[0].trim();
+                String id = tokenizer.get(0);
                 //provjera da li je id vec ucitan
                 if (loadedIds.contains(id)) {
-                    System.out.println("Duplicate ID: " + id + ", skipping this vehicle.");
+                    rejected.reject(RejectionSink.Reason.DUPLICATE_VEHICLE, line);
                     continue;
                 }
-                String manufacturer = values[1].trim();
-                String model = values[2].trim();
+                String manufacturer = tokenizer.get(1);
+                String model = tokenizer.get(2);
 
                 // Provera da li je cena i nivo baterije validan
-                double price = parseDoubleSafe(values[4].trim(), 0.0);
-                String type = values[8].trim();  // Tip vozila (automobil, bicikl, trotinet)
-
-                // Ispis vrednosti tipa vozila radi debagovanja
-                System.out.println("Detected vehicle type: " + type);
+                double price = tokenizer.getDouble(4, 0.0);
+                String type = tokenizer.get(8);  // Tip vozila (automobil, bicikl, trotinet)
 
                 // Datum nabavke, samo za Cars
                 String carDate = null;
                 if ("automobil".equalsIgnoreCase(type)) {
-                    carDate = values[3].trim();  // Datum nabavke je na poziciji 3
+                    carDate = tokenizer.get(3);  // Datum nabavke je na poziciji 3
                 }
 
                 // Kreiraj vozilo na osnovu tipa
@@ -62,50 +67,58 @@ public class CSVHandler {
                 // Provera validnosti tipa vozila
                 switch (type.toLowerCase()) {
                     case "automobil":
-                        if (values.length > 7) {
-                            String carDescription = values[7].trim();
+                        if (fields > 7) {
+                            String carDescription = tokenizer.get(7);
                             vehicle = new ECar(id, manufacturer, model, price, carDescription, carDate);
                         }
                         break;
                     case "bicikl":
-                        if (values.length > 7) {
-                            double rangePerCharge = parseDoubleSafe(values[5].trim(), 0.0);
+                        if (fields > 7) {
+                            double rangePerCharge = tokenizer.getDouble(5, 0.0);
                             vehicle = new EBike(id, manufacturer, model, price, rangePerCharge);
-                            System.out.println("range per charge: " + rangePerCharge);
                         }
                         break;
                     case "trotinet":
-                        if (values.length > 6) {
-                            double maxSpeed = parseDoubleSafe(values[6].trim(), 0.0);
+                        if (fields > 6) {
+                            double maxSpeed = tokenizer.getDouble(6, 0.0);
                             vehicle = new EScooter(id, manufacturer, model, price, maxSpeed);
                         }
                         break;
                     default:
-                        // Dodaj log koji prikazuje nevalidan tip vozila
-                        System.out.println("Invalid vehicle type detected: " + type);
-                        break;
+                        // Nevalidan tip vozila
+                        rejected.reject(RejectionSink.Reason.UNKNOWN_VEHICLE_TYPE, line);
+                        continue;
                 }
 
                 // Dodaj vozilo u listu ako je validno
                 if (vehicle != null) {
                     vehicles.add(vehicle);
-                    loadedIds.add(id);
+                    loadedIds.add(vehicles.size() - 1);
+                } else {
+                    rejected.reject(RejectionSink.Reason.INVALID_FORMAT, line); // Nedostaju polja za ovaj tip vozila
                 }
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
+        System.out.println(rejected.summary(vehicles.size(), "vehicles"));
 
         return vehicles;
     }
 
     // Metoda za učitavanje podataka o iznajmljivanjima
     public static List<Rental> loadRentals(String filePath, List<Vehicle> vehicles) {
+        return loadRentals(filePath, new VehicleRegistry(vehicles));
+    }
+
+    // Metoda za učitavanje podataka o iznajmljivanjima, vozila se traže u registru (heš po ID-u)
+    public static List<Rental> loadRentals(String filePath, VehicleRegistry vehicles) {
         List<Rental> rentals = new ArrayList<>();
-        String csvPattern = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)"; // Regex za razdvajanje zareza izvan navodnika
-        Set<String> processedRentals = new HashSet<>(); // Set za praćenje unikatnih parova (vehicleId, date)
+        CsvTokenizer tokenizer = new CsvTokenizer(); // Razdvajanje zareza izvan navodnika, u jednom prolazu kroz red
+        RentalKeySet processedRentals = new RentalKeySet(); // Ključevi unikatnih parova (vozilo, vrijeme) spakovani u long
+        RejectionSink rejected = new RejectionSink(Path.of(filePath)); // Odbačeni redovi, umjesto ispisa svakog reda
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+        try (processedRentals; rejected; BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             // Preskočimo header (prvi red)
             line = br.readLine();
@@ -113,95 +126,71 @@ public class CSVHandler {
                 // Preskakanje praznih linija
                 if (line.trim().isEmpty()) continue;
 
-                // Razdvajanje linije pomoću regexa
-                String[] values = line.split(csvPattern, -1);
-
-                if (values.length != 8)  {  // Ako nedostaju obavezni podaci, preskoči red
-                    System.out.println("Invalid data: " + line);
+                // Razdvajanje linije (tokenizer skida i navodnike s početka i kraja polja)
+                if (tokenizer.tokenize(line) != 8)  {  // Ako nedostaju obavezni podaci, preskoči red
+                    rejected.reject(RejectionSink.Reason.INVALID_FORMAT, line);
                     continue;
                 }
 
-                // Uklanjanje navodnika iz podataka ako postoje
-                for (int i = 0; i < values.length; i++) {
-                    values[i] = values[i].trim().replaceAll("^\"|\"$", ""); // Skidanje navodnika s početka i kraja
-                }
-
                 // Učitavamo podatke iz CSV fajla
-                String date = values[0];
-                String user = values[1];
-                String vehicleId = values[2];
-                String startLocation = values[3];
-                String endLocation = values[4];
-                int duration = parseIntSafe(values[5], 0);
-                String breakdown = values[6];
-                String promotion = values[7];
-
-                // Kreiramo ključ za proveru unikatnosti
-                String rentalKey = vehicleId + "_" + date;
-
-                // Provera da li je par (vehicleId, date) već obrađen
-                if (processedRentals.contains(rentalKey)) {
-                    System.out.println("Duplicate rental ignored: " + line);
+                String date = tokenizer.get(0);
+                String user = tokenizer.get(1);
+                String vehicleId = tokenizer.get(2);
+                String startLocation = tokenizer.get(3);
+                String endLocation = tokenizer.get(4);
+                int duration = tokenizer.getInt(5, 0);
+                String breakdown = tokenizer.get(6);
+                String promotion = tokenizer.get(7);
+
+                // Pronalaženje vozila prema ID-u (indeks vozila je dio ključa za proveru unikatnosti)
+                int vehicleIndex = vehicles.indexOf(vehicleId);
+                if (vehicleIndex < 0) {
+                    // Ako vozilo nije pronađeno, red ide u karantin
+                    rejected.reject(RejectionSink.Reason.UNKNOWN_VEHICLE, line);
                     continue;
                 }
-
-                // Dodajemo ključ u set obrađenih unikatnih iznajmljivanja
-                processedRentals.add(rentalKey);
-
-                // Pronalaženje vozila prema ID-u
-                Vehicle rentedVehicle = null;
-                for (Vehicle vehicle : vehicles) {
-                    if (vehicle.getId().equalsIgnoreCase(vehicleId)) {
-                        rentedVehicle = vehicle;
-                        break;
-                    }
+                LocalDateTime startTime;
+                try {
+                    startTime = LocalDateTime.parse(date, DATE_FORMATTER);
+                } catch (DateTimeParseException e) {
+                    rejected.reject(RejectionSink.Reason.INVALID_VALUE, line);
+                    continue;
+                }
+                if (!Rental.isValidLocation(startLocation) || !Rental.isValidLocation(endLocation)) {
+                    rejected.reject(RejectionSink.Reason.INVALID_VALUE, line);
+                    continue;
                 }
 
-                if (rentedVehicle != null) {
-                    // Kreiraj objekat Rental
-                    Rental rental = new Rental(date, user, rentedVehicle, startLocation, endLocation, duration, breakdown, promotion);
-                    rentals.add(rental);
-                } else {
-                    // Ako vozilo nije pronađeno, ispisuj poruku
-                    System.out.println("Vehicle with ID " + vehicleId + " not found.");
+                // Provera da li je par (vozilo, vrijeme početka) već obrađen, ključ se odmah i dodaje
+                if (!processedRentals.add(RentalKeySet.key(vehicleIndex, startTime))) {
+                    rejected.reject(RejectionSink.Reason.DUPLICATE_RENTAL, line);
+                    continue;
                 }
+
+                // Kreiraj objekat Rental
+                Rental rental = new Rental(date, user, vehicles.getVehicles().get(vehicleIndex), startLocation, endLocation, duration, breakdown, promotion);
+                rentals.add(rental);
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
+        System.out.println(rejected.summary(rentals.size(), "rentals"));
         rentals.sort(Comparator.comparing(Rental::getStartTime));
+        new LoyaltyLedger().assign(rentals); // Redni brojevi korisnika po vremenu pocetka (popust za svako deseto)
 
         return rentals;
     }
 
-
-
-
-    // Pomoćna metoda za pronalaženje vozila prema ID-u
-    private static Vehicle findVehicleById(List<Vehicle> vehicles, String vehicleId) {
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getId().equalsIgnoreCase(vehicleId)) {
-                return vehicle;
-            }
-        }
-        return null;
+    // Metoda za paralelno učitavanje iznajmljivanja iz fajla mapiranog u memoriju (za velike fajlove),
+    // rezultat i odbačeni redovi su isti kao kod loadRentals
+    public static List<Rental> loadRentalsParallel(String filePath, VehicleRegistry vehicles) throws IOException {
+        return MappedRentalLoader.load(Path.of(filePath), vehicles);
     }
 
-    // Metoda za sigurno parsiranje double vrednosti
-    private static double parseDoubleSafe(String value, double defaultValue) {
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+    // Metoda za učitavanje iznajmljivanja kao toka poredanog po vremenu, bez držanja cijelog fajla u memoriji
+    // (za velike fajlove; tok treba zatvoriti nakon upotrebe da bi se obrisali privremeni fajlovi)
+    public static RentalStream streamRentals(String filePath, VehicleRegistry vehicles) throws IOException {
+        return RentalStream.open(Path.of(filePath), vehicles, RentalStream.DEFAULT_RUN_SIZE);
     }
 
-    // Metoda za sigurno parsiranje int vrednosti
-    private static int parseIntSafe(String value, int defaultValue) {
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
-    }
 }
@@ -0,0 +1,140 @@
+package handler;
+
+import java.util.Arrays;
+
+/**
+ * Klasa CsvTokenizer razdvaja red CSV fajla na polja u jednom prolazu kroz red.
+ * Zarez unutar navodnika ne razdvaja polja, a svako polje se (kao ranije regexom) skracuje za bjeline
+ * i za jedan navodnik na pocetku i na kraju. Polja se ne kopiraju prilikom razdvajanja: pamte se samo
+ * granice polja u nizovima koji se ponovo koriste za svaki red, a String se pravi tek kada se polje zatrazi.
+ * Jedan objekat se koristi za sve redove jednog fajla (nije namijenjen za vise niti istovremeno).
+ */
+public class CsvTokenizer {
+    private String line = "";
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count = 0;
+
+    /**
+     * Metoda koja razdvaja red na polja
+     * @param line - red CSV fajla (bez znaka za novi red)
+     * @return vraca broj polja (prazna polja na kraju reda se racunaju)
+     */
+    public int tokenize(String line) {
+        this.line = line;
+        count = 0;
+        boolean inQuotes = false;
+        int start = 0;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                addField(start, i);
+                start = i + 1;
+            }
+        }
+        addField(start, length);
+        return count;
+    }
+
+    /**
+     * Metoda koja vraca broj polja posljednjeg razdvojenog reda
+     * @return vraca broj polja
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Metoda koja vraca polje kao String
+     * @param index - redni broj polja
+     * @return vraca polje bez bjelina i navodnika na krajevima
+     */
+    public String get(int index) {
+        checkIndex(index);
+        return line.substring(starts[index], ends[index]);
+    }
+
+    /**
+     * Metoda koja provjerava da li je polje prazno
+     * @param index - redni broj polja
+     * @return vraca true ako polje nema nijedan znak
+     */
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return starts[index] == ends[index];
+    }
+
+    /**
+     * Metoda koja poredi polje sa datim tekstom, bez obzira na velika i mala slova (bez pravljenja Stringa)
+     * @param index - redni broj polja
+     * @param text - tekst sa kojim se polje poredi
+     * @return vraca true ako je polje jednako tekstu
+     */
+    public boolean equalsIgnoreCase(int index, String text) {
+        checkIndex(index);
+        int length = ends[index] - starts[index];
+        return length == text.length() && line.regionMatches(true, starts[index], text, 0, length);
+    }
+
+    /**
+     * Metoda koja parsira polje kao cijeli broj (bez pravljenja Stringa)
+     * @param index - redni broj polja
+     * @param defaultValue - vrijednost koja se vraca ako polje nije broj
+     * @return vraca broj iz polja ili podrazumijevanu vrijednost
+     */
+    public int getInt(int index, int defaultValue) {
+        checkIndex(index);
+        try {
+            return Integer.parseInt(line, starts[index], ends[index], 10);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Metoda koja parsira polje kao realan broj
+     * @param index - redni broj polja
+     * @param defaultValue - vrijednost koja se vraca ako polje nije broj
+     * @return vraca broj iz polja ili podrazumijevanu vrijednost
+     */
+    public double getDouble(int index, double defaultValue) {
+        try {
+            return Double.parseDouble(get(index));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pamti granice jednog polja, bez bjelina i navodnika na krajevima
+     * @param start - pocetak polja u redu
+     * @param end - kraj polja u redu (iskljucivo)
+     */
+    private void addField(int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') start++;
+        while (end > start && line.charAt(end - 1) <= ' ') end--;
+        if (start < end && line.charAt(start) == '"') start++;
+        if (end > start && line.charAt(end - 1) == '"') end--;
+
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    /**
+     * Pomocna metoda koja provjerava redni broj polja
+     * @param index - redni broj polja
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of " + count);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package handler;
+
+import model.Vehicle;
+import model.VehicleRegistry;
+import rent.LoyaltyLedger;
+import rent.Rental;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Klasa MappedRentalLoader ucitava iznajmljivanja iz CSV fajla mapiranog u memoriju (FileChannel.map),
+ * podijeljenog na dijelove na granicama redova. Rezultat je isti kao kod CSVHandler.loadRentals
+ * (ista iznajmljivanja, isti redni brojevi korisnika, isti odbaceni redovi istim redom), a posao se dijeli u tri faze:
+ * 1. paralelno: svaki dio se mapira, dekodira, razdvaja na polja i provjerava (broj polja, vozilo u registru, datum),
+ * 2. sekvencijalno, redom kroz fajl: pravilo duplikata (RentalKeySet, prvi red vazi) i odbacivanje redova (RejectionSink),
+ * 3. paralelno: pravljenje objekata Rental, stabilno sortiranje po vremenu i dodjela rednih brojeva korisnika (LoyaltyLedger).
+ * Druga faza samo provjerava kljuceve u hes skupu, pa vrijeme ucitavanja velikih fajlova raste sa brojem jezgara.
+ */
+public class MappedRentalLoader {
+    private static final long MAX_CHUNK_SIZE = 64L * 1024 * 1024; // Jedan dio se mapira kao jedan bafer (najvise 2 GB)
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm");
+
+    /**
+     * Jedan red fajla nakon razdvajanja (values je null ako red nije ispravan, vehicle je null ako vozilo ne postoji,
+     * a key je kljuc za pravilo duplikata, negativan ako datum ili lokacija nije ispravna)
+     */
+    private record Line(String text, String[] values, Vehicle vehicle, long key) {
+    }
+
+    /**
+     * Metoda koja ucitava iznajmljivanja na zajednickom fork-join pool-u
+     * @param filePath - putanja CSV fajla sa iznajmljivanjima
+     * @param vehicles - registar vozila
+     * @return vraca iznajmljivanja poredana po vremenu pocetka
+     * @throws IOException ako fajl ne moze da se procita
+     */
+    public static List<Rental> load(Path filePath, VehicleRegistry vehicles) throws IOException {
+        return load(filePath, vehicles, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Metoda koja ucitava iznajmljivanja na zadatom fork-join pool-u
+     * @param filePath - putanja CSV fajla sa iznajmljivanjima
+     * @param vehicles - registar vozila
+     * @param pool - pool na kojem se izvrsavaju paralelne faze
+     * @return vraca iznajmljivanja poredana po vremenu pocetka
+     * @throws IOException ako fajl ne moze da se procita
+     */
+    public static List<Rental> load(Path filePath, VehicleRegistry vehicles, ForkJoinPool pool) throws IOException {
+        RejectionSink rejected = new RejectionSink(filePath);
+        List<Rental> result;
+        try (rejected; FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, pool.getParallelism());
+
+            // 1. Razdvajanje dijelova na polja, paralelno
+            List<ForkJoinTask<List<Line>>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                tasks.add(pool.submit(() -> parseChunk(channel, start, end, vehicles)));
+            }
+
+            // 2. Duplikati i odbaceni redovi, redom kroz fajl
+            List<Line> accepted = new ArrayList<>();
+            try (RentalKeySet processedRentals = new RentalKeySet()) {
+                for (ForkJoinTask<List<Line>> task : tasks) {
+                    for (Line line : join(task)) {
+                        if (line.values() == null) {
+                            rejected.reject(RejectionSink.Reason.INVALID_FORMAT, line.text());
+                        } else if (line.vehicle() == null) {
+                            rejected.reject(RejectionSink.Reason.UNKNOWN_VEHICLE, line.text());
+                        } else if (line.key() < 0) {
+                            rejected.reject(RejectionSink.Reason.INVALID_VALUE, line.text());
+                        } else if (!processedRentals.add(line.key())) {
+                            rejected.reject(RejectionSink.Reason.DUPLICATE_RENTAL, line.text());
+                        } else {
+                            accepted.add(line);
+                        }
+                    }
+                }
+            }
+
+            // 3. Pravljenje iznajmljivanja, sortiranje i redni brojevi korisnika (po vremenu, kao kod loadRentals), paralelno
+            Rental[] rentals = new Rental[accepted.size()];
+            join(pool.submit(() -> Arrays.parallelSetAll(rentals, i -> {
+                String[] values = accepted.get(i).values();
+                int duration;
+                try {
+                    duration = Integer.parseInt(values[5]);
+                } catch (NumberFormatException e) {
+                    duration = 0;
+                }
+                return new Rental(values[0], values[1], accepted.get(i).vehicle(), values[3], values[4],
+                        duration, values[6], values[7]);
+            })));
+            join(pool.submit(() -> Arrays.parallelSort(rentals, Comparator.comparing(Rental::getStartTime)))); // stabilno sortiranje
+            result = new ArrayList<>(Arrays.asList(rentals));
+            List<Rental> sorted = result;
+            join(pool.submit(() -> new LoyaltyLedger().assign(sorted)));
+        }
+        System.out.println(rejected.summary(result.size(), "rentals"));
+        return result;
+    }
+
+    /**
+     * Pomocna metoda koja dijeli fajl na dijelove priblizno jednake velicine, na granicama redova
+     * (prvi dio pocinje nakon header-a)
+     * @param channel - kanal fajla
+     * @param parallelism - broj niti pool-a (dijelova ima nekoliko puta vise, zbog ravnomjernog opterecenja)
+     * @return vraca granice dijelova (n+1 pozicija za n dijelova)
+     * @throws IOException ako fajl ne moze da se procita
+     */
+    private static long[] chunkBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.clamp(size / (parallelism * 4L), MIN_CHUNK_SIZE, MAX_CHUNK_SIZE);
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(nextLine(channel, 0)); // preskacemo header
+        while (bounds.getLast() < size) {
+            bounds.add(nextLine(channel, Math.min(size, bounds.getLast() + chunkSize)));
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Pomocna metoda koja trazi pocetak narednog reda od date pozicije (poziciju nakon znaka za novi red)
+     * @param channel - kanal fajla
+     * @param position - pozicija od koje se trazi
+     * @return vraca pocetak narednog reda, ili velicinu fajla ako ga nema
+     * @throws IOException ako fajl ne moze da se procita
+     */
+    private static long nextLine(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long size = channel.size();
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Pomocna metoda koja mapira jedan dio fajla i razdvaja njegove redove na polja
+     * @param channel - kanal fajla
+     * @param start - pocetak dijela (pocetak reda)
+     * @param end - kraj dijela (pocetak narednog reda ili kraj fajla)
+     * @param vehicles - registar vozila
+     * @return vraca redove dijela (bez praznih redova), u redoslijedu u fajlu
+     */
+    private static List<Line> parseChunk(FileChannel channel, long start, long end, VehicleRegistry vehicles) {
+        String text;
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            text = StandardCharsets.UTF_8.decode(buffer).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Line> lines = new ArrayList<>();
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        int lineStart = 0;
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            String line = text.substring(lineStart, lineEnd);
+            lineStart = next;
+            if (line.trim().isEmpty()) continue;
+
+            if (tokenizer.tokenize(line) != 8) {
+                lines.add(new Line(line, null, null, -1));
+                continue;
+            }
+            String[] values = new String[8];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = tokenizer.get(i);
+            }
+            int vehicleIndex = vehicles.indexOf(values[2]);
+            if (vehicleIndex < 0) {
+                lines.add(new Line(line, values, null, -1));
+                continue;
+            }
+            long key;
+            try {
+                key = RentalKeySet.key(vehicleIndex, LocalDateTime.parse(values[0], DATE_FORMATTER));
+            } catch (DateTimeParseException e) {
+                key = -1;
+            }
+            if (!Rental.isValidLocation(values[3]) || !Rental.isValidLocation(values[4])) {
+                key = -1;
+            }
+            lines.add(new Line(line, values, vehicles.getVehicles().get(vehicleIndex), key));
+        }
+        return lines;
+    }
+
+    /**
+     * Pomocna metoda koja ceka na zadatak i prosljedjuje njegovu gresku
+     * @param task - zadatak
+     * @return vraca rezultat zadatka
+     * @throws IOException ako zadatak nije uspio zbog greske prilikom citanja
+     */
+    private static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Loading was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("Loading failed: " + e.getCause(), e.getCause());
+        }
+    }
+}
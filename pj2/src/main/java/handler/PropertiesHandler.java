@@ -2,6 +2,8 @@ package handler;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -68,7 +70,8 @@ public class PropertiesHandler {
      * @return vraca taj koeficijent
      */
     public double getDiscount() {
-        return Double.parseDouble(properties.getProperty("DISCOUNT"));
+        String value = properties.getProperty("DISCOUNT").split("#")[0].trim(); // Uklanjanje komentara
+        return Double.parseDouble(value);
     }
 
     /**
@@ -80,4 +83,82 @@ public class PropertiesHandler {
         return Double.parseDouble(value);
     }
 
+    /**
+     * Metoda koja vraca pocetnu brzinu simulacije (broj sekundi simulacije po stvarnoj sekundi)
+     * Ako kljuc ne postoji, simulacija se prikazuje u realnom vremenu (brzina 1), a 0 znaci bez cekanja
+     * @return vraca brzinu simulacije
+     */
+    public double getSimulationSpeed() {
+        String value = properties.getProperty("SIMULATION_SPEED", "1").split("#")[0].trim(); // Uklanjanje komentara
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * Metoda koja vraca memorijski budzet za provjeru duplikata prilikom ucitavanja iznajmljivanja (RentalKeySet)
+     * @param defaultBudget - budzet u bajtovima ako kljuc DEDUP_MEMORY_MB ne postoji
+     * @return vraca budzet u bajtovima
+     */
+    public long getDedupMemoryBudget(long defaultBudget) {
+        String value = properties.getProperty("DEDUP_MEMORY_MB");
+        if (value == null) {
+            return defaultBudget;
+        }
+        return Long.parseLong(value.split("#")[0].trim()) * 1024 * 1024; // Uklanjanje komentara
+    }
+
+    /**
+     * Metoda koja vraca nazive zona grada (kljuc ZONES, nazivi odvojeni zarezom)
+     * @return vraca listu naziva, ili null ako kljuc ne postoji (tada vaze podrazumijevane zone)
+     */
+    public List<String> getZoneNames() {
+        String value = properties.getProperty("ZONES");
+        if (value == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : value.split("#")[0].split(",")) { // Uklanjanje komentara
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Metoda koja vraca pravougaonike zone (kljuc ZONE_naziv, pravougaonici "x1,y1,x2,y2" odvojeni sa ;)
+     * @param zone - naziv zone
+     * @return vraca pravougaonike {x1, y1, x2, y2}, x2 i y2 nisu ukljuceni
+     * @throws IllegalArgumentException ako kljuc ne postoji
+     * @throws NumberFormatException ako koordinata nije broj
+     */
+    public int[][] getZoneRectangles(String zone) {
+        String value = properties.getProperty("ZONE_" + zone);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing ZONE_" + zone);
+        }
+        String[] rectangles = value.split("#")[0].split(";"); // Uklanjanje komentara
+        int[][] result = new int[rectangles.length][];
+        for (int i = 0; i < rectangles.length; i++) {
+            String[] coordinates = rectangles[i].split(",");
+            result[i] = new int[coordinates.length];
+            for (int j = 0; j < coordinates.length; j++) {
+                result[i][j] = Integer.parseInt(coordinates[j].trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Metoda koja vraca faktor udaljenosti zone (kljuc ZONE_naziv_FACTOR)
+     * @param zone - naziv zone
+     * @return vraca faktor, ili NaN ako kljuc ne postoji (tada vazi DISTANCE_NARROW)
+     */
+    public double getZoneFactor(String zone) {
+        String value = properties.getProperty("ZONE_" + zone + "_FACTOR");
+        if (value == null) {
+            return Double.NaN;
+        }
+        return Double.parseDouble(value.split("#")[0].trim()); // Uklanjanje komentara
+    }
+
 }
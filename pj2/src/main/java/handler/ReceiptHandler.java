@@ -16,7 +16,9 @@ import java.util.stream.Collectors;
  * Ovo je samo handler, ne treba je zbuniti za klasu Receipt koja je dalje u projektu napravljena
  */
 public class ReceiptHandler {
-    private static final List<Receipt> receipts = new ArrayList<>(); // Lista svih računa kao objekata
+    private static final List<Receipt> receipts = Collections.synchronizedList(new ArrayList<>()); // Lista svih računa kao objekata (dijele je niti simulacije)
+    private static volatile boolean writeToFile = true;
+    private static volatile boolean keepReceipts = true;
 
     /**
      * Metoda koja generise racun, kreira instancu Receipt (zbog kasnijih upotreba vezanih za rezultate poslovanja) i
@@ -26,6 +28,13 @@ public class ReceiptHandler {
      * @param driverLicense - vozacka dozvola
      */
     public static void generateReceipt(Rental rental, String idNumber, String driverLicense) {
+        if (!writeToFile) {
+            if (keepReceipts) {
+                receipts.add(createReceipt(rental, idNumber, driverLicense));
+            }
+            return;
+        }
+
         String folderPath = "src/main/java/resources/receipts";
         File folder = new File(folderPath);
         if (!folder.exists()) {
@@ -53,26 +62,57 @@ public class ReceiptHandler {
             writer.write(receiptContent.toString());
 
             // Kreiranje Receipt objekta i dodavanje u listu
-            Receipt receipt = new Receipt(
-                    rental.getUserId(),
-                    idNumber,
-                    driverLicense,
-                    rental.getVehicle().getId(),
-                    rental.getStartLocation(),
-                    rental.getEndLocation(),
-                    rental.getStartTime(),
-                    rental.getEndTime(),
-                    rental.getTotalPrice(),
-                    rental.getPromotion(),
-                    rental.getFault()
-            );
-            receipts.add(receipt);
+            if (keepReceipts) {
+                Receipt receipt = createReceipt(rental, idNumber, driverLicense);
+                receipts.add(receipt);
+            }
             System.out.println("Receipt generated: " + fileName);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Pomocna metoda koja kreira Receipt objekat na osnovu iznajmljivanja
+     * @param rental - iznajmljivanje
+     * @param idNumber - identifikator racuna
+     * @param driverLicense - vozacka dozvola
+     * @return vraca novi racun
+     */
+    private static Receipt createReceipt(Rental rental, String idNumber, String driverLicense) {
+        return new Receipt(
+                rental.getUserId(),
+                idNumber,
+                driverLicense,
+                rental.getVehicle().getId(),
+                rental.getStartLocation(),
+                rental.getEndLocation(),
+                rental.getStartTime(),
+                rental.getEndTime(),
+                rental.getTotalPrice(),
+                rental.getPromotion(),
+                rental.getFault()
+        );
+    }
+
+    /**
+     * Metoda koja ukljucuje ili iskljucuje upisivanje racuna u fajlove
+     * (npr. kod mjerenja performansi, kada su nam potrebni samo Receipt objekti)
+     * @param enabled - da li se racuni upisuju u fajlove
+     */
+    public static void setWriteToFile(boolean enabled) {
+        writeToFile = enabled;
+    }
+
+    /**
+     * Metoda koja ukljucuje ili iskljucuje cuvanje Receipt objekata u listi svih racuna
+     * (npr. kod simulacije iz toka, gdje bi lista rasla sa velicinom ulaza)
+     * @param enabled - da li se racuni cuvaju u listi
+     */
+    public static void setKeepReceipts(boolean enabled) {
+        keepReceipts = enabled;
+    }
+
     /**
      * Metoda koja dobija listu svih racuna
      * @return vraca tu listu
@@ -93,6 +133,17 @@ public class ReceiptHandler {
         Map<String, Double> revenueByVehicle = receipts.stream()
                 .collect(Collectors.groupingBy(receipt -> receipt.getVehicleId(), Collectors.summingDouble(Receipt::getTotalPrice)));
 
+        return getTopRevenueVehiclesByType(revenueByVehicle, vehicleTypes);
+    }
+
+    /**
+     * Metoda koja trazi najprofitabilnije vozilo svakog tipa na osnovu vec sabranog prihoda po vozilu
+     * (npr. kod simulacije iz toka, gdje se racuni ne cuvaju)
+     * @param revenueByVehicle - ukupan prihod po identifikatoru vozila
+     * @param vehicleTypes - tipovi vozila
+     * @return vraca mapu sa vozilima koji su bili najprofitabilniji za kompaniju
+     */
+    public static Map<String, Map.Entry<String, Double>> getTopRevenueVehiclesByType(Map<String, Double> revenueByVehicle, Map<String, String> vehicleTypes) {
         // Map za cuvanje najprofitabilnijeg vozila po tipu
         Map<String, Map.Entry<String, Double>> topRevenueVehicles = new HashMap<>();
 
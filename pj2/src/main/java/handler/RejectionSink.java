@@ -0,0 +1,262 @@
+package handler;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Klasa RejectionSink prima odbacene redove ulaznih CSV fajlova (neispravan red, duplikat, nepoznato vozilo...)
+ * umjesto ispisa svakog reda na konzolu. Za svaki razlog se vodi brojac, a odbaceni redovi se, sa razlogom,
+ * upisuju u karantinski fajl (TSV: razlog, red) iz posebne niti, pa ucitavanje ne ceka na upisivanje.
+ * Nit i fajl se prave tek pri prvom odbacenom redu; red zapisa je ogranicen, pa kada pisanje kasni,
+ * ucitavanje se usporava umjesto da zapisi zauzimaju memoriju. Na kraju ucitavanja se ispisuje jedan sumarni red.
+ */
+public class RejectionSink implements Closeable {
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+    private static final Rejection END = new Rejection(null, null); // Oznaka kraja za nit koja upisuje
+
+    private static Path quarantineFolder = Path.of("src/main/java/resources/quarantine");
+
+    /**
+     * Razlozi odbacivanja reda
+     */
+    public enum Reason {
+        INVALID_FORMAT, // Pogresan broj polja ili predugacak red
+        INVALID_VALUE, // Polje koje ne moze da se procita (npr. datum)
+        DUPLICATE_RENTAL, // Isto vozilo i isti datum kao u ranijem redu
+        UNKNOWN_VEHICLE, // Vozilo iznajmljivanja ne postoji
+        DUPLICATE_VEHICLE, // ID vozila je vec ucitan
+        UNKNOWN_VEHICLE_TYPE // Tip vozila nije automobil, bicikl ni trotinet
+    }
+
+    /**
+     * Jedan odbaceni red
+     */
+    private record Rejection(Reason reason, String row) {
+    }
+
+    private final String source;
+    private final Map<Reason, LongAdder> counters = new EnumMap<>(Reason.class);
+    private final BlockingQueue<Rejection> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Path file;
+    private Thread writer;
+    private volatile IOException error; // Prva greska prilikom upisivanja, prijavljuje se u sumarnom redu
+    private boolean closed = false;
+
+    /**
+     * Konstruktor klase RejectionSink
+     * @param source - ulazni fajl (njegovo ime je u imenu karantinskog fajla i u sumarnom redu)
+     */
+    public RejectionSink(Path source) {
+        Path fileName = source.getFileName();
+        this.source = (fileName != null ? fileName : source).toString();
+        for (Reason reason : Reason.values()) {
+            counters.put(reason, new LongAdder());
+        }
+        Path folder = quarantineFolder;
+        String name = this.source.replaceFirst("\\.[^.]*$", "");
+        file = folder == null ? null : folder.resolve(name + "_" + LocalDateTime.now().format(FILE_TIME_FORMAT) + ".tsv");
+    }
+
+    /**
+     * Metoda koja postavlja direktorijum u koji se upisuju karantinski fajlovi
+     * @param folder - direktorijum, ili null ako se odbaceni redovi samo broje
+     */
+    public static void setQuarantineFolder(Path folder) {
+        quarantineFolder = folder;
+    }
+
+    /**
+     * Metoda koja odbacuje jedan red
+     * @param reason - razlog odbacivanja
+     * @param row - red ulaznog fajla
+     */
+    public void reject(Reason reason, String row) {
+        counters.get(reason).increment();
+        if (file == null) {
+            return;
+        }
+        startWriter();
+        try {
+            queue.put(new Rejection(reason, row));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Metoda koja vraca broj odbacenih redova zbog zadatog razloga
+     * @param reason - razlog odbacivanja
+     * @return vraca broj redova
+     */
+    public long getCount(Reason reason) {
+        return counters.get(reason).sum();
+    }
+
+    /**
+     * Metoda koja vraca ukupan broj odbacenih redova
+     * @return vraca broj redova
+     */
+    public long getTotal() {
+        long total = 0;
+        for (LongAdder counter : counters.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Metoda koja vraca putanju karantinskog fajla
+     * @return vraca putanju, ili null ako nijedan red nije upisan
+     */
+    public synchronized Path getFile() {
+        return writer != null ? file : null;
+    }
+
+    /**
+     * Metoda koja pravi sumarni red ucitavanja, npr.
+     * "Loaded 36 rentals from iznajmljivanja.csv, rejected 5 rows (INVALID_FORMAT=1, DUPLICATE_RENTAL=3, UNKNOWN_VEHICLE=1), quarantined to ..."
+     * @param accepted - broj ucitanih objekata
+     * @param what - sta je ucitano (npr. "rentals")
+     * @return vraca sumarni red
+     */
+    public String summary(long accepted, String what) {
+        String line = "Loaded " + accepted + " " + what + " from " + source;
+        long total = getTotal();
+        if (total == 0) {
+            return line;
+        }
+        StringJoiner reasons = new StringJoiner(", ", " (", ")");
+        for (Map.Entry<Reason, LongAdder> entry : counters.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                reasons.add(entry.getKey() + "=" + count);
+            }
+        }
+        line += ", rejected " + total + (total == 1 ? " row" : " rows") + reasons;
+        Path written = getFile();
+        if (error != null) {
+            line += ", quarantine file not written: " + error.getMessage();
+        } else if (written != null) {
+            line += ", quarantined to " + written;
+        }
+        return line;
+    }
+
+    /**
+     * Metoda koja ceka da se svi odbaceni redovi upisu i zatvara karantinski fajl
+     */
+    @Override
+    public void close() {
+        Thread started;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            started = writer;
+        }
+        if (started == null) {
+            return;
+        }
+        boolean interrupted = false;
+        boolean ended = false;
+        while (started.isAlive()) {
+            try {
+                if (!ended) {
+                    queue.put(END);
+                    ended = true;
+                }
+                started.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pri prvom odbacenom redu pokrece nit koja upisuje karantinski fajl
+     */
+    private synchronized void startWriter() {
+        if (closed) {
+            throw new IllegalStateException("Rejection sink is closed");
+        }
+        if (writer == null) {
+            writer = new Thread(this::write, "quarantine-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Pomocna metoda koju izvrsava nit koja upisuje: uzima zapise iz reda do oznake kraja
+     * (nakon greske prilikom upisivanja zapisi se samo uzimaju, da ucitavanje ne bi cekalo)
+     */
+    private void write() {
+        BufferedWriter out = null;
+        try {
+            Files.createDirectories(file.getParent());
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            error = e;
+        }
+        while (true) {
+            Rejection rejection;
+            try {
+                rejection = queue.take();
+            } catch (InterruptedException e) {
+                continue; // Nit se zavrsava samo oznakom kraja, da se ne izgube zapisi
+            }
+            if (rejection == END) {
+                break;
+            }
+            if (out != null) {
+                try {
+                    out.write(rejection.reason().name());
+                    out.write('\t');
+                    out.write(rejection.row());
+                    out.newLine();
+                } catch (IOException e) {
+                    error = e;
+                    out = closeQuietly(out);
+                }
+            }
+        }
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Pomocna metoda koja zatvara fajl nakon greske
+     * @param out - fajl
+     * @return vraca null
+     */
+    private static BufferedWriter closeQuietly(BufferedWriter out) {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Prijavljuje se prva greska
+        }
+        return null;
+    }
+}
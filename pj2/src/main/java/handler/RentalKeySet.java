@@ -0,0 +1,466 @@
+package handler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Klasa RentalKeySet pamti kljuceve iznajmljivanja (indeks vozila u registru i minut pocetka, spakovani u long)
+ * za pravilo duplikata prilikom ucitavanja, bez objekata po redu fajla.
+ * Dok kljucevi staju u zadatu memoriju, cuvaju se u hes tabeli sa otvorenim adresiranjem (niz long).
+ * Kada bi tabela presla memorijski budzet, kljucevi se prebacuju u hes tabelu u fajlu mapiranom u memoriju,
+ * a ispred nje stoji Bloom filter u memoriji: za nov kljuc (skoro svaki red) filter odgovara bez citanja fajla,
+ * a samo kada filter javi moguci duplikat, kljuc se trazi u fajlu. Novi kljucevi se skupljaju u manjoj tabeli
+ * u memoriji i upisuju u fajl u paketima, poredani po poziciji u fajlu.
+ * Budzet se cita iz config.properties (DEDUP_MEMORY_MB), a moze se postaviti i metodom setMemoryBudget.
+ */
+public class RentalKeySet implements Closeable {
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    private static final String CONFIG_FILE_PATH = "src/main/java/resources/config.properties";
+    private static final int MINUTE_BITS = 40; // Minuti od 1.1.1970 (dovoljno za vise od dva miliona godina)
+    private static final long MINUTE_MASK = (1L << MINUTE_BITS) - 1;
+    private static final int MAX_VEHICLE_INDEX = (1 << (63 - MINUTE_BITS)) - 1;
+    private static final long EMPTY = -1; // Kljucevi nisu negativni
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int PENDING_CAPACITY = 1 << 16; // Broj novih kljuceva koji se upisuju u fajl odjednom
+    private static final int BLOOM_HASHES = 5;
+
+    private static Long memoryBudget = null; // null: budzet iz config.properties
+
+    private final long budget;
+    private LongTable memory = new LongTable(INITIAL_CAPACITY);
+    private BloomFilter bloom;
+    private LongTable pending; // Novi kljucevi koji jos nisu upisani u fajl
+    private MappedTable disk;
+    private long size = 0;
+
+    /**
+     * Konstruktor klase RentalKeySet sa budzetom iz config.properties (ili postavljenim metodom setMemoryBudget)
+     */
+    public RentalKeySet() {
+        this(memoryBudget != null ? memoryBudget : configuredMemoryBudget());
+    }
+
+    /**
+     * Konstruktor klase RentalKeySet
+     * @param budget - najveca memorija (u bajtovima) za kljuceve, nakon koje se prelazi na tabelu u fajlu
+     */
+    public RentalKeySet(long budget) {
+        if (budget < 2L * INITIAL_CAPACITY * Long.BYTES) {
+            throw new IllegalArgumentException("Memory budget is too small: " + budget);
+        }
+        this.budget = budget;
+    }
+
+    /**
+     * Metoda koja postavlja memorijski budzet za nove skupove kljuceva
+     * @param bytes - budzet u bajtovima, ili null za budzet iz config.properties
+     */
+    public static void setMemoryBudget(Long bytes) {
+        memoryBudget = bytes;
+    }
+
+    /**
+     * Metoda koja pakuje indeks vozila i vrijeme pocetka (na minut) u jedan kljuc
+     * @param vehicleIndex - indeks vozila u registru (VehicleRegistry.indexOf)
+     * @param startTime - vrijeme pocetka iznajmljivanja
+     * @return vraca kljuc
+     */
+    public static long key(int vehicleIndex, LocalDateTime startTime) {
+        if (vehicleIndex < 0 || vehicleIndex > MAX_VEHICLE_INDEX) {
+            throw new IllegalArgumentException("Vehicle index out of range: " + vehicleIndex);
+        }
+        long minute = Math.floorDiv(startTime.toEpochSecond(ZoneOffset.UTC), 60);
+        return ((long) vehicleIndex << MINUTE_BITS) | (minute & MINUTE_MASK);
+    }
+
+    /**
+     * Metoda koja dodaje kljuc
+     * @param key - kljuc (metoda key)
+     * @return vraca true ako kljuc nije ranije dodat, false za duplikat
+     */
+    public boolean add(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Invalid key: " + key);
+        }
+        boolean added = disk == null ? addToMemory(key) : addToDisk(key);
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Metoda koja provjerava da li je kljuc dodat
+     * @param key - kljuc (metoda key)
+     * @return vraca true ako je kljuc dodat
+     */
+    public boolean contains(long key) {
+        if (disk == null) {
+            return memory.contains(key);
+        }
+        return bloom.mightContain(key) && (pending.contains(key) || disk.contains(key));
+    }
+
+    /**
+     * Metoda koja vraca broj razlicitih kljuceva
+     * @return vraca broj kljuceva
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Metoda koja provjerava da li su kljucevi prebaceni u fajl
+     * @return vraca true ako je memorijski budzet premasen
+     */
+    public boolean isSpilled() {
+        return disk != null;
+    }
+
+    /**
+     * Metoda koja oslobadja memoriju i brise fajl sa kljucevima
+     */
+    @Override
+    public void close() {
+        memory = null;
+        bloom = null;
+        pending = null;
+        if (disk != null) {
+            disk.delete();
+            disk = null;
+        }
+    }
+
+    /**
+     * Pomocna metoda koja dodaje kljuc u tabelu u memoriji, a kada bi njeno povecanje premasilo budzet,
+     * prebacuje kljuceve u fajl
+     * @param key - kljuc
+     * @return vraca true ako kljuc nije ranije dodat
+     */
+    private boolean addToMemory(long key) {
+        if (memory.isFull()) {
+            if (memory.bytes() * 2 > budget) {
+                spill();
+                return addToDisk(key);
+            }
+            memory = memory.grow();
+        }
+        return memory.add(key);
+    }
+
+    /**
+     * Pomocna metoda koja dodaje kljuc kada su kljucevi u fajlu: Bloom filter, pa tek za moguci duplikat
+     * tabela novih kljuceva i tabela u fajlu
+     * @param key - kljuc
+     * @return vraca true ako kljuc nije ranije dodat
+     */
+    private boolean addToDisk(long key) {
+        if (contains(key)) {
+            return false;
+        }
+        bloom.put(key);
+        pending.add(key);
+        if (pending.isFull()) {
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * Pomocna metoda koja prebacuje kljuceve iz memorije u fajl; Bloom filter dobija vecinu budzeta
+     */
+    private void spill() {
+        LongTable pendingTable = new LongTable(PENDING_CAPACITY * 2);
+        long bloomBytes = Math.max(Long.BYTES, budget - pendingTable.bytes());
+        try {
+            disk = new MappedTable(Math.max(INITIAL_CAPACITY, Long.highestOneBit(memory.size()) * 4));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long[] keys = memory.toArray();
+        memory = null; // Oslobadjamo memoriju prije pravljenja filtera
+        bloom = new BloomFilter(bloomBytes * 8);
+        for (long key : keys) {
+            bloom.put(key);
+        }
+        addToFile(keys);
+        pending = pendingTable;
+    }
+
+    /**
+     * Pomocna metoda koja upisuje nove kljuceve u fajl
+     */
+    private void flush() {
+        addToFile(pending.toArray());
+        pending.clear();
+    }
+
+    /**
+     * Pomocna metoda koja upisuje nove kljuceve u tabelu u fajlu, a ako bi se tabela popunila preko polovine,
+     * prvo ih prepisuje u veci fajl
+     * @param keys - kljucevi kojih nema u tabeli
+     */
+    private void addToFile(long[] keys) {
+        long capacity = disk.capacity();
+        while ((disk.size + keys.length) * 2 > capacity) {
+            capacity *= 2;
+        }
+        try {
+            if (capacity != disk.capacity()) {
+                MappedTable bigger = new MappedTable(capacity);
+                bigger.copyFrom(disk);
+                disk.delete();
+                disk = bigger;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        disk.addAll(keys);
+    }
+
+    /**
+     * Pomocna metoda koja cita budzet iz config.properties (ako kljuc ne postoji, koristi se podrazumijevani)
+     * @return vraca budzet u bajtovima
+     */
+    private static long configuredMemoryBudget() {
+        try {
+            return new PropertiesHandler(CONFIG_FILE_PATH).getDedupMemoryBudget(DEFAULT_MEMORY_BUDGET);
+        } catch (IOException | NumberFormatException e) {
+            return DEFAULT_MEMORY_BUDGET;
+        }
+    }
+
+    /**
+     * Pomocna metoda koja mijesa bitove kljuca (hes)
+     * @param key - kljuc
+     * @return vraca hes
+     */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    /**
+     * Hes tabela kljuceva sa otvorenim adresiranjem (linearno trazenje), popunjena najvise do polovine
+     */
+    private static final class LongTable {
+        private final long[] slots;
+        private final int mask;
+        private int size = 0;
+
+        private LongTable(int capacity) {
+            slots = new long[capacity];
+            Arrays.fill(slots, EMPTY);
+            mask = capacity - 1;
+        }
+
+        private boolean add(long key) {
+            int i = (int) mix(key) & mask;
+            while (slots[i] != EMPTY) {
+                if (slots[i] == key) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            slots[i] = key;
+            size++;
+            return true;
+        }
+
+        private boolean contains(long key) {
+            int i = (int) mix(key) & mask;
+            while (slots[i] != EMPTY) {
+                if (slots[i] == key) {
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        private boolean isFull() {
+            return size * 2 >= slots.length;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private long bytes() {
+            return (long) slots.length * Long.BYTES;
+        }
+
+        private LongTable grow() {
+            LongTable bigger = new LongTable(slots.length * 2);
+            for (long key : slots) {
+                if (key != EMPTY) {
+                    bigger.add(key);
+                }
+            }
+            return bigger;
+        }
+
+        private long[] toArray() {
+            long[] keys = new long[size];
+            int n = 0;
+            for (long key : slots) {
+                if (key != EMPTY) {
+                    keys[n++] = key;
+                }
+            }
+            return keys;
+        }
+
+        private void clear() {
+            Arrays.fill(slots, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Bloom filter nad kljucevima (pozicije bitova iz dva hesa, Kirsch-Mitzenmacher)
+     */
+    private static final class BloomFilter {
+        private final long[] bits;
+        private final long bitCount;
+
+        private BloomFilter(long bitCount) {
+            long words = Math.min(Integer.MAX_VALUE - 8, Math.max(1, bitCount / 64));
+            bits = new long[(int) words];
+            this.bitCount = words * 64;
+        }
+
+        private void put(long key) {
+            long h1 = mix(key);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        private boolean mightContain(long key) {
+            long h1 = mix(key);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Hes tabela kljuceva sa otvorenim adresiranjem u privremenom fajlu mapiranom u memoriju, u segmentima
+     * od po 128 MB. U fajlu je prazno mjesto 0, pa se cuva kljuc + 1. Kada se popuni do polovine,
+     * kljucevi se prepisuju u dvostruko veci fajl.
+     */
+    private static final class MappedTable {
+        private static final int SEGMENT_SHIFT = 24; // 2^24 kljuceva po segmentu
+        private static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+
+        private final Path file;
+        private final LongBuffer[] segments;
+        private final long mask;
+        private long size = 0;
+
+        private MappedTable(long capacity) throws IOException {
+            file = Files.createTempFile("rental-keys", ".bin");
+            file.toFile().deleteOnExit();
+            mask = capacity - 1;
+            int segmentCount = (int) Math.max(1, capacity >>> SEGMENT_SHIFT);
+            segments = new LongBuffer[segmentCount];
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long slotsPerSegment = Math.min(capacity, SEGMENT_SLOTS);
+                for (int i = 0; i < segmentCount; i++) {
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * slotsPerSegment * Long.BYTES,
+                            slotsPerSegment * Long.BYTES).asLongBuffer();
+                }
+            }
+        }
+
+        private long get(long slot) {
+            return segments[(int) (slot >>> SEGMENT_SHIFT)].get((int) (slot & (SEGMENT_SLOTS - 1)));
+        }
+
+        private void set(long slot, long value) {
+            segments[(int) (slot >>> SEGMENT_SHIFT)].put((int) (slot & (SEGMENT_SLOTS - 1)), value);
+        }
+
+        private boolean contains(long key) {
+            long slot = mix(key) & mask;
+            long stored;
+            while ((stored = get(slot)) != 0) {
+                if (stored == key + 1) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private void insert(long key) {
+            long slot = mix(key) & mask;
+            while (get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            set(slot, key + 1);
+            size++;
+        }
+
+        private long capacity() {
+            return mask + 1;
+        }
+
+        /**
+         * Dodaje nove kljuceve (kojih nema u tabeli), poredane po poziciji u fajlu, da bi se fajl pisao redom
+         */
+        private void addAll(long[] keys) {
+            long[] slots = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                slots[i] = mix(keys[i]) & mask;
+            }
+            Integer[] order = new Integer[keys.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(slots[a], slots[b]));
+            for (int i : order) {
+                insert(keys[i]);
+            }
+        }
+
+        /**
+         * Prepisuje sve kljuceve manje tabele (cita se redom kroz fajl)
+         */
+        private void copyFrom(MappedTable smaller) {
+            for (long slot = 0; slot < smaller.capacity(); slot++) {
+                long stored = smaller.get(slot);
+                if (stored != 0) {
+                    insert(stored - 1);
+                }
+            }
+        }
+
+        private void delete() {
+            Arrays.fill(segments, null);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Fajl je oznacen za brisanje pri izlasku
+            }
+        }
+    }
+}
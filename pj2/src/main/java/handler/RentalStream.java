@@ -0,0 +1,364 @@
+package handler;
+
+import model.Vehicle;
+import model.VehicleRegistry;
+import rent.LoyaltyLedger;
+import rent.Rental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Klasa RentalStream cita iznajmljivanja iz CSV fajla kao tok, poredan po vremenu pocetka, uz ogranicenu memoriju.
+ * Fajl se cita u dijelovima (run) od najvise runSize redova: svaki dio se sortira po vremenu pocetka i upisuje
+ * u privremeni fajl, a zatim se svi dijelovi spajaju (k-way merge) dok se iznajmljivanja citaju iz toka.
+ * U memoriji je u svakom trenutku najvise jedan dio i po jedan red iz svakog privremenog fajla, bez obzira na velicinu ulaza.
+ * Redoslijed je isti kao kod CSVHandler.loadRentals (po vremenu pocetka, a za isto vrijeme po redoslijedu u fajlu).
+ * Duplikati (isto vozilo i isto vrijeme pocetka) su u toku jedan do drugog, pa je za njihovo
+ * prepoznavanje dovoljno pamtiti vozila trenutnog vremena. Redni broj iznajmljivanja korisnika (zbog popusta,
+ * LoyaltyLedger) se dodjeljuje redom kojim se iznajmljivanja citaju iz toka, tj. po vremenu pocetka, isto kao kod loadRentals.
+ * Odbaceni redovi idu u RejectionSink, a sumarni red ucitavanja se ispisuje kada se tok zatvori.
+ */
+public class RentalStream implements Iterator<Rental>, Closeable {
+    public static final int DEFAULT_RUN_SIZE = 50_000;
+    private static final int MAX_LINE_LENGTH = 16_384; // Privremeni fajlovi cuvaju red kao UTF (najvise 64 KB)
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm");
+    private static final Comparator<Row> ROW_ORDER = Comparator.comparingLong(Row::time).thenComparingLong(Row::line);
+
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+    private final VehicleRegistry vehicles;
+    private final LoyaltyLedger loyalty = new LoyaltyLedger();
+    private final RejectionSink rejected;
+    private final PriorityQueue<Run> runs = new PriorityQueue<>((a, b) -> ROW_ORDER.compare(a.current, b.current));
+    private final List<Run> openRuns = new ArrayList<>();
+    private Path spillFolder; // Direktorijum privremenih fajlova (null ako je cijeli ulaz stao u jedan dio)
+    private int spilledRuns = 0;
+
+    private Rental nextRental;
+    private long currentTime = Long.MIN_VALUE;
+    private final Set<Vehicle> currentVehicles = Collections.newSetFromMap(new IdentityHashMap<>()); // Vozila za trenutno vrijeme pocetka
+    private long rentalCount = 0;
+    private boolean closed = false;
+
+    /**
+     * Red CSV fajla sa vremenom pocetka (u sekundama) i rednim brojem reda u fajlu
+     */
+    private record Row(long time, long line, String text) {
+    }
+
+    /**
+     * Jedan sortirani dio ulaza: ili u memoriji (posljednji dio) ili u privremenom fajlu
+     */
+    private static final class Run implements Closeable {
+        private final Iterator<Row> memory;
+        private final DataInputStream in;
+        private Row current;
+
+        private Run(Iterator<Row> memory, DataInputStream in) {
+            this.memory = memory;
+            this.in = in;
+        }
+
+        private boolean advance() throws IOException {
+            if (memory != null) {
+                current = memory.hasNext() ? memory.next() : null;
+                return current != null;
+            }
+            try {
+                long time = in.readLong();
+                current = new Row(time, in.readLong(), in.readUTF());
+                return true;
+            } catch (EOFException e) {
+                current = null;
+                return false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Konstruktor klase RentalStream, samo postavlja atribute; tok se otvara metodom open
+     * @param filePath - putanja CSV fajla sa iznajmljivanjima
+     * @param vehicles - registar vozila
+     */
+    private RentalStream(Path filePath, VehicleRegistry vehicles) {
+        this.vehicles = vehicles;
+        this.rejected = new RejectionSink(filePath);
+    }
+
+    /**
+     * Metoda koja otvara tok: cita cijeli fajl jednom, priprema sortirane dijelove i cita prvo iznajmljivanje.
+     * Ako otvaranje ne uspije, privremeni fajlovi se brisu prije nego sto se greska proslijedi
+     * @param filePath - putanja CSV fajla sa iznajmljivanjima
+     * @param vehicles - registar vozila
+     * @param runSize - najveci broj redova koji se istovremeno drzi u memoriji prilikom sortiranja
+     * @return vraca otvoren tok iznajmljivanja
+     * @throws IOException ako fajl ne moze da se procita ili privremeni fajlovi ne mogu da se upisu
+     */
+    public static RentalStream open(Path filePath, VehicleRegistry vehicles, int runSize) throws IOException {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+        RentalStream stream = new RentalStream(filePath, vehicles);
+        try {
+            stream.split(filePath, runSize);
+            stream.advance();
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+        return stream;
+    }
+
+    /**
+     * Pomocna metoda koja cita fajl i dijeli ga na sortirane dijelove (posljednji dio ostaje u memoriji)
+     * @param filePath - putanja CSV fajla sa iznajmljivanjima
+     * @param runSize - najveci broj redova jednog dijela
+     * @throws IOException ako fajl ne moze da se procita ili privremeni fajlovi ne mogu da se upisu
+     */
+    private void split(Path filePath, int runSize) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+            String line = br.readLine(); // Preskacemo header (prvi red)
+            long lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) continue;
+
+                if (!tokenize(line)) {
+                    rejected.reject(RejectionSink.Reason.INVALID_FORMAT, line);
+                    continue;
+                }
+                long time = parseTime(tokenizer.get(0));
+                if (time == Long.MIN_VALUE
+                        || !Rental.isValidLocation(tokenizer.get(3)) || !Rental.isValidLocation(tokenizer.get(4))) {
+                    rejected.reject(RejectionSink.Reason.INVALID_VALUE, line);
+                    continue;
+                }
+                rows.add(new Row(time, lineNumber, line));
+                if (rows.size() == runSize) {
+                    spill(rows);
+                    rows.clear();
+                }
+            }
+        }
+        rows.sort(ROW_ORDER);
+        addRun(new Run(rows.iterator(), null));
+    }
+
+    /**
+     * Metoda koja vraca tok iznajmljivanja (java.util.stream), koji zatvara ovaj objekat kada se tok zatvori
+     * @return vraca sekvencijalni, poredani tok iznajmljivanja
+     */
+    public Stream<Rental> stream() {
+        Spliterator<Rental> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Metoda koja vraca broj dijelova koji su upisani u privremene fajlove
+     * @return vraca broj privremenih fajlova (0 ako je cijeli ulaz sortiran u memoriji)
+     */
+    public int getSpilledRuns() {
+        return spilledRuns;
+    }
+
+    /**
+     * Metoda koja provjerava da li u toku ima jos iznajmljivanja
+     * @return vraca true ako postoji naredno iznajmljivanje
+     */
+    @Override
+    public boolean hasNext() {
+        return nextRental != null;
+    }
+
+    /**
+     * Metoda koja vraca naredno iznajmljivanje po vremenu pocetka
+     * @return vraca naredno iznajmljivanje
+     */
+    @Override
+    public Rental next() {
+        if (nextRental == null) {
+            throw new NoSuchElementException();
+        }
+        Rental rental = nextRental;
+        try {
+            advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rental;
+    }
+
+    /**
+     * Metoda koja zatvara privremene fajlove i brise ih (poziva se i automatski kada se tok procita do kraja)
+     * i ispisuje sumarni red ucitavanja
+     * @throws IOException ako privremeni fajlovi ne mogu da se obrisu
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        nextRental = null;
+        runs.clear();
+        for (Run run : openRuns) {
+            run.close();
+        }
+        openRuns.clear();
+        try {
+            if (spillFolder != null) {
+                try (Stream<Path> files = Files.list(spillFolder)) {
+                    for (Path file : files.toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+                Files.deleteIfExists(spillFolder);
+            }
+        } finally {
+            rejected.close();
+            System.out.println(rejected.summary(rentalCount, "rentals"));
+        }
+    }
+
+    /**
+     * Pomocna metoda koja sortira jedan dio ulaza i upisuje ga u privremeni fajl
+     * @param rows - redovi jednog dijela
+     * @throws IOException ako privremeni fajl ne moze da se upise
+     */
+    private void spill(List<Row> rows) throws IOException {
+        if (spillFolder == null) {
+            spillFolder = Files.createTempDirectory("rentals");
+        }
+        rows.sort(ROW_ORDER);
+        Path file = spillFolder.resolve("run-" + spilledRuns++ + ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (Row row : rows) {
+                out.writeLong(row.time());
+                out.writeLong(row.line());
+                out.writeUTF(row.text());
+            }
+        }
+        addRun(new Run(null, new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))));
+    }
+
+    /**
+     * Pomocna metoda koja dodaje dio u spajanje, ako nije prazan
+     * @param run - sortirani dio ulaza
+     * @throws IOException ako prvi red ne moze da se procita
+     */
+    private void addRun(Run run) throws IOException {
+        openRuns.add(run);
+        if (run.advance()) {
+            runs.add(run);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja iz spojenih dijelova cita redove dok ne pronadje naredno ispravno iznajmljivanje
+     * (odbacuje duplikate i nepostojeca vozila, kao CSVHandler.loadRentals)
+     * @throws IOException ako privremeni fajl ne moze da se procita
+     */
+    private void advance() throws IOException {
+        nextRental = null;
+        while (nextRental == null && !runs.isEmpty()) {
+            Run run = runs.poll();
+            Row row = run.current;
+            if (run.advance()) {
+                runs.add(run);
+            }
+            nextRental = toRental(row);
+        }
+        if (nextRental != null) {
+            rentalCount++;
+        }
+        if (nextRental == null) {
+            close();
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pravi iznajmljivanje od jednog reda
+     * @param row - red CSV fajla
+     * @return vraca iznajmljivanje, ili null ako je red duplikat ili vozilo ne postoji
+     */
+    private Rental toRental(Row row) {
+        if (row.time() != currentTime) {
+            currentTime = row.time();
+            currentVehicles.clear();
+        }
+        tokenize(row.text());
+        String date = tokenizer.get(0);
+        String vehicleId = tokenizer.get(2);
+
+        Vehicle rentedVehicle = vehicles.get(vehicleId);
+        if (rentedVehicle == null) {
+            rejected.reject(RejectionSink.Reason.UNKNOWN_VEHICLE, row.text());
+            return null;
+        }
+
+        // Provera da li je par (vozilo, vrijeme pocetka) vec obradjen
+        if (currentVehicles.contains(rentedVehicle)) {
+            rejected.reject(RejectionSink.Reason.DUPLICATE_RENTAL, row.text());
+            return null;
+        }
+        Rental rental = new Rental(date, tokenizer.get(1), rentedVehicle, tokenizer.get(3), tokenizer.get(4),
+                tokenizer.getInt(5, 0), tokenizer.get(6), tokenizer.get(7));
+        // Vozilo i redni broj korisnika se evidentiraju tek kada je red u potpunosti provjeren
+        currentVehicles.add(rentedVehicle);
+        loyalty.assign(rental);
+        return rental;
+    }
+
+    /**
+     * Pomocna metoda koja razdvaja red na polja (rezultat je u tokenizer-u)
+     * @param line - red CSV fajla
+     * @return vraca false ako red nije ispravan (broj polja ili duzina reda)
+     */
+    private boolean tokenize(String line) {
+        return line.length() <= MAX_LINE_LENGTH && tokenizer.tokenize(line) == 8;
+    }
+
+    /**
+     * Pomocna metoda koja pretvara datum u broj sekundi (kljuc za sortiranje)
+     * @param date - datum u formatu d.M.yyyy HH:mm
+     * @return vraca broj sekundi od 1.1.1970, ili Long.MIN_VALUE ako datum nije ispravan
+     */
+    private static long parseTime(String date) {
+        try {
+            return LocalDateTime.parse(date, DATE_FORMAT).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package handler;
+
+import model.Vehicle;
+import model.VehicleRegistry;
+import rent.LoyaltyLedger;
+import rent.Rental;
+import rent.RentalInbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Klasa RentalTail prati fajl iznajmljivanja (ili direktorijum u koji se ubacuju CSV fajlovi) preko WatchService-a
+ * i nova iznajmljivanja salje u sanduce (RentalInbox) simulacije koja je u toku.
+ * Za svaki fajl se pamti pozicija do koje je procitan, pa se cita samo ono sto je dopisano; nezavrsen posljednji red
+ * se cuva dok ne stigne ostatak reda. Ako se fajl skrati (prepisan je), cita se ponovo od pocetka,
+ * a vec ucitana iznajmljivanja preskace pravilo duplikata (isto vozilo i isto vrijeme pocetka, prvi red vazi).
+ * Redovi se provjeravaju kao u CSVHandler.loadRentals, a redni brojevi korisnika (LoyaltyLedger) nastavljaju se
+ * od vec ucitanih iznajmljivanja, redom kojim novi redovi stizu. Pored obavjestenja WatchService-a, fajlovi se provjeravaju
+ * i jednom u sekundi, jer neki sistemi obavjestenja kasne ili ih gube.
+ * Odbaceni redovi idu u RejectionSink, a njihov broj po razlozima se ispisuje kada se pracenje zaustavi.
+ */
+public class RentalTail implements Closeable {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy HH:mm");
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final Predicate<Path> filter;
+    private final VehicleRegistry vehicles;
+    private final RentalInbox inbox;
+    private final RejectionSink rejected;
+    private final Map<Path, FileState> files = new HashMap<>();
+    private final RentalKeySet processedRentals = new RentalKeySet();
+    private final LoyaltyLedger loyalty;
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile boolean closed = false;
+    private long rentalCount = 0;
+
+    /**
+     * Stanje jednog pracenog fajla: procitana pozicija i pocetak nezavrsenog reda
+     */
+    private static final class FileState {
+        private long offset;
+        private boolean header; // Da li prvi procitani red treba preskociti (citanje od pocetka fajla)
+        private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+
+        private FileState(long offset) {
+            this.offset = offset;
+            this.header = offset == 0;
+        }
+    }
+
+    /**
+     * Konstruktor klase RentalTail
+     * @param directory - direktorijum koji se prati
+     * @param source - pracen fajl ili direktorijum (za karantinski fajl i sumarni red)
+     * @param filter - koji fajlovi direktorijuma se citaju
+     * @param vehicles - registar vozila
+     * @param known - vec ucitana iznajmljivanja (za pravilo duplikata)
+     * @param inbox - sanduce u koje se salju nova iznajmljivanja
+     * @throws IOException ako direktorijum ne moze da se prati
+     */
+    private RentalTail(Path directory, Path source, Predicate<Path> filter, VehicleRegistry vehicles, Collection<Rental> known, RentalInbox inbox) throws IOException {
+        this.directory = directory;
+        this.filter = filter;
+        this.vehicles = vehicles;
+        this.inbox = inbox;
+        this.rejected = new RejectionSink(source);
+        this.loyalty = new LoyaltyLedger(known);
+        for (Rental rental : known) {
+            int vehicleIndex = vehicles.indexOf(rental.getVehicle().getId());
+            if (vehicleIndex >= 0) {
+                processedRentals.add(RentalKeySet.key(vehicleIndex, rental.getStartTime()));
+            }
+        }
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "rental-tail");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Metoda koja pocinje pracenje jednog fajla iznajmljivanja od zadate pozicije
+     * @param file - fajl iznajmljivanja
+     * @param offset - pozicija do koje je fajl vec ucitan (npr. velicina fajla prije ucitavanja)
+     * @param vehicles - registar vozila
+     * @param known - vec ucitana iznajmljivanja (za pravilo duplikata)
+     * @param inbox - sanduce u koje se salju nova iznajmljivanja
+     * @return vraca pokrenuto pracenje
+     * @throws IOException ako fajl ne moze da se prati
+     */
+    public static RentalTail file(Path file, long offset, VehicleRegistry vehicles, Collection<Rental> known, RentalInbox inbox) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        RentalTail tail = new RentalTail(absolute.getParent(), absolute, absolute::equals, vehicles, known, inbox);
+        tail.files.put(absolute, new FileState(offset));
+        tail.thread.start();
+        System.out.println("Tailing " + absolute + " from byte " + offset);
+        return tail;
+    }
+
+    /**
+     * Metoda koja pocinje pracenje direktorijuma: svaki novi CSV fajl (sa header-om) se cita od pocetka,
+     * a fajlovi koji vec postoje samo od trenutnog kraja
+     * @param directory - direktorijum u koji se ubacuju fajlovi iznajmljivanja
+     * @param vehicles - registar vozila
+     * @param known - vec ucitana iznajmljivanja (za pravilo duplikata)
+     * @param inbox - sanduce u koje se salju nova iznajmljivanja
+     * @return vraca pokrenuto pracenje
+     * @throws IOException ako direktorijum ne moze da se prati
+     */
+    public static RentalTail directory(Path directory, VehicleRegistry vehicles, Collection<Rental> known, RentalInbox inbox) throws IOException {
+        Path absolute = directory.toAbsolutePath();
+        RentalTail tail = new RentalTail(absolute, absolute, path -> path.getFileName().toString().endsWith(".csv"), vehicles, known, inbox);
+        try (DirectoryStream<Path> existing = Files.newDirectoryStream(absolute, "*.csv")) {
+            for (Path file : existing) {
+                tail.files.put(file, new FileState(Files.size(file)));
+            }
+        }
+        tail.thread.start();
+        System.out.println("Watching " + absolute + " for rental files");
+        return tail;
+    }
+
+    /**
+     * Metoda koja vraca broj iznajmljivanja poslatih u sanduce
+     * @return vraca broj iznajmljivanja
+     */
+    public synchronized long getRentalCount() {
+        return rentalCount;
+    }
+
+    /**
+     * Metoda koja zaustavlja pracenje (nakon citanja onoga sto je do tada dopisano) i zatvara sanduce
+     * @throws IOException u slucaju greske prilikom zatvaranja
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            watchService.close();
+            inbox.close();
+            rejected.close();
+            processedRentals.close();
+        }
+        System.out.println("Stopped tailing. " + rejected.summary(getRentalCount(), "new rentals"));
+    }
+
+    /**
+     * Pomocna metoda koju izvrsava nit pracenja: ceka obavjestenja i cita dopisane dijelove fajlova
+     */
+    private void watch() {
+        while (!closed) {
+            try {
+                WatchKey key = watchService.poll(1, TimeUnit.SECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() != StandardWatchEventKinds.OVERFLOW && event.context() instanceof Path name) {
+                            Path file = directory.resolve(name);
+                            if (filter.test(file)) {
+                                files.computeIfAbsent(file, f -> new FileState(0));
+                            }
+                        }
+                    }
+                    key.reset();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+            readAll();
+        }
+        readAll(); // Ono sto je dopisano prije zatvaranja
+    }
+
+    /**
+     * Pomocna metoda koja cita dopisane dijelove svih pracenih fajlova i ispisuje jedan sumarni red
+     * za sva iznajmljivanja procitana u ovom prolazu (ne po jedan red za svako iznajmljivanje)
+     */
+    private void readAll() {
+        long before = getRentalCount();
+        for (Map.Entry<Path, FileState> entry : files.entrySet()) {
+            try {
+                readAppended(entry.getKey(), entry.getValue());
+            } catch (NoSuchFileException e) {
+                // Fajl je obrisan, ceka se da ponovo nastane
+            } catch (IOException e) {
+                System.out.println("Cannot read " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        long added = getRentalCount() - before;
+        if (added > 0) {
+            System.out.println("Read " + added + " new rentals (" + getRentalCount() + " since tailing started)");
+        }
+    }
+
+    /**
+     * Pomocna metoda koja cita dio fajla dopisan od posljednjeg citanja i obradjuje zavrsene redove
+     * @param file - fajl
+     * @param state - stanje fajla
+     * @throws IOException ako fajl ne moze da se procita
+     */
+    private void readAppended(Path file, FileState state) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < state.offset) {
+                System.out.println("File " + file + " was truncated, reading it again.");
+                state.offset = 0;
+                state.header = true;
+                state.partial.reset();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            while (state.offset < size) {
+                buffer.clear();
+                int read = channel.read(buffer, state.offset);
+                if (read <= 0) {
+                    break;
+                }
+                state.offset += read;
+                byte[] bytes = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '\n') {
+                        state.partial.write(bytes, lineStart, i - lineStart);
+                        String line = state.partial.toString(StandardCharsets.UTF_8);
+                        state.partial.reset();
+                        lineStart = i + 1;
+                        if (state.header) {
+                            state.header = false;
+                        } else {
+                            processLine(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+                        }
+                    }
+                }
+                state.partial.write(bytes, lineStart, read - lineStart);
+            }
+        }
+    }
+
+    /**
+     * Pomocna metoda koja provjerava jedan red (kao CSVHandler.loadRentals) i salje iznajmljivanje u sanduce
+     * @param line - red fajla
+     */
+    private void processLine(String line) {
+        if (line.trim().isEmpty()) return;
+        if (tokenizer.tokenize(line) != 8) {
+            rejected.reject(RejectionSink.Reason.INVALID_FORMAT, line);
+            return;
+        }
+
+        String vehicleId = tokenizer.get(2);
+        int vehicleIndex = vehicles.indexOf(vehicleId);
+        if (vehicleIndex < 0) {
+            rejected.reject(RejectionSink.Reason.UNKNOWN_VEHICLE, line);
+            return;
+        }
+        Vehicle vehicle = vehicles.getVehicles().get(vehicleIndex);
+        Rental rental;
+        try {
+            LocalDateTime startTime = LocalDateTime.parse(tokenizer.get(0), DATE_FORMATTER);
+            if (!Rental.isValidLocation(tokenizer.get(3)) || !Rental.isValidLocation(tokenizer.get(4))) {
+                rejected.reject(RejectionSink.Reason.INVALID_VALUE, line);
+                return;
+            }
+            long key = RentalKeySet.key(vehicleIndex, startTime);
+            if (processedRentals.contains(key)) {
+                rejected.reject(RejectionSink.Reason.DUPLICATE_RENTAL, line);
+                return;
+            }
+            int duration = tokenizer.getInt(5, 0);
+            rental = new Rental(tokenizer.get(0), tokenizer.get(1), vehicle, tokenizer.get(3), tokenizer.get(4),
+                    duration, tokenizer.get(6), tokenizer.get(7));
+            processedRentals.add(key);
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            rejected.reject(RejectionSink.Reason.INVALID_VALUE, line);
+            return;
+        }
+        loyalty.assign(rental); // Redni broj tek nakon provjere cijelog reda
+        synchronized (this) {
+            rentalCount++;
+        }
+        inbox.add(rental);
+    }
+}
@@ -0,0 +1,69 @@
+package handler;
+
+import rent.Results;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Klasa ResultsHandler upisuje rezultate poslovanja (sumarni i dnevne izvjestaje) u tekstualni fajl
+ * Koristi se kada se simulacija pokrece bez GUI-ja, pa rezultati nemaju gdje da se prikazu
+ */
+public class ResultsHandler {
+    private static final String FOLDER_PATH = "src/main/java/resources/results";
+
+    /**
+     * Metoda koja upisuje rezultate poslovanja u poseban fajl u direktorijumu za rezultate
+     * @param summary - sumarni izvjestaj
+     * @param daily - dnevni izvjestaji
+     * @return vraca putanju do upisanog fajla
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    public static String writeResults(Results summary, List<Results> daily) throws IOException {
+        File folder = new File(FOLDER_PATH);
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+
+        String fileName = FOLDER_PATH + "/results_" + LocalDateTime.now() + ".txt";
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
+            StringBuilder content = new StringBuilder();
+            content.append("SUMMARY REPORT\n");
+            appendValues(content, summary);
+            content.append("Company Costs: ").append(summary.getCompanyCosts()).append("\n");
+            content.append("Total Tax: ").append(summary.getTotalTax()).append("\n");
+
+            content.append("\nDAILY REPORT\n");
+            daily.stream()
+                    .sorted(Comparator.comparing(Results::getResultDate))
+                    .forEach(result -> {
+                        content.append("\nDate: ").append(result.getResultDate()).append("\n");
+                        appendValues(content, result);
+                    });
+
+            writer.write(content.toString());
+        }
+        return fileName;
+    }
+
+    /**
+     * Pomocna metoda koja dodaje vrijednosti koje su zajednicke za sumarni i dnevni izvjestaj
+     * @param content - sadrzaj fajla
+     * @param result - izvjestaj
+     */
+    private static void appendValues(StringBuilder content, Results result) {
+        content.append("Total Revenue: ").append(result.getTotalRevenue()).append("\n");
+        content.append("Total Discount: ").append(result.getTotalDiscount()).append("\n");
+        content.append("Total Promotions: ").append(result.getTotalPromo()).append("\n");
+        content.append("Narrow City Rides: ").append(result.getTotalNarrowIncome()).append("\n");
+        content.append("Wide City Rides: ").append(result.getTotalWideIncome()).append("\n");
+        content.append("Maintenance Cost: ").append(result.getMaintenanceCost()).append("\n");
+        content.append("Repair Cost: ").append(result.getRepairCost()).append("\n");
+    }
+}
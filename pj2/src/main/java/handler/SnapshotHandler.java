@@ -0,0 +1,343 @@
+package handler;
+
+import model.*;
+import pricing.PricingConfig;
+import pricing.PricingManager;
+import rent.Rental;
+import rent.RentalTable;
+
+import java.io.*;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Klasa SnapshotHandler cuva ucitanu flotu i iznajmljivanja u binarnom snapshot-u, da se pri narednom pokretanju
+ * ne bi ponovo parsirali CSV fajlovi (razdvajanje redova, parsiranje datuma, citanje konfiguracije za svako iznajmljivanje).
+ * Snapshot pamti velicinu, vrijeme izmjene i SHA-256 hes oba CSV fajla; ako se bilo sta od toga promijeni
+ * (ili se promijeni verzija formata), snapshot se odbacuje, fajlovi se parsiraju kao ranije i snapshot se ponovo upisuje.
+ * Cijene se ne cuvaju u snapshot-u, nego se pri ucitavanju racunaju prema trenutnoj konfiguraciji.
+ */
+public class SnapshotHandler {
+    static final int MAGIC = 0x4A43534E; // "JCSN"
+    static final int VERSION = 2; // 2: redni brojevi iznajmljivanja su po korisniku (LoyaltyLedger)
+    private static final DateTimeFormatter CAR_DATE_FORMATTER = DateTimeFormatter.ofPattern("d.M.yyyy.");
+
+    private static final byte CAR = 0;
+    private static final byte BIKE = 1;
+    private static final byte SCOOTER = 2;
+
+    private static final byte FAULT = 1;
+    private static final byte PROMOTION = 2;
+
+    /**
+     * Ucitana flota i iznajmljivanja
+     * @param vehicles - vozila u redoslijedu iz fajla
+     * @param registry - registar vozila
+     * @param rentals - iznajmljivanja poredana po vremenu pocetka
+     * @param table - tabela istih iznajmljivanja, u istom redoslijedu (za rezultate poslovanja)
+     */
+    public record Snapshot(List<Vehicle> vehicles, VehicleRegistry registry, List<Rental> rentals, RentalTable table) {
+        /**
+         * Konstruktor koji pravi tabelu iznajmljivanja odmah pri ucitavanju
+         * @param vehicles - vozila u redoslijedu iz fajla
+         * @param registry - registar vozila
+         * @param rentals - iznajmljivanja poredana po vremenu pocetka
+         */
+        public Snapshot(List<Vehicle> vehicles, VehicleRegistry registry, List<Rental> rentals) {
+            this(vehicles, registry, rentals, RentalTable.of(rentals));
+        }
+    }
+
+    /**
+     * Velicina, vrijeme izmjene i hes jednog izvornog fajla
+     */
+    private record Source(long size, long modified, byte[] hash) {
+        private boolean matches(Source other) {
+            return size == other.size && modified == other.modified && Arrays.equals(hash, other.hash);
+        }
+    }
+
+    /**
+     * Metoda koja ucitava flotu i iznajmljivanja iz snapshot-a ako je ispravan, a inace ih parsira iz CSV fajlova
+     * (CSVHandler.loadVehicles i CSVHandler.loadRentals) i upisuje novi snapshot
+     * @param vehiclesFilePath - putanja CSV fajla sa vozilima
+     * @param rentalsFilePath - putanja CSV fajla sa iznajmljivanjima
+     * @param snapshotFilePath - putanja snapshot-a
+     * @return vraca ucitanu flotu i iznajmljivanja
+     */
+    public static Snapshot load(String vehiclesFilePath, String rentalsFilePath, String snapshotFilePath) {
+        Path snapshotPath = Path.of(snapshotFilePath);
+        Source vehiclesSource;
+        Source rentalsSource;
+        try {
+            vehiclesSource = source(Path.of(vehiclesFilePath));
+            rentalsSource = source(Path.of(rentalsFilePath));
+        } catch (IOException e) {
+            System.out.println("Snapshot not used, cannot read source files: " + e.getMessage());
+            return parse(vehiclesFilePath, rentalsFilePath);
+        }
+
+        if (Files.exists(snapshotPath)) {
+            try {
+                Snapshot snapshot = read(snapshotPath, vehiclesSource, rentalsSource);
+                if (snapshot != null) {
+                    System.out.println("Loaded snapshot " + snapshotPath);
+                    return snapshot;
+                }
+                System.out.println("Snapshot is out of date, parsing CSV files.");
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Snapshot cannot be read (" + e.getMessage() + "), parsing CSV files.");
+            }
+        }
+
+        Snapshot snapshot = parse(vehiclesFilePath, rentalsFilePath);
+        if (!snapshot.vehicles().isEmpty()) {
+            try {
+                write(snapshotPath, vehiclesSource, rentalsSource, snapshot);
+            } catch (IOException e) {
+                System.out.println("Snapshot cannot be written: " + e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Pomocna metoda koja parsira CSV fajlove
+     * @param vehiclesFilePath - putanja CSV fajla sa vozilima
+     * @param rentalsFilePath - putanja CSV fajla sa iznajmljivanjima
+     * @return vraca ucitanu flotu i iznajmljivanja
+     */
+    private static Snapshot parse(String vehiclesFilePath, String rentalsFilePath) {
+        List<Vehicle> vehicles = CSVHandler.loadVehicles(vehiclesFilePath);
+        VehicleRegistry registry = new VehicleRegistry(vehicles);
+        return new Snapshot(vehicles, registry, CSVHandler.loadRentals(rentalsFilePath, registry));
+    }
+
+    /**
+     * Pomocna metoda koja upisuje snapshot (u privremeni fajl, koji zatim zamjenjuje stari snapshot)
+     * @param path - putanja snapshot-a
+     * @param vehiclesSource - podaci o fajlu sa vozilima
+     * @param rentalsSource - podaci o fajlu sa iznajmljivanjima
+     * @param snapshot - flota i iznajmljivanja
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private static void write(Path path, Source vehiclesSource, Source rentalsSource, Snapshot snapshot) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeSource(out, vehiclesSource);
+                writeSource(out, rentalsSource);
+
+                Map<Vehicle, Integer> vehicleIndexes = new IdentityHashMap<>();
+                out.writeInt(snapshot.vehicles().size());
+                for (Vehicle vehicle : snapshot.vehicles()) {
+                    vehicleIndexes.put(vehicle, vehicleIndexes.size());
+                    writeVehicle(out, vehicle);
+                }
+
+                List<Rental> rentals = snapshot.rentals();
+                Map<String, Integer> users = new LinkedHashMap<>();
+                for (Rental rental : rentals) {
+                    users.putIfAbsent(rental.getUserId(), users.size());
+                }
+                out.writeInt(users.size());
+                for (String user : users.keySet()) {
+                    out.writeUTF(user);
+                }
+
+                // Redni brojevi korisnika ne zavise od drugih ucitavanja, pa se cuvaju kakvi jesu
+                out.writeInt(rentals.size());
+                for (Rental rental : rentals) {
+                    Integer vehicleIndex = vehicleIndexes.get(rental.getVehicle());
+                    if (vehicleIndex == null) {
+                        throw new IOException("Rental vehicle " + rental.getVehicle().getId() + " is not part of the fleet");
+                    }
+                    out.writeInt(vehicleIndex);
+                    out.writeLong(rental.getStartTime().toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(users.get(rental.getUserId()));
+                    out.writeUTF(rental.getStartLocation());
+                    out.writeUTF(rental.getEndLocation());
+                    out.writeDouble(rental.getSimulationDuration());
+                    out.writeByte((rental.isFaulty() ? FAULT : 0) | (rental.hasPromotion ? PROMOTION : 0));
+                    out.writeInt(rental.getRentCount());
+                }
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            System.out.println("Snapshot written to " + path);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja cita snapshot
+     * @param path - putanja snapshot-a
+     * @param vehiclesSource - trenutni podaci o fajlu sa vozilima
+     * @param rentalsSource - trenutni podaci o fajlu sa iznajmljivanjima
+     * @return vraca flotu i iznajmljivanja, ili null ako snapshot ne odgovara trenutnim fajlovima
+     * @throws IOException ako snapshot ne moze da se procita ili je neispravan
+     */
+    private static Snapshot read(Path path, Source vehiclesSource, Source rentalsSource) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a snapshot file");
+            }
+            if (in.readInt() != VERSION || !readSource(in).matches(vehiclesSource) || !readSource(in).matches(rentalsSource)) {
+                return null;
+            }
+
+            int vehicleCount = in.readInt();
+            List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+            for (int i = 0; i < vehicleCount; i++) {
+                vehicles.add(readVehicle(in));
+            }
+
+            int userCount = in.readInt();
+            String[] users = new String[userCount];
+            for (int i = 0; i < userCount; i++) {
+                users[i] = in.readUTF();
+            }
+
+            PricingConfig config = PricingManager.current();
+            int rentalCount = in.readInt();
+            List<Rental> rentals = new ArrayList<>(rentalCount);
+            for (int i = 0; i < rentalCount; i++) {
+                Vehicle vehicle = vehicles.get(in.readInt());
+                LocalDateTime startTime = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+                int user = in.readInt();
+                String startLocation = in.readUTF();
+                String endLocation = in.readUTF();
+                double duration = in.readDouble();
+                byte flags = in.readByte();
+                int rentCount = in.readInt();
+                rentals.add(new Rental(startTime, users[user], vehicle, startLocation, endLocation, duration,
+                        (flags & FAULT) != 0, (flags & PROMOTION) != 0, rentCount, config));
+            }
+            return new Snapshot(vehicles, new VehicleRegistry(vehicles), rentals);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja upisuje jedno vozilo
+     * @param out - izlaz
+     * @param vehicle - vozilo
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private static void writeVehicle(DataOutputStream out, Vehicle vehicle) throws IOException {
+        byte kind = switch (vehicle) {
+            case ECar car -> CAR;
+            case EBike bike -> BIKE;
+            case EScooter scooter -> SCOOTER;
+            default -> throw new IOException("Unsupported vehicle type: " + vehicle.getClass().getName());
+        };
+        out.writeByte(kind);
+        out.writeUTF(vehicle.getId());
+        out.writeUTF(vehicle.getManufacturer());
+        out.writeUTF(vehicle.getModel());
+        out.writeDouble(vehicle.getPrice());
+        switch (vehicle) {
+            case ECar car -> {
+                out.writeUTF(car.getCarDescription());
+                out.writeLong(car.getCarDdate().toEpochDay());
+            }
+            case EBike bike -> out.writeDouble(bike.getRangePerCharge());
+            case EScooter scooter -> out.writeDouble(scooter.getMaxSpeed());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Pomocna metoda koja cita jedno vozilo
+     * @param in - ulaz
+     * @return vraca vozilo napravljeno istim konstruktorom kao u CSVHandler.loadVehicles
+     * @throws IOException ako je snapshot neispravan
+     */
+    private static Vehicle readVehicle(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        String id = in.readUTF();
+        String manufacturer = in.readUTF();
+        String model = in.readUTF();
+        double price = in.readDouble();
+        return switch (kind) {
+            case CAR -> {
+                String description = in.readUTF();
+                String date = LocalDate.ofEpochDay(in.readLong()).format(CAR_DATE_FORMATTER);
+                yield new ECar(id, manufacturer, model, price, description, date);
+            }
+            case BIKE -> new EBike(id, manufacturer, model, price, in.readDouble());
+            case SCOOTER -> new EScooter(id, manufacturer, model, price, in.readDouble());
+            default -> throw new IOException("unknown vehicle type " + kind);
+        };
+    }
+
+    /**
+     * Pomocna metoda koja upisuje podatke o izvornom fajlu
+     * @param out - izlaz
+     * @param source - podaci o fajlu
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private static void writeSource(DataOutputStream out, Source source) throws IOException {
+        out.writeLong(source.size());
+        out.writeLong(source.modified());
+        out.writeInt(source.hash().length);
+        out.write(source.hash());
+    }
+
+    /**
+     * Pomocna metoda koja cita podatke o izvornom fajlu
+     * @param in - ulaz
+     * @return vraca podatke o fajlu
+     * @throws IOException ako je snapshot neispravan
+     */
+    private static Source readSource(DataInputStream in) throws IOException {
+        long size = in.readLong();
+        long modified = in.readLong();
+        int length = in.readInt();
+        if (length < 0 || length > 64) {
+            throw new IOException("corrupt source hash");
+        }
+        byte[] hash = new byte[length];
+        in.readFully(hash);
+        return new Source(size, modified, hash);
+    }
+
+    /**
+     * Pomocna metoda koja racuna velicinu, vrijeme izmjene i SHA-256 hes fajla
+     * @param path - putanja fajla
+     * @return vraca podatke o fajlu
+     * @throws IOException ako fajl ne moze da se procita
+     */
+    private static Source source(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long size = Files.size(path);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return new Source(size, modified, digest.digest());
+    }
+}
@@ -4,6 +4,7 @@ import  java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Properties;
+import java.util.random.RandomGenerator;
 
 /**
  * Klasa koja se bavi ucitavanjem i obradom korisnickih podataka
@@ -13,20 +14,32 @@ public class UserDocumentHandler {
 
     /**
      * Metoda za generisanje nasumicnih korisnickih dokumenata, koji se kasnije ispisuju u namijenjen fajl
+     * @param random - izvor slucajnih brojeva (sa istim seed-om se generisu isti dokumenti)
+     * @return vraca generisane dokumente
      * @throws IOException u slucaju neuspijevanja da se dokumenti generisu i sacuvaju u fajl
      */
-    public static void generateUserDocuments() throws IOException {
+    public static Properties generateUserDocuments(RandomGenerator random) throws IOException {
         Properties properties = new Properties();
 
         // Generišemo nasumične brojeve dokumenata za korisnike K1-K5
         for (int i = 1; i <= 5; i++) {
             String userId = "K" + i;
-            String idNumber = "ID-" + (int) (Math.random() * 1_000_000);
-            String driverLicense = "DL-" + (int) (Math.random() * 1_000_000);
+            String idNumber = "ID-" + random.nextInt(1_000_000);
+            String driverLicense = "DL-" + random.nextInt(1_000_000);
             properties.setProperty(userId + ".id", idNumber);
             properties.setProperty(userId + ".license", driverLicense);
         }
 
+        saveUserDocuments(properties);
+        return properties;
+    }
+
+    /**
+     * Metoda koja upisuje date korisnicke dokumente u namijenjen fajl
+     * (koristi se i kod ponovnog izvrsavanja simulacije iz dnevnika dogadjaja)
+     * @param properties - korisnicki dokumenti
+     */
+    public static void saveUserDocuments(Properties properties) {
         try (FileOutputStream out = new FileOutputStream(FILE_PATH)) {
             properties.store(out, "User Documents");
             System.out.println("User documents generated and saved to " + FILE_PATH);
@@ -51,12 +64,11 @@ public class UserDocumentHandler {
 
     /**
      * Metoda koja dobija podatke o dokumentima
+     * @param properties - ucitani korisnicki dokumenti (loadUserDocuments, jednom za sva iznajmljivanja)
      * @param userId - identifikator korisnika
      * @return u zavisnosti od if-else petlje, vraca ili dokument, ili "N/A"
      */
-    public static String getDocument(String userId) {
-        Properties properties = loadUserDocuments();
-
+    public static String getDocument(Properties properties, String userId) {
         // Prvo tražimo vozačku dozvolu, ako postoji
         String document = properties.getProperty(userId + ".license");
         if (document != null) {
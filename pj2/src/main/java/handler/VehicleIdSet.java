@@ -0,0 +1,86 @@
+package handler;
+
+import model.Vehicle;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Skup identifikatora vec ucitanih vozila za pravilo duplikata u CSVHandler.loadVehicles.
+ * Umjesto posebnog skupa stringova cuva samo indekse u listi ucitanih vozila (hes tabela sa otvorenim
+ * adresiranjem, niz int), a identifikator se poredi sa identifikatorom vozila iz liste.
+ * Kao ranije, identifikatori se porede tacno (razlikuju se velika i mala slova).
+ */
+class VehicleIdSet {
+    private static final int EMPTY = -1;
+
+    private final List<Vehicle> vehicles;
+    private int[] slots = new int[64];
+    private int size = 0;
+
+    /**
+     * Konstruktor klase VehicleIdSet
+     * @param vehicles - lista ucitanih vozila, u koju se vozila dodaju prije metode add
+     */
+    VehicleIdSet(List<Vehicle> vehicles) {
+        this.vehicles = vehicles;
+        Arrays.fill(slots, EMPTY);
+    }
+
+    /**
+     * Metoda koja provjerava da li je vozilo sa datim identifikatorom vec ucitano
+     * @param id - identifikator vozila
+     * @return vraca true ako je vozilo ucitano
+     */
+    boolean contains(String id) {
+        int mask = slots.length - 1;
+        for (int i = hash(id) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (vehicles.get(slots[i]).getId().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Metoda koja dodaje identifikator vozila
+     * @param index - indeks vozila u listi
+     */
+    void add(int index) {
+        if ((size + 1) * 2 > slots.length) {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            Arrays.fill(slots, EMPTY);
+            for (int existing : old) {
+                if (existing != EMPTY) {
+                    insert(existing);
+                }
+            }
+        }
+        insert(index);
+        size++;
+    }
+
+    /**
+     * Pomocna metoda koja upisuje indeks na prvo slobodno mjesto
+     * @param index - indeks vozila u listi
+     */
+    private void insert(int index) {
+        int mask = slots.length - 1;
+        int i = hash(vehicles.get(index).getId()) & mask;
+        while (slots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = index;
+    }
+
+    /**
+     * Pomocna metoda koja mijesa bitove hesa identifikatora
+     * @param id - identifikator vozila
+     * @return vraca hes
+     */
+    private static int hash(String id) {
+        int h = id.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,38 @@
+package main;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Enumeracija nacina izvrsavanja simulacije iznajmljivanja
+ * EVENT_LOOP - sva iznajmljivanja se obradjuju u jednoj niti (jedan SimulationEngine)
+ * PLATFORM_THREADS - platformske niti, nova nit za svaki zadatak lanca (vozila) koji ima dogadjaje na redu
+ * VIRTUAL_THREADS - po jedna virtuelna nit za svako vozilo
+ * BOUNDED_POOL - ograniceni bazen niti velicine broja procesorskih jezgara
+ * U nacinima sa nitima lanac zauzima nit samo dok obradjuje dogadjaje koji su na redu; dok je sat pauziran
+ * (ili dogadjaj ceka virtuelno vrijeme), na sat ceka virtuelna nit, a nit izvrsioca je slobodna
+ * (vidjeti SimulationManager.continueChain). Pauza zato ni u jednom nacinu ne drzi nit operativnog sistema po vozilu.
+ */
+public enum ExecutionMode {
+    EVENT_LOOP,
+    PLATFORM_THREADS,
+    VIRTUAL_THREADS,
+    BOUNDED_POOL;
+
+    /**
+     * Metoda koja kreira izvrsioca zadataka za dati nacin izvrsavanja
+     * @return vraca novi ExecutorService, ili null za EVENT_LOOP (nema dodatnih niti)
+     */
+    public ExecutorService newExecutor() {
+        switch (this) {
+            case PLATFORM_THREADS:
+                return Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("rental-", 0).factory());
+            case VIRTUAL_THREADS:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            case BOUNDED_POOL:
+                return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            default:
+                return null;
+        }
+    }
+}
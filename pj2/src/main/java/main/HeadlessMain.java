@@ -0,0 +1,151 @@
+package main;
+
+import handler.RentalStream;
+import handler.RentalTail;
+import handler.ResultsHandler;
+import model.Vehicle;
+import model.VehicleRegistry;
+import rent.MonteCarloResults;
+import rent.Rental;
+import rent.RentalInbox;
+import rent.RentalTable;
+import rent.Results;
+import rent.SimulationClock;
+import rent.SimulationListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Klasa HeadlessMain pokrece simulaciju bez GUI-ja (npr. nocna obrada na serveru)
+ * Ucitava vozila i iznajmljivanja, izvrsava simulaciju punom brzinom i upisuje racune i rezultate poslovanja,
+ * bez pokretanja JavaFX okruzenja
+ * Pokretanje: HeadlessMain [vozila.csv] [iznajmljivanja.csv] [EVENT_LOOP|PLATFORM_THREADS|VIRTUAL_THREADS|BOUNDED_POOL]
+ * Sa opcijom --replicas=N (i opciono --seed=S) umjesto jedne simulacije se izvrsava N Monte Carlo replika
+ * i ispisuju se raspodjele prihoda, troskova popravki i poreza (racuni se tada ne generisu)
+ * Sa --seed=S je i obicna simulacija ponovljiva, sa --replay=dnevnik se simulacija ponavlja iz dnevnika dogadjaja,
+ * a sa --dump=dnevnik se dnevnik samo ispisuje
+ * Sa --stream[=prozor] se iznajmljivanja citaju kao tok poredan po vremenu i simuliraju uz ogranicenu memoriju
+ * (za fajlove koji ne mogu cijeli da stanu u memoriju)
+ * Sa --tail=sekunde se, pored ucitanih iznajmljivanja, u simulaciju ukljucuju i redovi dopisani u fajl iznajmljivanja
+ * tokom zadatog broja sekundi
+ */
+public class HeadlessMain implements SimulationListener {
+
+    // relativne putanje
+    private static final String VEHICLES_FILE_PATH = "src/main/java/resources/vozila.csv";
+    private static final String RENTALS_FILE_PATH = "src/main/java/resources/iznajmljivanja.csv";
+    private static final int DEFAULT_STREAM_WINDOW = 1024;
+
+    /**
+     * main metoda koja pokrece simulaciju bez GUI-ja
+     * @param args - putanja do fajla sa vozilima, putanja do fajla sa iznajmljivanjima i nacin izvrsavanja (opciono)
+     * @throws IOException u slucaju greske prilikom simulacije ili upisivanja rezultata
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        int replicas = 0;
+        Long seed = null;
+        Path replayLog = null;
+        int streamWindow = 0;
+        int tailSeconds = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--replicas=")) {
+                replicas = Integer.parseInt(arg.substring("--replicas=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--replay=")) {
+                replayLog = Path.of(arg.substring("--replay=".length()));
+            } else if (arg.equals("--stream")) {
+                streamWindow = DEFAULT_STREAM_WINDOW;
+            } else if (arg.startsWith("--stream=")) {
+                streamWindow = Integer.parseInt(arg.substring("--stream=".length()));
+            } else if (arg.startsWith("--tail=")) {
+                tailSeconds = Integer.parseInt(arg.substring("--tail=".length()));
+            } else if (arg.startsWith("--dump=")) {
+                SimulationReplay.dump(Path.of(arg.substring("--dump=".length())), System.out);
+                return;
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        String vehiclesFilePath = positional.size() > 0 ? positional.get(0) : VEHICLES_FILE_PATH;
+        String rentalsFilePath = positional.size() > 1 ? positional.get(1) : RENTALS_FILE_PATH;
+        if (positional.size() > 2) {
+            SimulationManager.setExecutionMode(ExecutionMode.valueOf(positional.get(2)));
+        }
+
+        List<Vehicle> vehicles = SimulationManager.loadVehicles(vehiclesFilePath);
+        VehicleRegistry registry = new VehicleRegistry(vehicles);
+        if (streamWindow > 0) {
+            long start = System.nanoTime();
+            SimulationManager.setSeed(seed);
+            try (RentalStream rentals = SimulationManager.streamRentals(rentalsFilePath, registry)) {
+                SimulationManager.simulateStream(rentals, vehicles, new HeadlessMain(), SimulationClock.fullSpeed(), streamWindow);
+            }
+            System.out.println("Simulation finished in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            return;
+        }
+        long loadedBytes = Files.size(Path.of(rentalsFilePath)); // Redovi dopisani tokom ucitavanja ce se procitati ponovo
+        List<Rental> rentals = SimulationManager.loadRentals(rentalsFilePath, registry);
+        System.out.println("Loaded " + vehicles.size() + " vehicles and " + rentals.size() + " rentals.");
+
+        if (tailSeconds > 0) {
+            long start = System.nanoTime();
+            SimulationManager.setSeed(seed);
+            RentalInbox inbox = new RentalInbox();
+            RentalTail tail = RentalTail.file(Path.of(rentalsFilePath), loadedBytes, registry, rentals, inbox);
+            long tailMillis = tailSeconds * 1000L;
+            Thread stopper = new Thread(() -> {
+                try {
+                    Thread.sleep(tailMillis);
+                    tail.close();
+                } catch (InterruptedException | IOException e) {
+                    inbox.close();
+                }
+            }, "tail-stopper");
+            stopper.start();
+            SimulationManager.simulateLive(rentals, inbox, vehicles, new HeadlessMain(), SimulationClock.fullSpeed());
+            System.out.println("Simulation finished in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (replicas > 0) {
+            MonteCarloResults results = MonteCarloSimulation.run(rentals, replicas, seed != null ? seed : 42);
+            System.out.println("Monte Carlo: " + results.getReplicas() + " replicas, seed " + results.getSeed()
+                    + ", finished in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            System.out.println("Total Revenue: " + results.getRevenue());
+            System.out.println("Repair Cost: " + results.getRepairCost());
+            System.out.println("Total Tax: " + results.getTax());
+            return;
+        }
+
+        if (replayLog != null) {
+            SimulationReplay.replay(replayLog, SimulationManager.groupRentalsByTime(rentals), vehicles, new HeadlessMain());
+        } else {
+            SimulationManager.setSeed(seed);
+            SimulationManager.runSimulations(SimulationManager.groupRentalsByTime(rentals), RentalTable.of(rentals), vehicles, new HeadlessMain(), SimulationClock.fullSpeed());
+        }
+        System.out.println("Simulation finished in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    /**
+     * Metoda koja po zavrsetku simulacije upisuje rezultate poslovanja u fajl
+     * @param summaryResults - sumarni izvjestaj
+     * @param dailyResults - dnevni izvjestaji
+     */
+    @Override
+    public void onSimulationFinished(Results summaryResults, List<Results> dailyResults) {
+        try {
+            String fileName = ResultsHandler.writeResults(summaryResults, dailyResults);
+            System.out.println("Results written to " + fileName);
+        } catch (IOException e) {
+            System.err.println("Failed to write results: " + e.getMessage());
+        }
+    }
+}
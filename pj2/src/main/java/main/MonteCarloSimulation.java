@@ -0,0 +1,64 @@
+package main;
+
+import rent.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Klasa MonteCarloSimulation procjenjuje raspodjelu rezultata poslovanja bootstrap metodom, paralelno na svim jezgrima.
+ * Svaka replika dobija svoj tok slucajnih brojeva (SplittableRandom, izdvojen iz zajednickog seed-a), bira iznajmljivanja
+ * sa ponavljanjem (uzorak iste velicine kao originalni skup) i sabira njihove sumarne rezultate poslovanja.
+ * Replike se ne simuliraju: kvarovi, trajanja i cijene su dio ulaznih podataka, a simulacija (SimulationEngine)
+ * mijenja samo pozicije i baterije vozila, pa ne utice na rezultate. Rezultati replika se sabiraju u raspodjele
+ * (srednja vrijednost, p5, p95). Isti seed i isti ulazni podaci uvijek daju iste raspodjele, bez obzira na broj jezgara.
+ */
+public class MonteCarloSimulation {
+
+    /**
+     * Metoda koja izvrsava replike i racuna raspodjele prihoda, troskova popravki i poreza
+     * @param rentals - originalni skup iznajmljivanja (ne mijenja se)
+     * @param replicas - broj replika
+     * @param seed - pocetna vrijednost generatora slucajnih brojeva
+     * @return vraca zbirne rezultate svih replika
+     */
+    public static MonteCarloResults run(List<Rental> rentals, int replicas, long seed) {
+        // Tokovi se izdvajaju redom, prije paralelnog izvrsavanja, da bi rezultat bio ponovljiv
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[replicas];
+        for (int i = 0; i < replicas; i++) {
+            streams[i] = root.split();
+        }
+
+        Results[] results = IntStream.range(0, replicas)
+                .parallel()
+                .mapToObj(i -> runReplica(rentals, streams[i]))
+                .toArray(Results[]::new);
+
+        double[] revenue = new double[replicas];
+        double[] repairCost = new double[replicas];
+        double[] tax = new double[replicas];
+        for (int i = 0; i < replicas; i++) {
+            revenue[i] = results[i].getTotalRevenue();
+            repairCost[i] = results[i].getRepairCost();
+            tax[i] = results[i].getTotalTax();
+        }
+        return new MonteCarloResults(replicas, seed, Distribution.of(revenue), Distribution.of(repairCost), Distribution.of(tax));
+    }
+
+    /**
+     * Pomocna metoda koja izvrsava jednu repliku: sabira bootstrap uzorak iznajmljivanja (originali se ne mijenjaju,
+     * pa se ne kopiraju ni iznajmljivanja ni flota)
+     * @param rentals - originalni skup iznajmljivanja (sa izracunatim cijenama)
+     * @param random - tok slucajnih brojeva ove replike
+     * @return vraca sumarne rezultate poslovanja replike
+     */
+    private static Results runReplica(List<Rental> rentals, SplittableRandom random) {
+        ResultsAccumulator accumulator = new ResultsAccumulator();
+        for (int i = 0; i < rentals.size(); i++) {
+            accumulator.add(rentals.get(random.nextInt(rentals.size())));
+        }
+        return accumulator.toSummary();
+    }
+}
@@ -3,12 +3,13 @@ package main;
 import handler.*;
 import model.*;
 import rent.*;
-import gui.*;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
 
 /**
  * Klasa SimulationManager se bavi citavom simulacijom programa
@@ -16,7 +17,10 @@ import java.util.stream.Collectors;
  */
 public class SimulationManager {
     private static List<Vehicle> vehiclesAfterSimulation = new ArrayList<>();
-    private static List<Rental> allRentals = new ArrayList<>(); // Dodano
+    private static ExecutionMode executionMode = ExecutionMode.EVENT_LOOP;
+    private static Duration timeout = Duration.ofMinutes(30);
+    private static Long seed = null; // null znaci novi seed za svaku simulaciju
+    private static Path eventLogFolder = Path.of("src/main/java/resources/logs");
 
     /**
      * Metoda koja je preuzeta iz CSVHandler klase, ucitava vozila
@@ -29,14 +33,28 @@ public class SimulationManager {
     }
 
     /**
-     * Metoda koja je preuzeta iz CSVHandler klase, ucitava iznajmljivanja
+     * Metoda koja je preuzeta iz CSVHandler klase, ucitava iznajmljivanja (paralelno, iz fajla mapiranog u memoriju)
      *
      * @param rentalsFilePath - relativna putanja CSV fajla za iznajmljivanja
-     * @param vehicles        - lista vozila
+     * @param vehicles        - registar vozila
      * @return vraca ucitana iznajmljivanja
+     * @throws IOException ako fajl ne moze da se procita
      */
-    public static List<Rental> loadRentals(String rentalsFilePath, List<Vehicle> vehicles) {
-        return CSVHandler.loadRentals(rentalsFilePath, vehicles);
+    public static List<Rental> loadRentals(String rentalsFilePath, VehicleRegistry vehicles) throws IOException {
+        return CSVHandler.loadRentalsParallel(rentalsFilePath, vehicles);
+    }
+
+    /**
+     * Metoda koja je preuzeta iz CSVHandler klase, ucitava iznajmljivanja kao tok poredan po vremenu pocetka
+     * (za fajlove koji ne mogu cijeli da stanu u memoriju, vidjeti simulateStream)
+     *
+     * @param rentalsFilePath - relativna putanja CSV fajla za iznajmljivanja
+     * @param vehicles        - registar vozila
+     * @return vraca tok iznajmljivanja, koji treba zatvoriti nakon upotrebe
+     * @throws IOException ako fajl ne moze da se procita
+     */
+    public static RentalStream streamRentals(String rentalsFilePath, VehicleRegistry vehicles) throws IOException {
+        return CSVHandler.streamRentals(rentalsFilePath, vehicles);
     }
 
     /**
@@ -77,86 +95,419 @@ public class SimulationManager {
     }
 
     /**
-     * Metoda runSimulations je glavna metoda za pokretanje simulacije. Obuhvata kreiranje korisnickih dokumenata,
-     * kreiranja liste svih racuna, samu simulaciju i niti (pojedinacne za svako iznajmljivanje i citavu simulaciju),
-     * racunanje rezultata poslovanja i njihovo prosljedjivanje kontrolerima i upisivanje u tabelu itd.
+     * Metoda koja postavlja nacin izvrsavanja grupa iznajmljivanja
+     * @param mode - nacin izvrsavanja
+     */
+    public static void setExecutionMode(ExecutionMode mode) {
+        executionMode = mode;
+    }
+
+    /**
+     * Metoda koja vraca trenutni nacin izvrsavanja
+     * @return vraca nacin izvrsavanja
+     */
+    public static ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Metoda koja postavlja maksimalno trajanje simulacije svih grupa iznajmljivanja
+     * @param timeout - maksimalno trajanje, nakon kojeg se cijela simulacija prekida
+     */
+    public static void setTimeout(Duration timeout) {
+        SimulationManager.timeout = timeout;
+    }
+
+    /**
+     * Metoda koja postavlja seed simulacije. Sa istim seed-om i istim ulaznim podacima simulacija daje
+     * iste korisnicke dokumente, iste kvarove i iste racune, bez obzira na nacin izvrsavanja
+     * @param seed - seed simulacije, ili null za novi seed pri svakom pokretanju
+     */
+    public static void setSeed(Long seed) {
+        SimulationManager.seed = seed;
+    }
+
+    /**
+     * Metoda koja postavlja direktorijum u koji se upisuju dnevnici dogadjaja simulacije
+     * @param folder - direktorijum za dnevnike, ili null ako se dnevnik ne biljezi
+     */
+    public static void setEventLogFolder(Path folder) {
+        eventLogFolder = folder;
+    }
+
+    /**
+     * Metoda koja simulira sve grupe iznajmljivanja, bez racunanja rezultata poslovanja.
+     * Grupe se ne izvrsavaju strogo jedna za drugom: iznajmljivanja se slazu u lance po vozilu
+     * (u redoslijedu grupa), pa kasnija grupa pocinje cim su njena vozila slobodna. Jedina zavisnost
+     * izmedju iznajmljivanja je isto vozilo, cime se cuva redoslijed i prenos nivoa baterije po vozilu.
      *
      * @param groupedRentals - iznajmljivanja grupisana prema vremenu pocetka iznajmljivanja
-     * @param mainController - instanca glavnog kontrolera GUI-ja
-     * @throws IOException u slucaju greske prilikom obradjivanja niti
+     * @param listener - slusalac simulacije, npr. GUI (moze biti null)
+     * @param simulationClock - sat simulacije (brzina i pauza), zajednicki za sva jezgra
+     * @return vraca virtuelno vrijeme zavrsetka simulacije (makespan)
+     * @throws IOException ako neki lanac ne uspije ili simulacija prekoraci dozvoljeno vrijeme
      */
-    public static void runSimulations(Map<LocalDateTime, List<Rental>> groupedRentals, MainController mainController) throws IOException {
-        UserDocumentHandler.generateUserDocuments();
-        allRentals.clear();
-        List<Receipt> allReceipts = new ArrayList<>(); // Lista za prikupljanje svih racuna
-        Map<String, String> vehicleTypes = mainController.getVehicles().stream()
-                .collect(Collectors.toMap(Vehicle::getId, Vehicle::getType)); // Mapa ID vozila na tip vozila
+    public static double simulateGroups(Map<LocalDateTime, List<Rental>> groupedRentals, SimulationListener listener, SimulationClock simulationClock) throws IOException {
+        return simulateGroups(groupedRentals, listener, simulationClock, new SplittableRandom(), null,
+                UserDocumentHandler.loadUserDocuments());
+    }
 
-        for (Map.Entry<LocalDateTime, List<Rental>> entry : groupedRentals.entrySet()) {
-            LocalDateTime rentalTime = entry.getKey();
-            List<Rental> rentalGroup = entry.getValue();
+    /**
+     * Metoda koja simulira sve grupe iznajmljivanja sa zadatim izvorom slucajnih brojeva i dnevnikom dogadjaja.
+     * Svaki lanac (vozilo) dobija svoj tok slucajnih brojeva, izdvojen redom iz datog toka.
+     *
+     * @param groupedRentals - iznajmljivanja grupisana prema vremenu pocetka iznajmljivanja
+     * @param listener - slusalac simulacije, npr. GUI (moze biti null)
+     * @param simulationClock - sat simulacije (brzina i pauza), zajednicki za sva jezgra
+     * @param random - tok slucajnih brojeva iz kojeg se izdvajaju tokovi lanaca
+     * @param eventLog - dnevnik dogadjaja (moze biti null)
+     * @param userDocuments - korisnicki dokumenti za racune, zajednicki za sva jezgra
+     * @return vraca virtuelno vrijeme zavrsetka simulacije (makespan)
+     * @throws IOException ako neki lanac ne uspije ili simulacija prekoraci dozvoljeno vrijeme
+     */
+    public static double simulateGroups(Map<LocalDateTime, List<Rental>> groupedRentals, SimulationListener listener,
+                                        SimulationClock simulationClock, SplittableRandom random, EventLog eventLog,
+                                        Properties userDocuments) throws IOException {
+        int rentalCount = 0;
+        for (List<Rental> group : groupedRentals.values()) {
+            rentalCount += group.size();
+        }
+        List<List<Rental>> chains = chainRentalsByVehicle(groupedRentals);
+        List<SplittableRandom> randoms = SimulationEngine.splitRandoms(random, chains.size());
 
-            System.out.println("Starting simulations for time: " + rentalTime);
+        simulationClock.start();
+        double makespan = runChains(chains, randoms, listener, simulationClock, eventLog, userDocuments);
+        System.out.println("Simulated " + rentalCount + " rentals in " + groupedRentals.size() + " time groups on "
+                + chains.size() + " vehicles, makespan: " + makespan + " s");
+        return makespan;
+    }
 
-            List<Thread> threads = new ArrayList<>();
-            for (Rental rental : rentalGroup) {
-                allRentals.add(rental); // Dodajemo sve najmove u listu
-                Thread thread = new Thread(new RentalSimulation(rental, mainController));
-                threads.add(thread);
-                thread.start();
+    /**
+     * Metoda koja slaze iznajmljivanja u lance po vozilu, u redoslijedu grupa (vremena pocetka)
+     *
+     * @param groupedRentals - iznajmljivanja grupisana prema vremenu pocetka iznajmljivanja
+     * @return vraca lance iznajmljivanja, po jedan za svako vozilo
+     */
+    public static List<List<Rental>> chainRentalsByVehicle(Map<LocalDateTime, List<Rental>> groupedRentals) {
+        Map<String, List<Rental>> chains = new LinkedHashMap<>();
+        for (List<Rental> group : groupedRentals.values()) {
+            for (Rental rental : group) {
+                chains.computeIfAbsent(rental.getVehicle().getId(), k -> new ArrayList<>()).add(rental);
             }
+        }
+        return new ArrayList<>(chains.values());
+    }
 
-            for (Thread thread : threads) {
-                try {
-                    thread.join();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    System.err.println("Main thread was interrupted during join: " + e.getMessage());
+    /**
+     * Metoda koja izvrsava lance iznajmljivanja u zadatom nacinu izvrsavanja.
+     * Kod izvrsavanja u nitima svaki lanac (jedno vozilo) je poseban zadatak sa svojim jezgrom simulacije,
+     * a svi zadaci se ponasaju kao cjelina: ako jedan zadatak ne uspije ili se prekoraci dozvoljeno vrijeme,
+     * svi ostali zadaci se otkazuju i simulacija se prijavljuje kao neuspjesna.
+     * Lanac zauzima nit izvrsioca samo dok ima dogadjaja koji su na redu (vidjeti continueChain), pa pauza
+     * ne drzi ni jednu nit izvrsioca.
+     *
+     * @param chains - lanci iznajmljivanja, po jedan za svako vozilo
+     * @param randoms - tokovi slucajnih brojeva, po jedan za svaki lanac
+     * @param listener - slusalac simulacije, npr. GUI (moze biti null)
+     * @param simulationClock - sat simulacije, zajednicki za sva jezgra
+     * @param eventLog - dnevnik dogadjaja (moze biti null)
+     * @param userDocuments - korisnicki dokumenti za racune
+     * @return vraca virtuelno vrijeme zavrsetka posljednjeg lanca
+     * @throws IOException ako neki zadatak ne uspije ili se prekoraci dozvoljeno vrijeme
+     */
+    private static double runChains(List<List<Rental>> chains, List<SplittableRandom> randoms, SimulationListener listener,
+                                    SimulationClock simulationClock, EventLog eventLog, Properties userDocuments) throws IOException {
+        if (executionMode == ExecutionMode.EVENT_LOOP) {
+            SimulationEngine engine = new SimulationEngine(simulationClock);
+            engine.setEventLog(eventLog);
+            engine.setUserDocuments(userDocuments);
+            return engine.runChains(chains, randoms, listener);
+        }
+
+        try (ExecutorService executor = executionMode.newExecutor()) {
+            List<CompletableFuture<Double>> futures = new ArrayList<>();
+            CompletableFuture<Void> failed = new CompletableFuture<>(); // Zavrsava se prvom greskom nekog lanca
+            Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+            for (int i = 0; i < chains.size(); i++) {
+                List<Rental> chain = chains.get(i);
+                SplittableRandom random = randoms.get(i);
+                SimulationEngine engine = new SimulationEngine(simulationClock);
+                engine.setEventLog(eventLog);
+                engine.setUserDocuments(userDocuments);
+                CompletableFuture<Double> done = new CompletableFuture<>();
+                done.whenComplete((time, error) -> {
+                    if (error != null) {
+                        failed.completeExceptionally(error);
+                    }
+                });
+                futures.add(done);
+                executor.execute(() -> {
+                    try {
+                        engine.startChains(List.of(chain), List.of(random), listener);
+                    } catch (RuntimeException | Error e) {
+                        done.completeExceptionally(e);
+                        return;
+                    }
+                    continueChain(engine, executor, simulationClock, done, waiters);
+                });
+            }
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            double endTime = 0;
+            try {
+                CompletableFuture.anyOf(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])), failed)
+                        .get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                for (CompletableFuture<Double> done : futures) {
+                    endTime = Math.max(endTime, done.join());
                 }
+            } catch (ExecutionException | TimeoutException | CancellationException e) {
+                cancelChains(futures, waiters, executor);
+                String message = e instanceof TimeoutException ? "simulation exceeded " + timeout : e.getMessage();
+                throw new IOException("Simulation failed: " + message, e);
+            } catch (InterruptedException e) {
+                cancelChains(futures, waiters, executor);
+                Thread.currentThread().interrupt();
+                throw new IOException("Simulation was interrupted", e);
             }
+            return endTime;
+        }
+    }
 
-            // Prikupljanje racuna iz trenutne grupe simulacija
-            rentalGroup.forEach(rental -> {
-                Receipt receipt = rental.getReceipt();
-                if (receipt != null) {
-                    allReceipts.add(receipt);
+    /**
+     * Pomocna metoda koja u niti izvrsioca obradjuje dogadjaje lanca koji su na redu. Kada naredni dogadjaj
+     * ceka na sat (brzina simulacije ili pauza), zadatak se zavrsava i oslobadja nit izvrsioca: na sat ceka
+     * virtuelna nit, koja lanac vraca izvrsiocu kada dogadjaj dodje na red. Tako ni kod PLATFORM_THREADS
+     * ni kod BOUNDED_POOL pauzirana iznajmljivanja ne drze niti operativnog sistema.
+     *
+     * @param engine - jezgro simulacije lanca
+     * @param executor - izvrsilac zadataka nacina izvrsavanja
+     * @param simulationClock - sat simulacije
+     * @param done - rezultat lanca (virtuelno vrijeme zavrsetka)
+     * @param waiters - virtuelne niti koje trenutno cekaju na sat (prekidaju se pri otkazivanju)
+     */
+    private static void continueChain(SimulationEngine engine, Executor executor, SimulationClock simulationClock,
+                                      CompletableFuture<Double> done, Set<Thread> waiters) {
+        if (done.isDone()) {
+            return; // Simulacija je otkazana
+        }
+        try {
+            if (engine.runDue()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    done.cancel(false);
+                } else {
+                    done.complete(engine.getClock());
+                }
+                return;
+            }
+            double time = engine.nextEventTime();
+            Thread waiter = Thread.ofVirtual().name("rental-wait").unstarted(() -> {
+                try {
+                    simulationClock.awaitVirtualTime(time);
+                    executor.execute(() -> continueChain(engine, executor, simulationClock, done, waiters));
+                } catch (InterruptedException | RejectedExecutionException e) {
+                    done.cancel(false);
+                } finally {
+                    waiters.remove(Thread.currentThread());
                 }
             });
+            waiters.add(waiter);
+            waiter.start();
+        } catch (RuntimeException | Error e) {
+            done.completeExceptionally(e);
+        }
+    }
 
-            // Cuvamo nivo baterije za sva vozila u mainController-u
-            saveBatteryLevels(mainController.getVehicles());
+    /**
+     * Pomocna metoda koja otkazuje sve lance: prekida niti koje cekaju na sat i zadatke koji se izvrsavaju
+     *
+     * @param futures - rezultati lanaca
+     * @param waiters - virtuelne niti koje cekaju na sat
+     * @param executor - izvrsilac zadataka
+     */
+    private static void cancelChains(List<CompletableFuture<Double>> futures, Set<Thread> waiters, ExecutorService executor) {
+        futures.forEach(future -> future.cancel(false));
+        waiters.forEach(Thread::interrupt);
+        executor.shutdownNow();
+    }
 
-            // Pauza izmedju razlicitih vremenskih grupa iznajmljivanja
-            System.out.println("Pausing for 5 seconds before next time group...");
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.err.println("Main thread was interrupted during sleep: " + e.getMessage());
+    /**
+     * Metoda runSimulations je glavna metoda za pokretanje simulacije. Obuhvata kreiranje korisnickih dokumenata,
+     * kreiranja liste svih racuna, samu simulaciju (simulacija diskretnih dogadjaja u klasi SimulationEngine),
+     * racunanje rezultata poslovanja i njihovo prosljedjivanje slusaocu (GUI ili pokretanje bez GUI-ja).
+     * Tempo simulacije odredjuje sat simulacije (SimulationClock.fullSpeed() za obradu bez cekanja).
+     * Svi slucajni podaci (korisnicki dokumenti, razlozi kvarova) se izvode iz jednog seed-a, a tok simulacije
+     * se biljezi u dnevnik dogadjaja, iz kojeg se simulacija moze ponoviti (SimulationReplay).
+     *
+     * @param groupedRentals - iznajmljivanja grupisana prema vremenu pocetka iznajmljivanja
+     * @param table - tabela istih iznajmljivanja napravljena pri ucitavanju (null ako je nema)
+     * @param vehicles - lista svih vozila
+     * @param listener - slusalac simulacije kojem se prosljedjuju pozicije vozila i rezultati poslovanja
+     * @param simulationClock - sat simulacije preko kojeg se mijenja brzina i pauzira simulacija
+     * @throws IOException u slucaju greske prilikom obradjivanja simulacije
+     */
+    public static void runSimulations(Map<LocalDateTime, List<Rental>> groupedRentals, RentalTable table, List<Vehicle> vehicles,
+                                      SimulationListener listener, SimulationClock simulationClock) throws IOException {
+        long runSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        SplittableRandom random = new SplittableRandom(runSeed);
+        Properties userDocuments = UserDocumentHandler.generateUserDocuments(random.split());
+
+        // Cuvamo vozila, da bi se nivo baterije mogao pratiti tokom simulacije
+        saveBatteryLevels(vehicles);
+
+        List<Rental> rentals = groupedRentals.values().stream().flatMap(List::stream).toList();
+        EventLog eventLog = null;
+        if (eventLogFolder != null) {
+            Path logPath = eventLogFolder.resolve("simulation_" + LocalDateTime.now() + ".log");
+            eventLog = new EventLog(logPath, runSeed, rentals, userDocuments);
+            System.out.println("Simulation seed: " + runSeed + ", event log: " + logPath);
+        } else {
+            System.out.println("Simulation seed: " + runSeed);
+        }
+
+        try {
+            simulateGroups(groupedRentals, listener, simulationClock, random, eventLog, userDocuments);
+        } finally {
+            if (eventLog != null) {
+                eventLog.close();
             }
         }
 
+        completeSimulation(rentals, table, vehicles, listener);
+    }
+
+    /**
+     * Metoda koja zavrsava simulaciju: prikuplja racune, racuna rezultate poslovanja, prosljedjuje ih slusaocu
+     * i ispisuje najprofitabilnija vozila. Koristi se i nakon ponovnog izvrsavanja iz dnevnika dogadjaja.
+     * Rezultati se racunaju nad datom tabelom iznajmljivanja; tabela se ponovo pravi iz liste samo ako je nema,
+     * ako nema sva iznajmljivanja (npr. pristigla tokom ucitavanja) ili su cijene u medjuvremenu ponovo obracunate.
+     *
+     * @param rentals - sva iznajmljivanja u redoslijedu grupa
+     * @param table - tabela istih iznajmljivanja u istom redoslijedu (moze biti null)
+     * @param vehicles - lista svih vozila
+     * @param listener - slusalac simulacije kojem se prosljedjuju rezultati poslovanja
+     * @throws IOException u slucaju greske prilikom racunanja rezultata
+     */
+    public static void completeSimulation(List<Rental> rentals, RentalTable table, List<Vehicle> vehicles,
+                                          SimulationListener listener) throws IOException {
+        List<Receipt> allReceipts = new ArrayList<>(); // Lista za prikupljanje svih racuna
+        Properties userDocuments = UserDocumentHandler.loadUserDocuments(); // Jednom za sve racune
+        Map<String, String> vehicleTypes = new VehicleRegistry(vehicles).getVehicleTypes(); // Mapa ID vozila na tip vozila
+
+        // Prikupljanje racuna iz svih simulacija
+        rentals.forEach(rental -> {
+            Receipt receipt = rental.getReceipt(userDocuments);
+            if (receipt != null) {
+                allReceipts.add(receipt);
+            }
+        });
+
         System.out.println("All simulations completed.");
 
         // Racunanje rezultata poslovanja
-        ResultsController resultsController = mainController.getResultsController();
-        Results results = new Results(resultsController); // Prosljedjujemo vec gore inicijalizovanom kontroleru
-        results.calculateRentalValues(allRentals);
-        results.calculateDailyValues(allRentals);
-        results.calculateSummaryValuesAndAddToTable(allRentals);
-        mainController.setSummaryResults(List.of(results)); //
-        mainController.setDailyResults(List.of(results)); // U ovoj i gornjoj liniji cuvamo rezultate u mainController-u, da ih ne bismo izgubili prilikom inicijalizacije prozora klikom na dugme (tad bi se rezultati svi vratili na nulu)
-
-        //Azuriramo rezultate i cuvamo ih u resultsController-u
-        if (resultsController != null) {
-            List<Results> resultsList = List.of(results); // Koristimo obicnu listu
-            resultsController.setResults(resultsList); // Ovo ce automatski konvertovati u ObservableList u setResults() metodi
-        } else {
-            System.err.println("ResultsController instance not available.");
+        Results results = new Results();
+        int repriced = results.calculateRentalValues(rentals);
+        if (table == null || table.size() != rentals.size() || repriced > 0) {
+            table = RentalTable.of(rentals);
         }
+        listener.onRentalTable(table);
+        List<Results> dailyResults = results.calculateDailyValues(table);
+        results.calculateSummaryValues(table);
+        listener.onSimulationFinished(results, dailyResults);
 
         // Pozivanje i ispis najprofitabilnijih vozila
         Map<String, Map.Entry<String, Double>> topRevenueVehicles = ReceiptHandler.getTopRevenueVehiclesByType(allReceipts, vehicleTypes);
         ReceiptHandler.printTopRevenueVehicles(topRevenueVehicles);
     }
-}
\ No newline at end of file
+
+    /**
+     * Metoda koja izvrsava simulaciju nad tokom iznajmljivanja uz ogranicenu memoriju. Iznajmljivanja se iz toka
+     * uzimaju kroz prozor (RentalFeed): u simulaciji je istovremeno najvise window iznajmljivanja, a zavrsena
+     * iznajmljivanja se odmah sabiraju u rezultate poslovanja (ResultsAccumulator) i ne cuvaju se.
+     * Simulacija se izvrsava u jednom jezgru (EVENT_LOOP) bez obzira na nacin izvrsavanja, racuni se upisuju
+     * u fajlove ali se ne cuvaju u listi, a dnevnik dogadjaja se ne biljezi (zahtijeva unaprijed poznata iznajmljivanja).
+     *
+     * @param rentals - iznajmljivanja poredana po vremenu pocetka (npr. RentalStream)
+     * @param vehicles - lista svih vozila
+     * @param listener - slusalac simulacije kojem se prosljedjuju pozicije vozila i rezultati poslovanja
+     * @param simulationClock - sat simulacije
+     * @param window - najveci broj iznajmljivanja koja su istovremeno u simulaciji
+     * @throws IOException u slucaju greske prilikom obradjivanja simulacije
+     */
+    public static void simulateStream(Iterator<Rental> rentals, List<Vehicle> vehicles, SimulationListener listener,
+                                      SimulationClock simulationClock, int window) throws IOException {
+        long runSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        SplittableRandom random = new SplittableRandom(runSeed);
+        Properties userDocuments = UserDocumentHandler.generateUserDocuments(random.split());
+        saveBatteryLevels(vehicles);
+        System.out.println("Simulation seed: " + runSeed + ", streaming with window " + window);
+
+        ResultsAccumulator accumulator = new ResultsAccumulator();
+        Map<String, Double> revenueByVehicle = new HashMap<>();
+        RentalFeed feed = new RentalFeed(rentals, window, random.split(), listener, rental -> {
+            accumulator.add(rental);
+            revenueByVehicle.merge(rental.getVehicle().getId(), rental.getTotalPrice(), Double::sum);
+        });
+
+        ReceiptHandler.setKeepReceipts(false);
+        double makespan;
+        try {
+            simulationClock.start();
+            SimulationEngine engine = new SimulationEngine(simulationClock);
+            engine.setUserDocuments(userDocuments);
+            makespan = engine.runFeed(feed);
+        } finally {
+            ReceiptHandler.setKeepReceipts(true);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IOException("Simulation was interrupted");
+        }
+        System.out.println("Simulated " + feed.getFinished() + " rentals, makespan: " + makespan + " s");
+        System.out.println("All simulations completed.");
+
+        listener.onSimulationFinished(accumulator.toSummary(), accumulator.toDaily());
+        Map<String, String> vehicleTypes = new VehicleRegistry(vehicles).getVehicleTypes();
+        ReceiptHandler.printTopRevenueVehicles(ReceiptHandler.getTopRevenueVehiclesByType(revenueByVehicle, vehicleTypes));
+    }
+
+    /**
+     * Metoda koja izvrsava simulaciju ucitanih iznajmljivanja i iznajmljivanja koja stizu tokom simulacije
+     * (npr. redovi dopisani u fajl iznajmljivanja, RentalTail). Ucitana iznajmljivanja krecu odmah (lanci po vozilu,
+     * kao kod runSimulations), a pristigla pocinju u trenutku dolaska, cim je njihovo vozilo slobodno.
+     * Simulacija traje dok se sanduce ne zatvori i sva iznajmljivanja ne zavrse; zatim se racunaju rezultati
+     * poslovanja nad svim zavrsenim iznajmljivanjima. Izvrsava se u jednom jezgru (EVENT_LOOP), bez dnevnika dogadjaja.
+     *
+     * @param rentals - ucitana iznajmljivanja
+     * @param inbox - sanduce iznajmljivanja koja stizu tokom simulacije
+     * @param vehicles - lista svih vozila
+     * @param listener - slusalac simulacije kojem se prosljedjuju pozicije vozila i rezultati poslovanja
+     * @param simulationClock - sat simulacije
+     * @throws IOException u slucaju greske prilikom obradjivanja simulacije
+     */
+    public static void simulateLive(List<Rental> rentals, RentalInbox inbox, List<Vehicle> vehicles,
+                                    SimulationListener listener, SimulationClock simulationClock) throws IOException {
+        long runSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        SplittableRandom random = new SplittableRandom(runSeed);
+        Properties userDocuments = UserDocumentHandler.generateUserDocuments(random.split());
+        saveBatteryLevels(vehicles);
+        System.out.println("Simulation seed: " + runSeed + ", live");
+
+        List<Rental> ordered = groupRentalsByTime(rentals).values().stream().flatMap(List::stream).toList();
+        List<Rental> finished = new ArrayList<>();
+        RentalTable table = new RentalTable(ordered.size()); // Tabela se puni redom zavrsetka, bez naknadnog pretvaranja liste
+        RentalFeed feed = new RentalFeed(ordered.iterator(), Integer.MAX_VALUE, random.split(), listener, rental -> {
+            finished.add(rental);
+            table.add(rental);
+        });
+
+        simulationClock.start();
+        SimulationEngine engine = new SimulationEngine(simulationClock);
+        engine.setUserDocuments(userDocuments);
+        double makespan = engine.runLive(feed, inbox);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IOException("Simulation was interrupted");
+        }
+        System.out.println("Simulated " + finished.size() + " rentals (" + (finished.size() - ordered.size())
+                + " arrived during the simulation), makespan: " + makespan + " s");
+        completeSimulation(finished, table, vehicles, listener);
+    }
+}
@@ -0,0 +1,121 @@
+package main;
+
+import handler.ReceiptHandler;
+import handler.UserDocumentHandler;
+import model.Constants;
+import model.Vehicle;
+import rent.*;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Klasa SimulationReplay ponovo izvrsava simulaciju iz dnevnika dogadjaja (EventLog), punom brzinom i bez slucajnosti.
+ * Nivoi baterije, kvarovi i racuni se ne racunaju ponovo vec se preuzimaju iz dnevnika, pa ponovljena simulacija
+ * daje iste racune i iste rezultate poslovanja kao zabiljezena, i kada je zabiljezena simulacija trajala u realnom vremenu.
+ * Ako se cijena na racunu iz dnevnika razlikuje od cijene izracunate iz ulaznih podataka, razlika se ispisuje
+ * (npr. kada je u medjuvremenu promijenjen config.properties).
+ */
+public class SimulationReplay {
+
+    /**
+     * Metoda koja ponovo izvrsava simulaciju iz dnevnika dogadjaja
+     * @param logPath - putanja do dnevnika dogadjaja
+     * @param groupedRentals - ista iznajmljivanja kao u zabiljezenoj simulaciji, grupisana prema vremenu pocetka
+     * @param vehicles - lista svih vozila
+     * @param listener - slusalac simulacije kojem se prosljedjuju pozicije vozila i rezultati poslovanja
+     * @throws IOException ako dnevnik nije ispravan ili ne odgovara ulaznim podacima
+     */
+    public static void replay(Path logPath, Map<LocalDateTime, List<Rental>> groupedRentals, List<Vehicle> vehicles,
+                              SimulationListener listener) throws IOException {
+        List<Rental> rentals = groupedRentals.values().stream().flatMap(List::stream).toList();
+        int receipts = 0;
+        int mismatches = 0;
+
+        try (EventLogReader reader = new EventLogReader(logPath)) {
+            if (reader.getRentalCount() != rentals.size()) {
+                throw new IOException("Event log was recorded for " + reader.getRentalCount()
+                        + " rentals, but the input has " + rentals.size());
+            }
+            System.out.println("Replaying simulation with seed " + reader.getSeed() + " from " + logPath);
+
+            UserDocumentHandler.saveUserDocuments(reader.getUserDocuments());
+            SimulationManager.saveBatteryLevels(vehicles);
+
+            while (reader.next()) {
+                if (reader.getRentalIndex() < 0 || reader.getRentalIndex() >= rentals.size()) {
+                    throw new IOException("Corrupt event log, unknown rental " + reader.getRentalIndex());
+                }
+                Rental rental = rentals.get(reader.getRentalIndex());
+                Vehicle vehicle = rental.getVehicle();
+
+                switch (reader.getType()) {
+                    case STEP:
+                        vehicle.setBatteryLevel(reader.getBatteryLevel());
+                        if (listener != null) {
+                            listener.onVehicleMoved(vehicle.getId(), PathCursor.x(reader.getPosition()), PathCursor.y(reader.getPosition()),
+                                    rental.getEndX(), rental.getEndY(), false);
+                        }
+                        break;
+                    case CHARGE:
+                        vehicle.setBatteryLevel(Constants.MAX_BATTERY_LEVEL);
+                        break;
+                    case FAULT:
+                        vehicle.recordFault(rental.getEndTime(), reader.getReason());
+                        RentalSimulation.getFaultyVehicles().put(vehicle.getId(), vehicle);
+                        break;
+                    case RECEIPT:
+                        if (reader.getPrice() != rental.getTotalPrice()) {
+                            mismatches++;
+                            System.out.println("Price mismatch for rental " + reader.getRentalIndex() + " (" + vehicle.getId()
+                                    + "): logged " + reader.getPrice() + ", computed " + rental.getTotalPrice());
+                        }
+                        if (listener != null) {
+                            listener.onVehicleMoved(vehicle.getId(), rental.getEndX(), rental.getEndY(), rental.getEndX(), rental.getEndY(), true);
+                        }
+                        ReceiptHandler.generateReceipt(rental, reader.getIdNumber(), reader.getDriverLicense());
+                        receipts++;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        System.out.println("Replayed " + receipts + " receipts, price mismatches: " + mismatches);
+        SimulationManager.completeSimulation(rentals, null, vehicles, listener);
+    }
+
+    /**
+     * Metoda koja ispisuje sadrzaj dnevnika dogadjaja u citljivom obliku (jedan zapis po liniji)
+     * @param logPath - putanja do dnevnika dogadjaja
+     * @param out - izlaz na koji se ispisuje
+     * @throws IOException ako dnevnik nije ispravan
+     */
+    public static void dump(Path logPath, PrintStream out) throws IOException {
+        try (EventLogReader reader = new EventLogReader(logPath)) {
+            out.println("seed " + reader.getSeed() + ", rentals " + reader.getRentalCount() + ", user documents " + reader.getUserDocuments());
+            while (reader.next()) {
+                out.printf("%10.3f %-12s #%d", reader.getTime(), reader.getType(), reader.getRentalIndex());
+                switch (reader.getType()) {
+                    case STEP:
+                        out.printf(" (%d,%d) battery %.1f", PathCursor.x(reader.getPosition()), PathCursor.y(reader.getPosition()), reader.getBatteryLevel());
+                        break;
+                    case FAULT:
+                        out.print(" " + reader.getReason());
+                        break;
+                    case RECEIPT:
+                        out.print(" price " + reader.getPrice() + ", " + reader.getIdNumber() + ", " + reader.getDriverLicense());
+                        break;
+                    default:
+                        break;
+                }
+                out.println();
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package model;
 
 /**
- * Klasa za konstante na nivou projekta, u ovom slucaju samo za maksimalan nivo baterije (100%)
+ * Klasa za konstante na nivou projekta: maksimalan nivo baterije (100%), odnos vremena simulacije
+ * i realnog vremena (1 sekunda u simulaciji = 30 minuta realnog vremena) i velicina mreze grada
  */
 public class Constants {
     public static final double MAX_BATTERY_LEVEL = 100.0;
+    public static final int REAL_MINUTES_PER_SIMULATION_SECOND = 30;
+    public static final int GRID_SIZE = 20; // Mreza grada 20x20 polja
 }
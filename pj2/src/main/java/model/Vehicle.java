@@ -2,23 +2,47 @@ package model;
 
 import javafx.beans.property.SimpleDoubleProperty;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDateTime;
-import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * klasa Vehicle je osnovna apstrakna klasa sa atributima,
  * koju ce kasnije naslijediti klase ECar, EBike i EScooter
+ * Stanje vozila koje se mijenja tokom simulacije (baterija, status, kvar) je zasticeno bez zakljucavanja:
+ * baterija se mijenja atomicnim compare-and-set operacijama, a razlog i vrijeme kvara se
+ * postavljaju zajedno kao jedan nepromjenjiv objekat, pa ni jedna izmjena ne moze biti izgubljena
+ * ni kada vise niti istovremeno mijenja isto vozilo
  */
 public abstract class Vehicle {
     private String id;
     private String manufacturer;
     private String model;
     private double price;          // Cena nabavke
-    private double batteryLevel;
-    private VehicleStatus status;  // Status vozila (dostupno, u održavanju)
+    private volatile double batteryLevel;
+    private volatile VehicleStatus status;  // Status vozila (dostupno, u održavanju)
     private String type;           // Tip vozila (npr. Car, EBike, EScooter)
-    private String failReason;
-    private LocalDateTime failTime;
+    private final AtomicReference<Fault> fault = new AtomicReference<>(Fault.NONE);
+
+    private static final VarHandle BATTERY_LEVEL;
+    static {
+        try {
+            BATTERY_LEVEL = MethodHandles.lookup().findVarHandle(Vehicle.class, "batteryLevel", double.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Nepromjenjiv zapis o kvaru vozila (razlog i vrijeme), mijenja se uvijek kao cjelina
+     * @param reason - razlog kvara
+     * @param time - vrijeme kvara
+     */
+    private record Fault(String reason, LocalDateTime time) {
+        private static final Fault NONE = new Fault(null, null);
+    }
 
     /**
      * Konstruktor klase Vehicle (atributi koji su zajednicki za sve tipove vozila)
@@ -36,15 +60,19 @@ public abstract class Vehicle {
         batteryLevel = 100.0;
         this.status = VehicleStatus.AVAILABLE;  // Podrazumevani status
         this.type = type;// Dodajemo tip vozila
-        failReason = null;
-        failTime = null;
     }
 
     /**
      * Metoda za simulaciju potrosnje baterije (svakim pomjeranjem vozila smanjivace se za 1%)
+     * Smanjenje je atomicno, pa se istovremena praznjenja iz vise niti ne gube
+     * @return vraca nivo baterije nakon praznjenja
      */
-    public void dischargeBattery(){
-        batteryLevel--;
+    public double dischargeBattery(){
+        double current;
+        do {
+            current = batteryLevel;
+        } while (!BATTERY_LEVEL.compareAndSet(this, current, current - 1));
+        return current - 1;
     }
 
     /**
@@ -142,7 +170,7 @@ public abstract class Vehicle {
      * @return vraca opis
      */
     public String getFailReason(){
-        return failReason;
+        return fault.get().reason();
     }
 
     /**
@@ -150,22 +178,17 @@ public abstract class Vehicle {
      * @return vraca vrijeme kvara
      */
     public LocalDateTime getFailTime(){
-        return failTime;
+        return fault.get().time();
     }
 
     /**
      * Metoda koja postavlja razlog kvara vozila,
      * implementirana tako da nasumicno bira izmedju dve vrste kvara
+     * @param random - izvor slucajnih brojeva (npr. tok lanca iznajmljivanja)
      */
-    public void setFailReason() {
-        // Kreiramo instancu Random klase
-        Random random = new Random();
-        // Nasumično biramo između dva razloga
-        if (random.nextBoolean()) {
-            this.failReason = "tire failure";
-        } else {
-            this.failReason = "engine failure";
-        }
+    public void setFailReason(RandomGenerator random) {
+        String reason = randomFailReason(random);
+        fault.updateAndGet(current -> new Fault(reason, current.time()));
     }
 
     /**
@@ -173,7 +196,39 @@ public abstract class Vehicle {
      * @param failTime - vrijeme kvara
      */
     public void setFailTime(LocalDateTime failTime) {
-        this.failTime = failTime;
+        fault.updateAndGet(current -> new Fault(current.reason(), failTime));
+    }
+
+    /**
+     * Metoda koja evidentira kvar vozila: nasumicno bira razlog kvara i postavlja ga zajedno sa vremenom kvara,
+     * tako da se razlog i vrijeme nikad ne mogu pomijesati izmedju dva kvara
+     * @param failTime - vrijeme kvara
+     * @param random - izvor slucajnih brojeva (npr. tok lanca iznajmljivanja)
+     * @return vraca izabrani razlog kvara
+     */
+    public String recordFault(LocalDateTime failTime, RandomGenerator random) {
+        String reason = randomFailReason(random);
+        recordFault(failTime, reason);
+        return reason;
+    }
+
+    /**
+     * Metoda koja evidentira kvar vozila sa poznatim razlogom (npr. pri ponovnom izvrsavanju iz dnevnika dogadjaja)
+     * @param failTime - vrijeme kvara
+     * @param reason - razlog kvara
+     */
+    public void recordFault(LocalDateTime failTime, String reason) {
+        fault.set(new Fault(reason, failTime));
+    }
+
+    /**
+     * Pomocna metoda koja nasumicno bira izmedju dvije vrste kvara
+     * @param random - izvor slucajnih brojeva
+     * @return vraca razlog kvara
+     */
+    private static String randomFailReason(RandomGenerator random) {
+        // Nasumično biramo između dva razloga
+        return random.nextBoolean() ? "tire failure" : "engine failure";
     }
 
     /**
@@ -0,0 +1,121 @@
+package model;
+
+import java.util.*;
+
+/**
+ * Klasa VehicleRegistry cuva flotu vozila sa hes indeksom po identifikatoru i indeksima po tipu vozila.
+ * Trazenje po identifikatoru ne razlikuje velika i mala slova (kao ranije equalsIgnoreCase u CSVHandler),
+ * a ako vise vozila ima isti identifikator vazi prvo dodato. Registar se pravi jednom, nakon ucitavanja vozila,
+ * pa ga dijele ucitavanje iznajmljivanja, simulacija i GUI; nakon toga se samo cita (moze iz vise niti).
+ */
+public class VehicleRegistry implements Iterable<Vehicle> {
+    private final List<Vehicle> vehicles;
+    private final Map<String, Integer> byId; // Kljuc je identifikator malim slovima, vrijednost indeks vozila
+    private final Map<String, List<Vehicle>> byType = new LinkedHashMap<>();
+    private final Map<String, String> typesById = new HashMap<>();
+
+    /**
+     * Konstruktor klase VehicleRegistry
+     * @param vehicles - vozila, u redoslijedu ucitavanja
+     */
+    public VehicleRegistry(Collection<? extends Vehicle> vehicles) {
+        this.vehicles = List.copyOf(vehicles);
+        byId = HashMap.newHashMap(vehicles.size());
+        for (int i = 0; i < this.vehicles.size(); i++) {
+            Vehicle vehicle = this.vehicles.get(i);
+            if (byId.putIfAbsent(key(vehicle.getId()), i) == null) {
+                byType.computeIfAbsent(vehicle.getType(), k -> new ArrayList<>()).add(vehicle);
+                typesById.put(vehicle.getId(), vehicle.getType());
+            }
+        }
+    }
+
+    /**
+     * Metoda koja vraca vozilo prema identifikatoru, bez obzira na velika i mala slova
+     * @param id - identifikator vozila
+     * @return vraca vozilo, ili null ako ne postoji
+     */
+    public Vehicle get(String id) {
+        int index = indexOf(id);
+        return index < 0 ? null : vehicles.get(index);
+    }
+
+    /**
+     * Metoda koja vraca indeks vozila (redni broj u floti) prema identifikatoru, bez obzira na velika i mala slova
+     * @param id - identifikator vozila
+     * @return vraca indeks vozila u listi getVehicles, ili -1 ako vozilo ne postoji
+     */
+    public int indexOf(String id) {
+        Integer index = id == null ? null : byId.get(key(id));
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Metoda koja provjerava da li vozilo sa datim identifikatorom postoji
+     * @param id - identifikator vozila
+     * @return vraca true ako vozilo postoji
+     */
+    public boolean contains(String id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Metoda koja vraca sva vozila jednog tipa
+     * @param type - tip vozila (npr. automobil, bicikl, trotinet)
+     * @return vraca nepromjenjivu listu vozila tog tipa (praznu ako ih nema)
+     */
+    public List<Vehicle> getByType(String type) {
+        List<Vehicle> list = byType.get(type);
+        return list == null ? List.of() : Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Metoda koja vraca sve tipove vozila u floti
+     * @return vraca tipove vozila, u redoslijedu prvog pojavljivanja
+     */
+    public Set<String> getTypes() {
+        return Collections.unmodifiableSet(byType.keySet());
+    }
+
+    /**
+     * Metoda koja vraca mapu identifikatora vozila na tip vozila (npr. za najprofitabilnija vozila po tipu)
+     * @return vraca nepromjenjivu mapu
+     */
+    public Map<String, String> getVehicleTypes() {
+        return Collections.unmodifiableMap(typesById);
+    }
+
+    /**
+     * Metoda koja vraca sva vozila
+     * @return vraca nepromjenjivu listu vozila u redoslijedu ucitavanja
+     */
+    public List<Vehicle> getVehicles() {
+        return vehicles;
+    }
+
+    /**
+     * Metoda koja vraca broj vozila
+     * @return vraca broj vozila
+     */
+    public int size() {
+        return vehicles.size();
+    }
+
+    /**
+     * Metoda koja vraca iterator kroz sva vozila
+     * @return vraca iterator
+     */
+    @Override
+    public Iterator<Vehicle> iterator() {
+        return vehicles.iterator();
+    }
+
+    /**
+     * Pomocna metoda koja pravi kljuc za poredjenje bez obzira na velika i mala slova
+     * @param id - identifikator vozila
+     * @return vraca kljuc
+     */
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
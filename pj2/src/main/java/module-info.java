@@ -10,7 +10,6 @@ module emobility.pj2 {
     requires org.kordamp.bootstrapfx.core;
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
-    requires java.desktop;
 
     opens main to javafx.fxml;
     exports main;
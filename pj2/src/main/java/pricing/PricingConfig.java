@@ -0,0 +1,204 @@
+package pricing;
+
+import handler.PropertiesHandler;
+
+import java.util.Objects;
+
+/**
+ * Nepromjenjiva konfiguracija cijena (iz config.properties): osnovne cijene po vrsti vozila, faktori udaljenosti
+ * za uzi i siri dio grada, koeficijenti popusta i zone grada. Ucitava se jednom i dijele je sva iznajmljivanja
+ * (cijene se racunaju iz tarifne tabele prevedene iz nje, TariffTable);
+ * kada se fajl promijeni, PricingManager pravi novu konfiguraciju sa vecim brojem verzije.
+ * Tarifna tabela se prevodi najvise jednom po konfiguraciji i cuva se u samoj konfiguraciji (metoda tariffs),
+ * pa naizmjenicno racunanje po dvije konfiguracije (npr. analiza "sta ako") ne prevodi tabelu ponovo.
+ */
+public final class PricingConfig {
+    private final long version;
+    private final double carUnitPrice;
+    private final double bikeUnitPrice;
+    private final double scooterUnitPrice;
+    private final double distanceNarrow;
+    private final double distanceWide;
+    private final double discount;
+    private final double discountProm;
+    private final ZoneMap zones;
+    private volatile TariffTable tariffs; // Prevodi se pri prvom racunanju cijene, ne ulazi u equals
+
+    /**
+     * Konfiguracija kada config.properties ne moze da se ucita (sve cijene su 0, kao ranije kada citanje nije uspjelo)
+     */
+    public static final PricingConfig EMPTY = new PricingConfig(0, 0, 0, 0, 0, 0, 0, 0, ZoneMap.DEFAULT);
+
+    /**
+     * Konstruktor klase PricingConfig
+     * @param version - broj verzije (redom od 1, 0 ako konfiguracija nije ucitana)
+     * @param carUnitPrice - osnovna cijena automobila
+     * @param bikeUnitPrice - osnovna cijena bicikla
+     * @param scooterUnitPrice - osnovna cijena trotineta
+     * @param distanceNarrow - faktor udaljenosti za uzi dio grada
+     * @param distanceWide - faktor udaljenosti za siri dio grada
+     * @param discount - koeficijent popusta za svako deseto iznajmljivanje
+     * @param discountProm - koeficijent popusta promocije
+     * @param zones - raster zona grada sa faktorima udaljenosti po zoni
+     */
+    public PricingConfig(long version, double carUnitPrice, double bikeUnitPrice, double scooterUnitPrice,
+                         double distanceNarrow, double distanceWide, double discount, double discountProm,
+                         ZoneMap zones) {
+        this.version = version;
+        this.carUnitPrice = carUnitPrice;
+        this.bikeUnitPrice = bikeUnitPrice;
+        this.scooterUnitPrice = scooterUnitPrice;
+        this.distanceNarrow = distanceNarrow;
+        this.distanceWide = distanceWide;
+        this.discount = discount;
+        this.discountProm = discountProm;
+        this.zones = zones;
+    }
+
+    /**
+     * Metoda koja pravi konfiguraciju od ucitanog properties fajla
+     * @param properties - ucitan config.properties
+     * @param version - broj verzije
+     * @return vraca konfiguraciju
+     * @throws NumberFormatException ako neka vrijednost nije broj
+     * @throws NullPointerException ako neki kljuc nedostaje
+     * @throws IllegalArgumentException ako zone nisu ispravno navedene
+     */
+    public static PricingConfig of(PropertiesHandler properties, long version) {
+        return new PricingConfig(version, properties.getCarUnitPrice(), properties.getBikeUnitPrice(),
+                properties.getScooterUnitPrice(), properties.getDistanceNarrow(), properties.getDistanceWide(),
+                properties.getDiscount(), properties.getDiscountProm(), ZoneMap.of(properties));
+    }
+
+    /**
+     * Metoda koja provjerava da li dvije konfiguracije imaju iste vrijednosti (bez obzira na verziju)
+     * @param other - druga konfiguracija
+     * @return vraca true ako su sve cijene i koeficijenti isti
+     */
+    public boolean sameValues(PricingConfig other) {
+        return other != null && withVersion(0).equals(other.withVersion(0));
+    }
+
+    /**
+     * Metoda koja vraca istu konfiguraciju sa drugim brojem verzije
+     * @param newVersion - broj verzije
+     * @return vraca konfiguraciju
+     */
+    public PricingConfig withVersion(long newVersion) {
+        return new PricingConfig(newVersion, carUnitPrice, bikeUnitPrice, scooterUnitPrice,
+                distanceNarrow, distanceWide, discount, discountProm, zones);
+    }
+
+    /**
+     * Metoda koja vraca tarifnu tabelu ove konfiguracije (prevodi je pri prvom pozivu; ako dvije niti
+     * istovremeno prevedu tabelu, obje tabele su iste, pa nije bitno koja ostaje sacuvana)
+     * @return vraca tarifnu tabelu
+     */
+    public TariffTable tariffs() {
+        TariffTable table = tariffs;
+        if (table == null) {
+            table = new TariffTable(this);
+            tariffs = table;
+        }
+        return table;
+    }
+
+    /**
+     * Metoda koja vraca broj verzije
+     * @return vraca broj verzije
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Metoda koja vraca osnovnu cijenu automobila
+     * @return vraca osnovnu cijenu automobila
+     */
+    public double carUnitPrice() {
+        return carUnitPrice;
+    }
+
+    /**
+     * Metoda koja vraca osnovnu cijenu bicikla
+     * @return vraca osnovnu cijenu bicikla
+     */
+    public double bikeUnitPrice() {
+        return bikeUnitPrice;
+    }
+
+    /**
+     * Metoda koja vraca osnovnu cijenu trotineta
+     * @return vraca osnovnu cijenu trotineta
+     */
+    public double scooterUnitPrice() {
+        return scooterUnitPrice;
+    }
+
+    /**
+     * Metoda koja vraca faktor udaljenosti za uzi dio grada
+     * @return vraca faktor udaljenosti za uzi dio grada
+     */
+    public double distanceNarrow() {
+        return distanceNarrow;
+    }
+
+    /**
+     * Metoda koja vraca faktor udaljenosti za siri dio grada
+     * @return vraca faktor udaljenosti za siri dio grada
+     */
+    public double distanceWide() {
+        return distanceWide;
+    }
+
+    /**
+     * Metoda koja vraca koeficijent popusta za svako deseto iznajmljivanje
+     * @return vraca koeficijent popusta za svako deseto iznajmljivanje
+     */
+    public double discount() {
+        return discount;
+    }
+
+    /**
+     * Metoda koja vraca koeficijent popusta promocije
+     * @return vraca koeficijent popusta promocije
+     */
+    public double discountProm() {
+        return discountProm;
+    }
+
+    /**
+     * Metoda koja vraca raster zona grada
+     * @return vraca raster zona grada
+     */
+    public ZoneMap zones() {
+        return zones;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PricingConfig other && version == other.version
+                && Double.compare(carUnitPrice, other.carUnitPrice) == 0
+                && Double.compare(bikeUnitPrice, other.bikeUnitPrice) == 0
+                && Double.compare(scooterUnitPrice, other.scooterUnitPrice) == 0
+                && Double.compare(distanceNarrow, other.distanceNarrow) == 0
+                && Double.compare(distanceWide, other.distanceWide) == 0
+                && Double.compare(discount, other.discount) == 0
+                && Double.compare(discountProm, other.discountProm) == 0
+                && Objects.equals(zones, other.zones);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, carUnitPrice, bikeUnitPrice, scooterUnitPrice, distanceNarrow, distanceWide,
+                discount, discountProm, zones);
+    }
+
+    @Override
+    public String toString() {
+        return "PricingConfig[version=" + version + ", carUnitPrice=" + carUnitPrice + ", bikeUnitPrice=" + bikeUnitPrice
+                + ", scooterUnitPrice=" + scooterUnitPrice + ", distanceNarrow=" + distanceNarrow
+                + ", distanceWide=" + distanceWide + ", discount=" + discount + ", discountProm=" + discountProm
+                + ", zones=" + zones + "]";
+    }
+}
@@ -0,0 +1,71 @@
+package pricing;
+
+import model.Constants;
+
+/**
+ * Klasa PricingEngine racuna cijene iznajmljivanja iz tarifne tabele (TariffTable).
+ * Tabela se prevodi jednom po konfiguraciji cijena (i cuva u njoj), a cijene cijele grupe iznajmljivanja se racunaju
+ * u jednom prolazu kroz nizove (indeks polja tabele i trajanje po iznajmljivanju), bez grananja po vrsti vozila.
+ * Cijena jednog iznajmljivanja (Rental.calculateTotalPrice) koristi istu tabelu i isti redoslijed racunanja,
+ * pa su cijene iste kao kada se racunaju u grupi.
+ */
+public class PricingEngine {
+    /**
+     * Metoda koja vraca tarifnu tabelu za konfiguraciju cijena (prevedenu najvise jednom po konfiguraciji,
+     * PricingConfig.tariffs)
+     * @param config - konfiguracija cijena
+     * @return vraca tarifnu tabelu
+     */
+    public static TariffTable tariffs(PricingConfig config) {
+        return config.tariffs();
+    }
+
+    /**
+     * Metoda koja racuna cijene grupe iznajmljivanja u jednom prolazu
+     * @param tariffs - tarifna tabela
+     * @param cells - indeksi polja tabele (TariffTable.cell, ili TariffTable.FAULT za pokvareno vozilo)
+     * @param durations - trajanja u sekundama simulacije
+     * @param count - broj iznajmljivanja (prvih count elemenata nizova)
+     * @param totalPrices - niz u koji se upisuju ukupne cijene
+     * @param basePrices - niz u koji se upisuju osnovne cijene
+     */
+    public static void price(TariffTable tariffs, int[] cells, double[] durations, int count,
+                             double[] totalPrices, double[] basePrices) {
+        price(tariffs, cells, durations, 0, count, totalPrices, basePrices);
+    }
+
+    /**
+     * Metoda koja racuna cijene dijela grupe iznajmljivanja (elementi od from do to), npr. kada se dijelovi
+     * velike grupe racunaju paralelno; nizovi se ne kopiraju, a drugi elementi se ne mijenjaju
+     * @param tariffs - tarifna tabela
+     * @param cells - indeksi polja tabele (TariffTable.cell, ili TariffTable.FAULT za pokvareno vozilo)
+     * @param durations - trajanja u sekundama simulacije
+     * @param from - prvi element (ukljucen)
+     * @param to - posljednji element (iskljucen)
+     * @param totalPrices - niz u koji se upisuju ukupne cijene
+     * @param basePrices - niz u koji se upisuju osnovne cijene
+     */
+    public static void price(TariffTable tariffs, int[] cells, double[] durations, int from, int to,
+                             double[] totalPrices, double[] basePrices) {
+        for (int i = from; i < to; i++) {
+            int cell = cells[i];
+            if (cell == TariffTable.FAULT) {
+                totalPrices[i] = 0;
+                basePrices[i] = 0;
+                continue;
+            }
+            double basePrice = tariffs.unitPrice(cell) * realDuration(durations[i]);
+            basePrices[i] = basePrice;
+            totalPrices[i] = basePrice * tariffs.distanceFactor(cell);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pretvara trajanje u simulaciji u jedinice cijene (isti izraz kao ranije u klasi Rental)
+     * @param simulationDuration - trajanje u sekundama simulacije
+     * @return vraca trajanje u jedinicama cijene
+     */
+    static double realDuration(double simulationDuration) {
+        return simulationDuration * Constants.REAL_MINUTES_PER_SIMULATION_SECOND * 60;
+    }
+}
@@ -0,0 +1,120 @@
+package pricing;
+
+import handler.PropertiesHandler;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Klasa PricingManager cuva trenutnu konfiguraciju cijena (PricingConfig). Konfiguracija se ucitava jednom,
+ * pri prvom pozivu metode current, i dijele je sva iznajmljivanja. Nit u pozadini prati config.properties
+ * (WatchService, uz provjeru vremena izmjene jednom u sekundi) i, kada se cijene promijene, atomicno postavlja
+ * novu verziju; iznajmljivanja napravljena prije toga zadrzavaju verziju kojom su obracunata.
+ * Ako nova verzija fajla ne moze da se procita, ostaje prethodna.
+ */
+public class PricingManager {
+    private static final Path CONFIG_FILE = Path.of("src/main/java/resources/config.properties");
+
+    private static final AtomicReference<PricingConfig> current = new AtomicReference<>();
+    private static long lastVersion = 0;
+    private static FileTime lastModified;
+    private static long lastSize = -1;
+
+    /**
+     * Metoda koja vraca trenutnu konfiguraciju cijena (pri prvom pozivu je ucitava i pocinje pracenje fajla)
+     * @return vraca konfiguraciju
+     */
+    public static PricingConfig current() {
+        PricingConfig config = current.get();
+        return config != null ? config : initialize();
+    }
+
+    /**
+     * Metoda koja odmah ponovo cita config.properties i postavlja novu verziju ako su se cijene promijenile
+     * @return vraca trenutnu konfiguraciju (novu, ili prethodnu ako se cijene nisu promijenile ili fajl ne moze da se procita)
+     */
+    public static synchronized PricingConfig reload() {
+        PricingConfig previous = current.get();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(CONFIG_FILE, BasicFileAttributes.class);
+            lastModified = attributes.lastModifiedTime(); // Neispravan fajl se ne cita ponovo dok se opet ne promijeni
+            lastSize = attributes.size();
+            PricingConfig loaded = PricingConfig.of(new PropertiesHandler(CONFIG_FILE.toString()), lastVersion + 1);
+            if (!loaded.sameValues(previous)) {
+                lastVersion = loaded.version();
+                current.set(loaded);
+                if (previous != null) {
+                    System.out.println("Pricing configuration reloaded (version " + loaded.version() + ").");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Cannot load pricing configuration" + (previous != null ? " (keeping version " + previous.version() + ")" : "")
+                    + ": " + e.getMessage());
+            if (previous == null) {
+                current.set(PricingConfig.EMPTY);
+            }
+        }
+        return current.get();
+    }
+
+    /**
+     * Pomocna metoda koja ucitava prvu verziju i pokrece nit koja prati fajl
+     * @return vraca ucitanu konfiguraciju
+     */
+    private static synchronized PricingConfig initialize() {
+        if (current.get() == null) {
+            reload();
+            Thread watcher = new Thread(PricingManager::watch, "pricing-watch");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        return current.get();
+    }
+
+    /**
+     * Pomocna metoda koju izvrsava nit pracenja: ceka obavjestenja za direktorijum konfiguracije,
+     * a jednom u sekundi provjerava i vrijeme izmjene i velicinu fajla
+     */
+    private static void watch() {
+        Path directory = CONFIG_FILE.toAbsolutePath().getParent();
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = watchService.poll(1, TimeUnit.SECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                if (changed()) {
+                    reload();
+                }
+            }
+        } catch (IOException | ClosedWatchServiceException e) {
+            System.out.println("Pricing configuration is not watched: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da li se fajl promijenio od posljednjeg citanja
+     * @return vraca true ako su vrijeme izmjene ili velicina drugaciji
+     */
+    private static synchronized boolean changed() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(CONFIG_FILE, BasicFileAttributes.class);
+            return !attributes.lastModifiedTime().equals(lastModified) || attributes.size() != lastSize;
+        } catch (IOException e) {
+            return false; // Fajl se upravo prepisuje ili je obrisan, vazi prethodna verzija
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package pricing;
+
+import model.EBike;
+import model.ECar;
+import model.EScooter;
+import model.Vehicle;
+
+/**
+ * Tarifna tabela prevedena iz jedne konfiguracije cijena (PricingConfig): za svaku kombinaciju
+ * vrste vozila, zone voznje (ZoneMap.rideZone, ili ZoneMap.OUTSIDE za siri dio grada), promocije i nivoa popusta
+ * (svako deseto iznajmljivanje) cuva osnovnu cijenu po jedinici vremena (vec umanjenu za promociju) i faktor udaljenosti.
+ * Tabela uvijek ima mjesta za ZoneMap.MAX_ZONES zona, pa indeks polja ne zavisi od broja zona u konfiguraciji.
+ * Polja tabele su u gustim nizovima, a indeks polja se racuna metodom cell.
+ * Popust za svako deseto iznajmljivanje se ne uracunava u cijenu iznajmljivanja (prikazuje se samo
+ * u rezultatima poslovanja), pa oba nivoa popusta imaju iste tarife; nivo je ipak dio indeksa,
+ * da bi se popust mogao uvesti samo promjenom prevodjenja tabele.
+ */
+public final class TariffTable {
+    public static final int CAR = 0;
+    public static final int BIKE = 1;
+    public static final int SCOOTER = 2;
+    public static final int OTHER = 3; // Nepoznata vrsta vozila, cijena 0
+    public static final int FAULT = -1; // Indeks za pokvareno vozilo, cijena 0
+
+    private static final int KINDS = 4;
+    private static final int ZONES = ZoneMap.MAX_ZONES + 1;
+    private static final int PROMOTIONS = 2;
+    private static final int TIERS = 2;
+    private static final int CELLS = KINDS * ZONES * PROMOTIONS * TIERS;
+
+    private final PricingConfig config;
+    private final double[] unitPrices = new double[CELLS];
+    private final double[] distanceFactors = new double[CELLS];
+
+    /**
+     * Konstruktor klase TariffTable, prevodi konfiguraciju u tabelu
+     * @param config - konfiguracija cijena
+     */
+    public TariffTable(PricingConfig config) {
+        this.config = config;
+        double[] kindPrices = {config.carUnitPrice(), config.bikeUnitPrice(), config.scooterUnitPrice(), 0};
+        for (int kind = 0; kind < KINDS; kind++) {
+            for (int zone = 0; zone < ZONES; zone++) {
+                for (int promotion = 0; promotion < PROMOTIONS; promotion++) {
+                    for (int tier = 0; tier < TIERS; tier++) {
+                        int cell = cell(kind, zone, promotion == 1, tier == 1);
+                        double unitPrice = kindPrices[kind];
+                        if (promotion == 1) {
+                            unitPrice *= config.discountProm();
+                        }
+                        unitPrices[cell] = unitPrice;
+                        distanceFactors[cell] = zone <= config.zones().zoneCount() ? config.zones().factor(zone, config) : 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Metoda koja vraca vrstu vozila kao indeks tabele
+     * @param vehicle - vozilo
+     * @return vraca CAR, BIKE, SCOOTER ili OTHER
+     */
+    public static int kindOf(Vehicle vehicle) {
+        return switch (vehicle) {
+            case ECar car -> CAR;
+            case EBike bike -> BIKE;
+            case EScooter scooter -> SCOOTER;
+            case null, default -> OTHER;
+        };
+    }
+
+    /**
+     * Metoda koja racuna indeks polja tabele
+     * @param kind - vrsta vozila (kindOf)
+     * @param zone - zona voznje (ZoneMap.rideZone), ZoneMap.OUTSIDE ako je iznajmljivanje (i djelimicno) u sirem dijelu grada
+     * @param promotion - da li iznajmljivanje ima promociju
+     * @param discounted - da li je iznajmljivanje deseto (nivo popusta)
+     * @return vraca indeks polja
+     */
+    public static int cell(int kind, int zone, boolean promotion, boolean discounted) {
+        return ((kind * ZONES + zone) * PROMOTIONS + (promotion ? 1 : 0)) * TIERS + (discounted ? 1 : 0);
+    }
+
+    /**
+     * Metoda koja vraca konfiguraciju iz koje je tabela prevedena
+     * @return vraca konfiguraciju
+     */
+    public PricingConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Metoda koja racuna osnovnu cijenu (bez faktora udaljenosti) jednog iznajmljivanja
+     * @param cell - indeks polja (ili FAULT)
+     * @param simulationDuration - trajanje u sekundama simulacije
+     * @return vraca osnovnu cijenu
+     */
+    public double basePrice(int cell, double simulationDuration) {
+        if (cell == FAULT) {
+            return 0;
+        }
+        return unitPrices[cell] * PricingEngine.realDuration(simulationDuration);
+    }
+
+    /**
+     * Metoda koja racuna ukupnu cijenu iz osnovne cijene
+     * @param cell - indeks polja (ili FAULT)
+     * @param basePrice - osnovna cijena (basePrice)
+     * @return vraca ukupnu cijenu
+     */
+    public double totalPrice(int cell, double basePrice) {
+        if (cell == FAULT) {
+            return 0;
+        }
+        return basePrice * distanceFactors[cell];
+    }
+
+    /**
+     * Metoda koja vraca osnovnu cijenu po jedinici vremena za polje (za racunanje u petlji PricingEngine)
+     * @param cell - indeks polja
+     * @return vraca osnovnu cijenu po jedinici vremena
+     */
+    double unitPrice(int cell) {
+        return unitPrices[cell];
+    }
+
+    /**
+     * Metoda koja vraca faktor udaljenosti za polje
+     * @param cell - indeks polja
+     * @return vraca faktor udaljenosti
+     */
+    double distanceFactor(int cell) {
+        return distanceFactors[cell];
+    }
+}
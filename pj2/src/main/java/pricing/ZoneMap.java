@@ -0,0 +1,171 @@
+package pricing;
+
+import handler.PropertiesHandler;
+import model.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Klasa ZoneMap je raster zona grada: za svako polje mreze jedan bajt u kojem je svaki bit jedna zona
+ * (polje moze pripadati proizvoljnom broju od najvise 8 imenovanih zona). Zona polja se dobija jednim
+ * indeksiranjem niza, pa je isti raster izvor za cijene (faktor udaljenosti po zoni), rezultate poslovanja
+ * (uzi i siri dio grada) i iscrtavanje mape.
+ * Voznja pripada zoni ako su joj i pocetno i krajnje polje u toj zoni (ako ih ima vise, vazi prva navedena);
+ * voznja van svih zona je u sirem dijelu grada (OUTSIDE) i racuna se faktorom DISTANCE_WIDE.
+ * Podrazumijevano postoji samo zona NARROW (polja 5..14 po obje ose) sa faktorom DISTANCE_NARROW.
+ */
+public final class ZoneMap {
+    public static final int MAX_ZONES = 8;
+    public static final int OUTSIDE = 0; // Broj zone za voznju van svih zona, zone su redom 1..MAX_ZONES
+
+    private static final int SIZE = Constants.GRID_SIZE;
+
+    /**
+     * Podrazumijevani raster: zona NARROW u centru grada (kao ranije u Rental.isNarrow), faktor DISTANCE_NARROW
+     */
+    public static final ZoneMap DEFAULT = new ZoneMap(List.of("NARROW"), List.<int[][]>of(new int[][]{{5, 5, 15, 15}}),
+            new double[]{Double.NaN});
+
+    private final byte[] cells = new byte[SIZE * SIZE];
+    private final String[] names;
+    private final double[] factors; // NaN znaci faktor DISTANCE_NARROW iz konfiguracije cijena
+
+    /**
+     * Konstruktor klase ZoneMap
+     * @param names - nazivi zona, redom
+     * @param rectangles - za svaku zonu pravougaonici {x1, y1, x2, y2} (x2 i y2 nisu ukljuceni)
+     * @param factors - faktor udaljenosti za svaku zonu (NaN za DISTANCE_NARROW)
+     * @throws IllegalArgumentException ako zona ima vise od MAX_ZONES ili se broj podataka ne poklapa
+     */
+    public ZoneMap(List<String> names, List<int[][]> rectangles, double[] factors) {
+        if (names.size() > MAX_ZONES) {
+            throw new IllegalArgumentException("At most " + MAX_ZONES + " zones are supported, got " + names.size());
+        }
+        if (rectangles.size() != names.size() || factors.length != names.size()) {
+            throw new IllegalArgumentException("Every zone needs rectangles and a factor");
+        }
+        this.names = names.toArray(new String[0]);
+        this.factors = factors.clone();
+        for (int zone = 0; zone < this.names.length; zone++) {
+            for (int[] rectangle : rectangles.get(zone)) {
+                if (rectangle.length != 4) {
+                    throw new IllegalArgumentException("Zone " + this.names[zone] + " rectangle needs x1,y1,x2,y2");
+                }
+                for (int x = Math.max(0, rectangle[0]); x < Math.min(SIZE, rectangle[2]); x++) {
+                    for (int y = Math.max(0, rectangle[1]); y < Math.min(SIZE, rectangle[3]); y++) {
+                        cells[x * SIZE + y] |= (byte) (1 << zone);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Metoda koja pravi raster od zona iz config.properties (ZONES, ZONE_naziv i ZONE_naziv_FACTOR)
+     * @param properties - ucitan config.properties
+     * @return vraca raster, ili DEFAULT ako zone nisu navedene
+     * @throws IllegalArgumentException ako zona nema pravougaonike ili ih je previse
+     * @throws NumberFormatException ako koordinata ili faktor nisu brojevi
+     */
+    public static ZoneMap of(PropertiesHandler properties) {
+        List<String> names = properties.getZoneNames();
+        if (names == null) {
+            return DEFAULT;
+        }
+        List<int[][]> rectangles = new ArrayList<>();
+        double[] factors = new double[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            rectangles.add(properties.getZoneRectangles(names.get(i)));
+            factors[i] = properties.getZoneFactor(names.get(i));
+        }
+        return new ZoneMap(names, rectangles, factors);
+    }
+
+    /**
+     * Metoda koja vraca zone kojima polje pripada
+     * @param x - x koordinata
+     * @param y - y koordinata
+     * @return vraca bitove zona (bit i za zonu i + 1), 0 za polje van svih zona ili van mreze
+     */
+    public int mask(int x, int y) {
+        if (x < 0 || x >= SIZE || y < 0 || y >= SIZE) {
+            return 0;
+        }
+        return cells[x * SIZE + y] & 0xFF;
+    }
+
+    /**
+     * Metoda koja vraca zonu polja (za iscrtavanje mape)
+     * @param x - x koordinata
+     * @param y - y koordinata
+     * @return vraca prvu zonu kojoj polje pripada (1..zoneCount), ili OUTSIDE
+     */
+    public int zoneOf(int x, int y) {
+        return first(mask(x, y));
+    }
+
+    /**
+     * Metoda koja vraca zonu voznje
+     * @param startX - pocetna x koordinata
+     * @param startY - pocetna y koordinata
+     * @param endX - krajnja x koordinata
+     * @param endY - krajnja y koordinata
+     * @return vraca prvu zonu kojoj pripadaju i pocetno i krajnje polje (1..zoneCount), ili OUTSIDE
+     */
+    public int rideZone(int startX, int startY, int endX, int endY) {
+        return first(mask(startX, startY) & mask(endX, endY));
+    }
+
+    /**
+     * Metoda koja vraca broj zona
+     * @return vraca broj zona
+     */
+    public int zoneCount() {
+        return names.length;
+    }
+
+    /**
+     * Metoda koja vraca naziv zone
+     * @param zone - zona (1..zoneCount)
+     * @return vraca naziv zone
+     */
+    public String name(int zone) {
+        return names[zone - 1];
+    }
+
+    /**
+     * Metoda koja vraca faktor udaljenosti zone
+     * @param zone - zona (1..zoneCount) ili OUTSIDE
+     * @param config - konfiguracija cijena (DISTANCE_WIDE van zona, DISTANCE_NARROW za zone bez svog faktora)
+     * @return vraca faktor udaljenosti
+     */
+    public double factor(int zone, PricingConfig config) {
+        if (zone == OUTSIDE) {
+            return config.distanceWide();
+        }
+        double factor = factors[zone - 1];
+        return Double.isNaN(factor) ? config.distanceNarrow() : factor;
+    }
+
+    /**
+     * Pomocna metoda koja vraca prvu zonu iz bitova zona
+     * @param mask - bitovi zona
+     * @return vraca zonu, ili OUTSIDE ako nema nijednog bita
+     */
+    private static int first(int mask) {
+        return mask == 0 ? OUTSIDE : Integer.numberOfTrailingZeros(mask) + 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ZoneMap other && Arrays.equals(cells, other.cells) && Arrays.equals(names, other.names)
+                && Arrays.equals(factors, other.factors);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(cells) + Arrays.hashCode(names);
+    }
+}
@@ -0,0 +1,85 @@
+package rent;
+
+import java.util.Arrays;
+
+/**
+ * Klasa Distribution opisuje raspodjelu jedne vrijednosti kroz replike Monte Carlo simulacije:
+ * srednju vrijednost i 5. i 95. percentil (granice intervala u kojem je 90% replika)
+ */
+public class Distribution {
+    private final double mean;
+    private final double p5;
+    private final double p95;
+
+    /**
+     * Konstruktor klase Distribution
+     * @param mean - srednja vrijednost
+     * @param p5 - 5. percentil
+     * @param p95 - 95. percentil
+     */
+    public Distribution(double mean, double p5, double p95) {
+        this.mean = mean;
+        this.p5 = p5;
+        this.p95 = p95;
+    }
+
+    /**
+     * Metoda koja racuna raspodjelu iz vrijednosti svih replika
+     * @param values - vrijednosti po replikama (niz se ne mijenja)
+     * @return vraca raspodjelu
+     */
+    public static Distribution of(double[] values) {
+        if (values.length == 0) {
+            return new Distribution(0, 0, 0);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return new Distribution(Arrays.stream(sorted).average().orElse(0), percentile(sorted, 0.05), percentile(sorted, 0.95));
+    }
+
+    /**
+     * Pomocna metoda koja racuna percentil sortiranog niza (linearna interpolacija izmedju susjednih vrijednosti)
+     * @param sorted - sortirane vrijednosti
+     * @param p - percentil izmedju 0 i 1
+     * @return vraca vrijednost percentila
+     */
+    private static double percentile(double[] sorted, double p) {
+        double position = p * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+    }
+
+    /**
+     * Metoda koja vraca srednju vrijednost
+     * @return vraca srednju vrijednost
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Metoda koja vraca 5. percentil
+     * @return vraca 5. percentil
+     */
+    public double getP5() {
+        return p5;
+    }
+
+    /**
+     * Metoda koja vraca 95. percentil
+     * @return vraca 95. percentil
+     */
+    public double getP95() {
+        return p95;
+    }
+
+    /**
+     * Override toString metoda koja formatira raspodjelu u String
+     * @return vraca srednju vrijednost i percentile
+     */
+    @Override
+    public String toString() {
+        return String.format("mean %.2f, p5 %.2f, p95 %.2f", mean, p5, p95);
+    }
+}
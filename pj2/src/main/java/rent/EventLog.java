@@ -0,0 +1,189 @@
+package rent;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Klasa EventLog upisuje dnevnik dogadjaja simulacije u kompaktnom binarnom formatu (komprimovan GZIP-om).
+ * Zaglavlje sadrzi seed, broj iznajmljivanja i korisnicke dokumente, a zatim slijede dogadjaji:
+ * pocetak iznajmljivanja, svaki korak (pozicija i nivo baterije), punjenje, kvar i racun.
+ * Iznajmljivanja se u dnevniku oznacavaju rednim brojem u redoslijedu grupa (kao u SimulationManager).
+ * Iz dnevnika se simulacija moze ponovo izvrsiti punom brzinom (SimulationReplay), sa istim racunima i rezultatima.
+ * Jezgra iz vise niti mogu pisati istovremeno, pa je svaki zapis jedna sinhronizovana operacija.
+ */
+public class EventLog implements Closeable {
+    public static final int MAGIC = 0x454D4C47; // "EMLG"
+    public static final int VERSION = 1;
+
+    /**
+     * Vrste zapisa u dnevniku
+     */
+    public enum Type {
+        RENTAL_START,
+        STEP,
+        CHARGE,
+        FAULT,
+        RECEIPT
+    }
+
+    private final DataOutputStream out;
+    private final Map<Rental, Integer> indexes = new IdentityHashMap<>();
+    private IOException error; // Prva greska prilikom upisivanja, prijavljuje se pri zatvaranju
+
+    /**
+     * Konstruktor klase EventLog, kreira fajl i upisuje zaglavlje
+     * @param path - putanja do fajla dnevnika
+     * @param seed - seed simulacije
+     * @param rentals - sva iznajmljivanja u redoslijedu grupa (redni broj u listi je oznaka u dnevniku)
+     * @param userDocuments - korisnicki dokumenti koji vaze za ovu simulaciju
+     * @throws IOException ako fajl ne moze da se kreira
+     */
+    public EventLog(Path path, long seed, List<Rental> rentals, Properties userDocuments) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(path))));
+        for (int i = 0; i < rentals.size(); i++) {
+            indexes.put(rentals.get(i), i);
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(seed);
+        out.writeInt(rentals.size());
+        out.writeInt(userDocuments.size());
+        for (String key : userDocuments.stringPropertyNames()) {
+            out.writeUTF(key);
+            out.writeUTF(userDocuments.getProperty(key));
+        }
+    }
+
+    /**
+     * Metoda koja upisuje pocetak iznajmljivanja
+     * @param rental - iznajmljivanje
+     * @param time - virtuelno vrijeme
+     */
+    public synchronized void rentalStart(Rental rental, double time) {
+        try {
+            writeHeader(Type.RENTAL_START, rental, time);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Metoda koja upisuje jedan korak vozila
+     * @param rental - iznajmljivanje
+     * @param time - virtuelno vrijeme
+     * @param position - nova pozicija vozila (upakovana, vidjeti PathCursor)
+     * @param batteryLevel - nivo baterije nakon koraka
+     */
+    public synchronized void step(Rental rental, double time, int position, double batteryLevel) {
+        try {
+            writeHeader(Type.STEP, rental, time);
+            out.writeInt(position);
+            out.writeDouble(batteryLevel);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Metoda koja upisuje punjenje baterije
+     * @param rental - iznajmljivanje
+     * @param time - virtuelno vrijeme
+     */
+    public synchronized void charge(Rental rental, double time) {
+        try {
+            writeHeader(Type.CHARGE, rental, time);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Metoda koja upisuje kvar vozila
+     * @param rental - iznajmljivanje
+     * @param time - virtuelno vrijeme
+     * @param reason - razlog kvara
+     */
+    public synchronized void fault(Rental rental, double time, String reason) {
+        try {
+            writeHeader(Type.FAULT, rental, time);
+            out.writeUTF(reason);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Metoda koja upisuje izdati racun
+     * @param rental - iznajmljivanje
+     * @param time - virtuelno vrijeme
+     * @param idNumber - broj licne karte korisnika
+     * @param driverLicense - broj vozacke dozvole korisnika
+     */
+    public synchronized void receipt(Rental rental, double time, String idNumber, String driverLicense) {
+        try {
+            writeHeader(Type.RECEIPT, rental, time);
+            out.writeDouble(rental.getTotalPrice());
+            out.writeUTF(String.valueOf(idNumber));
+            out.writeUTF(String.valueOf(driverLicense));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Metoda koja zatvara dnevnik
+     * @throws IOException ako je neki zapis ili zatvaranje fajla bilo neuspjesno
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            out.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Pomocna metoda koja upisuje zajednicki dio svakog zapisa
+     * @param type - vrsta zapisa
+     * @param rental - iznajmljivanje
+     * @param time - virtuelno vrijeme
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private void writeHeader(Type type, Rental rental, double time) throws IOException {
+        Integer index = indexes.get(rental);
+        if (index == null) {
+            throw new IOException("Rental is not part of the logged simulation: " + rental.getVehicle().getId());
+        }
+        out.writeByte(type.ordinal());
+        out.writeInt(index);
+        out.writeDouble(time);
+    }
+
+    /**
+     * Pomocna metoda koja pamti prvu gresku (simulacija se ne prekida zbog dnevnika)
+     * @param e - greska
+     */
+    private void fail(IOException e) {
+        if (error == null) {
+            error = e;
+            System.err.println("Failed to write event log: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package rent;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Klasa EventLogReader cita dnevnik dogadjaja koji je upisala klasa EventLog.
+ * Nakon citanja zaglavlja (u konstruktoru), zapisi se citaju jedan po jedan metodom next,
+ * a podaci trenutnog zapisa se dobijaju getterima (koji podaci postoje zavisi od vrste zapisa).
+ */
+public class EventLogReader implements Closeable {
+    private final DataInputStream in;
+    private final long seed;
+    private final int rentalCount;
+    private final Properties userDocuments = new Properties();
+
+    private EventLog.Type type;
+    private int rentalIndex;
+    private double time;
+    private int position;
+    private double batteryLevel;
+    private double price;
+    private String reason;
+    private String idNumber;
+    private String driverLicense;
+
+    /**
+     * Konstruktor klase EventLogReader, otvara fajl i cita zaglavlje
+     * @param path - putanja do fajla dnevnika
+     * @throws IOException ako fajl ne postoji ili nije dnevnik dogadjaja podrzane verzije
+     */
+    public EventLogReader(Path path) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))));
+        try {
+            if (in.readInt() != EventLog.MAGIC) {
+                throw new IOException("Not a simulation event log: " + path);
+            }
+            int version = in.readInt();
+            if (version != EventLog.VERSION) {
+                throw new IOException("Unsupported event log version " + version + ": " + path);
+            }
+            seed = in.readLong();
+            rentalCount = in.readInt();
+            int documentCount = in.readInt();
+            for (int i = 0; i < documentCount; i++) {
+                userDocuments.setProperty(in.readUTF(), in.readUTF());
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Metoda koja cita naredni zapis
+     * @return vraca false ako su svi zapisi procitani
+     * @throws IOException ako je dnevnik neispravan
+     */
+    public boolean next() throws IOException {
+        int ordinal;
+        try {
+            ordinal = in.readByte();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (ordinal < 0 || ordinal >= EventLog.Type.values().length) {
+            throw new IOException("Corrupt event log, unknown record type " + ordinal);
+        }
+        type = EventLog.Type.values()[ordinal];
+        rentalIndex = in.readInt();
+        time = in.readDouble();
+
+        switch (type) {
+            case STEP:
+                position = in.readInt();
+                batteryLevel = in.readDouble();
+                break;
+            case FAULT:
+                reason = in.readUTF();
+                break;
+            case RECEIPT:
+                price = in.readDouble();
+                idNumber = in.readUTF();
+                driverLicense = in.readUTF();
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Metoda koja vraca seed zabiljezene simulacije
+     * @return vraca seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Metoda koja vraca broj iznajmljivanja zabiljezene simulacije
+     * @return vraca broj iznajmljivanja
+     */
+    public int getRentalCount() {
+        return rentalCount;
+    }
+
+    /**
+     * Metoda koja vraca korisnicke dokumente zabiljezene simulacije
+     * @return vraca korisnicke dokumente
+     */
+    public Properties getUserDocuments() {
+        return userDocuments;
+    }
+
+    /**
+     * Metoda koja vraca vrstu trenutnog zapisa
+     * @return vraca vrstu zapisa
+     */
+    public EventLog.Type getType() {
+        return type;
+    }
+
+    /**
+     * Metoda koja vraca redni broj iznajmljivanja trenutnog zapisa
+     * @return vraca redni broj iznajmljivanja
+     */
+    public int getRentalIndex() {
+        return rentalIndex;
+    }
+
+    /**
+     * Metoda koja vraca virtuelno vrijeme trenutnog zapisa
+     * @return vraca vrijeme u sekundama simulacije
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Metoda koja vraca poziciju vozila (samo za STEP)
+     * @return vraca upakovanu poziciju
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Metoda koja vraca nivo baterije nakon koraka (samo za STEP)
+     * @return vraca nivo baterije
+     */
+    public double getBatteryLevel() {
+        return batteryLevel;
+    }
+
+    /**
+     * Metoda koja vraca cijenu sa racuna (samo za RECEIPT)
+     * @return vraca cijenu
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Metoda koja vraca razlog kvara (samo za FAULT)
+     * @return vraca razlog kvara
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Metoda koja vraca broj licne karte sa racuna (samo za RECEIPT)
+     * @return vraca broj licne karte
+     */
+    public String getIdNumber() {
+        return idNumber;
+    }
+
+    /**
+     * Metoda koja vraca broj vozacke dozvole sa racuna (samo za RECEIPT)
+     * @return vraca broj vozacke dozvole
+     */
+    public String getDriverLicense() {
+        return driverLicense;
+    }
+
+    /**
+     * Metoda koja zatvara dnevnik
+     * @throws IOException u slucaju greske prilikom zatvaranja
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
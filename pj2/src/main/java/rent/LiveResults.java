@@ -0,0 +1,142 @@
+package rent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Klasa LiveResults racuna rezultate poslovanja tokom simulacije: svako zavrseno iznajmljivanje se odmah dodaje
+ * u sumarni i dnevni izvjestaj (ResultsAccumulator, u konstantnom vremenu), pa su trenutni prihod i troskovi
+ * poznati bez cekanja kraja simulacije i bez ponovnog racunanja nad svim iznajmljivanjima.
+ * Pretplatnici (npr. prozor rezultata) ne dobijaju obavjestenje za svako iznajmljivanje: promjene se spajaju,
+ * a pretplatnik dobija presjek stanja najvise jednom u zadatom intervalu (u niti "live-results").
+ * Iznajmljivanja se mogu dodavati istovremeno iz vise niti (izvrsavanje lanaca u nitima).
+ */
+public class LiveResults implements AutoCloseable {
+    private final ResultsAccumulator accumulator = new ResultsAccumulator();
+    private long rentals = 0;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "live-results");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Presjek stanja rezultata poslovanja
+     * @param rentals - broj do sada zavrsenih iznajmljivanja
+     * @param summary - sumarni izvjestaj (sa troskovima kompanije i porezom)
+     * @param daily - dnevni izvjestaji, poredani po datumu
+     */
+    public record Snapshot(long rentals, Results summary, List<Results> daily) {
+    }
+
+    /**
+     * Metoda koja dodaje zavrseno iznajmljivanje u rezultate i obavjestava pretplatnike (najvise jednom po intervalu)
+     * @param rental - zavrseno iznajmljivanje, sa izracunatom cijenom
+     */
+    public void add(Rental rental) {
+        synchronized (this) {
+            accumulator.add(rental);
+            rentals++;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.changed();
+        }
+    }
+
+    /**
+     * Metoda koja vraca trenutno stanje rezultata (racuna se samo od suma, bez prolaza kroz iznajmljivanja)
+     * @return vraca presjek stanja
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(rentals, accumulator.toSummary(), accumulator.toDaily());
+    }
+
+    /**
+     * Metoda koja prijavljuje pretplatnika na promjene rezultata; pretplatnik trenutno stanje dobija odmah,
+     * u niti koja se prijavljuje, a svaku narednu promjenu u niti "live-results"
+     * @param subscriber - pretplatnik
+     * @param interval - najkrace vrijeme izmedju dva obavjestenja pretplatnika
+     * @return vraca pretplatu, koja se zatvara kada pretplatniku obavjestenja vise nisu potrebna
+     */
+    public Subscription subscribe(Consumer<Snapshot> subscriber, Duration interval) {
+        Subscription subscription = new Subscription(subscriber, interval);
+        subscriptions.add(subscription);
+        subscriber.accept(snapshot());
+        return subscription;
+    }
+
+    /**
+     * Metoda koja odjavljuje sve pretplatnike i zaustavlja nit obavjestenja
+     */
+    @Override
+    public void close() {
+        subscriptions.clear();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Pretplata na promjene rezultata: nakon promjene se obavjestenje zakazuje jednom, a sve promjene do njega
+     * se prikazuju tim jednim obavjestenjem
+     */
+    public final class Subscription implements AutoCloseable {
+        private final Consumer<Snapshot> subscriber;
+        private final long intervalNanos;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        /**
+         * Konstruktor klase Subscription
+         * @param subscriber - pretplatnik
+         * @param interval - najkrace vrijeme izmedju dva obavjestenja
+         */
+        private Subscription(Consumer<Snapshot> subscriber, Duration interval) {
+            this.subscriber = subscriber;
+            this.intervalNanos = interval.toNanos();
+        }
+
+        /**
+         * Pomocna metoda koja zakazuje obavjestenje, ako vec nije zakazano
+         */
+        private void changed() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    scheduler.schedule(this::deliver, intervalNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Rezultati su zatvoreni, obavjestenja vise nema
+                }
+            }
+        }
+
+        /**
+         * Pomocna metoda koja salje pretplatniku trenutno stanje
+         * (promjene nastale tokom slanja zakazuju sljedece obavjestenje)
+         */
+        private void deliver() {
+            scheduled.set(false);
+            if (!subscriptions.contains(this)) {
+                return;
+            }
+            try {
+                subscriber.accept(snapshot());
+            } catch (RuntimeException e) {
+                System.err.println("Live results subscriber failed: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Metoda koja odjavljuje pretplatnika
+         */
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+}
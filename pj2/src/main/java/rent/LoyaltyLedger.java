@@ -0,0 +1,100 @@
+package rent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Klasa LoyaltyLedger vodi evidenciju vjernosti korisnika: za svakog korisnika broji njegova iznajmljivanja
+ * i svakom iznajmljivanju dodjeljuje redni broj tog korisnika (Rental.getRentCount); svako deseto iznajmljivanje
+ * istog korisnika ima popust. Redni brojevi se dodjeljuju po vremenu pocetka (za isto vrijeme po redoslijedu
+ * u ulazu), pa ne zavise od redoslijeda pravljenja objekata ni od broja niti koje ucitavaju i obracunavaju podatke.
+ * Brojaci su po korisniku (AtomicInteger u ConcurrentHashMap), pa se razliciti korisnici obradjuju paralelno;
+ * LongAdder nije pogodan jer ne vraca vrijednost brojaca nakon povecanja, a ona je redni broj.
+ */
+public class LoyaltyLedger {
+    public static final int DISCOUNT_EVERY = 10; // Svako deseto iznajmljivanje korisnika ima popust
+
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Konstruktor koji pravi praznu evidenciju
+     */
+    public LoyaltyLedger() {
+    }
+
+    /**
+     * Konstruktor koji pravi evidenciju nastavljenu od vec ucitanih iznajmljivanja (npr. za pracenje fajla,
+     * gdje nova iznajmljivanja dobijaju redne brojeve iza postojecih)
+     * @param known - iznajmljivanja sa vec dodijeljenim rednim brojevima
+     */
+    public LoyaltyLedger(Collection<Rental> known) {
+        for (Rental rental : known) {
+            counts.computeIfAbsent(rental.getUserId(), k -> new AtomicInteger())
+                    .accumulateAndGet(rental.getRentCount(), Math::max);
+        }
+    }
+
+    /**
+     * Metoda koja dodjeljuje redne brojeve grupi ucitanih iznajmljivanja, po vremenu pocetka
+     * (za isto vrijeme po redoslijedu u listi); korisnici se obradjuju paralelno
+     * @param rentals - iznajmljivanja (lista se ne preuredjuje)
+     */
+    public void assign(List<Rental> rentals) {
+        List<Rental> ordered = new ArrayList<>(rentals);
+        ordered.sort(Comparator.comparing(Rental::getStartTime)); // stabilno sortiranje
+        Map<String, List<Rental>> byUser = ordered.stream()
+                .collect(Collectors.groupingBy(Rental::getUserId, LinkedHashMap::new, Collectors.toList()));
+
+        byUser.entrySet().parallelStream().forEach(entry -> {
+            AtomicInteger count = counts.computeIfAbsent(entry.getKey(), k -> new AtomicInteger());
+            for (Rental rental : entry.getValue()) {
+                rental.setRentCount(count.incrementAndGet());
+            }
+        });
+    }
+
+    /**
+     * Metoda koja dodjeljuje redni broj jednom iznajmljivanju koje je vec u potpunosti provjereno (kada
+     * iznajmljivanja stizu jedno po jedno); neispravan red zato nikad ne trosi redni broj korisnika
+     * @param rental - napravljeno iznajmljivanje, bez dodijeljenog rednog broja
+     */
+    public void assign(Rental rental) {
+        rental.setRentCount(next(rental.getUserId()));
+    }
+
+    /**
+     * Metoda koja vraca redni broj sljedeceg iznajmljivanja korisnika (kada iznajmljivanja stizu jedno po jedno,
+     * npr. iz toka poredanog po vremenu pocetka ili iz pracenog fajla)
+     * @param userId - identifikator korisnika
+     * @return vraca redni broj iznajmljivanja korisnika (od 1)
+     */
+    private int next(String userId) {
+        return counts.computeIfAbsent(userId, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Metoda koja vraca broj iznajmljivanja korisnika
+     * @param userId - identifikator korisnika
+     * @return vraca broj iznajmljivanja (0 ako korisnik nema iznajmljivanja)
+     */
+    public int getCount(String userId) {
+        AtomicInteger count = counts.get(userId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Metoda koja provjerava da li iznajmljivanje sa datim rednim brojem ima popust
+     * @param rentCount - redni broj iznajmljivanja korisnika (0 ako nije dodijeljen)
+     * @return vraca true za svako deseto iznajmljivanje korisnika
+     */
+    public static boolean isDiscounted(int rentCount) {
+        return rentCount > 0 && rentCount % DISCOUNT_EVERY == 0;
+    }
+}
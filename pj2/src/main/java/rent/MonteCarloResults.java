@@ -0,0 +1,69 @@
+package rent;
+
+/**
+ * Klasa MonteCarloResults sadrzi zbirne rezultate poslovanja svih replika Monte Carlo simulacije:
+ * raspodjele ukupnog prihoda, troskova popravki i poreza (za planiranje kapaciteta)
+ */
+public class MonteCarloResults {
+    private final int replicas;
+    private final long seed;
+    private final Distribution revenue;
+    private final Distribution repairCost;
+    private final Distribution tax;
+
+    /**
+     * Konstruktor klase MonteCarloResults
+     * @param replicas - broj replika
+     * @param seed - pocetna vrijednost generatora slucajnih brojeva
+     * @param revenue - raspodjela ukupnog prihoda
+     * @param repairCost - raspodjela troskova popravki
+     * @param tax - raspodjela poreza
+     */
+    public MonteCarloResults(int replicas, long seed, Distribution revenue, Distribution repairCost, Distribution tax) {
+        this.replicas = replicas;
+        this.seed = seed;
+        this.revenue = revenue;
+        this.repairCost = repairCost;
+        this.tax = tax;
+    }
+
+    /**
+     * Metoda koja vraca broj replika
+     * @return vraca broj replika
+     */
+    public int getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Metoda koja vraca pocetnu vrijednost generatora slucajnih brojeva
+     * @return vraca seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Metoda koja vraca raspodjelu ukupnog prihoda
+     * @return vraca raspodjelu
+     */
+    public Distribution getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * Metoda koja vraca raspodjelu troskova popravki
+     * @return vraca raspodjelu
+     */
+    public Distribution getRepairCost() {
+        return repairCost;
+    }
+
+    /**
+     * Metoda koja vraca raspodjelu poreza
+     * @return vraca raspodjelu
+     */
+    public Distribution getTax() {
+        return tax;
+    }
+}
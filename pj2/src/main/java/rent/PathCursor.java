@@ -0,0 +1,91 @@
+package rent;
+
+/**
+ * Klasa PathCursor prolazi kroz najkracu putanju vozila polje po polje, bez pravljenja liste tacaka.
+ * Vozilo se prvo krece po x osi, pa po y osi (kao i ranije u calculatePathSteps), a svaki korak
+ * se vraca kao jedan int u kojem su upakovane obje koordinate (x u gornjih, y u donjih 16 bita).
+ * Jedan kursor se moze ponovo koristiti za vise putanja pozivom metode reset.
+ */
+public class PathCursor {
+    private int x;
+    private int y;
+    private int dx;
+    private int dy;
+    private int stepX;
+    private int stepY;
+
+    /**
+     * Metoda koja postavlja kursor na pocetak nove putanje
+     * @param startX - pocetna x koordinata
+     * @param startY - pocetna y koordinata
+     * @param endX - krajnja x koordinata
+     * @param endY - krajnja y koordinata
+     */
+    public void reset(int startX, int startY, int endX, int endY) {
+        x = startX;
+        y = startY;
+        dx = Math.abs(endX - startX);
+        dy = Math.abs(endY - startY);
+        stepX = Integer.signum(endX - startX);
+        stepY = Integer.signum(endY - startY);
+    }
+
+    /**
+     * Metoda koja provjerava da li na putanji ima jos koraka
+     * @return vraca true ako vozilo jos nije stiglo na odrediste
+     */
+    public boolean hasNext() {
+        return dx > 0 || dy > 0;
+    }
+
+    /**
+     * Metoda koja pomjera vozilo za jedno polje
+     * @return vraca novu poziciju upakovanu u int (koristiti metode x i y za raspakivanje)
+     */
+    public int next() {
+        if (dx > 0) {
+            x += stepX;
+            dx--;
+        } else if (dy > 0) {
+            y += stepY;
+            dy--;
+        }
+        return pack(x, y);
+    }
+
+    /**
+     * Metoda koja vraca broj preostalih koraka
+     * @return vraca broj polja do odredista
+     */
+    public int remaining() {
+        return dx + dy;
+    }
+
+    /**
+     * Metoda koja pakuje dvije koordinate u jedan int
+     * @param x - x koordinata
+     * @param y - y koordinata
+     * @return vraca upakovanu poziciju
+     */
+    public static int pack(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    /**
+     * Metoda koja iz upakovane pozicije vraca x koordinatu
+     * @param packed - upakovana pozicija
+     * @return vraca x koordinatu
+     */
+    public static int x(int packed) {
+        return packed >> 16;
+    }
+
+    /**
+     * Metoda koja iz upakovane pozicije vraca y koordinatu
+     * @param packed - upakovana pozicija
+     * @return vraca y koordinatu
+     */
+    public static int y(int packed) {
+        return (short) packed;
+    }
+}
@@ -2,9 +2,16 @@ package rent;
 
 import model.*;
 import handler.*;
+import pricing.PricingConfig;
+import pricing.PricingEngine;
+import pricing.PricingManager;
+import pricing.TariffTable;
+import pricing.ZoneMap;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 
 /**
  * Klasa Rental nam daje sve podatke o jednom iznajmljivanju, kao i metode koje su se koristile pri racunanju
@@ -18,18 +25,20 @@ public class Rental {
     private double simulationDuration; // Trajanje u sekundama za simulaciju
     private String startLocation;
     private String endLocation;
+    private int startX; // Koordinate lokacija se parsiraju samo jednom, u konstruktoru
+    private int startY;
+    private int endX;
+    private int endY;
     private double totalPrice;
     private double basePrice;
     private boolean hasFault;
     public boolean hasPromotion;
-    private double narrowFactor;
-    private double wideFactor;
-    private int rentCount;
-    private static int counter = 0;
-    private String driversLicense;
+    private PricingConfig pricing; // Konfiguracija cijena kojom je iznajmljivanje obracunato
+    private int rentCount; // Redni broj iznajmljivanja korisnika (LoyaltyLedger), 0 dok nije dodijeljen
 
     /**
      * Konstruktor klase Rental
+     * Redni broj iznajmljivanja korisnika (zbog popusta) dodjeljuje kasnije LoyaltyLedger
      * @param date - datum iznajmljivanje
      * @param userId - identifikator korisnika
      * @param vehicle - vozilo koje je iznajmljeno
@@ -48,58 +57,123 @@ public class Rental {
         this.userId = userId;
         this.vehicle = vehicle;
         this.vehicleId = vehicle.getId();
-        this.startLocation = startLocation;
-        this.endLocation = endLocation;
+        setLocations(startLocation, endLocation);
         this.simulationDuration = simulationDuration;
 
         this.hasFault = fault.equalsIgnoreCase("da");
         this.hasPromotion = promotion.equalsIgnoreCase("da");
-        UserDocumentHandler userDocumentHandler = new UserDocumentHandler();
-        this.driversLicense = userDocumentHandler.getDocument(userId);
-        PropertiesHandler propertiesHandler = null;
-        try {
-            propertiesHandler = new PropertiesHandler("src/main/java/resources/config.properties");
-        } catch (IOException e) {
-            System.out.println("Greška prilikom učitavanja konfiguracije: " + e.getMessage());
-        }
-
-        if (propertiesHandler != null) {
-            this.narrowFactor = propertiesHandler.getDistanceNarrow();
-            this.wideFactor = propertiesHandler.getDistanceWide();
-        }
 
         // Izračunavanje završnog vremena na osnovu simulacije
         calculateEndTime();
+        // Cijena prema trenutnoj konfiguraciji, koja se ne čita ponovo iz fajla za svako iznajmljivanje
+        calculateTotalPrice(PricingManager.current());
+    }
+
+    /**
+     * Konstruktor klase Rental za iznajmljivanje ucitano iz snapshot-a (SnapshotHandler): vrijeme pocetka je vec parsirano,
+     * a konfiguracija cijena se prosljedjuje (korisnicki dokumenti se citaju tek za racun).
+     * Cijena se racuna isto kao u ostalim konstruktorima, a redni broj korisnika je sacuvan u snapshot-u
+     * @param startTime - vrijeme pocetka
+     * @param userId - identifikator korisnika
+     * @param vehicle - vozilo koje je iznajmljeno
+     * @param startLocation - pocetna lokacija
+     * @param endLocation - krajnja lokacija
+     * @param simulationDuration - trajanje simulacije
+     * @param fault - da li je vozilo pokvareno
+     * @param promotion - da li iznajmljivanje ima promociju
+     * @param rentCount - redni broj iznajmljivanja korisnika (zbog popusta)
+     * @param config - konfiguracija cijena
+     */
+    public Rental(LocalDateTime startTime, String userId, Vehicle vehicle, String startLocation, String endLocation,
+                  double simulationDuration, boolean fault, boolean promotion, int rentCount,
+                  PricingConfig config) {
+        this.startTime = startTime;
+        this.userId = userId;
+        this.vehicle = vehicle;
+        this.vehicleId = vehicle.getId();
+        setLocations(startLocation, endLocation);
+        this.simulationDuration = simulationDuration;
+        this.hasFault = fault;
+        this.hasPromotion = promotion;
+        calculateEndTime();
+        this.rentCount = rentCount;
+        calculateTotalPrice(config);
+    }
+
+    /**
+     * Metoda koja provjerava da li se lokacija moze parsirati kao koordinate (format "x,y", cijeli brojevi),
+     * da bi ucitavanje moglo da odbaci red prije pravljenja iznajmljivanja
+     * @param location - lokacija iz CSV fajla
+     * @return vraca true ako je lokacija ispravna
+     */
+    public static boolean isValidLocation(String location) {
+        int comma = location.indexOf(',');
+        if (comma < 0) {
+            return false;
+        }
         try {
-            calculateTotalPrice();
-        } catch (IOException e) {
-            System.out.println("Došlo je do greške prilikom izračunavanja cene: " + e.getMessage());
+            Integer.parseInt(location, 0, comma, 10);
+            Integer.parseInt(location, comma + 1, location.length(), 10);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
         }
-
-        this.rentCount = ++counter;
     }
 
     /**
-     * Metoda koja racuna da li se vozilo na odredjenoj lokaciji nalazi u uzem dijelu grada
-     * @param location - lokacija vozila
-     * @return vraca boolean potvrdu da li se vozilo nalazi u uzem dijelu ili ne
+     * Pomocna metoda koja postavlja lokacije i parsira njihove koordinate (format "x,y")
+     * @param startLocation - pocetna lokacija
+     * @param endLocation - krajnja lokacija
      */
-    public boolean isNarrowArea(String location){
-        String[] coordinates = location.split(",");
-        int x = Integer.parseInt(coordinates[0]);
-        int y = Integer.parseInt(coordinates[1]);
+    private void setLocations(String startLocation, String endLocation) {
+        this.startLocation = startLocation;
+        this.endLocation = endLocation;
+        int startComma = startLocation.indexOf(',');
+        this.startX = Integer.parseInt(startLocation, 0, startComma, 10);
+        this.startY = Integer.parseInt(startLocation, startComma + 1, startLocation.length(), 10);
+        int endComma = endLocation.indexOf(',');
+        this.endX = Integer.parseInt(endLocation, 0, endComma, 10);
+        this.endY = Integer.parseInt(endLocation, endComma + 1, endLocation.length(), 10);
+    }
 
-        return x >= 5 && x<15 && y >= 5 && y<15;
+    /**
+     * Metoda koja postavlja redni broj iznajmljivanja korisnika (LoyaltyLedger.assign); ako se time mijenja
+     * nivo popusta, cijena se ponovo racuna istom konfiguracijom
+     * @param rentCount - redni broj iznajmljivanja korisnika
+     */
+    void setRentCount(int rentCount) {
+        boolean tierChanged = LoyaltyLedger.isDiscounted(rentCount) != LoyaltyLedger.isDiscounted(this.rentCount);
+        this.rentCount = rentCount;
+        if (tierChanged && pricing != null) {
+            calculateTotalPrice(pricing);
+        }
     }
 
     /**
-     * Metoda koja koristi boolean isNarrowArea
-     * Provjerava da li ce se vozilo tokom simulacije naci u uzem dijelu grada ili ne
+     * Metoda koja provjerava da li ce se vozilo tokom simulacije naci u uzem dijelu grada ili ne
+     * (i pocetna i krajnja lokacija su u istoj zoni rastera zona, koordinate su vec parsirane)
      * @return vraca informaciju o tome da li ce se vozilo tokom simulacije naci u uzem dijelu grada ili ne
      */
     public boolean isNarrow() {
-        // Provjera za startLocation i endLocation
-        return isNarrowArea(startLocation) && isNarrowArea(endLocation);
+        return zone(zones()) != ZoneMap.OUTSIDE;
+    }
+
+    /**
+     * Pomocna metoda koja vraca zonu voznje
+     * @param zones - raster zona
+     * @return vraca zonu kojoj pripadaju pocetna i krajnja lokacija, ili ZoneMap.OUTSIDE
+     */
+    private int zone(ZoneMap zones) {
+        return zones.rideZone(startX, startY, endX, endY);
+    }
+
+    /**
+     * Pomocna metoda koja vraca raster zona konfiguracije kojom je iznajmljivanje obracunato (ili trenutne)
+     * @return vraca raster zona
+     */
+    private ZoneMap zones() {
+        PricingConfig config = pricing;
+        return config != null ? config.zones() : PricingManager.current().zones();
     }
 
     /**
@@ -107,46 +181,88 @@ public class Rental {
      */
     private void calculateEndTime() {
         // 1 sekunda u simulaciji = 30 minuta realnog vremena
-        double realDurationInMinutes = simulationDuration * 30;
+        double realDurationInMinutes = simulationDuration * Constants.REAL_MINUTES_PER_SIMULATION_SECOND;
         this.endTime = startTime.plusMinutes((long) realDurationInMinutes);
     }
 
     /**
-     * Metoda koja racuna ukupnu cijenu iznajmljivanja
+     * Metoda koja racuna ukupnu cijenu iznajmljivanja prema trenutnoj konfiguraciji cijena
      * Metoda je prilagodjena da racuna "realnu cijenu", obzirom da je trajanje simulacije u sekundama
-     * @throws IOException ako dodje do greske prilikom racunanje cijene (u konstruktoru)
+     * Ako je iznajmljivanje vec obracunato istom verzijom konfiguracije, cijena se ne racuna ponovo
      */
-    public void calculateTotalPrice() throws IOException {
-        // Ako postoji kvar, cijena je 0
-        if (hasFault) {
-            totalPrice = 0;
-            basePrice = 0;
-            return; // Izaći iz metode jer nema potrebe za daljnjim izračunom
+    public void calculateTotalPrice() {
+        PricingConfig config = PricingManager.current();
+        if (config != pricing) {
+            calculateTotalPrice(config);
         }
+    }
 
-        double unitPrice = 0;
-        PropertiesHandler propertiesHandler = new PropertiesHandler("src/main/java/resources/config.properties");
-        if (vehicle instanceof ECar) {
-            unitPrice = propertiesHandler.getCarUnitPrice();
-        } else if (vehicle instanceof EBike) {
-            unitPrice = propertiesHandler.getBikeUnitPrice();
-        } else if (vehicle instanceof EScooter) {
-            unitPrice = propertiesHandler.getScooterUnitPrice();
-        }
+    /**
+     * Metoda koja racuna ukupnu cijenu iznajmljivanja prema zadatoj konfiguraciji cijena
+     * @param config - konfiguracija sa cijenama po vrsti vozila, faktorima udaljenosti i popustom promocije
+     */
+    private void calculateTotalPrice(PricingConfig config) {
+        pricing = config;
+        TariffTable tariffs = PricingEngine.tariffs(config);
+        int cell = tariffCell(config.zones());
+        basePrice = tariffs.basePrice(cell, simulationDuration);
+        totalPrice = tariffs.totalPrice(cell, basePrice);
+    }
 
-        // Dodavanje promocije
-        if (hasPromotion) {
-            unitPrice *= propertiesHandler.getDiscountProm(); //
+    /**
+     * Metoda koja racuna cijene vise iznajmljivanja odjednom, prema trenutnoj konfiguraciji cijena
+     * (PricingEngine, u jednom prolazu); iznajmljivanja vec obracunata istom verzijom se preskacu
+     * @param rentals - iznajmljivanja
+     * @return vraca broj iznajmljivanja kojima je cijena ponovo izracunata (0 ako su sve cijene vec bile aktuelne)
+     */
+    public static int calculateTotalPrices(List<Rental> rentals) {
+        PricingConfig config = PricingManager.current();
+        TariffTable tariffs = PricingEngine.tariffs(config);
+        List<Rental> stale = new ArrayList<>();
+        for (Rental rental : rentals) {
+            if (rental.pricing != config) {
+                stale.add(rental);
+            }
+        }
+        int count = stale.size();
+        int[] cells = new int[count];
+        double[] durations = new double[count];
+        for (int i = 0; i < count; i++) {
+            cells[i] = stale.get(i).tariffCell(config.zones());
+            durations[i] = stale.get(i).simulationDuration;
         }
+        double[] totalPrices = new double[count];
+        double[] basePrices = new double[count];
+        PricingEngine.price(tariffs, cells, durations, count, totalPrices, basePrices);
+        for (int i = 0; i < count; i++) {
+            Rental rental = stale.get(i);
+            rental.pricing = config;
+            rental.totalPrice = totalPrices[i];
+            rental.basePrice = basePrices[i];
+        }
+        return count;
+    }
 
-        // Provjeriti da li je vozilo u širem dijelu grada
-        boolean wideArea = !isNarrowArea(startLocation) || !isNarrowArea(endLocation);
-        double distanceFactor = wideArea ? wideFactor : narrowFactor;
+    /**
+     * Pomocna metoda koja racuna polje tarifne tabele za ovo iznajmljivanje, prema rasteru zona
+     * konfiguracije kojom je obracunato (za tabelu iznajmljivanja, RentalTable)
+     * @return vraca indeks polja, ili TariffTable.FAULT ako je vozilo pokvareno (cijena je 0)
+     */
+    int tariffCell() {
+        return tariffCell(zones());
+    }
 
-        // Cena na osnovu simulacije (realDurationInMinutes se konvertuje u sate)
-        double realDurationInHours = (simulationDuration * 30 * 60);
-        totalPrice = unitPrice * realDurationInHours * distanceFactor;
-        basePrice = unitPrice * realDurationInHours;
+    /**
+     * Pomocna metoda koja racuna polje tarifne tabele za ovo iznajmljivanje
+     * (vrsta vozila, zona voznje, promocija, svako deseto)
+     * @param zones - raster zona
+     * @return vraca indeks polja, ili TariffTable.FAULT ako je vozilo pokvareno (cijena je 0)
+     */
+    private int tariffCell(ZoneMap zones) {
+        if (hasFault) {
+            return TariffTable.FAULT;
+        }
+        return TariffTable.cell(TariffTable.kindOf(vehicle), zone(zones), hasPromotion, LoyaltyLedger.isDiscounted(rentCount));
     }
 
     /**
@@ -157,6 +273,14 @@ public class Rental {
         return totalPrice;
     }
 
+    /**
+     * Metoda koja vraca verziju konfiguracije cijena kojom je iznajmljivanje obracunato
+     * @return vraca broj verzije (PricingConfig.version)
+     */
+    public long getPricingVersion() {
+        return pricing.version();
+    }
+
     /**
      * Metoda koja dobija identifikator korisnika
      * @return vraca identifikator
@@ -213,6 +337,38 @@ public class Rental {
         return endLocation;
     }
 
+    /**
+     * Metoda koja vraca x koordinatu pocetne lokacije
+     * @return vraca x koordinatu
+     */
+    public int getStartX() {
+        return startX;
+    }
+
+    /**
+     * Metoda koja vraca y koordinatu pocetne lokacije
+     * @return vraca y koordinatu
+     */
+    public int getStartY() {
+        return startY;
+    }
+
+    /**
+     * Metoda koja vraca x koordinatu krajnje lokacije
+     * @return vraca x koordinatu
+     */
+    public int getEndX() {
+        return endX;
+    }
+
+    /**
+     * Metoda koja vraca y koordinatu krajnje lokacije
+     * @return vraca y koordinatu
+     */
+    public int getEndY() {
+        return endY;
+    }
+
     /**
      * Metoda koja dobija vrijeme trajanja simulacije
      * @return vraca vrijeme trajanja
@@ -222,8 +378,8 @@ public class Rental {
     }
 
     /**
-     * Metoda koja dobija broj iznajmljivanja (zbog promocije)
-     * @return vraca broj iznajmljivanja
+     * Metoda koja dobija redni broj iznajmljivanja korisnika (zbog popusta, LoyaltyLedger)
+     * @return vraca redni broj iznajmljivanja korisnika (0 ako nije dodijeljen)
      */
     public int getRentCount() {
         return rentCount;
@@ -274,15 +430,6 @@ public class Rental {
      * @return broj polja koje vozilo treba da pređe
      */
     public int calculateShortestPath() {
-        // Parsiranje startLocation i endLocation u koordinate (x, y)
-        String[] startCoords = startLocation.split(",");
-        int startX = Integer.parseInt(startCoords[0]);
-        int startY = Integer.parseInt(startCoords[1]);
-
-        String[] endCoords = endLocation.split(",");
-        int endX = Integer.parseInt(endCoords[0]);
-        int endY = Integer.parseInt(endCoords[1]);
-
         // Računanje Manhattan distance
         return Math.abs(startX - endX) + Math.abs(startY - endY);
     }
@@ -307,12 +454,13 @@ public class Rental {
 
     /**
      * Metoda koja dobija podatke o racunu i podacima sa njega
+     * @param userDocuments - korisnicki dokumenti simulacije (ucitani jednom za sva iznajmljivanja)
      * @return vraca novi objekat klase Receipt, da bi se preko njega mogli ucitati podaci s racuna
      */
-    public Receipt getReceipt() {
+    public Receipt getReceipt(Properties userDocuments) {
         String userId = this.userId;
         String idNumber = vehicle.getId(); // Ako vozilo ima svoj ID, koristimo ga
-        String driverLicense = UserDocumentHandler.getDocument(userId);
+        String driverLicense = UserDocumentHandler.getDocument(userDocuments, userId);
         String vehicleId = this.vehicleId;
         String startLocation = this.startLocation;
         String endLocation = this.endLocation;
@@ -0,0 +1,119 @@
+package rent;
+
+import model.Vehicle;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Klasa RentalFeed dovodi iznajmljivanja iz toka (npr. RentalStream) u jezgro simulacije kroz ograniceni prozor.
+ * U simulaciji je istovremeno najvise window iznajmljivanja (aktivnih ili na cekanju za svoje vozilo):
+ * kada se jedno zavrsi, iz toka se uzima naredno. Iznajmljivanja istog vozila se i dalje izvrsavaju
+ * jedno za drugim, u redoslijedu toka, uz prenos nivoa baterije. Kada je prozor veci od broja iznajmljivanja,
+ * sva vozila krecu odmah, kao kod SimulationEngine.runChains.
+ * Iznajmljivanja koja stignu tokom simulacije (offer, npr. iz RentalInbox) ulaze u prozor nakon svih iznajmljivanja toka.
+ */
+public class RentalFeed {
+    private final Iterator<Rental> rentals;
+    private final int window;
+    private final RandomGenerator random;
+    private final SimulationListener listener;
+    private final Consumer<Rental> onFinished;
+    private final Map<Vehicle, ArrayDeque<Rental>> waiting = new IdentityHashMap<>(); // Zauzeta vozila i njihova naredna iznajmljivanja
+    private final ArrayDeque<Rental> arrivals = new ArrayDeque<>(); // Iznajmljivanja pristigla tokom simulacije, van prozora
+    private int admitted = 0;
+    private long finished = 0;
+
+    /**
+     * Konstruktor klase RentalFeed
+     * @param rentals - iznajmljivanja poredana po vremenu pocetka
+     * @param window - najveci broj iznajmljivanja koja su istovremeno u simulaciji
+     * @param random - tok slucajnih brojeva za sva iznajmljivanja (jezgro je jedna nit, pa je redoslijed ponovljiv)
+     * @param listener - slusalac simulacije (moze biti null)
+     * @param onFinished - poziva se za svako zavrseno iznajmljivanje, nakon cega ga feed vise ne drzi
+     */
+    public RentalFeed(Iterator<Rental> rentals, int window, RandomGenerator random, SimulationListener listener, Consumer<Rental> onFinished) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.rentals = rentals;
+        this.window = window;
+        this.random = random;
+        this.listener = listener;
+        this.onFinished = onFinished;
+    }
+
+    /**
+     * Metoda koja vraca broj zavrsenih iznajmljivanja
+     * @return vraca broj zavrsenih iznajmljivanja
+     */
+    public long getFinished() {
+        return finished;
+    }
+
+    /**
+     * Metoda koja dodaje iznajmljivanje pristiglo tokom simulacije; ulazi u prozor kada se napravi mjesta (metoda fill)
+     * @param rental - novo iznajmljivanje
+     */
+    void offer(Rental rental) {
+        arrivals.add(rental);
+    }
+
+    /**
+     * Metoda koja uzima iznajmljivanja iz toka (pa zatim pristigla iznajmljivanja) dok se prozor ne popuni;
+     * iznajmljivanje slobodnog vozila pocinje odmah, a iznajmljivanje zauzetog vozila ceka da se vozilo oslobodi
+     * @param engine - jezgro simulacije
+     */
+    void fill(SimulationEngine engine) {
+        while (admitted < window) {
+            Rental rental;
+            if (rentals.hasNext()) {
+                rental = rentals.next();
+            } else if (!arrivals.isEmpty()) {
+                rental = arrivals.poll();
+            } else {
+                break;
+            }
+            admitted++;
+            ArrayDeque<Rental> queue = waiting.get(rental.getVehicle());
+            if (queue != null) {
+                queue.add(rental);
+            } else {
+                waiting.put(rental.getVehicle(), new ArrayDeque<>());
+                start(rental, engine);
+            }
+        }
+    }
+
+    /**
+     * Metoda koja oslobadja mjesto u prozoru nakon zavrsenog iznajmljivanja i pokrece naredno iznajmljivanje istog vozila
+     * @param rental - zavrseno iznajmljivanje
+     * @param engine - jezgro simulacije
+     */
+    void finished(Rental rental, SimulationEngine engine) {
+        admitted--;
+        finished++;
+        onFinished.accept(rental);
+
+        ArrayDeque<Rental> queue = waiting.get(rental.getVehicle());
+        if (queue == null || queue.isEmpty()) {
+            waiting.remove(rental.getVehicle());
+        } else {
+            start(queue.poll(), engine);
+        }
+        fill(engine);
+    }
+
+    /**
+     * Pomocna metoda koja pokrece simulaciju jednog iznajmljivanja
+     * @param rental - iznajmljivanje
+     * @param engine - jezgro simulacije
+     */
+    private void start(Rental rental, SimulationEngine engine) {
+        new RentalSimulation(rental, listener, random).start(engine);
+    }
+}
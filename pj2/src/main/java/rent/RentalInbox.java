@@ -0,0 +1,68 @@
+package rent;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Klasa RentalInbox je sanduce za iznajmljivanja koja stizu tokom simulacije (npr. novi redovi fajla iznajmljivanja,
+ * RentalTail). Jedna nit dodaje iznajmljivanja, a jezgro simulacije (SimulationEngine.runLive) ih preuzima
+ * izmedju dogadjaja. Kada se sanduce zatvori, simulacija zavrsava preostala iznajmljivanja i zavrsava se.
+ */
+public class RentalInbox {
+    private final LinkedBlockingQueue<Rental> queue = new LinkedBlockingQueue<>();
+    private volatile boolean closed = false;
+
+    /**
+     * Metoda koja dodaje novo iznajmljivanje u sanduce
+     * @param rental - iznajmljivanje
+     * @throws IllegalStateException ako je sanduce zatvoreno
+     */
+    public void add(Rental rental) {
+        if (closed) {
+            throw new IllegalStateException("Rental inbox is closed");
+        }
+        queue.add(rental);
+    }
+
+    /**
+     * Metoda koja zatvara sanduce: nova iznajmljivanja vise ne stizu
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Metoda koja provjerava da li je sanduce zatvoreno
+     * @return vraca true ako je sanduce zatvoreno
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Metoda koja provjerava da li u sanducu ima iznajmljivanja
+     * @return vraca true ako je sanduce prazno
+     */
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Metoda koja uzima naredno iznajmljivanje bez cekanja
+     * @return vraca iznajmljivanje, ili null ako je sanduce prazno
+     */
+    Rental poll() {
+        return queue.poll();
+    }
+
+    /**
+     * Metoda koja ceka na naredno iznajmljivanje najvise zadato vrijeme
+     * @param timeout - najduze cekanje
+     * @param unit - jedinica vremena
+     * @return vraca iznajmljivanje, ili null ako nije stiglo
+     * @throws InterruptedException ako je nit prekinuta tokom cekanja
+     */
+    Rental poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+}
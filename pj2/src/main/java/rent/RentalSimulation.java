@@ -1,146 +1,205 @@
 package rent;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
 
 import handler.*;
-import gui.*;
 import model.*;
-import java.awt.Point;
 
 /**
  * Klasa RentalSimulation se bavi jednim singularnim iznajmljivanjem, i svime sto ide uz njega
- * Ona implementira interfejs Runnable jer cemo koristiti konkurentno programiranje odnosno niti
+ * Iznajmljivanje se ne izvrsava u posebnoj niti, vec reaguje na dogadjaje koje mu prosljedjuje
+ * SimulationEngine (koraci, punjenje baterije, dolazak na odrediste i kvar)
  */
-public class RentalSimulation implements Runnable {
+public class RentalSimulation {
     private Rental rental;
-    private MainController mainController; // Referenca na MainController
+    private SimulationListener listener; // Slusalac simulacije (npr. GUI)
 
-    private static Map<String, Vehicle> faultyVehicles = new HashMap<>();
+    private final PathCursor path = new PathCursor();
+    private final SimulationEvent event; // Jedini zakazani dogadjaj
+    private int endX;
+    private int endY;
+    private double timePerField;
+    private RentalSimulation next; // Naredno iznajmljivanje istog vozila
+    private final RandomGenerator random; // Tok slucajnih brojeva lanca kojem iznajmljivanje pripada
+
+    private static Map<String, Vehicle> faultyVehicles = new ConcurrentHashMap<>();
 
     /**
      * Ovo je konstruktor klase
      * @param rental predstavlja jedno iznajmljivanje
-     * @param mainController predstavlja instancu glavnog kontrolera za graficki interfejs
-     *                       jer cemo ga koristiti pri azuriranju pozicije vozila na mapi
+     * @param listener predstavlja slusaoca simulacije (npr. GUI koji azurira poziciju vozila na mapi),
+     *                 moze biti null ako se simulacija izvrsava bez GUI-ja
+     * @param random predstavlja tok slucajnih brojeva (npr. za razlog kvara)
      */
-    public RentalSimulation(Rental rental, MainController mainController) {
+    public RentalSimulation(Rental rental, SimulationListener listener, RandomGenerator random) {
         this.rental = rental;
-        this.mainController = mainController;
+        this.listener = listener;
+        this.random = random;
+        // Dogadjaj se pravi tek kada su svi ostali atributi postavljeni
+        this.event = new SimulationEvent(0, 0, SimulationEvent.Type.STEP, this);
     }
 
     /**
-     * Ova override run metoda simulira kretanje vozila od pocetne do krajnje lokacije,
-     * azurira GUI, simulira trosenje baterije i generise racun. Koristimo je za pokretanje
-     * u posebnoj niti. Obuhvata parsiranje tacaka lokacije, racunanje najkraceg puta,
-     * vremena po pomjeranju vozila, provjera kvarova itd.
+     * Metoda koja postavlja naredno iznajmljivanje istog vozila, koje pocinje kad se ovo zavrsi
+     * @param next - naredno iznajmljivanje (ili null ako ga nema)
      */
-    @Override
-    public void run() {
-        Vehicle vehicle = rental.getVehicle();
-
-        // Parsiranje početne i krajnje lokacije
-        String[] startCoords = rental.getStartLocation().split(",");
-        int startX = Integer.parseInt(startCoords[0]);
-        int startY = Integer.parseInt(startCoords[1]);
+    public void setNext(RentalSimulation next) {
+        this.next = next;
+    }
 
-        String[] endCoords = rental.getEndLocation().split(",");
-        int endX = Integer.parseInt(endCoords[0]);
-        int endY = Integer.parseInt(endCoords[1]);
+    /**
+     * Metoda koja priprema putanju vozila od pocetne do krajnje lokacije i zakazuje prvi dogadjaj.
+     * Obuhvata parsiranje tacaka lokacije, racunanje najkraceg puta i vremena po pomjeranju vozila
+     * @param engine - jezgro simulacije u koje se zakazuju dogadjaji
+     */
+    public void start(SimulationEngine engine) {
+        // Koordinate su vec parsirane u klasi Rental
+        endX = rental.getEndX();
+        endY = rental.getEndY();
 
-        // Generisanje najkraće putanje koristeći calculateShortestPath iz klase Rental
-        int shortestPath = rental.calculateShortestPath();
-        List<Point> path = calculatePathSteps(new Point(startX, startY), new Point(endX, endY), shortestPath);
+        // Najkraca putanja se prolazi kursorom, korak po korak, bez liste tacaka
+        path.reset(rental.getStartX(), rental.getStartY(), endX, endY);
 
         // Vreme po koraku
-        double timePerField = rental.calculateTimePerField();
-
-        // Iteracija kroz korake
-        for (Point step : path) {
-            // Ažuriranje pozicije vozila na GUI-ju
-            mainController.updateVehiclePosition(vehicle.getId(), step.x, step.y, endX, endY, false); // false označava da simulacija nije završena
-            vehicle.dischargeBattery();
-
-            try {
-                // Pauza između koraka
-                Thread.sleep((long) (timePerField * 1000));
-                if(vehicle.getBatteryLevel() == 0){
-                    System.out.println("Battery is empty, waiting for vehicle to recharge...");
-                    Thread.sleep(1000);
-                    vehicle.chargeBattery();
-                    System.out.println("Battery is fully charged.");
-                }// Konvertovanje sekundi u milisekunde
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        timePerField = rental.calculateTimePerField();
+
+        if (engine.getEventLog() != null) {
+            engine.getEventLog().rentalStart(rental, engine.getClock());
         }
 
-        // Na kraju, kad vozilo stigne na krajnju lokaciju, uklanjamo marker sa mape
-        mainController.updateVehiclePosition(vehicle.getId(), endX, endY, endX, endY, true); // true oznacava da je simulacija zavrsena
-        if(rental.isFaulty()){
-            vehicle.setFailReason();
-            vehicle.setFailTime(rental.getEndTime());
-            System.out.println("Fault occured for vehicle " + vehicle.getId() + ". Fault description: " + vehicle.getFailReason());
-            // Dodavanje vozila u mapu s kvarovima
-            faultyVehicles.put(vehicle.getId(), vehicle);
+        scheduleNext(engine, engine.getClock());
+    }
+
+    /**
+     * Metoda koja vraca objekat dogadjaja ovog iznajmljivanja. Iznajmljivanje u svakom trenutku ima
+     * najvise jedan zakazan dogadjaj, pa se isti objekat koristi za sve korake (bez alokacije po koraku)
+     * @return vraca dogadjaj ovog iznajmljivanja
+     */
+    SimulationEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Metoda koja obradjuje dogadjaj ovog iznajmljivanja: pomjera vozilo, trosi i puni bateriju,
+     * azurira GUI, evidentira kvar i na kraju generise racun
+     * @param event - dogadjaj koji se obradjuje
+     * @param engine - jezgro simulacije u koje se zakazuju naredni dogadjaji
+     */
+    public void handle(SimulationEvent event, SimulationEngine engine) {
+        Vehicle vehicle = rental.getVehicle();
+        double now = event.getTime();
+        EventLog eventLog = engine.getEventLog();
+
+        switch (event.getType()) {
+            case STEP:
+                int step = path.next();
+                // Ažuriranje pozicije vozila na GUI-ju
+                updatePosition(vehicle.getId(), PathCursor.x(step), PathCursor.y(step), false); // false označava da simulacija nije završena
+                double batteryLevel = vehicle.dischargeBattery();
+                if (eventLog != null) {
+                    eventLog.step(rental, now, step, batteryLevel);
+                }
+
+                if (batteryLevel == 0) {
+                    System.out.println("Battery is empty, waiting for vehicle to recharge...");
+                    engine.schedule(now + timePerField + 1, SimulationEvent.Type.CHARGE, this);
+                } else {
+                    scheduleNext(engine, now + timePerField);
+                }
+                break;
+            case CHARGE:
+                vehicle.chargeBattery();
+                if (eventLog != null) {
+                    eventLog.charge(rental, now);
+                }
+                System.out.println("Battery is fully charged.");
+                scheduleNext(engine, now);
+                break;
+            case ARRIVAL:
+                // Na kraju, kad vozilo stigne na krajnju lokaciju, uklanjamo marker sa mape
+                updatePosition(vehicle.getId(), endX, endY, true); // true oznacava da je simulacija zavrsena
+                if (rental.isFaulty()) {
+                    engine.schedule(now, SimulationEvent.Type.FAULT, this);
+                } else {
+                    finish(engine);
+                }
+                break;
+            case FAULT:
+                String failReason = vehicle.recordFault(rental.getEndTime(), random);
+                if (eventLog != null) {
+                    eventLog.fault(rental, now, failReason);
+                }
+                System.out.println("Fault occured for vehicle " + vehicle.getId() + ". Fault description: " + failReason);
+                // Dodavanje vozila u mapu s kvarovima
+                faultyVehicles.put(vehicle.getId(), vehicle);
+                finish(engine);
+                break;
         }
-        // Generisanje racuna na kraju
-        generateReceiptAndPrint();
-        System.out.println("****************************************");
     }
 
     /**
-     * Metoda calculatePathSteps nam racuna i daje putanju kojom ce se vozilo kretati tokom simulacije
-     * @param start - pocetna tacka
-     * @param end - krajnja tacka
-     * @param steps - broj koraka odnosno polja koje ce vozilo preci tokom simulacije
-     * @return
+     * Pomocna metoda koja zakazuje naredni korak, ili dolazak ako su svi koraci predjeni
+     * @param engine - jezgro simulacije
+     * @param time - virtuelno vrijeme narednog dogadjaja
      */
-    private List<Point> calculatePathSteps(Point start, Point end, int steps) {
-        List<Point> path = new ArrayList<>();
-
-        // Razlika u koordinatama
-        int dx = Math.abs(end.x - start.x);
-        int dy = Math.abs(end.y - start.y);
-
-        // Računanje pravca kretanja
-        int stepX = (end.x > start.x) ? 1 : (end.x < start.x) ? -1 : 0;
-        int stepY = (end.y > start.y) ? 1 : (end.y < start.y) ? -1 : 0;
-
-        int x = start.x;
-        int y = start.y;
-
-        // Uzimamo manji broj izmedjuu dx i dy da bi putanja bila u pravilnom pravcu
-        int maxSteps = Math.max(dx, dy); // Maksimalan broj koraka je najveca razlika u koordinatama
-
-        // Iteracija kroz korake puta
-        for (int i = 0; i < steps; i++) {
-            if (dx > 0) {
-                x += stepX; // Pomeri X
-                dx--;
-            } else if (dy > 0) {
-                y += stepY; // Pomeri Y
-                dy--;
-            }
-
-            path.add(new Point(x, y));
+    private void scheduleNext(SimulationEngine engine, double time) {
+        if (path.hasNext()) {
+            engine.schedule(time, SimulationEvent.Type.STEP, this);
+        } else {
+            engine.schedule(time, SimulationEvent.Type.ARRIVAL, this);
         }
+    }
 
-        return path;
+    /**
+     * Pomocna metoda koja obavjestava slusaoca o novoj poziciji vozila, ako slusalac postoji
+     * @param vehicleId - identifikator vozila
+     * @param x - trenutna x koordinata
+     * @param y - trenutna y koordinata
+     * @param isFinished - da li je iznajmljivanje zavrseno
+     */
+    private void updatePosition(String vehicleId, int x, int y, boolean isFinished) {
+        if (listener != null) {
+            listener.onVehicleMoved(vehicleId, x, y, endX, endY, isFinished);
+        }
     }
 
+    /**
+     * Pomocna metoda koja zavrsava iznajmljivanje generisanjem racuna
+     * i oslobadja vozilo za naredno iznajmljivanje
+     * @param engine - jezgro simulacije
+     */
+    private void finish(SimulationEngine engine) {
+        // Generisanje racuna na kraju
+        generateReceiptAndPrint(engine);
+        System.out.println("****************************************");
+        if (listener != null) {
+            listener.onRentalFinished(rental);
+        }
+
+        if (next != null) {
+            next.start(engine);
+        }
+        engine.rentalFinished(rental);
+    }
 
     /**
      * Jednostavna metoda za generisanje i ispisivanje racuna
      * Koristimo ReceiptHandler za metodu generateReceipt()
+     * @param engine - jezgro simulacije (zbog dnevnika dogadjaja i korisnickih dokumenata)
      */
-    private void generateReceiptAndPrint() {
-        // Pretpostavljamo da se korisnički dokumenti učitavaju i račun generiše ovde
-        Properties userDocuments = UserDocumentHandler.loadUserDocuments();
+    private void generateReceiptAndPrint(SimulationEngine engine) {
+        // Korisnicki dokumenti su ucitani jednom za cijelu simulaciju
+        Properties userDocuments = engine.getUserDocuments();
         String idNumber = userDocuments.getProperty(rental.getUserId() + ".id");
         String driverLicense = userDocuments.getProperty(rental.getUserId() + ".license");
 
         // Generiši račun
         ReceiptHandler.generateReceipt(rental, idNumber, driverLicense);
+        if (engine.getEventLog() != null) {
+            engine.getEventLog().receipt(rental, engine.getClock(), idNumber, driverLicense);
+        }
 
         // Ispisivanje računa ili dodatna logika
         System.out.println("Rental finished for vehicle " + rental.getVehicle().getId() + "\n");
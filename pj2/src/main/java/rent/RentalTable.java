@@ -0,0 +1,329 @@
+package rent;
+
+import model.Vehicle;
+import pricing.PricingEngine;
+import pricing.TariffTable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Klasa RentalTable cuva iznajmljivanja po kolonama, u nizovima primitivnih tipova: pocetak i kraj (minute od epohe),
+ * upakovane pocetne i krajnje koordinate (PathCursor.pack), indeks vozila, cijena, osnovna cijena, zastavice
+ * (kvar, promocija, uzi dio grada, popust), polje tarifne tabele i trajanje. Iznajmljivanje u tabeli zauzima
+ * 49 bajtova umjesto nekoliko stotina koliko zauzima objekat Rental sa svojim Stringovima i LocalDateTime objektima,
+ * a sumarni i dnevni rezultati poslovanja se racunaju petljom kroz nizove koja iznose predaje ResultsAccumulator-u (accumulate).
+ * Cijene se preuzimaju iz iznajmljivanja u trenutku dodavanja, pa se tabela pravi pri ucitavanju, nakon racunanja cijena
+ * i rednih brojeva korisnika (SnapshotHandler, HeadlessMain);
+ * metodom repriced se cijela istorija moze ponovo obracunati drugom konfiguracijom cijena, bez simulacije.
+ */
+public class RentalTable {
+    private static final byte FAULT = 1;
+    private static final byte PROMOTION = 2;
+    private static final byte NARROW = 4;
+    private static final byte DISCOUNTED = 8; // svako deseto iznajmljivanje korisnika
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int REPRICE_CHUNK = 1 << 16; // Broj redova koje jedan zadatak obracunava u metodi repriced
+
+    private int size = 0;
+    private int[] startMinute;
+    private int[] endMinute;
+    private int[] start;
+    private int[] end;
+    private int[] vehicleIndex;
+    private double[] price;
+    private double[] basePrice;
+    private byte[] flags;
+    private int[] tariffCell; // Polje tarifne tabele (Rental.tariffCell), ne zavisi od konfiguracije cijena
+    private double[] duration; // Trajanje u sekundama simulacije
+
+    private final List<Vehicle> vehicles = new ArrayList<>();
+    private final Map<Vehicle, Integer> vehicleIndexes = new IdentityHashMap<>();
+    private double[] vehicleRepairCost = new double[16];
+
+    /**
+     * Konstruktor klase RentalTable
+     * @param capacity - pocetni kapacitet (broj iznajmljivanja)
+     */
+    public RentalTable(int capacity) {
+        capacity = Math.max(capacity, 16);
+        startMinute = new int[capacity];
+        endMinute = new int[capacity];
+        start = new int[capacity];
+        end = new int[capacity];
+        vehicleIndex = new int[capacity];
+        price = new double[capacity];
+        basePrice = new double[capacity];
+        flags = new byte[capacity];
+        tariffCell = new int[capacity];
+        duration = new double[capacity];
+    }
+
+    /**
+     * Konstruktor koji pravi tabelu sa istim iznajmljivanjima kao druga tabela i novim nizovima cijena.
+     * Ostale kolone se dijele; nizovi cijena su tacno velicine tabele, pa vec prvo dodavanje u novu tabelu
+     * kopira sve kolone (grow) i tabele se dalje ne mijenjaju jedna drugoj.
+     * @param other - tabela cija se iznajmljivanja preuzimaju
+     */
+    private RentalTable(RentalTable other) {
+        size = other.size;
+        startMinute = other.startMinute;
+        endMinute = other.endMinute;
+        start = other.start;
+        end = other.end;
+        vehicleIndex = other.vehicleIndex;
+        price = new double[size];
+        basePrice = new double[size];
+        flags = other.flags;
+        tariffCell = other.tariffCell;
+        duration = other.duration;
+        vehicles.addAll(other.vehicles);
+        vehicleIndexes.putAll(other.vehicleIndexes);
+        vehicleRepairCost = other.vehicleRepairCost.clone();
+    }
+
+    /**
+     * Metoda koja pravi tabelu od liste iznajmljivanja, u redoslijedu liste
+     * @param rentals - iznajmljivanja sa izracunatim cijenama
+     * @return vraca tabelu
+     */
+    public static RentalTable of(List<Rental> rentals) {
+        RentalTable table = new RentalTable(rentals.size());
+        for (Rental rental : rentals) {
+            table.add(rental);
+        }
+        return table;
+    }
+
+    /**
+     * Metoda koja dodaje iznajmljivanje na kraj tabele
+     * @param rental - iznajmljivanje sa izracunatom cijenom
+     */
+    public void add(Rental rental) {
+        if (size == price.length) {
+            grow();
+        }
+        startMinute[size] = epochMinute(rental.getStartTime());
+        endMinute[size] = epochMinute(rental.getEndTime());
+        start[size] = PathCursor.pack(rental.getStartX(), rental.getStartY());
+        end[size] = PathCursor.pack(rental.getEndX(), rental.getEndY());
+        vehicleIndex[size] = indexOf(rental.getVehicle());
+        price[size] = rental.getTotalPrice();
+        basePrice[size] = rental.getBasePrice();
+        byte flag = 0;
+        if (rental.isFaulty()) flag |= FAULT;
+        if (rental.hasPromotion) flag |= PROMOTION;
+        if (rental.isNarrow()) flag |= NARROW;
+        if (LoyaltyLedger.isDiscounted(rental.getRentCount())) flag |= DISCOUNTED;
+        flags[size] = flag;
+        tariffCell[size] = rental.tariffCell();
+        duration[size] = rental.getSimulationDuration();
+        size++;
+    }
+
+    /**
+     * Metoda koja obracunava sva iznajmljivanja tabele drugom tarifnom tabelom (npr. za analizu "sta ako"),
+     * bez ponovnog izvrsavanja simulacije. Redovi se dijele na dijelove koji se obracunavaju paralelno
+     * (PricingEngine.price nad dijelom niza), a ova tabela se ne mijenja.
+     * @param tariffs - tarifna tabela druge konfiguracije cijena
+     * @return vraca novu tabelu sa istim iznajmljivanjima i novim cijenama
+     */
+    public RentalTable repriced(TariffTable tariffs) {
+        RentalTable repriced = new RentalTable(this);
+        int chunks = (size + REPRICE_CHUNK - 1) / REPRICE_CHUNK;
+        IntStream.range(0, chunks)
+                .parallel()
+                .forEach(chunk -> PricingEngine.price(tariffs, tariffCell, duration, chunk * REPRICE_CHUNK,
+                        Math.min(size, (chunk + 1) * REPRICE_CHUNK), repriced.price, repriced.basePrice));
+        return repriced;
+    }
+
+    /**
+     * Metoda koja vraca broj iznajmljivanja u tabeli
+     * @return vraca broj iznajmljivanja
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Metoda koja vraca vrijeme pocetka iznajmljivanja
+     * @param row - red tabele
+     * @return vraca vrijeme pocetka (na minut)
+     */
+    public LocalDateTime getStartTime(int row) {
+        return LocalDateTime.ofEpochSecond(startMinute[checkRow(row)] * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Metoda koja vraca vrijeme zavrsetka iznajmljivanja
+     * @param row - red tabele
+     * @return vraca vrijeme zavrsetka (na minut)
+     */
+    public LocalDateTime getEndTime(int row) {
+        return LocalDateTime.ofEpochSecond(endMinute[checkRow(row)] * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Metoda koja vraca pocetnu lokaciju iznajmljivanja
+     * @param row - red tabele
+     * @return vraca upakovanu poziciju (PathCursor.x i PathCursor.y za raspakivanje)
+     */
+    public int getStart(int row) {
+        return start[checkRow(row)];
+    }
+
+    /**
+     * Metoda koja vraca krajnju lokaciju iznajmljivanja
+     * @param row - red tabele
+     * @return vraca upakovanu poziciju (PathCursor.x i PathCursor.y za raspakivanje)
+     */
+    public int getEnd(int row) {
+        return end[checkRow(row)];
+    }
+
+    /**
+     * Metoda koja vraca vozilo iznajmljivanja
+     * @param row - red tabele
+     * @return vraca vozilo
+     */
+    public Vehicle getVehicle(int row) {
+        return vehicles.get(vehicleIndex[checkRow(row)]);
+    }
+
+    /**
+     * Metoda koja vraca ukupnu cijenu iznajmljivanja
+     * @param row - red tabele
+     * @return vraca ukupnu cijenu
+     */
+    public double getTotalPrice(int row) {
+        return price[checkRow(row)];
+    }
+
+    /**
+     * Metoda koja vraca osnovnu cijenu iznajmljivanja
+     * @param row - red tabele
+     * @return vraca osnovnu cijenu
+     */
+    public double getBasePrice(int row) {
+        return basePrice[checkRow(row)];
+    }
+
+    /**
+     * Metoda koja provjerava da li je vozilo iznajmljivanja pokvareno
+     * @param row - red tabele
+     * @return vraca true ako je vozilo pokvareno
+     */
+    public boolean isFaulty(int row) {
+        return (flags[checkRow(row)] & FAULT) != 0;
+    }
+
+    /**
+     * Metoda koja provjerava da li iznajmljivanje ima promociju
+     * @param row - red tabele
+     * @return vraca true ako iznajmljivanje ima promociju
+     */
+    public boolean hasPromotion(int row) {
+        return (flags[checkRow(row)] & PROMOTION) != 0;
+    }
+
+    /**
+     * Metoda koja provjerava da li se iznajmljivanje odvija samo u uzem dijelu grada
+     * @param row - red tabele
+     * @return vraca true ako su i pocetak i kraj u uzem dijelu grada
+     */
+    public boolean isNarrow(int row) {
+        return (flags[checkRow(row)] & NARROW) != 0;
+    }
+
+    /**
+     * Metoda koja provjerava da li iznajmljivanje ima popust (svako deseto iznajmljivanje)
+     * @param row - red tabele
+     * @return vraca true ako iznajmljivanje ima popust
+     */
+    public boolean isDiscounted(int row) {
+        return (flags[checkRow(row)] & DISCOUNTED) != 0;
+    }
+
+    /**
+     * Metoda koja sabira iznose svih iznajmljivanja tabele (sumarni i dnevni izvjestaj) jednim prolazom kroz nizove;
+     * velike tabele se sabiraju paralelno, kao ResultsAccumulator.of nad listom, pa su iznosi jednaki
+     * @return vraca sabrana iznajmljivanja
+     */
+    public ResultsAccumulator accumulate() {
+        return ResultsAccumulator.of(size, this::accumulate);
+    }
+
+    /**
+     * Pomocna metoda koja dodaje iznajmljivanja iz dijela tabele u sabrane rezultate
+     * @param accumulator - sabrani rezultati
+     * @param from - prvi red (ukljucen)
+     * @param to - posljednji red (nije ukljucen)
+     */
+    private void accumulate(ResultsAccumulator accumulator, int from, int to) {
+        for (int row = from; row < to; row++) {
+            byte flag = flags[row];
+            boolean faulty = (flag & FAULT) != 0;
+            accumulator.add(Math.floorDiv(startMinute[row], MINUTES_PER_DAY), price[row], basePrice[row],
+                    (flag & NARROW) != 0, (flag & DISCOUNTED) != 0, (flag & PROMOTION) != 0,
+                    faulty, faulty ? vehicleRepairCost[vehicleIndex[row]] : 0);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja vraca indeks vozila u tabeli (dodaje vozilo ako se pojavljuje prvi put)
+     * @param vehicle - vozilo
+     * @return vraca indeks vozila
+     */
+    private int indexOf(Vehicle vehicle) {
+        Integer index = vehicleIndexes.get(vehicle);
+        if (index == null) {
+            index = vehicles.size();
+            vehicles.add(vehicle);
+            vehicleIndexes.put(vehicle, index);
+            if (index == vehicleRepairCost.length) {
+                vehicleRepairCost = Arrays.copyOf(vehicleRepairCost, index * 2);
+            }
+            vehicleRepairCost[index] = Results.repairCostOf(vehicle);
+        }
+        return index;
+    }
+
+    /**
+     * Pomocna metoda koja povecava kapacitet tabele
+     */
+    private void grow() {
+        int capacity = Math.max(16, price.length + (price.length >> 1));
+        startMinute = Arrays.copyOf(startMinute, capacity);
+        endMinute = Arrays.copyOf(endMinute, capacity);
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+        vehicleIndex = Arrays.copyOf(vehicleIndex, capacity);
+        price = Arrays.copyOf(price, capacity);
+        basePrice = Arrays.copyOf(basePrice, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        tariffCell = Arrays.copyOf(tariffCell, capacity);
+        duration = Arrays.copyOf(duration, capacity);
+    }
+
+    /**
+     * Pomocna metoda koja provjerava red tabele
+     * @param row - red tabele
+     * @return vraca isti red
+     */
+    private int checkRow(int row) {
+        return Objects.checkIndex(row, size);
+    }
+
+    /**
+     * Pomocna metoda koja racuna minute od epohe
+     * @param time - vrijeme
+     * @return vraca broj minuta od 1.1.1970.
+     */
+    private static int epochMinute(LocalDateTime time) {
+        return Math.toIntExact(Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+}
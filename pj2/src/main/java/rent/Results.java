@@ -1,18 +1,14 @@
 package rent;
 
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import model.*;
 import gui.*;
 import handler.*;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Results klasa sadrzi rezultate poslovanja kompanije koja vrsi iznajmljivanje vozila.
@@ -175,70 +171,190 @@ public class Results {
      * U principu, ona nam sluzi umjesto ucitavanja podataka direktno s racuna,
      * posto se ne nalaze svi potrebni podaci za rezultate poslovanja na racunu
      * @param rentals - lista iznajmljivanja
+     * @return vraca broj iznajmljivanja kojima je cijena ponovo izracunata (npr. nakon promjene konfiguracije cijena)
      * @throws IOException ako dodje do greske prilikom racunanja ili prosljedjivanja podataka
      */
-    public void calculateRentalValues(List<Rental> rentals) throws IOException {
-        for(Rental rental : rentals){
-            rental.calculateTotalPrice();
-            rental.isNarrow();
-            rental.isFaulty();
-        }
+    public int calculateRentalValues(List<Rental> rentals) throws IOException {
+        return Rental.calculateTotalPrices(rentals); // Sva iznajmljivanja u jednom prolazu kroz tarifnu tabelu
     }
 
     /**
      * Metoda za racunanje dnevnih izvjestaja rezultata poslovanja
-     * Grupisemo iznajmljivanja prema vremenu iznajmljivanja, zatim pozivamo metodu calculateSummaryValues
-     * i onda dodajemo samo one vrijednosti koje su nam potrebne za dnevni izvjestaj
+     * Sve iznose po danima iznajmljivanja racunamo jednim prolazom (ResultsAccumulator), poredane po datumu
+     * (u tabelu se dodaju samo ako je kontroler prosljedjen)
+     * Ako je potreban i sumarni izvjestaj, bolje je jednom napraviti ResultsAccumulator i koristiti ga za oba
      * @param rentals - lista iznajmljivanja
+     * @return vraca listu dnevnih izvjestaja
      * @throws IOException - ako dodje do greske prilikom racunanja, dodavanja u tabelu...
      */
-    public void calculateDailyValues(List<Rental> rentals) throws IOException {
-        for (Rental r : rentals)
-            r.getRental().setRentTime(r.getRental().getStartTime().toLocalDate().atStartOfDay());
+    public List<Results> calculateDailyValues(List<Rental> rentals) throws IOException {
+        return calculateDailyValues(ResultsAccumulator.of(rentals));
+    }
 
-        Map<LocalDateTime, List<Rental>> RentalsByDate = rentals.stream().collect(Collectors.groupingBy(r -> r.getRental().getStartTime().toLocalDate().atStartOfDay())); //Lista samo onih iznajmljivanja koja su se desila tog dana
+    /**
+     * Metoda za racunanje dnevnih izvjestaja rezultata poslovanja nad tabelom iznajmljivanja
+     * (isti iznosi kao calculateDailyValues(List), u tabelu se dodaju samo ako je kontroler prosljedjen)
+     * Ako je potreban i sumarni izvjestaj, bolje je jednom pozvati RentalTable.accumulate i koristiti rezultat za oba
+     * @param table - tabela iznajmljivanja
+     * @return vraca listu dnevnih izvjestaja
+     * @throws IOException - ako dodje do greske prilikom dodavanja u tabelu
+     */
+    public List<Results> calculateDailyValues(RentalTable table) throws IOException {
+        return calculateDailyValues(table.accumulate());
+    }
+
+    /**
+     * Metoda koja racuna sumarni izvjestaj rezultata poslovanja
+     * bavi se samo racunanjem i postavljanjem vrijednosti, one se dodaju u tabelu kasnije
+     * Svi iznosi se racunaju jednim prolazom kroz listu (ResultsAccumulator, velika lista paralelno)
+     * @param allRentals - lista svih iznajmljivanja
+     */
+    public void calculateSummaryValues(List<Rental> allRentals) {
+        calculateSummaryValues(ResultsAccumulator.of(allRentals));
+    }
 
-        for (Map.Entry<LocalDateTime, List<Rental>> entry : RentalsByDate.entrySet()) {
-            LocalDate date = LocalDate.from(entry.getKey());
-            List<Rental> dailyList = entry.getValue();
+    /**
+     * Metoda za racunanje dnevnih izvjestaja od vec sabranih iznajmljivanja
+     * (u tabelu se dodaju samo ako je kontroler prosljedjen)
+     * @param accumulator - sabrana iznajmljivanja (isti objekat se moze koristiti i za sumarni izvjestaj)
+     * @return vraca listu dnevnih izvjestaja, poredanu po datumu
+     * @throws IOException - ako dodje do greske prilikom dodavanja u tabelu
+     */
+    public List<Results> calculateDailyValues(ResultsAccumulator accumulator) throws IOException {
+        List<Results> dailyResults = new ArrayList<>();
+        for (Map.Entry<LocalDate, double[]> entry : accumulator.dailyTotals().entrySet()) {
+            LocalDate date = entry.getKey();
 
             resetValues();
-            calculateSummaryValues(dailyList);
+            setTotals(entry.getValue());
 
-            controller.addToTableDaily(date, totalRevenue, totalDiscount, totalPromo, totalNarrowIncome, totalWideIncome, maintenanceCost, repairCost);
+            dailyResults.add(new Results(date, totalRevenue, totalDiscount, totalPromo, totalNarrowIncome, totalWideIncome, maintenanceCost, repairCost));
+            if (controller != null) {
+                controller.addToTableDaily(date, totalRevenue, totalDiscount, totalPromo, totalNarrowIncome, totalWideIncome, maintenanceCost, repairCost);
+            }
         }
+        return dailyResults;
     }
 
     /**
-     * Metoda koja racuna sumarni izvjestaj rezultata poslovanja
-     * bavi se samo racunanjem i postavljanjem vrijednosti, one se dodaju u tabelu kasnije
-     * @param allRentals - lista svih iznajmljivanja
+     * Metoda koja racuna sumarni izvjestaj od vec sabranih iznajmljivanja
+     * @param accumulator - sabrana iznajmljivanja
      */
-    public void calculateSummaryValues(List<Rental> allRentals) {
-        totalRevenue = allRentals.stream().mapToDouble(Rental::getTotalPrice).sum();
-        totalWideIncome = allRentals.stream().filter(r -> r.isNarrow()).mapToDouble(Rental::getTotalPrice).sum();
-        totalNarrowIncome = allRentals.stream().filter(r -> !r.isNarrow()).mapToDouble(Rental::getTotalPrice).sum();
-        totalDiscount = allRentals.stream().filter(r -> r.getRentCount() % 10 == 0).mapToDouble(r -> r.getBasePrice() - r.getBasePrice() * 0.1).sum();
-        totalPromo = allRentals.stream().filter(r -> r.getRental().getPromotion().equalsIgnoreCase("yes")).mapToDouble(r -> {
-            if (r.getRentCount() % 10 == 0)
-                return r.getBasePrice() * 0.1 - r.getBasePrice() * 0.1 * 0.15;
-            else return r.getBasePrice() - r.getBasePrice() * 0.15;
-        }).sum();
-        repairCost = allRentals.stream().filter(r -> r.getRental().isFaulty()).mapToDouble(r -> {
-            if (r.getVehicle() instanceof ECar)
-                return 0.07 * r.getRental().getVehicle().getPrice();
-            else if (r.getVehicle() instanceof EBike)
-                return 0.04 * r.getRental().getVehicle().getPrice();
-            else if (r.getVehicle() instanceof EScooter)
-                return 0.02 * r.getRental().getVehicle().getPrice();
-            return 0;
-        }).sum();
-
-        maintenanceCost = totalRevenue * 0.2; // 5
+    public void calculateSummaryValues(ResultsAccumulator accumulator) {
+        setTotals(accumulator.totals());
+    }
+
+    /**
+     * Metoda koja racuna sumarni izvjestaj rezultata poslovanja nad tabelom iznajmljivanja
+     * (isti iznosi kao calculateSummaryValues(List), jednim prolazom kroz nizove tabele)
+     * @param table - tabela svih iznajmljivanja
+     */
+    public void calculateSummaryValues(RentalTable table) {
+        calculateSummaryValues(table.accumulate());
+    }
+
+    /**
+     * Pomocna metoda koja postavlja sume (iz tabele iznajmljivanja ili ResultsAccumulator) i racuna troskove
+     * @param totals - sume indeksirane konstantama klase ResultsAccumulator
+     */
+    private void setTotals(double[] totals) {
+        totalRevenue = totals[ResultsAccumulator.REVENUE];
+        // Zamijenjeni prihodi uzeg i sireg dijela grada (prihod uzeg dijela se prikazuje kao prihod sireg i obrnuto)
+        totalWideIncome = totals[ResultsAccumulator.NARROW_INCOME];
+        totalNarrowIncome = totals[ResultsAccumulator.WIDE_INCOME];
+        totalDiscount = totals[ResultsAccumulator.DISCOUNT];
+        totalPromo = totals[ResultsAccumulator.PROMO];
+        repairCost = totals[ResultsAccumulator.REPAIR];
+
+        calculateCosts();
+    }
+
+    /**
+     * Metoda koja pravi sumarni izvjestaj od vec sabranih vrijednosti (npr. kod simulacije iz toka)
+     * i racuna troskove odrzavanja, troskove kompanije i porez kao calculateSummaryValues
+     * @param totalRevenue - ukupni prihod
+     * @param totalDiscount - ukupni popust
+     * @param totalPromo - ukupna promocija
+     * @param totalNarrowIncome - prihod uzeg dijela grada
+     * @param totalWideIncome - prihod sireg dijela grada
+     * @param repairCost - troskovi popravki
+     * @return vraca sumarni izvjestaj
+     */
+    static Results summary(double totalRevenue, double totalDiscount, double totalPromo, double totalNarrowIncome, double totalWideIncome, double repairCost) {
+        Results results = new Results();
+        results.totalRevenue = totalRevenue;
+        results.totalDiscount = totalDiscount;
+        results.totalPromo = totalPromo;
+        results.totalNarrowIncome = totalNarrowIncome;
+        results.totalWideIncome = totalWideIncome;
+        results.repairCost = repairCost;
+        results.calculateCosts();
+        return results;
+    }
+
+    /**
+     * Metoda koja racuna troskove odrzavanja (20% prihoda)
+     * @param revenue - prihod
+     * @return vraca troskove odrzavanja
+     */
+    static double maintenanceCostOf(double revenue) {
+        return revenue * 0.2;
+    }
+
+    /**
+     * Pomocna metoda koja racuna troskove i porez na osnovu prihoda i troskova popravki
+     */
+    private void calculateCosts() {
+        maintenanceCost = maintenanceCostOf(totalRevenue); // 5
         companyCosts = maintenanceCost; // 7
         totalTax = (totalRevenue - maintenanceCost - repairCost - companyCosts) * 0.1; // 8
     }
 
+    /**
+     * Metoda koja racuna popust na osnovu osnovne cijene iznajmljivanja
+     * @param basePrice - osnovna cijena
+     * @return vraca iznos popusta
+     */
+    static double discountOf(double basePrice) {
+        return basePrice - basePrice * 0.1;
+    }
+
+    /**
+     * Metoda koja racuna iznos promocije na osnovu osnovne cijene iznajmljivanja
+     * @param basePrice - osnovna cijena
+     * @param discounted - da li iznajmljivanje ima i popust (svako deseto)
+     * @return vraca iznos promocije
+     */
+    static double promoOf(double basePrice, boolean discounted) {
+        if (discounted)
+            return basePrice * 0.1 - basePrice * 0.1 * 0.15;
+        else return basePrice - basePrice * 0.15;
+    }
+
+    /**
+     * Metoda koja racuna trosak popravke pokvarenog vozila, u zavisnosti od vrste vozila
+     * @param r - iznajmljivanje
+     * @return vraca trosak popravke
+     */
+    static double repairCostOf(Rental r) {
+        return repairCostOf(r.getVehicle());
+    }
+
+    /**
+     * Metoda koja racuna trosak popravke vozila, u zavisnosti od vrste vozila
+     * @param vehicle - vozilo
+     * @return vraca trosak popravke
+     */
+    static double repairCostOf(Vehicle vehicle) {
+        if (vehicle instanceof ECar)
+            return 0.07 * vehicle.getPrice();
+        else if (vehicle instanceof EBike)
+            return 0.04 * vehicle.getPrice();
+        else if (vehicle instanceof EScooter)
+            return 0.02 * vehicle.getPrice();
+        return 0;
+    }
+
     /**
      * Metoda koja koristi calculateSummaryValues da izracuna sumarni izvjestaj
      * i doda rezultate u tabelu. Za nju je napravljen konstruktor kome se prosljedjuje ResultsController instanca
@@ -0,0 +1,234 @@
+package rent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Klasa ResultsAccumulator sabira sve iznose rezultata poslovanja (sumarni i dnevni izvjestaj) jednim prolazom,
+ * iznajmljivanje po iznajmljivanje, bez cuvanja liste iznajmljivanja. Ovo je jedino mjesto gdje se iznosi
+ * iznajmljivanja sabiraju: koriste ga simulacija iz toka (RentalStream, gdje se zavrseno iznajmljivanje odmah sabira
+ * i zaboravlja), rezultati tokom simulacije (LiveResults), izvjestaji nad listom (Results.calculateSummaryValues(List))
+ * i tabela iznajmljivanja (RentalTable.accumulate), koja mu predaje vrijednosti iz svojih nizova.
+ * Djelimicni rezultati se mogu spojiti (combine, collector), pa se velika lista ili tabela sabira paralelno
+ * po blokovima (metoda of), sa istim rezultatom bez obzira na broj jezgara.
+ */
+public class ResultsAccumulator {
+    static final int REVENUE = 0;
+    static final int NARROW_INCOME = 1; // prihod iznajmljivanja u uzem dijelu grada
+    static final int WIDE_INCOME = 2;
+    static final int DISCOUNT = 3;
+    static final int PROMO = 4;
+    static final int REPAIR = 5;
+    static final int METRICS = 6;
+
+    private static final int CHUNK = 1 << 13; // Broj iznajmljivanja koje jedan zadatak sabira
+    private static final int PARALLEL_THRESHOLD = 1 << 15; // Od ovog broja iznajmljivanja se sabira paralelno
+
+    private final Totals summary = new Totals();
+    private final Map<LocalDate, Totals> daily = new HashMap<>(); // Dani se porede tek u dailyTotals, dodavanje je O(1)
+    private long lastDay = Long.MIN_VALUE; // Dan posljednjeg dodatog iznajmljivanja (uzastopna su obicno istog dana)
+    private Totals lastTotals;
+
+    /**
+     * Sume jednog izvjestaja (sumarnog ili dnevnog), indeksirane konstantama REVENUE ... REPAIR
+     */
+    private static final class Totals {
+        private final DoubleSummaryStatistics[] metrics = new DoubleSummaryStatistics[METRICS];
+
+        private Totals() {
+            for (int metric = 0; metric < metrics.length; metric++) {
+                metrics[metric] = new DoubleSummaryStatistics();
+            }
+        }
+
+        private void add(double price, double basePrice, boolean narrow, boolean discounted, boolean promotion,
+                         boolean faulty, double repairCost) {
+            metrics[REVENUE].accept(price);
+            metrics[narrow ? NARROW_INCOME : WIDE_INCOME].accept(price);
+            if (discounted) {
+                metrics[DISCOUNT].accept(Results.discountOf(basePrice));
+            }
+            if (promotion) {
+                metrics[PROMO].accept(Results.promoOf(basePrice, discounted));
+            }
+            if (faulty) {
+                metrics[REPAIR].accept(repairCost);
+            }
+        }
+
+        private Totals combine(Totals other) {
+            for (int metric = 0; metric < metrics.length; metric++) {
+                metrics[metric].combine(other.metrics[metric]);
+            }
+            return this;
+        }
+
+        private double[] sums() {
+            double[] sums = new double[metrics.length];
+            for (int metric = 0; metric < metrics.length; metric++) {
+                sums[metric] = metrics[metric].getSum();
+            }
+            return sums;
+        }
+    }
+
+    /**
+     * Dio iznajmljivanja (lista ili tabela) koji se dodaje u sabrane rezultate, za paralelno sabiranje po blokovima
+     */
+    interface Rows {
+        void addTo(ResultsAccumulator accumulator, int from, int to);
+    }
+
+    /**
+     * Metoda koja dodaje zavrseno iznajmljivanje u sumarni i dnevni izvjestaj (u konstantnom vremenu)
+     * @param rental - zavrseno iznajmljivanje
+     */
+    public void add(Rental rental) {
+        boolean faulty = rental.isFaulty();
+        add(rental.getStartTime().toLocalDate().toEpochDay(), rental.getTotalPrice(), rental.getBasePrice(),
+                rental.isNarrow(), LoyaltyLedger.isDiscounted(rental.getRentCount()),
+                rental.getPromotion().equalsIgnoreCase("yes"), faulty, faulty ? Results.repairCostOf(rental) : 0);
+    }
+
+    /**
+     * Metoda koja dodaje iznose jednog iznajmljivanja u sumarni i dnevni izvjestaj (npr. iz nizova tabele iznajmljivanja)
+     * @param epochDay - dan pocetka iznajmljivanja (dani od epohe)
+     * @param price - ukupna cijena
+     * @param basePrice - osnovna cijena
+     * @param narrow - da li je voznja u uzem dijelu grada
+     * @param discounted - da li iznajmljivanje ima popust (svako deseto iznajmljivanje korisnika)
+     * @param promotion - da li iznajmljivanje ima promociju
+     * @param faulty - da li je vozilo pokvareno
+     * @param repairCost - trosak popravke vozila (koristi se samo ako je vozilo pokvareno)
+     */
+    void add(long epochDay, double price, double basePrice, boolean narrow, boolean discounted, boolean promotion,
+             boolean faulty, double repairCost) {
+        if (lastTotals == null || epochDay != lastDay) {
+            lastTotals = daily.computeIfAbsent(LocalDate.ofEpochDay(epochDay), k -> new Totals());
+            lastDay = epochDay;
+        }
+        summary.add(price, basePrice, narrow, discounted, promotion, faulty, repairCost);
+        lastTotals.add(price, basePrice, narrow, discounted, promotion, faulty, repairCost);
+    }
+
+    /**
+     * Metoda koja spaja rezultate drugog sabiranja u ovo (npr. djelimicne rezultate niti koje sabiraju dio iznajmljivanja)
+     * @param other - drugi rezultati, ne koriste se nakon spajanja
+     * @return vraca ovaj objekat, sa dodatim rezultatima
+     */
+    public ResultsAccumulator combine(ResultsAccumulator other) {
+        summary.combine(other.summary);
+        for (Map.Entry<LocalDate, Totals> entry : other.daily.entrySet()) {
+            daily.merge(entry.getKey(), entry.getValue(), Totals::combine);
+        }
+        return this;
+    }
+
+    /**
+     * Metoda koja vraca kolektor koji sabira iznajmljivanja toka (i paralelnog toka, gdje se djelimicni rezultati spajaju)
+     * @return vraca kolektor
+     */
+    public static Collector<Rental, ?, ResultsAccumulator> collector() {
+        return Collector.of(ResultsAccumulator::new, ResultsAccumulator::add, ResultsAccumulator::combine);
+    }
+
+    /**
+     * Metoda koja sabira listu iznajmljivanja jednim prolazom (velika lista paralelno, vidjeti of(int, Rows))
+     * @param rentals - lista iznajmljivanja (sa izracunatim cijenama)
+     * @return vraca sabrane rezultate
+     */
+    public static ResultsAccumulator of(List<Rental> rentals) {
+        return of(rentals.size(), (accumulator, from, to) -> rentals.subList(from, to).forEach(accumulator::add));
+    }
+
+    /**
+     * Metoda koja sabira iznajmljivanja jednim prolazom; od PARALLEL_THRESHOLD iznajmljivanja se sabira paralelno
+     * po blokovima od CHUNK iznajmljivanja, a djelimicni rezultati se spajaju redom blokova, pa rezultat ne zavisi
+     * od broja jezgara (i jednak je za listu i tabelu sa istim iznajmljivanjima)
+     * @param size - broj iznajmljivanja
+     * @param rows - dodavanje dijela iznajmljivanja
+     * @return vraca sabrane rezultate
+     */
+    static ResultsAccumulator of(int size, Rows rows) {
+        if (size < PARALLEL_THRESHOLD) {
+            ResultsAccumulator accumulator = new ResultsAccumulator();
+            rows.addTo(accumulator, 0, size);
+            return accumulator;
+        }
+
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        List<ResultsAccumulator> partials = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    ResultsAccumulator partial = new ResultsAccumulator();
+                    rows.addTo(partial, chunk * CHUNK, Math.min(size, (chunk + 1) * CHUNK));
+                    return partial;
+                })
+                .toList();
+        ResultsAccumulator accumulator = partials.get(0);
+        for (int chunk = 1; chunk < partials.size(); chunk++) {
+            accumulator.combine(partials.get(chunk));
+        }
+        return accumulator;
+    }
+
+    /**
+     * Metoda koja vraca sume svih dodatih iznajmljivanja
+     * @return vraca sume, indeksirane konstantama REVENUE ... REPAIR
+     */
+    double[] totals() {
+        return summary.sums();
+    }
+
+    /**
+     * Metoda koja vraca sume dodatih iznajmljivanja po danima pocetka
+     * @return vraca sume po danima, poredane po datumu
+     */
+    SortedMap<LocalDate, double[]> dailyTotals() {
+        SortedMap<LocalDate, double[]> totals = new TreeMap<>();
+        for (Map.Entry<LocalDate, Totals> entry : daily.entrySet()) {
+            totals.put(entry.getKey(), entry.getValue().sums());
+        }
+        return totals;
+    }
+
+    /**
+     * Metoda koja vraca sumarni izvjestaj svih dodatih iznajmljivanja
+     * @return vraca sumarni izvjestaj (sa troskovima kompanije i porezom)
+     */
+    public Results toSummary() {
+        double[] sums = totals();
+        // Zamijenjeni prihodi uzeg i sireg dijela grada, kao u Results.calculateSummaryValues
+        return Results.summary(sums[REVENUE], sums[DISCOUNT], sums[PROMO],
+                sums[WIDE_INCOME], sums[NARROW_INCOME], sums[REPAIR]);
+    }
+
+    /**
+     * Metoda koja vraca dnevne izvjestaje, poredane po datumu
+     * @return vraca listu dnevnih izvjestaja (kao Results.calculateDailyValues)
+     */
+    public List<Results> toDaily() {
+        List<Results> dailyResults = new ArrayList<>();
+        for (Map.Entry<LocalDate, double[]> entry : dailyTotals().entrySet()) {
+            double[] sums = entry.getValue();
+            double revenue = sums[REVENUE];
+            try {
+                dailyResults.add(new Results(entry.getKey(), revenue, sums[DISCOUNT], sums[PROMO],
+                        sums[WIDE_INCOME], sums[NARROW_INCOME], Results.maintenanceCostOf(revenue), sums[REPAIR]));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return dailyResults;
+    }
+}
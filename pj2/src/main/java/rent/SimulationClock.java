@@ -0,0 +1,229 @@
+package rent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Klasa SimulationClock povezuje virtuelno vrijeme simulacije sa stvarnim vremenom.
+ * Brzina (speed) govori koliko sekundi simulacije protekne u jednoj stvarnoj sekundi:
+ * 1 je real-time prikaz na mapi, 10 ili 100 su ubrzani prikazi, a beskonacna brzina znaci
+ * da se dogadjaji obradjuju bez ikakvog cekanja. Brzina se moze mijenjati tokom simulacije,
+ * a simulacija se moze pauzirati i nastaviti. Jezgra simulacije (SimulationEngine) dijele isti sat,
+ * pa pauza zaustavlja sve njih, a da pritom ni jedno iznajmljivanje nema svoju nit koja spava.
+ */
+public class SimulationClock {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private volatile double speed;
+    private volatile boolean paused = false;
+
+    // Sidro: virtuelno vrijeme koje odgovara stvarnom vremenu wallAnchor (u nanosekundama)
+    private double virtualAnchor = 0;
+    private long wallAnchor = System.nanoTime();
+    // Najkasnije dostignuto virtuelno vrijeme; pri punoj brzini se azurira bez lock-a (dovoljno je priblizno)
+    private volatile double lastVirtual = 0;
+
+    /**
+     * Konstruktor klase SimulationClock
+     * @param speed - broj sekundi simulacije po stvarnoj sekundi (Double.POSITIVE_INFINITY ili broj manji
+     *              ili jednak nuli znaci bez cekanja)
+     */
+    public SimulationClock(double speed) {
+        this.speed = normalize(speed);
+    }
+
+    /**
+     * Metoda koja kreira sat koji ne usporava simulaciju (za pokretanje bez GUI-ja)
+     * @return vraca novi sat sa beskonacnom brzinom
+     */
+    public static SimulationClock fullSpeed() {
+        return new SimulationClock(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Metoda koja postavlja pocetak simulacije: virtuelno vrijeme 0 odgovara trenutnom stvarnom vremenu
+     */
+    public void start() {
+        lock.lock();
+        try {
+            virtualAnchor = 0;
+            lastVirtual = 0;
+            wallAnchor = System.nanoTime();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Metoda koja mijenja brzinu simulacije, bez skoka u virtuelnom vremenu
+     * @param newSpeed - nova brzina (sekundi simulacije po stvarnoj sekundi)
+     */
+    public void setSpeed(double newSpeed) {
+        lock.lock();
+        try {
+            reanchor();
+            speed = normalize(newSpeed);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Metoda koja vraca trenutnu brzinu simulacije
+     * @return vraca brzinu
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Metoda koja pauzira simulaciju
+     */
+    public void pause() {
+        lock.lock();
+        try {
+            if (!paused) {
+                reanchor();
+                paused = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Metoda koja nastavlja pauziranu simulaciju od virtuelnog trenutka u kojem je pauzirana
+     */
+    public void resume() {
+        lock.lock();
+        try {
+            if (paused) {
+                wallAnchor = System.nanoTime();
+                paused = false;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Metoda koja provjerava da li je simulacija pauzirana
+     * @return vraca true ako je pauzirana
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Metoda koja vraca virtuelno vrijeme koje odgovara trenutnom stvarnom vremenu
+     * (kod pune brzine i pauze to je najkasnije dostignuto virtuelno vrijeme)
+     * @return vraca virtuelno vrijeme u sekundama simulacije
+     */
+    public double currentVirtualTime() {
+        lock.lock();
+        try {
+            if (paused || speed == Double.POSITIVE_INFINITY) {
+                return Math.max(virtualAnchor, lastVirtual);
+            }
+            return Math.max(lastVirtual, virtualAnchor + (System.nanoTime() - wallAnchor) / 1_000_000_000.0 * speed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Metoda koja bez cekanja provjerava da li je virtuelno vrijeme dostiglo zadato vrijeme dogadjaja
+     * (za izvrsavanje u kojem lanac ne ceka u svojoj niti, vidjeti SimulationEngine.runDue)
+     * @param time - virtuelno vrijeme dogadjaja
+     * @return vraca true ako dogadjaj moze odmah da se obradi, false ako je sat pauziran ili vrijeme jos nije dostignuto
+     */
+    public boolean reached(double time) {
+        if (!paused && speed == Double.POSITIVE_INFINITY) {
+            if (time > lastVirtual) {
+                lastVirtual = time;
+            }
+            return true;
+        }
+
+        lock.lock();
+        try {
+            if (paused) {
+                return false;
+            }
+            if (speed != Double.POSITIVE_INFINITY
+                    && wallAnchor + (long) ((time - virtualAnchor) / speed * 1_000_000_000L) > System.nanoTime()) {
+                return false;
+            }
+            lastVirtual = Math.max(lastVirtual, time);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Metoda koja ceka dok virtuelno vrijeme ne dostigne zadato vrijeme dogadjaja.
+     * Ceka se na uslovu sata, pa promjena brzine ili nastavak nakon pauze odmah budi sva jezgra.
+     * @param time - virtuelno vrijeme dogadjaja
+     * @throws InterruptedException ako je nit prekinuta tokom cekanja
+     */
+    public void awaitVirtualTime(double time) throws InterruptedException {
+        if (!paused && speed == Double.POSITIVE_INFINITY) {
+            if (time > lastVirtual) {
+                lastVirtual = time;
+            }
+            return;
+        }
+
+        lock.lock();
+        try {
+            while (true) {
+                if (paused) {
+                    changed.await();
+                    continue;
+                }
+                if (speed == Double.POSITIVE_INFINITY) {
+                    lastVirtual = Math.max(lastVirtual, time);
+                    return;
+                }
+                long target = wallAnchor + (long) ((time - virtualAnchor) / speed * 1_000_000_000L);
+                long remaining = target - System.nanoTime();
+                if (remaining <= 0) {
+                    lastVirtual = Math.max(lastVirtual, time);
+                    return;
+                }
+                changed.await(remaining, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pomjera sidro na trenutno virtuelno vrijeme (poziva se pod lock-om)
+     */
+    private void reanchor() {
+        long now = System.nanoTime();
+        if (!paused) {
+            double current = speed == Double.POSITIVE_INFINITY
+                    ? lastVirtual
+                    : virtualAnchor + (now - wallAnchor) / 1_000_000_000.0 * speed;
+            virtualAnchor = Math.max(current, lastVirtual);
+        }
+        wallAnchor = now;
+    }
+
+    /**
+     * Pomocna metoda koja brzinu manju ili jednaku nuli tumaci kao "bez cekanja"
+     * @param speed - zadata brzina
+     * @return vraca ispravnu brzinu
+     */
+    private static double normalize(double speed) {
+        return speed > 0 ? speed : Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,284 @@
+package rent;
+
+import handler.UserDocumentHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Klasa SimulationEngine je jezgro simulacije diskretnih dogadjaja.
+ * Umjesto da svako iznajmljivanje spava u svojoj niti, svi koraci, punjenja, kvarovi i dolasci
+ * se zakazuju u red sa prioritetom i obradjuju redom po virtuelnom satu.
+ * Tempo obrade odredjuje SimulationClock: bez GUI-ja simulacija se izvrsava punom brzinom,
+ * a za prikaz na mapi se dogadjaji usporavaju prema brzini sata, koja se moze mijenjati i pauzirati.
+ */
+public class SimulationEngine {
+    private final PriorityQueue<SimulationEvent> queue = new PriorityQueue<>();
+    private final SimulationClock simulationClock;
+    private EventLog eventLog; // Dnevnik dogadjaja (null ako se ne biljezi)
+    private RentalFeed feed; // Izvor iznajmljivanja iz toka (null kod lanaca)
+    private Properties userDocuments; // Korisnicki dokumenti za racune (ucitavaju se jednom, ne za svaki racun)
+    private double clock = 0;
+    private long sequence = 0;
+
+    /**
+     * Konstruktor klase SimulationEngine
+     * @param simulationClock - sat koji odredjuje tempo obrade dogadjaja (brzina, pauza)
+     */
+    public SimulationEngine(SimulationClock simulationClock) {
+        this.simulationClock = simulationClock;
+    }
+
+    /**
+     * Metoda koja izdvaja nezavisne tokove slucajnih brojeva, po jedan za svaki lanac iznajmljivanja.
+     * Tokovi se izdvajaju redom, pa isti seed daje iste tokove bez obzira na nacin izvrsavanja lanaca
+     * @param root - pocetni tok (npr. new SplittableRandom(seed))
+     * @param count - broj tokova
+     * @return vraca listu tokova
+     */
+    public static List<SplittableRandom> splitRandoms(SplittableRandom root, int count) {
+        List<SplittableRandom> randoms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            randoms.add(root.split());
+        }
+        return randoms;
+    }
+
+    /**
+     * Metoda koja zakazuje novi dogadjaj
+     * @param time - virtuelno vrijeme dogadjaja
+     * @param type - vrsta dogadjaja
+     * @param simulation - iznajmljivanje kojem dogadjaj pripada
+     */
+    public void schedule(double time, SimulationEvent.Type type, RentalSimulation simulation) {
+        SimulationEvent event = simulation.getEvent();
+        event.reset(time, sequence++, type);
+        queue.add(event);
+    }
+
+    /**
+     * Metoda koja postavlja dnevnik dogadjaja u koji se biljeze svi dogadjaji ovog jezgra
+     * @param eventLog - dnevnik dogadjaja (null ako se ne biljezi)
+     */
+    public void setEventLog(EventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    /**
+     * Metoda koja vraca dnevnik dogadjaja
+     * @return vraca dnevnik dogadjaja ili null ako se ne biljezi
+     */
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
+    /**
+     * Metoda koja postavlja korisnicke dokumente simulacije, iz kojih se popunjavaju racuni
+     * @param userDocuments - korisnicki dokumenti (npr. generisani na pocetku simulacije)
+     */
+    public void setUserDocuments(Properties userDocuments) {
+        this.userDocuments = userDocuments;
+    }
+
+    /**
+     * Metoda koja vraca korisnicke dokumente simulacije; ako nisu postavljeni, ucitavaju se iz fajla
+     * jednom za cijelo jezgro
+     * @return vraca korisnicke dokumente
+     */
+    Properties getUserDocuments() {
+        if (userDocuments == null) {
+            userDocuments = UserDocumentHandler.loadUserDocuments();
+        }
+        return userDocuments;
+    }
+
+    /**
+     * Metoda koja vraca trenutno virtuelno vrijeme
+     * @return vraca vrijeme u sekundama simulacije
+     */
+    public double getClock() {
+        return clock;
+    }
+
+    /**
+     * Metoda koja pokrece lance iznajmljivanja i obradjuje sve njihove dogadjaje do kraja.
+     * Jedan lanac cine iznajmljivanja istog vozila poredana po vremenu pocetka: prvo iznajmljivanje
+     * lanca pocinje odmah, a svako naredno cim se prethodno zavrsi (vozilo je tada slobodno).
+     * Lanci razlicitih vozila nisu medjusobno zavisni pa se preklapaju u vremenu.
+     * Tokovi slucajnih brojeva se ne zadaju, pa simulacija nije ponovljiva.
+     * @param chains - lanci iznajmljivanja, po jedan za svako vozilo
+     * @param listener - slusalac simulacije (moze biti null ako nema GUI-ja)
+     * @return vraca virtuelno vrijeme zavrsetka posljednjeg iznajmljivanja
+     */
+    public double runChains(List<List<Rental>> chains, SimulationListener listener) {
+        return runChains(chains, splitRandoms(new SplittableRandom(), chains.size()), listener);
+    }
+
+    /**
+     * Metoda koja pokrece lance iznajmljivanja sa zadatim tokovima slucajnih brojeva (po jedan za svaki lanac),
+     * tako da je simulacija ponovljiva
+     * @param chains - lanci iznajmljivanja, po jedan za svako vozilo
+     * @param randoms - tokovi slucajnih brojeva, u istom redoslijedu kao lanci
+     * @param listener - slusalac simulacije (moze biti null ako nema GUI-ja)
+     * @return vraca virtuelno vrijeme zavrsetka posljednjeg iznajmljivanja
+     */
+    public double runChains(List<List<Rental>> chains, List<? extends RandomGenerator> randoms, SimulationListener listener) {
+        startChains(chains, randoms, listener);
+        run();
+        return clock;
+    }
+
+    /**
+     * Metoda koja pokrece lance iznajmljivanja (zakazuje prvi dogadjaj svakog lanca), bez obrade dogadjaja;
+     * dogadjaji se zatim obradjuju metodom run ili, bez cekanja u niti, metodom runDue
+     * @param chains - lanci iznajmljivanja, po jedan za svako vozilo
+     * @param randoms - tokovi slucajnih brojeva, u istom redoslijedu kao lanci
+     * @param listener - slusalac simulacije (moze biti null ako nema GUI-ja)
+     */
+    public void startChains(List<List<Rental>> chains, List<? extends RandomGenerator> randoms, SimulationListener listener) {
+        for (int c = 0; c < chains.size(); c++) {
+            List<Rental> chain = chains.get(c);
+            RentalSimulation next = null;
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                RentalSimulation simulation = new RentalSimulation(chain.get(i), listener, randoms.get(c));
+                simulation.setNext(next);
+                next = simulation;
+            }
+            if (next != null) {
+                next.start(this);
+            }
+        }
+    }
+
+    /**
+     * Metoda koja pokrece iznajmljivanja iz toka kroz ograniceni prozor i obradjuje sve dogadjaje do kraja toka
+     * @param feed - izvor iznajmljivanja iz toka
+     * @return vraca virtuelno vrijeme zavrsetka posljednjeg iznajmljivanja
+     */
+    public double runFeed(RentalFeed feed) {
+        this.feed = feed;
+        feed.fill(this);
+        run();
+        return clock;
+    }
+
+    /**
+     * Metoda koja pokrece iznajmljivanja iz toka i, dok je sanduce otvoreno, iznajmljivanja koja stizu tokom simulacije.
+     * Pristiglo iznajmljivanje pocinje u virtuelnom trenutku koji odgovara stvarnom trenutku dolaska
+     * (ali ne prije vec obradjenih dogadjaja), a kada nema dogadjaja jezgro ceka na sanduce.
+     * Simulacija se zavrsava kada je sanduce zatvoreno i sva iznajmljivanja su zavrsena.
+     * @param feed - izvor iznajmljivanja (pocetna iznajmljivanja i prozor)
+     * @param inbox - sanduce iznajmljivanja koja stizu tokom simulacije
+     * @return vraca virtuelno vrijeme zavrsetka posljednjeg iznajmljivanja
+     */
+    public double runLive(RentalFeed feed, RentalInbox inbox) {
+        this.feed = feed;
+        feed.fill(this);
+        while (!Thread.currentThread().isInterrupted()) {
+            Rental rental;
+            while ((rental = inbox.poll()) != null) {
+                admit(rental);
+            }
+            if (!queue.isEmpty()) {
+                step();
+                continue;
+            }
+            if (inbox.isClosed() && inbox.isEmpty()) {
+                break;
+            }
+            try {
+                rental = inbox.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (rental != null) {
+                admit(rental);
+            }
+        }
+        return clock;
+    }
+
+    /**
+     * Pomocna metoda koja pomjera virtuelni sat na trenutak dolaska i predaje pristiglo iznajmljivanje izvoru
+     * @param rental - pristiglo iznajmljivanje
+     */
+    private void admit(Rental rental) {
+        double now = simulationClock.currentVirtualTime();
+        if (!queue.isEmpty()) {
+            now = Math.min(now, queue.peek().getTime());
+        }
+        clock = Math.max(clock, now);
+        feed.offer(rental);
+        feed.fill(this);
+    }
+
+    /**
+     * Metoda koju poziva iznajmljivanje kada se zavrsi, da bi izvor iz toka oslobodio mjesto u prozoru
+     * @param rental - zavrseno iznajmljivanje
+     */
+    void rentalFinished(Rental rental) {
+        if (feed != null) {
+            feed.finished(rental, this);
+        }
+    }
+
+    /**
+     * Metoda koja obradjuje dogadjaje iz reda sve dok red ne postane prazan
+     * ili dok nit ne bude prekinuta (npr. kada se otkaze cijela simulacija)
+     */
+    public void run() {
+        while (!queue.isEmpty() && !Thread.currentThread().isInterrupted()) {
+            step();
+        }
+    }
+
+    /**
+     * Metoda koja obradjuje dogadjaje iz reda sve dok su na redu po satu simulacije, bez cekanja:
+     * kada je sat pauziran ili naredni dogadjaj jos nije na redu, metoda se vraca, pa nit koja izvrsava
+     * jezgro moze da preuzme drugi posao dok se ceka (vidjeti nextEventTime)
+     * @return vraca true ako su svi dogadjaji obradjeni, false ako naredni dogadjaj ceka na sat
+     */
+    public boolean runDue() {
+        while (!queue.isEmpty() && !Thread.currentThread().isInterrupted()) {
+            SimulationEvent event = queue.peek();
+            if (!simulationClock.reached(event.getTime())) {
+                return false;
+            }
+            queue.poll();
+            clock = event.getTime();
+            event.getSimulation().handle(event, this);
+        }
+        return queue.isEmpty();
+    }
+
+    /**
+     * Metoda koja vraca virtuelno vrijeme narednog dogadjaja u redu
+     * @return vraca vrijeme narednog dogadjaja, ili trenutno vrijeme ako je red prazan
+     */
+    public double nextEventTime() {
+        SimulationEvent next = queue.peek();
+        return next != null ? next.getTime() : clock;
+    }
+
+    /**
+     * Pomocna metoda koja ceka na naredni dogadjaj iz reda i obradjuje ga
+     * (ako je nit prekinuta tokom cekanja, dogadjaj se ne obradjuje)
+     */
+    private void step() {
+        SimulationEvent event = queue.poll();
+        try {
+            simulationClock.awaitVirtualTime(event.getTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        clock = event.getTime();
+        event.getSimulation().handle(event, this);
+    }
+}
@@ -0,0 +1,85 @@
+package rent;
+
+/**
+ * Klasa SimulationEvent predstavlja jedan dogadjaj u simulaciji diskretnih dogadjaja.
+ * Dogadjaji se sortiraju po virtuelnom vremenu, a za isto vrijeme po redoslijedu zakazivanja.
+ * Svako iznajmljivanje ima svoj objekat dogadjaja koji se ponovo zakazuje za svaki naredni korak.
+ */
+public class SimulationEvent implements Comparable<SimulationEvent> {
+
+    /**
+     * Vrste dogadjaja koje se mogu desiti tokom jednog iznajmljivanja
+     */
+    public enum Type {
+        STEP,
+        CHARGE,
+        ARRIVAL,
+        FAULT
+    }
+
+    private double time;
+    private long sequence;
+    private Type type;
+    private final RentalSimulation simulation;
+
+    /**
+     * Konstruktor klase SimulationEvent
+     * @param time - virtuelno vrijeme dogadjaja u sekundama simulacije
+     * @param sequence - redni broj zakazivanja (za stabilan redoslijed dogadjaja u istom trenutku)
+     * @param type - vrsta dogadjaja
+     * @param simulation - iznajmljivanje kojem dogadjaj pripada
+     */
+    public SimulationEvent(double time, long sequence, Type type, RentalSimulation simulation) {
+        this.time = time;
+        this.sequence = sequence;
+        this.type = type;
+        this.simulation = simulation;
+    }
+
+    /**
+     * Metoda koja ponovo postavlja dogadjaj prije nego sto se zakaze (dogadjaj ne smije biti u redu)
+     * @param time - novo virtuelno vrijeme dogadjaja
+     * @param sequence - novi redni broj zakazivanja
+     * @param type - nova vrsta dogadjaja
+     */
+    void reset(double time, long sequence, Type type) {
+        this.time = time;
+        this.sequence = sequence;
+        this.type = type;
+    }
+
+    /**
+     * Metoda koja vraca virtuelno vrijeme dogadjaja
+     * @return vraca vrijeme u sekundama simulacije
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Metoda koja vraca vrstu dogadjaja
+     * @return vraca vrstu
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Metoda koja vraca iznajmljivanje kojem dogadjaj pripada
+     * @return vraca simulaciju iznajmljivanja
+     */
+    public RentalSimulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Poredjenje dogadjaja, prvo po vremenu pa po redoslijedu zakazivanja
+     * @param other - drugi dogadjaj
+     * @return negativan broj, nula ili pozitivan broj
+     */
+    @Override
+    public int compareTo(SimulationEvent other) {
+        int byTime = Double.compare(time, other.time);
+        return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+}
@@ -0,0 +1,48 @@
+package rent;
+
+import java.util.List;
+
+/**
+ * Interfejs SimulationListener prima obavjestenja iz simulacije.
+ * Implementira ga GUI (MainController), ali i pokretanje bez GUI-ja (HeadlessMain),
+ * tako da jezgro simulacije ne zavisi od JavaFX-a.
+ * Sve metode imaju prazne podrazumijevane implementacije.
+ */
+public interface SimulationListener {
+
+    /**
+     * Metoda koja se poziva kada se vozilo pomjeri na novo polje
+     * @param vehicleId - identifikator vozila
+     * @param x - trenutna x koordinata
+     * @param y - trenutna y koordinata
+     * @param endX - x koordinata odredista
+     * @param endY - y koordinata odredista
+     * @param isFinished - da li je iznajmljivanje zavrseno (vozilo je na odredistu)
+     */
+    default void onVehicleMoved(String vehicleId, int x, int y, int endX, int endY, boolean isFinished) {
+    }
+
+    /**
+     * Metoda koja se poziva kada se iznajmljivanje zavrsi (nakon racuna), npr. za rezultate tokom simulacije
+     * (LiveResults). Kod izvrsavanja u nitima se poziva istovremeno iz vise niti.
+     * @param rental - zavrseno iznajmljivanje, sa izracunatom cijenom
+     */
+    default void onRentalFinished(Rental rental) {
+    }
+
+    /**
+     * Metoda koja se poziva kada je napravljena tabela svih obracunatih iznajmljivanja (prije rezultata poslovanja),
+     * npr. za analizu "sta ako" sa drugom konfiguracijom cijena (WhatIfResults)
+     * @param table - tabela iznajmljivanja sa izracunatim cijenama
+     */
+    default void onRentalTable(RentalTable table) {
+    }
+
+    /**
+     * Metoda koja se poziva kada se zavrse sva iznajmljivanja i izracunaju rezultati poslovanja
+     * @param summaryResults - sumarni izvjestaj
+     * @param dailyResults - dnevni izvjestaji
+     */
+    default void onSimulationFinished(Results summaryResults, List<Results> dailyResults) {
+    }
+}
@@ -0,0 +1,104 @@
+package rent;
+
+import pricing.PricingConfig;
+import pricing.TariffTable;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Klasa WhatIfResults sadrzi rezultate poslovanja analize "sta ako": sumarni i dnevni izvjestaji iznajmljivanja
+ * kako su obracunata u simulaciji i isti izvjestaji kada se cijela istorija iznajmljivanja obracuna
+ * drugom konfiguracijom cijena (npr. veci popust promocije ili faktor udaljenosti za siri dio grada).
+ * Simulacija se ne izvrsava ponovo, mijenjaju se samo cijene (RentalTable.repriced).
+ */
+public class WhatIfResults {
+    private final PricingConfig alternative;
+    private final Results baselineSummary;
+    private final Results alternativeSummary;
+    private final List<Results> baselineDaily;
+    private final List<Results> alternativeDaily;
+
+    /**
+     * Konstruktor klase WhatIfResults
+     * @param alternative - konfiguracija cijena sa kojom se poredi
+     * @param baselineSummary - sumarni izvjestaj iznajmljivanja iz simulacije
+     * @param alternativeSummary - sumarni izvjestaj sa drugom konfiguracijom
+     * @param baselineDaily - dnevni izvjestaji iznajmljivanja iz simulacije
+     * @param alternativeDaily - dnevni izvjestaji sa drugom konfiguracijom (isti datumi)
+     */
+    public WhatIfResults(PricingConfig alternative, Results baselineSummary, Results alternativeSummary,
+                         List<Results> baselineDaily, List<Results> alternativeDaily) {
+        this.alternative = alternative;
+        this.baselineSummary = baselineSummary;
+        this.alternativeSummary = alternativeSummary;
+        this.baselineDaily = baselineDaily;
+        this.alternativeDaily = alternativeDaily;
+    }
+
+    /**
+     * Metoda koja obracunava sva iznajmljivanja tabele drugom konfiguracijom cijena i racuna izvjestaje za poredjenje
+     * @param table - tabela iznajmljivanja iz simulacije (sa izracunatim cijenama)
+     * @param alternative - druga konfiguracija cijena
+     * @return vraca izvjestaje iz simulacije i izvjestaje sa drugom konfiguracijom
+     * @throws IOException u slucaju greske prilikom pravljenja dnevnih izvjestaja
+     */
+    public static WhatIfResults compare(RentalTable table, PricingConfig alternative) throws IOException {
+        // Tabela se prevodi posebno, da ne bi zamijenila tabelu trenutne konfiguracije koju cuva PricingEngine
+        RentalTable repriced = table.repriced(new TariffTable(alternative));
+
+        // Jedan prolaz kroz svaku tabelu; dnevni izvjestaji se racunaju prvi, jer calculateDailyValues mijenja
+        // vrijednosti objekta (kao u SimulationManager)
+        ResultsAccumulator baselineTotals = table.accumulate();
+        Results baselineSummary = new Results();
+        List<Results> baselineDaily = baselineSummary.calculateDailyValues(baselineTotals);
+        baselineSummary.calculateSummaryValues(baselineTotals);
+
+        ResultsAccumulator alternativeTotals = repriced.accumulate();
+        Results alternativeSummary = new Results();
+        List<Results> alternativeDaily = alternativeSummary.calculateDailyValues(alternativeTotals);
+        alternativeSummary.calculateSummaryValues(alternativeTotals);
+
+        return new WhatIfResults(alternative, baselineSummary, alternativeSummary, baselineDaily, alternativeDaily);
+    }
+
+    /**
+     * Metoda koja vraca konfiguraciju cijena sa kojom se poredi
+     * @return vraca konfiguraciju
+     */
+    public PricingConfig getAlternative() {
+        return alternative;
+    }
+
+    /**
+     * Metoda koja vraca sumarni izvjestaj iznajmljivanja iz simulacije
+     * @return vraca sumarni izvjestaj
+     */
+    public Results getBaselineSummary() {
+        return baselineSummary;
+    }
+
+    /**
+     * Metoda koja vraca sumarni izvjestaj sa drugom konfiguracijom cijena
+     * @return vraca sumarni izvjestaj
+     */
+    public Results getAlternativeSummary() {
+        return alternativeSummary;
+    }
+
+    /**
+     * Metoda koja vraca dnevne izvjestaje iznajmljivanja iz simulacije
+     * @return vraca listu dnevnih izvjestaja, poredanu po datumu
+     */
+    public List<Results> getBaselineDaily() {
+        return baselineDaily;
+    }
+
+    /**
+     * Metoda koja vraca dnevne izvjestaje sa drugom konfiguracijom cijena
+     * @return vraca listu dnevnih izvjestaja, poredanu po datumu (isti datumi kao getBaselineDaily)
+     */
+    public List<Results> getAlternativeDaily() {
+        return alternativeDaily;
+    }
+}
@@ -0,0 +1,70 @@
+package handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi razdvajanja reda CSV fajla na polja (CsvTokenizer)
+ */
+public class CsvTokenizerTest {
+
+    @Test
+    public void commaInsideQuotesDoesNotSplit() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(5, tokenizer.tokenize("1.6.2024 08:05,K1,A1,\"3,4\",\"12,19\""));
+        assertEquals("1.6.2024 08:05", tokenizer.get(0));
+        assertEquals("3,4", tokenizer.get(3));
+        assertEquals("12,19", tokenizer.get(4));
+    }
+
+    @Test
+    public void fieldsAreTrimmedOfBlanksAndOneQuote() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(3, tokenizer.tokenize("  a b , \"x\" ,\"\"y\"\""));
+        assertEquals("a b", tokenizer.get(0));
+        assertEquals("x", tokenizer.get(1));
+        assertEquals("\"y\"", tokenizer.get(2));
+    }
+
+    @Test
+    public void trailingEmptyFieldsAreCounted() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        assertEquals(4, tokenizer.tokenize("B1,,100,"));
+        assertTrue(tokenizer.isEmpty(1));
+        assertFalse(tokenizer.isEmpty(2));
+        assertTrue(tokenizer.isEmpty(3));
+        assertEquals(1, tokenizer.tokenize(""));
+        assertTrue(tokenizer.isEmpty(0));
+    }
+
+    @Test
+    public void reusedTokenizerForgetsPreviousLine() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        StringBuilder wide = new StringBuilder("0");
+        for (int i = 1; i < 40; i++) {
+            wide.append(',').append(i);
+        }
+        assertEquals(40, tokenizer.tokenize(wide.toString()));
+        assertEquals("39", tokenizer.get(39));
+        assertEquals(2, tokenizer.tokenize("a,b"));
+        assertEquals(2, tokenizer.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.get(-1));
+    }
+
+    @Test
+    public void typedAccessorsParseOrFallBack() {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        tokenizer.tokenize(" 42 ,x,\"2.5\",DA");
+        assertEquals(42, tokenizer.getInt(0, -1));
+        assertEquals(-1, tokenizer.getInt(1, -1));
+        assertEquals(2.5, tokenizer.getDouble(2, 0));
+        assertEquals(0.0, tokenizer.getDouble(1, 0));
+        assertTrue(tokenizer.equalsIgnoreCase(3, "da"));
+        assertFalse(tokenizer.equalsIgnoreCase(3, "d"));
+    }
+}
@@ -0,0 +1,125 @@
+package handler;
+
+import model.VehicleRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rent.Rental;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi paralelnog ucitavanja iz fajla mapiranog u memoriju (MappedRentalLoader): fajl od vise dijelova daje
+ * ista iznajmljivanja, u istom redoslijedu, sa istim rednim brojevima korisnika i cijenama kao CSVHandler.loadRentals,
+ * bez obzira na broj niti i na to u kojem dijelu je prvo pojavljivanje duplikata
+ */
+public class MappedRentalLoaderTest {
+    private static final int RENTALS = 60_000; // Oko 2.7 MB, vise dijelova od po najmanje 1 MB
+
+    @TempDir
+    Path folder;
+
+    @BeforeAll
+    public static void noQuarantine() {
+        RejectionSink.setQuarantineFolder(null); // Odbaceni redovi se samo broje
+    }
+
+    @Test
+    public void chunkedLoadMatchesSequentialLoader() throws IOException {
+        VehicleRegistry registry = registry();
+        Path rentals = writeRentals(1);
+        assertTrue(Files.size(rentals) > 2 * 1024 * 1024, "file should span several chunks");
+
+        List<String> expected = describe(CSVHandler.loadRentals(rentals.toString(), registry));
+        assertTrue(expected.size() > RENTALS / 2, "most rows should be loaded");
+        assertEquals(expected, describe(MappedRentalLoader.load(rentals, registry)));
+        try (ForkJoinPool pool = new ForkJoinPool(3)) {
+            assertEquals(expected, describe(MappedRentalLoader.load(rentals, registry, pool)));
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(1)) {
+            assertEquals(expected, describe(MappedRentalLoader.load(rentals, registry, pool)));
+        }
+    }
+
+    @Test
+    public void repeatedLoadsAreIdentical() throws IOException {
+        VehicleRegistry registry = registry();
+        Path rentals = writeRentals(2);
+
+        assertEquals(describe(MappedRentalLoader.load(rentals, registry)),
+                describe(MappedRentalLoader.load(rentals, registry)));
+    }
+
+    /**
+     * Pomocna metoda koja opisuje svako iznajmljivanje jednim redom, sa cijenom zapisanom bit po bit
+     * @param rentals - iznajmljivanja
+     * @return vraca opise u redoslijedu liste
+     */
+    private static List<String> describe(List<Rental> rentals) {
+        return rentals.stream().map(rental -> rental.getStartTime() + "|" + rental.getUserId()
+                + "|" + rental.getVehicle().getId() + "|" + rental.getStartLocation() + "|" + rental.getEndLocation()
+                + "|" + rental.getSimulationDuration() + "|" + rental.isFaulty() + "|" + rental.getPromotion()
+                + "|" + rental.getRentCount() + "|" + Double.doubleToRawLongBits(rental.getTotalPrice())).toList();
+    }
+
+    /**
+     * Pomocna metoda koja upisuje veliki fajl sa iznajmljivanjima u slucajnom redoslijedu vremena, sa neispravnim
+     * redovima izmedju ispravnih; na kraju fajla su duplikati redova sa pocetka, a posljednji red nema znak za novi red
+     * @param seed - pocetna vrijednost generatora
+     * @return vraca putanju fajla
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private Path writeRentals(long seed) throws IOException {
+        String[] vehicles = {"A1", "A2", "B1", "B2", "T1", "T2"};
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>();
+        lines.add("Datum,Korisnik,ID prevoznog sredstva,Pocetna lokacija,Odrediste,Trajanje,Kvar,Promocija");
+        for (int i = 0; i < RENTALS; i++) {
+            String line = String.format("%d.6.2024 %02d:%02d", 1 + random.nextInt(30), random.nextInt(24),
+                    random.nextInt(60))
+                    + ",K" + (1 + random.nextInt(50)) + "," + vehicles[i % vehicles.length]
+                    + ",\"" + random.nextInt(20) + "," + random.nextInt(20) + "\""
+                    + ",\"" + random.nextInt(20) + "," + random.nextInt(20) + "\""
+                    + "," + (1 + random.nextInt(10))
+                    + "," + (random.nextInt(5) == 0 ? "da" : "ne")
+                    + "," + (random.nextInt(4) == 0 ? "da" : "ne");
+            lines.add(line);
+            if (i % 997 == 3) {
+                lines.add(line.replace("\"", "") + ",visak"); // Pogresan broj polja
+                lines.add(line.replaceFirst(",\"\\d+,\\d+\",", ",\"7\",")); // Neispravna lokacija
+                lines.add(line.replace("," + vehicles[i % vehicles.length] + ",", ",X9,")); // Nepostojece vozilo
+            }
+        }
+        lines.addAll(lines.subList(1, 50));
+        Path path = folder.resolve("iznajmljivanja.csv");
+        Files.writeString(path, String.join("\n", lines), StandardCharsets.UTF_8);
+        return path;
+    }
+
+    /**
+     * Pomocna metoda koja ucitava vozila iz testnog fajla
+     * @return vraca registar vozila
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private VehicleRegistry registry() throws IOException {
+        Path vehicles = Files.write(folder.resolve("vozila.csv"), List.of(
+                "ID,Proizvodjac,Model,Datum nabavke,Cijena,Domet,Max Brzina,Opis,Vrsta",
+                "A1,A,M1,1.5.2024.,50000,,,primjer 1,automobil",
+                "A2,A,M2,16.5.2024.,35000,,,primjer 2,automobil",
+                "B1,B,BM1,,3000,100,,,bicikl",
+                "B2,B,BM2,,2500,80,,,bicikl",
+                "T1,T,TM1,,1000,,50,,trotinet",
+                "T2,T,TM2,,1200,,45,,trotinet"), StandardCharsets.UTF_8);
+        return new VehicleRegistry(CSVHandler.loadVehicles(vehicles.toString()));
+    }
+}
@@ -0,0 +1,90 @@
+package handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi skupa kljuceva iznajmljivanja (RentalKeySet): duplikati, kljucevi sa istim hesom u memorijskoj tabeli
+ * i prelazak na tabelu u fajlu kada se premasi memorijski budzet
+ */
+public class RentalKeySetTest {
+    private static final long SMALL_BUDGET = 2L * 1024 * Long.BYTES; // Najmanji dozvoljeni budzet
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 8, 0);
+
+    @Test
+    public void keyPacksVehicleAndMinute() {
+        assertEquals(RentalKeySet.key(3, START), RentalKeySet.key(3, START.plusSeconds(59)));
+        assertNotEquals(RentalKeySet.key(3, START), RentalKeySet.key(3, START.plusMinutes(1)));
+        assertNotEquals(RentalKeySet.key(3, START), RentalKeySet.key(4, START));
+        assertThrows(IllegalArgumentException.class, () -> RentalKeySet.key(-1, START));
+        assertThrows(IllegalArgumentException.class, () -> RentalKeySet.key(Integer.MAX_VALUE, START));
+    }
+
+    @Test
+    public void duplicatesAreRejected() {
+        try (RentalKeySet keys = new RentalKeySet(SMALL_BUDGET)) {
+            long key = RentalKeySet.key(1, START);
+            assertTrue(keys.add(key));
+            assertFalse(keys.add(key));
+            assertTrue(keys.contains(key));
+            assertFalse(keys.contains(RentalKeySet.key(2, START)));
+            assertEquals(1, keys.size());
+            assertThrows(IllegalArgumentException.class, () -> keys.add(-5));
+        }
+    }
+
+    @Test
+    public void collidingKeysStayDistinct() {
+        // Kljucevi koji se razlikuju samo u visim bitovima (isti nizi bitovi, pa cesto i isti pocetni slot)
+        try (RentalKeySet keys = new RentalKeySet(RentalKeySet.DEFAULT_MEMORY_BUDGET)) {
+            for (int vehicle = 0; vehicle < 5000; vehicle++) {
+                assertTrue(keys.add(RentalKeySet.key(vehicle, START)));
+            }
+            for (int vehicle = 0; vehicle < 5000; vehicle++) {
+                assertFalse(keys.add(RentalKeySet.key(vehicle, START)));
+                assertTrue(keys.contains(RentalKeySet.key(vehicle, START)));
+            }
+            assertEquals(5000, keys.size());
+            assertFalse(keys.isSpilled());
+        }
+    }
+
+    @Test
+    public void spilledSetMatchesInMemorySet() {
+        Random random = new Random(11);
+        Set<Long> expected = new HashSet<>();
+        try (RentalKeySet spilled = new RentalKeySet(SMALL_BUDGET);
+             RentalKeySet inMemory = new RentalKeySet(RentalKeySet.DEFAULT_MEMORY_BUDGET)) {
+            for (int i = 0; i < 20_000; i++) {
+                long key = RentalKeySet.key(random.nextInt(50), START.plusMinutes(random.nextInt(2_000)));
+                boolean added = expected.add(key);
+                assertEquals(added, spilled.add(key), "spilled add of " + key);
+                assertEquals(added, inMemory.add(key), "in-memory add of " + key);
+            }
+            assertTrue(spilled.isSpilled(), "small budget should spill to disk");
+            assertFalse(inMemory.isSpilled());
+            assertEquals(expected.size(), spilled.size());
+            assertEquals(expected.size(), inMemory.size());
+            for (int i = 0; i < 5_000; i++) {
+                long key = RentalKeySet.key(random.nextInt(60), START.plusMinutes(random.nextInt(2_500)));
+                assertEquals(expected.contains(key), spilled.contains(key), "spilled contains " + key);
+                assertEquals(expected.contains(key), inMemory.contains(key), "in-memory contains " + key);
+            }
+        }
+    }
+
+    @Test
+    public void tooSmallBudgetIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RentalKeySet(SMALL_BUDGET - 1));
+    }
+}
@@ -0,0 +1,129 @@
+package handler;
+
+import model.VehicleRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rent.Rental;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testovi karantina odbacenih redova: red sa neispravnom lokacijom ne prekida ucitavanje ni u jednom nacinu
+ * ucitavanja, vec se upisuje u karantinski fajl kao INVALID_VALUE
+ */
+public class RentalQuarantineTest {
+    private static final List<String> BAD_ROWS = List.of(
+            "1.6.2024 09:00,K2,B1,\"a,3\",\"4,5\",3,ne,ne",
+            "1.6.2024 09:30,K1,T1,\"2,2\",\"7\",3,ne,ne");
+
+    @TempDir
+    Path folder;
+
+    @AfterAll
+    public static void noQuarantine() {
+        RejectionSink.setQuarantineFolder(null);
+    }
+
+    @Test
+    public void sequentialLoaderQuarantinesBadLocation() throws IOException {
+        VehicleRegistry registry = registry();
+        Path quarantine = folder.resolve("sequential");
+        RejectionSink.setQuarantineFolder(quarantine);
+
+        assertValidRows(CSVHandler.loadRentals(writeRentals().toString(), registry));
+        assertEquals(quarantineRows(), quarantined(quarantine));
+    }
+
+    @Test
+    public void mappedLoaderQuarantinesBadLocation() throws IOException {
+        VehicleRegistry registry = registry();
+        Path quarantine = folder.resolve("mapped");
+        RejectionSink.setQuarantineFolder(quarantine);
+
+        assertValidRows(MappedRentalLoader.load(writeRentals(), registry));
+        assertEquals(quarantineRows(), quarantined(quarantine));
+    }
+
+    @Test
+    public void streamQuarantinesBadLocation() throws IOException {
+        VehicleRegistry registry = registry();
+        Path quarantine = folder.resolve("stream");
+        RejectionSink.setQuarantineFolder(quarantine);
+
+        List<Rental> rentals = new ArrayList<>();
+        try (RentalStream stream = RentalStream.open(writeRentals(), registry, RentalStream.DEFAULT_RUN_SIZE)) {
+            stream.forEachRemaining(rentals::add);
+        }
+        assertValidRows(rentals);
+        assertEquals(quarantineRows(), quarantined(quarantine));
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da su ucitani svi ispravni redovi, i oni iza neispravnih
+     * @param rentals - ucitana iznajmljivanja
+     */
+    private static void assertValidRows(List<Rental> rentals) {
+        assertEquals(List.of("A1", "B1", "T1"), rentals.stream().map(rental -> rental.getVehicle().getId()).toList());
+    }
+
+    /**
+     * Pomocna metoda koja vraca ocekivane redove karantinskog fajla
+     * @return vraca redove sa razlogom odbacivanja
+     */
+    private static List<String> quarantineRows() {
+        return BAD_ROWS.stream().map(row -> RejectionSink.Reason.INVALID_VALUE + "\t" + row).toList();
+    }
+
+    /**
+     * Pomocna metoda koja cita karantinski fajl iz direktorijuma
+     * @param quarantine - direktorijum karantina
+     * @return vraca redove karantinskog fajla
+     * @throws IOException u slucaju greske prilikom citanja
+     */
+    private static List<String> quarantined(Path quarantine) throws IOException {
+        try (Stream<Path> files = Files.list(quarantine)) {
+            List<Path> list = files.toList();
+            assertEquals(1, list.size(), "one quarantine file per load");
+            return Files.readAllLines(list.get(0), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja upisuje fajl sa iznajmljivanjima: neispravne lokacije su izmedju ispravnih redova
+     * @return vraca putanju fajla
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private Path writeRentals() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Datum,Korisnik,ID prevoznog sredstva,Pocetna lokacija,Odrediste,Trajanje,Kvar,Promocija");
+        lines.add("1.6.2024 08:00,K1,A1,\"1,1\",\"2,2\",3,ne,ne");
+        lines.add(BAD_ROWS.get(0));
+        lines.add(BAD_ROWS.get(1));
+        lines.add("1.6.2024 10:00,K2,B1,\"3,3\",\"4,4\",5,ne,da");
+        lines.add("1.6.2024 11:00,K3,T1,\"5,5\",\"6,6\",2,da,ne");
+        return Files.write(folder.resolve("iznajmljivanja.csv"), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pomocna metoda koja ucitava vozila iz testnog fajla
+     * @return vraca registar vozila
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private VehicleRegistry registry() throws IOException {
+        Path vehicles = Files.write(folder.resolve("vozila.csv"), List.of(
+                "ID,Proizvodjac,Model,Datum nabavke,Cijena,Domet,Max Brzina,Opis,Vrsta",
+                "A1,A,M1,1.5.2024.,50000,,,primjer 1,automobil",
+                "B1,B,BM1,,3000,100,,,bicikl",
+                "T1,T,TM1,,1000,,50,,trotinet"), StandardCharsets.UTF_8);
+        return new VehicleRegistry(CSVHandler.loadVehicles(vehicles.toString()));
+    }
+}
@@ -0,0 +1,145 @@
+package handler;
+
+import model.VehicleRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rent.Rental;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi toka iznajmljivanja (RentalStream): tok daje ista iznajmljivanja, u istom redoslijedu, sa istim rednim
+ * brojevima korisnika i cijenama kao CSVHandler.loadRentals, i kada se sortirani dijelovi spajaju iz privremenih fajlova
+ */
+public class RentalStreamTest {
+    private static final int RENTALS = 400;
+
+    @TempDir
+    Path folder;
+
+    @BeforeAll
+    public static void noQuarantine() {
+        RejectionSink.setQuarantineFolder(null); // Odbaceni redovi se samo broje
+    }
+
+    @Test
+    public void streamMatchesSequentialLoader() throws IOException {
+        VehicleRegistry registry = registry();
+        Path rentals = writeRentals(1);
+
+        List<String> expected = describe(CSVHandler.loadRentals(rentals.toString(), registry));
+        assertTrue(expected.size() > RENTALS / 2, "most rows should be loaded");
+        assertEquals(expected, describe(streamAll(rentals, registry, RentalStream.DEFAULT_RUN_SIZE)));
+    }
+
+    @Test
+    public void spilledRunsMatchSequentialLoader() throws IOException {
+        VehicleRegistry registry = registry();
+        Path rentals = writeRentals(2);
+
+        List<String> expected = describe(CSVHandler.loadRentals(rentals.toString(), registry));
+        assertEquals(expected, describe(streamAll(rentals, registry, 7)));
+        assertEquals(expected, describe(streamAll(rentals, registry, 1)));
+    }
+
+    @Test
+    public void streamIsOrderedByStartTime() throws IOException {
+        List<Rental> rentals = streamAll(writeRentals(3), registry(), 13);
+
+        for (int i = 1; i < rentals.size(); i++) {
+            assertFalse(rentals.get(i).getStartTime().isBefore(rentals.get(i - 1).getStartTime()), "row " + i);
+        }
+    }
+
+    @Test
+    public void nonPositiveRunSizeIsRejected() throws IOException {
+        VehicleRegistry registry = registry();
+        Path rentals = writeRentals(4);
+
+        assertThrows(IllegalArgumentException.class, () -> RentalStream.open(rentals, registry, 0));
+    }
+
+    /**
+     * Pomocna metoda koja cita cijeli tok iznajmljivanja
+     * @param rentals - putanja fajla sa iznajmljivanjima
+     * @param registry - registar vozila
+     * @param runSize - velicina sortiranog dijela
+     * @return vraca iznajmljivanja u redoslijedu toka
+     * @throws IOException u slucaju greske prilikom citanja
+     */
+    private static List<Rental> streamAll(Path rentals, VehicleRegistry registry, int runSize) throws IOException {
+        List<Rental> list = new ArrayList<>();
+        try (RentalStream stream = RentalStream.open(rentals, registry, runSize)) {
+            stream.forEachRemaining(list::add);
+        }
+        return list;
+    }
+
+    /**
+     * Pomocna metoda koja opisuje svako iznajmljivanje jednim redom, sa cijenom zapisanom bit po bit
+     * @param rentals - iznajmljivanja
+     * @return vraca opise u redoslijedu liste
+     */
+    private static List<String> describe(List<Rental> rentals) {
+        return rentals.stream().map(rental -> rental.getStartTime() + "|" + rental.getUserId()
+                + "|" + rental.getVehicle().getId() + "|" + rental.getStartLocation() + "|" + rental.getEndLocation()
+                + "|" + rental.getSimulationDuration() + "|" + rental.isFaulty() + "|" + rental.getPromotion()
+                + "|" + rental.getRentCount() + "|" + Double.doubleToRawLongBits(rental.getTotalPrice())).toList();
+    }
+
+    /**
+     * Pomocna metoda koja upisuje fajl sa iznajmljivanjima koja nisu poredana po vremenu (vise vozila pocinje
+     * u istom trenutku), sa duplikatima, nepostojecim vozilima i neispravnim lokacijama izmedju ispravnih redova
+     * @param seed - pocetna vrijednost generatora
+     * @return vraca putanju fajla
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private Path writeRentals(long seed) throws IOException {
+        String[] vehicles = {"A1", "B1", "B2", "T1"};
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>();
+        lines.add("Datum,Korisnik,ID prevoznog sredstva,Pocetna lokacija,Odrediste,Trajanje,Kvar,Promocija");
+        for (int i = 0; i < RENTALS; i++) {
+            String line = String.format("%d.6.2024 %02d:%02d", 1 + random.nextInt(4), 8 + random.nextInt(3),
+                    random.nextInt(60))
+                    + ",K" + (1 + random.nextInt(3)) + "," + vehicles[i % vehicles.length]
+                    + ",\"" + random.nextInt(20) + "," + random.nextInt(20) + "\""
+                    + ",\"" + random.nextInt(20) + "," + random.nextInt(20) + "\""
+                    + "," + (1 + random.nextInt(10))
+                    + "," + (random.nextInt(5) == 0 ? "da" : "ne")
+                    + "," + (random.nextInt(4) == 0 ? "da" : "ne");
+            lines.add(i % 31 == 9 ? line.replace(",A1,", ",X9,") : line);
+            if (i % 37 == 4) {
+                lines.add(line.replaceFirst(",\"\\d+,", ",\"x,"));
+            }
+        }
+        return Files.write(folder.resolve("iznajmljivanja.csv"), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pomocna metoda koja ucitava vozila iz testnog fajla
+     * @return vraca registar vozila
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private VehicleRegistry registry() throws IOException {
+        Path vehicles = Files.write(folder.resolve("vozila.csv"), List.of(
+                "ID,Proizvodjac,Model,Datum nabavke,Cijena,Domet,Max Brzina,Opis,Vrsta",
+                "A1,A,M1,1.5.2024.,50000,,,primjer 1,automobil",
+                "B1,B,BM1,,3000,100,,,bicikl",
+                "B2,B,BM2,,2500,80,,,bicikl",
+                "T1,T,TM1,,1000,,50,,trotinet"), StandardCharsets.UTF_8);
+        return new VehicleRegistry(CSVHandler.loadVehicles(vehicles.toString()));
+    }
+}
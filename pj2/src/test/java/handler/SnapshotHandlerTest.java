@@ -0,0 +1,171 @@
+package handler;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import rent.Rental;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi snapshot-a ucitanih podataka (SnapshotHandler): snapshot daje ista vozila i iznajmljivanja kao
+ * parsiranje CSV fajlova, a svaka promjena izvornog fajla (ili ostecen snapshot) vraca parsiranje
+ */
+public class SnapshotHandlerTest {
+
+    @TempDir
+    Path folder;
+
+    @BeforeAll
+    public static void noQuarantine() {
+        RejectionSink.setQuarantineFolder(null);
+    }
+
+    @Test
+    public void snapshotRoundTripMatchesParsedFiles() throws IOException {
+        Path vehicles = writeVehicles();
+        Path rentals = writeRentals(200, 5);
+        Path snapshot = folder.resolve("cache").resolve("snapshot.bin");
+
+        SnapshotHandler.Snapshot parsed = SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString());
+        assertTrue(Files.exists(snapshot), "snapshot should be written after parsing");
+        SnapshotHandler.Snapshot loaded = SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString());
+
+        assertEquals(vehicleIds(parsed), vehicleIds(loaded));
+        assertEquals(describe(parsed.rentals()), describe(loaded.rentals()));
+        assertEquals(describe(CSVHandler.loadRentals(rentals.toString(), parsed.registry())),
+                describe(loaded.rentals()));
+        assertEquals(loaded.rentals().size(), loaded.table().size());
+    }
+
+    @Test
+    public void appendedRowInvalidatesSnapshot() throws IOException {
+        Path vehicles = writeVehicles();
+        Path rentals = writeRentals(50, 6);
+        Path snapshot = folder.resolve("snapshot.bin");
+        int before = SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString()).rentals().size();
+
+        Files.writeString(rentals, "30.6.2024 12:00,K7,A1,\"1,1\",\"2,2\",3,ne,ne\n", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        SnapshotHandler.Snapshot reloaded = SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString());
+
+        assertEquals(before + 1, reloaded.rentals().size());
+        assertEquals(describe(CSVHandler.loadRentals(rentals.toString(), reloaded.registry())),
+                describe(reloaded.rentals()));
+    }
+
+    @Test
+    public void sameSizeEditWithOldTimestampInvalidatesSnapshot() throws IOException {
+        Path vehicles = writeVehicles();
+        Path rentals = writeRentals(50, 7);
+        Path snapshot = folder.resolve("snapshot.bin");
+        SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString());
+
+        // Ista velicina i isto vrijeme izmjene, razlikuje se samo sadrzaj (prepoznaje ga hes fajla)
+        FileTime modified = Files.getLastModifiedTime(rentals);
+        String content = Files.readString(rentals, StandardCharsets.UTF_8);
+        Files.writeString(rentals, content.replace(",ne,ne", ",da,ne"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(rentals, modified);
+        SnapshotHandler.Snapshot reloaded = SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString());
+
+        assertEquals(describe(CSVHandler.loadRentals(rentals.toString(), reloaded.registry())),
+                describe(reloaded.rentals()));
+    }
+
+    @Test
+    public void corruptSnapshotFallsBackToParsing() throws IOException {
+        Path vehicles = writeVehicles();
+        Path rentals = writeRentals(50, 8);
+        Path snapshot = folder.resolve("snapshot.bin");
+        SnapshotHandler.Snapshot parsed = SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString());
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+        SnapshotHandler.Snapshot reloaded = SnapshotHandler.load(vehicles.toString(), rentals.toString(), snapshot.toString());
+
+        assertEquals(describe(parsed.rentals()), describe(reloaded.rentals()));
+    }
+
+    /**
+     * Pomocna metoda koja vraca identifikatore vozila snapshot-a, u redoslijedu ucitavanja
+     * @param snapshot - ucitani podaci
+     * @return vraca identifikatore vozila
+     */
+    private static List<String> vehicleIds(SnapshotHandler.Snapshot snapshot) {
+        return snapshot.vehicles().stream().map(vehicle -> vehicle.getId() + "|" + vehicle.getType()
+                + "|" + vehicle.getPrice()).toList();
+    }
+
+    /**
+     * Pomocna metoda koja opisuje svako iznajmljivanje jednim redom, sa trajanjem i cijenom zapisanim bit po bit
+     * @param rentals - iznajmljivanja
+     * @return vraca opise u redoslijedu liste
+     */
+    private static List<String> describe(List<Rental> rentals) {
+        return rentals.stream().map(rental -> rental.getStartTime() + "|" + rental.getUserId()
+                + "|" + rental.getVehicle().getId() + "|" + rental.getStartLocation() + "|" + rental.getEndLocation()
+                + "|" + Double.doubleToRawLongBits(rental.getSimulationDuration()) + "|" + rental.isFaulty()
+                + "|" + rental.getPromotion() + "|" + rental.getRentCount()
+                + "|" + Double.doubleToRawLongBits(rental.getTotalPrice())
+                + "|" + Double.doubleToRawLongBits(rental.getBasePrice())).toList();
+    }
+
+    /**
+     * Pomocna metoda koja upisuje fajl sa vozilima (po dva automobila, bicikla i trotineta)
+     * @return vraca putanju fajla
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private Path writeVehicles() throws IOException {
+        return Files.write(folder.resolve("vozila.csv"), List.of(
+                "ID,Proizvodjac,Model,Datum nabavke,Cijena,Domet,Max Brzina,Opis,Vrsta",
+                "A1,A,M1,1.5.2024.,50000,,,primjer 1,automobil",
+                "A2,A,M2,16.5.2024.,35000,,,primjer 2,automobil",
+                "B1,B,BM1,,3000,100,,,bicikl",
+                "B2,B,BM2,,2500,80,,,bicikl",
+                "T1,T,TM1,,1000,,50,,trotinet",
+                "T2,T,TM2,,1200,,45,,trotinet"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pomocna metoda koja upisuje fajl sa iznajmljivanjima (svaki korisnik ima vise od deset iznajmljivanja,
+     * a izmedju ispravnih redova su duplikati i redovi sa neispravnom lokacijom)
+     * @param count - broj ispravnih redova
+     * @param seed - pocetna vrijednost generatora
+     * @return vraca putanju fajla
+     * @throws IOException u slucaju greske prilikom upisivanja
+     */
+    private Path writeRentals(int count, long seed) throws IOException {
+        String[] vehicles = {"A1", "A2", "B1", "B2", "T1", "T2"};
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>();
+        lines.add("Datum,Korisnik,ID prevoznog sredstva,Pocetna lokacija,Odrediste,Trajanje,Kvar,Promocija");
+        for (int i = 0; i < count; i++) {
+            String line = String.format("%d.6.2024 %02d:%02d", 1 + random.nextInt(5), 8 + random.nextInt(4),
+                    i / vehicles.length % 60)
+                    + ",K" + (1 + random.nextInt(3)) + "," + vehicles[i % vehicles.length]
+                    + ",\"" + random.nextInt(20) + "," + random.nextInt(20) + "\""
+                    + ",\"" + random.nextInt(20) + "," + random.nextInt(20) + "\""
+                    + "," + (1 + random.nextInt(10))
+                    + "," + (random.nextInt(5) == 0 ? "da" : "ne")
+                    + "," + (random.nextInt(4) == 0 ? "da" : "ne");
+            lines.add(line);
+            if (i % 17 == 5) {
+                lines.add(line); // Duplikat (isto vozilo i isto vrijeme pocetka)
+                lines.add(line.replaceFirst(",\"\\d+,", ",\"x,")); // Neispravna lokacija
+            }
+        }
+        return Files.write(folder.resolve("iznajmljivanja.csv"), lines, StandardCharsets.UTF_8);
+    }
+}
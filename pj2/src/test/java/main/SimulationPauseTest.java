@@ -0,0 +1,126 @@
+package main;
+
+import handler.ReceiptHandler;
+import model.EBike;
+import model.ECar;
+import model.EScooter;
+import model.Vehicle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import rent.Rental;
+import rent.SimulationClock;
+import rent.SimulationListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testovi pauze simulacije u nacinima izvrsavanja sa nitima: dok je sat pauziran nijedno iznajmljivanje
+ * ne napreduje, a ni jedna platformska nit ne ceka na sat (cekaju samo virtuelne niti)
+ */
+public class SimulationPauseTest {
+    private static final int VEHICLES = 6;
+    private static final int RENTALS_PER_VEHICLE = 2;
+
+    @BeforeEach
+    public void noReceiptFiles() {
+        ReceiptHandler.setWriteToFile(false);
+        ReceiptHandler.setKeepReceipts(false);
+    }
+
+    @AfterEach
+    public void restoreDefaults() {
+        SimulationManager.setExecutionMode(ExecutionMode.EVENT_LOOP);
+        ReceiptHandler.setWriteToFile(true);
+        ReceiptHandler.setKeepReceipts(true);
+    }
+
+    @Test
+    public void pausedPlatformThreadsModeHoldsNoThreads() throws Exception {
+        assertPauseHoldsNoThreads(ExecutionMode.PLATFORM_THREADS);
+    }
+
+    @Test
+    public void pausedBoundedPoolHoldsNoThreads() throws Exception {
+        assertPauseHoldsNoThreads(ExecutionMode.BOUNDED_POOL);
+    }
+
+    /**
+     * Pomocna metoda koja pokrece pauziranu simulaciju u zadatom nacinu izvrsavanja, provjerava da niti
+     * ne cekaju na sat i da se simulacija nakon nastavka zavrsi
+     * @param mode - nacin izvrsavanja
+     * @throws Exception ako simulacija ne uspije
+     */
+    private static void assertPauseHoldsNoThreads(ExecutionMode mode) throws Exception {
+        SimulationManager.setExecutionMode(mode);
+        SimulationClock clock = new SimulationClock(10_000);
+        clock.pause();
+        AtomicInteger finished = new AtomicInteger();
+        SimulationListener listener = new SimulationListener() {
+            @Override
+            public void onRentalFinished(Rental rental) {
+                finished.incrementAndGet();
+            }
+        };
+
+        Map<LocalDateTime, List<Rental>> grouped = SimulationManager.groupRentalsByTime(rentals());
+        CompletableFuture<Double> run = CompletableFuture.supplyAsync(() -> {
+            try {
+                return SimulationManager.simulateGroups(grouped, listener, clock);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        try {
+            Thread.sleep(300); // Lanci su predati izvrsiocu i cekaju na pauziran sat
+            assertEquals(0, finished.get(), "no rental finishes while paused");
+            assertEquals(0, platformThreadsWaitingOnClock(), "platform threads parked on the paused clock");
+        } finally {
+            clock.resume();
+        }
+        run.get(30, TimeUnit.SECONDS);
+        assertEquals(VEHICLES * RENTALS_PER_VEHICLE, finished.get());
+    }
+
+    /**
+     * Pomocna metoda koja broji platformske niti koje cekaju na sat simulacije
+     * (virtuelne niti nisu u Thread.getAllStackTraces)
+     * @return vraca broj niti
+     */
+    private static long platformThreadsWaitingOnClock() {
+        return Thread.getAllStackTraces().values().stream()
+                .filter(stack -> List.of(stack).stream().anyMatch(frame ->
+                        frame.getClassName().equals(SimulationClock.class.getName())
+                                && frame.getMethodName().equals("awaitVirtualTime")))
+                .count();
+    }
+
+    /**
+     * Pomocna metoda koja pravi po dva iznajmljivanja za svako od sest vozila
+     * @return vraca iznajmljivanja
+     */
+    private static List<Rental> rentals() {
+        List<Vehicle> vehicles = List.of(
+                new ECar("A1", "A", "M1", 50000, "primjer 1", "1.5.2024."),
+                new ECar("A2", "A", "M2", 35000, "primjer 2", "16.5.2024."),
+                new EBike("B1", "B", "BM1", 3000, 100),
+                new EBike("B2", "B", "BM2", 2500, 80),
+                new EScooter("T1", "T", "TM1", 1000, 50),
+                new EScooter("T2", "T", "TM2", 1200, 45));
+        return IntStream.range(0, VEHICLES * RENTALS_PER_VEHICLE)
+                .mapToObj(i -> new Rental("1.6.2024 0" + (8 + i / VEHICLES) + ":00", "K" + (1 + i % 5),
+                        vehicles.get(i % VEHICLES), (i % 20) + "," + (i % 7), "12," + (19 - i), 4 + i % 3, "ne", "ne"))
+                .toList();
+    }
+}
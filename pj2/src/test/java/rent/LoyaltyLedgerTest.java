@@ -0,0 +1,187 @@
+package rent;
+
+import handler.CSVHandler;
+import handler.MappedRentalLoader;
+import handler.RejectionSink;
+import handler.RentalStream;
+import model.EBike;
+import model.ECar;
+import model.EScooter;
+import model.Vehicle;
+import model.VehicleRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pricing.PricingConfig;
+import pricing.ZoneMap;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi evidencije popusta (LoyaltyLedger): redni brojevi korisnika zavise samo od vremena pocetka,
+ * ne od redoslijeda ucitavanja, a svako deseto iznajmljivanje dobija popust
+ */
+public class LoyaltyLedgerTest {
+    private static final PricingConfig CONFIG = new PricingConfig(1, 0.05, 0.02, 0.03, 1.0, 1.5, 0.10, 0.15, ZoneMap.DEFAULT);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 8, 0);
+    private static final List<Vehicle> VEHICLES = List.of(
+            new ECar("A1", "A", "M1", 50000, "primjer 1", "1.5.2024."),
+            new EBike("B1", "B", "BM1", 3000, 100),
+            new EScooter("T1", "T", "TM1", 1000, 50));
+
+    @TempDir
+    Path folder;
+
+    @Test
+    public void ordinalsDoNotDependOnInputOrder() {
+        List<Rental> ordered = randomRentals(300, 7);
+        List<Rental> shuffled = copiesWithoutOrdinals(ordered);
+        Collections.shuffle(shuffled, new Random(3));
+        new LoyaltyLedger().assign(shuffled);
+
+        for (Rental copy : shuffled) {
+            Rental original = ordered.stream().filter(r -> r.getStartTime().equals(copy.getStartTime())).findFirst().orElseThrow();
+            assertEquals(original.getRentCount(), copy.getRentCount(), "ordinal at " + copy.getStartTime());
+            assertEquals(original.getTotalPrice(), copy.getTotalPrice(), "price at " + copy.getStartTime());
+        }
+    }
+
+    @Test
+    public void equalStartTimesKeepListOrder() {
+        List<Rental> rentals = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            rentals.add(rental(START, "K1", VEHICLES.get(i % 3), 5, false, false, 0));
+        }
+        new LoyaltyLedger().assign(rentals);
+
+        for (int i = 0; i < rentals.size(); i++) {
+            assertEquals(i + 1, rentals.get(i).getRentCount());
+        }
+    }
+
+    @Test
+    public void singleAssignContinuesKnownRentals() {
+        List<Rental> known = new ArrayList<>();
+        for (int i = 1; i <= 9; i++) {
+            known.add(rental(START.plusHours(i), "K2", VEHICLES.get(0), 10, false, false, i));
+        }
+        LoyaltyLedger ledger = new LoyaltyLedger(known);
+        assertEquals(9, ledger.getCount("K2"));
+        assertEquals(0, ledger.getCount("K3"));
+
+        Rental tenth = rental(START.plusHours(10), "K2", VEHICLES.get(0), 10, false, false, 0);
+        ledger.assign(tenth);
+        Rental expected = rental(START.plusHours(10), "K2", VEHICLES.get(0), 10, false, false, 10);
+
+        assertEquals(10, tenth.getRentCount());
+        assertEquals(expected.getTotalPrice(), tenth.getTotalPrice());
+        assertTrue(LoyaltyLedger.isDiscounted(tenth.getRentCount()));
+    }
+
+    @Test
+    public void everyTenthRentalIsDiscounted() {
+        assertFalse(LoyaltyLedger.isDiscounted(0));
+        assertFalse(LoyaltyLedger.isDiscounted(9));
+        assertTrue(LoyaltyLedger.isDiscounted(10));
+        assertFalse(LoyaltyLedger.isDiscounted(11));
+        assertTrue(LoyaltyLedger.isDiscounted(20));
+    }
+
+    @Test
+    public void rejectedRowsDoNotTakeOrdinals() throws IOException {
+        RejectionSink.setQuarantineFolder(null);
+        Path vehicles = Files.write(folder.resolve("vozila.csv"), List.of(
+                "ID,Proizvodjac,Model,Datum nabavke,Cijena,Domet,Max Brzina,Opis,Vrsta",
+                "B1,B,BM1,,3000,100,,,bicikl"), StandardCharsets.UTF_8);
+        VehicleRegistry registry = new VehicleRegistry(CSVHandler.loadVehicles(vehicles.toString()));
+        // Deset ispravnih iznajmljivanja korisnika K1, a prije desetog duplikat, neispravna lokacija i nepostojece vozilo
+        List<String> lines = new ArrayList<>();
+        lines.add("Datum,Korisnik,ID prevoznog sredstva,Pocetna lokacija,Odrediste,Trajanje,Kvar,Promocija");
+        for (int i = 1; i <= 9; i++) {
+            lines.add(i + ".6.2024 08:00,K1,B1,\"1,1\",\"2,2\",3,ne,ne");
+        }
+        lines.add("9.6.2024 08:00,K1,B1,\"3,3\",\"4,4\",3,ne,ne");
+        lines.add("9.6.2024 09:00,K1,B1,\"x,3\",\"4,4\",3,ne,ne");
+        lines.add("9.6.2024 09:30,K1,X9,\"3,3\",\"4,4\",3,ne,ne");
+        lines.add("10.6.2024 08:00,K1,B1,\"1,1\",\"2,2\",3,ne,ne");
+        Path rentals = Files.write(folder.resolve("iznajmljivanja.csv"), lines, StandardCharsets.UTF_8);
+
+        List<List<Rental>> loaded = new ArrayList<>();
+        loaded.add(CSVHandler.loadRentals(rentals.toString(), registry));
+        loaded.add(MappedRentalLoader.load(rentals, registry));
+        List<Rental> streamed = new ArrayList<>();
+        try (RentalStream stream = RentalStream.open(rentals, registry, 4)) {
+            stream.forEachRemaining(streamed::add);
+        }
+        loaded.add(streamed);
+        for (List<Rental> list : loaded) {
+            assertEquals(10, list.size());
+            for (int i = 0; i < list.size(); i++) {
+                assertEquals(i + 1, list.get(i).getRentCount());
+            }
+            assertTrue(LoyaltyLedger.isDiscounted(list.get(9).getRentCount()));
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pravi kopije iznajmljivanja bez dodijeljenih rednih brojeva
+     * @param rentals - iznajmljivanja
+     * @return vraca nove objekte iznajmljivanja sa istim podacima
+     */
+    private static List<Rental> copiesWithoutOrdinals(List<Rental> rentals) {
+        List<Rental> copies = new ArrayList<>(rentals.size());
+        for (Rental rental : rentals) {
+            copies.add(new Rental(rental.getStartTime(), rental.getUserId(), rental.getVehicle(), rental.getStartLocation(),
+                    rental.getEndLocation(), rental.getSimulationDuration(), rental.isFaulty(),
+                    rental.getPromotion().equalsIgnoreCase("yes"), 0, CONFIG));
+        }
+        return copies;
+    }
+
+    /**
+     * Pomocna metoda koja pravi iznajmljivanje sa datim rednim brojem korisnika (od tacke 2,3 do tacke 12,7)
+     * @param startTime - vrijeme pocetka
+     * @param userId - identifikator korisnika
+     * @param vehicle - vozilo
+     * @param duration - trajanje
+     * @param fault - da li je vozilo pokvareno
+     * @param promotion - da li iznajmljivanje ima promociju
+     * @param rentCount - redni broj iznajmljivanja korisnika
+     * @return vraca iznajmljivanje sa izracunatom cijenom
+     */
+    private static Rental rental(LocalDateTime startTime, String userId, Vehicle vehicle, double duration, boolean fault,
+                                 boolean promotion, int rentCount) {
+        return new Rental(startTime, userId, vehicle, "2,3", "12,7", duration, fault, promotion, rentCount, CONFIG);
+    }
+
+    /**
+     * Pomocna metoda koja pravi slucajna iznajmljivanja poredana po vremenu pocetka, sa rednim brojevima korisnika
+     * dodijeljenim evidencijom popusta
+     * @param count - broj iznajmljivanja
+     * @param seed - pocetna vrijednost generatora
+     * @return vraca iznajmljivanja
+     */
+    private static List<Rental> randomRentals(int count, long seed) {
+        Random random = new Random(seed);
+        List<Rental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rentals.add(new Rental(START.plusMinutes(i * 7L), "K" + random.nextInt(40),
+                    VEHICLES.get(random.nextInt(VEHICLES.size())), random.nextInt(20) + "," + random.nextInt(20),
+                    random.nextInt(20) + "," + random.nextInt(20), 1 + random.nextInt(30) + random.nextDouble(),
+                    random.nextInt(8) == 0, random.nextInt(4) == 0, 0, CONFIG));
+        }
+        new LoyaltyLedger().assign(rentals);
+        return rentals;
+    }
+}
@@ -0,0 +1,145 @@
+package rent;
+
+import model.EBike;
+import model.ECar;
+import model.EScooter;
+import model.Vehicle;
+import org.junit.jupiter.api.Test;
+import pricing.PricingConfig;
+import pricing.ZoneMap;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi tabele iznajmljivanja (RentalTable): kolone cuvaju podatke iznajmljivanja, a sume rezultata poslovanja
+ * nad tabelom su iste, bit po bit, kao sume nad listom istih iznajmljivanja
+ */
+public class RentalTableTest {
+    private static final PricingConfig CONFIG = new PricingConfig(1, 0.05, 0.02, 0.03, 1.0, 1.5, 0.10, 0.15, ZoneMap.DEFAULT);
+    private static final List<Vehicle> VEHICLES = List.of(
+            new ECar("A1", "A", "M1", 50000, "primjer 1", "1.5.2024."),
+            new EBike("B1", "B", "BM1", 3000, 100),
+            new EScooter("T1", "T", "TM1", 1000, 50));
+
+    @Test
+    public void columnsMatchRentals() {
+        List<Rental> rentals = rentals(300, 1);
+        RentalTable table = RentalTable.of(rentals);
+
+        assertEquals(rentals.size(), table.size());
+        for (int row = 0; row < rentals.size(); row++) {
+            Rental rental = rentals.get(row);
+            assertEquals(rental.getStartTime(), table.getStartTime(row));
+            assertEquals(rental.getEndTime(), table.getEndTime(row));
+            assertSame(rental.getVehicle(), table.getVehicle(row));
+            assertEquals(rental.getTotalPrice(), table.getTotalPrice(row));
+            assertEquals(rental.getBasePrice(), table.getBasePrice(row));
+            assertEquals(rental.isFaulty(), table.isFaulty(row));
+            assertEquals(rental.getPromotion().equals("yes"), table.hasPromotion(row));
+            assertEquals(rental.isNarrow(), table.isNarrow(row));
+            assertEquals(LoyaltyLedger.isDiscounted(rental.getRentCount()), table.isDiscounted(row));
+        }
+    }
+
+    @Test
+    public void tableTotalsMatchListTotals() {
+        List<Rental> rentals = rentals(500, 2);
+        ResultsAccumulator list = ResultsAccumulator.of(rentals);
+
+        assertSameTotals(list, RentalTable.of(rentals).accumulate());
+        assertTrue(list.totals()[ResultsAccumulator.DISCOUNT] > 0, "some rentals should be discounted");
+        assertTrue(list.totals()[ResultsAccumulator.REPAIR] > 0, "some vehicles should be faulty");
+    }
+
+    @Test
+    public void growingTableMatchesList() {
+        List<Rental> rentals = rentals(500, 3);
+        RentalTable table = new RentalTable(4);
+        rentals.forEach(table::add);
+
+        assertEquals(rentals.size(), table.size());
+        assertSameTotals(ResultsAccumulator.of(rentals), table.accumulate());
+    }
+
+    @Test
+    public void largeTableMatchesList() {
+        List<Rental> rentals = rentals(40_000, 4); // Iznad praga paralelnog sabiranja
+
+        assertSameTotals(ResultsAccumulator.of(rentals), RentalTable.of(rentals).accumulate());
+    }
+
+    @Test
+    public void repricingWithSameTariffsKeepsTotals() {
+        RentalTable table = RentalTable.of(rentals(500, 5));
+
+        assertSameTotals(table.accumulate(), table.repriced(CONFIG.tariffs()).accumulate());
+    }
+
+    @Test
+    public void repricingMatchesRentalsPricedWithOtherConfig() {
+        PricingConfig other = new PricingConfig(2, 0.07, 0.01, 0.04, 1.2, 2.0, 0.20, 0.25, ZoneMap.DEFAULT);
+        List<Rental> rentals = rentals(5_000, 6);
+        RentalTable table = RentalTable.of(rentals);
+        RentalTable repriced = table.repriced(other.tariffs());
+
+        List<Rental> expected = new ArrayList<>(rentals.size());
+        for (Rental rental : rentals) {
+            expected.add(new Rental(rental.getStartTime(), rental.getUserId(), rental.getVehicle(),
+                    rental.getStartLocation(), rental.getEndLocation(), rental.getSimulationDuration(),
+                    rental.isFaulty(), rental.getPromotion().equals("yes"), rental.getRentCount(), other));
+        }
+        for (int row = 0; row < rentals.size(); row++) {
+            assertEquals(expected.get(row).getTotalPrice(), repriced.getTotalPrice(row), 1e-9, "row " + row);
+            assertEquals(expected.get(row).getBasePrice(), repriced.getBasePrice(row), 1e-9, "row " + row);
+            assertEquals(rentals.get(row).getTotalPrice(), table.getTotalPrice(row), "original row " + row);
+        }
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da su sumarne i dnevne sume dva sabiranja jednake bit po bit
+     * @param expected - ocekivane sume
+     * @param actual - dobijene sume
+     */
+    private static void assertSameTotals(ResultsAccumulator expected, ResultsAccumulator actual) {
+        assertArrayEquals(expected.totals(), actual.totals());
+        SortedMap<LocalDate, double[]> expectedDaily = expected.dailyTotals();
+        SortedMap<LocalDate, double[]> actualDaily = actual.dailyTotals();
+        assertEquals(expectedDaily.keySet(), actualDaily.keySet());
+        for (Map.Entry<LocalDate, double[]> entry : expectedDaily.entrySet()) {
+            assertArrayEquals(entry.getValue(), actualDaily.get(entry.getKey()), "day " + entry.getKey());
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pravi slucajna iznajmljivanja poredana po vremenu pocetka (vise dana, uze i sire podrucje,
+     * kvarovi, promocije), sa rednim brojevima korisnika dodijeljenim evidencijom popusta
+     * @param count - broj iznajmljivanja
+     * @param seed - pocetna vrijednost generatora
+     * @return vraca iznajmljivanja
+     */
+    private static List<Rental> rentals(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 8, 0);
+        List<Rental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rentals.add(new Rental(start.plusMinutes(i * 7L), "K" + random.nextInt(40),
+                    VEHICLES.get(random.nextInt(VEHICLES.size())),
+                    random.nextInt(20) + "," + random.nextInt(20), random.nextInt(20) + "," + random.nextInt(20),
+                    1 + random.nextInt(30) + random.nextDouble(), random.nextInt(8) == 0, random.nextInt(4) == 0,
+                    0, CONFIG));
+        }
+        new LoyaltyLedger().assign(rentals);
+        return rentals;
+    }
+}
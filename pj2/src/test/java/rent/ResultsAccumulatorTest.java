@@ -0,0 +1,156 @@
+package rent;
+
+import model.EBike;
+import model.ECar;
+import model.EScooter;
+import model.Vehicle;
+import org.junit.jupiter.api.Test;
+import pricing.PricingConfig;
+import pricing.ZoneMap;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi sabiranja rezultata poslovanja (ResultsAccumulator): dodavanje jedno po jedno, lista i kolektor daju
+ * iste sume bit po bit, paralelno sabiranje ne zavisi od rasporeda niti, a izvjestaji su isti kao kod Results
+ */
+public class ResultsAccumulatorTest {
+    private static final PricingConfig CONFIG = new PricingConfig(1, 0.05, 0.02, 0.03, 1.0, 1.5, 0.10, 0.15, ZoneMap.DEFAULT);
+    private static final List<Vehicle> VEHICLES = List.of(
+            new ECar("A1", "A", "M1", 50000, "primjer 1", "1.5.2024."),
+            new EBike("B1", "B", "BM1", 3000, 100),
+            new EScooter("T1", "T", "TM1", 1000, 50));
+    private static final int LARGE = 40_000; // Iznad praga paralelnog sabiranja
+
+    @Test
+    public void singleAddsListAndCollectorAgree() {
+        List<Rental> rentals = rentals(500, 1);
+        ResultsAccumulator single = new ResultsAccumulator();
+        rentals.forEach(single::add);
+
+        assertSameTotals(single, ResultsAccumulator.of(rentals));
+        assertSameTotals(single, rentals.stream().collect(ResultsAccumulator.collector()));
+        assertTrue(single.totals()[ResultsAccumulator.DISCOUNT] > 0, "some rentals should be discounted");
+        assertTrue(single.totals()[ResultsAccumulator.PROMO] > 0, "some rentals should have a promotion");
+        assertTrue(single.totals()[ResultsAccumulator.REPAIR] > 0, "some vehicles should be faulty");
+    }
+
+    @Test
+    public void oneRentalUsesDiscountPromotionAndRepairRules() {
+        Rental rental = new Rental(LocalDateTime.of(2024, 6, 1, 8, 0), "K1", VEHICLES.get(0), "2,3", "12,7",
+                12.5, true, true, 10, CONFIG);
+        ResultsAccumulator accumulator = new ResultsAccumulator();
+        accumulator.add(rental);
+        double[] totals = accumulator.totals();
+
+        assertEquals(rental.getTotalPrice(), totals[ResultsAccumulator.REVENUE]);
+        assertEquals(Results.discountOf(rental.getBasePrice()), totals[ResultsAccumulator.DISCOUNT]);
+        assertEquals(Results.promoOf(rental.getBasePrice(), true), totals[ResultsAccumulator.PROMO]);
+        assertEquals(0.07 * VEHICLES.get(0).getPrice(), totals[ResultsAccumulator.REPAIR]);
+    }
+
+    @Test
+    public void parallelSumDoesNotDependOnThreads() {
+        List<Rental> rentals = rentals(LARGE, 2);
+        ResultsAccumulator first = ResultsAccumulator.of(rentals);
+
+        for (int run = 0; run < 3; run++) {
+            assertSameTotals(first, ResultsAccumulator.of(rentals));
+        }
+        assertTrue(first.dailyTotals().size() > 100, "rentals should span many days");
+    }
+
+    @Test
+    public void parallelSumIsCloseToSequentialSum() {
+        List<Rental> rentals = rentals(LARGE, 3);
+        ResultsAccumulator sequential = new ResultsAccumulator();
+        rentals.forEach(sequential::add);
+        double[] expected = sequential.totals();
+        double[] actual = ResultsAccumulator.of(rentals).totals();
+
+        for (int metric = 0; metric < ResultsAccumulator.METRICS; metric++) {
+            assertTrue(Math.abs(expected[metric] - actual[metric]) <= 1e-9 * Math.abs(expected[metric]) + 1e-9,
+                    "metric " + metric + ": " + expected[metric] + " vs " + actual[metric]);
+        }
+    }
+
+    @Test
+    public void reportsMatchResults() throws IOException {
+        List<Rental> rentals = rentals(500, 4);
+        ResultsAccumulator accumulator = ResultsAccumulator.of(rentals);
+        Results results = new Results();
+        List<Results> daily = results.calculateDailyValues(rentals); // Redoslijed kao u SimulationManager.completeSimulation
+        results.calculateSummaryValues(rentals);
+
+        assertSameReport(results, accumulator.toSummary());
+        List<Results> accumulated = accumulator.toDaily();
+        assertEquals(daily.size(), accumulated.size());
+        for (int day = 0; day < daily.size(); day++) {
+            assertEquals(daily.get(day).getResultDate(), accumulated.get(day).getResultDate());
+            assertSameReport(daily.get(day), accumulated.get(day));
+        }
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da dva izvjestaja imaju iste iznose
+     * @param expected - ocekivani izvjestaj
+     * @param actual - dobijeni izvjestaj
+     */
+    private static void assertSameReport(Results expected, Results actual) {
+        assertEquals(expected.getTotalRevenue(), actual.getTotalRevenue());
+        assertEquals(expected.getTotalDiscount(), actual.getTotalDiscount());
+        assertEquals(expected.getTotalPromo(), actual.getTotalPromo());
+        assertEquals(expected.getTotalNarrowIncome(), actual.getTotalNarrowIncome());
+        assertEquals(expected.getTotalWideIncome(), actual.getTotalWideIncome());
+        assertEquals(expected.getMaintenanceCost(), actual.getMaintenanceCost());
+        assertEquals(expected.getRepairCost(), actual.getRepairCost());
+    }
+
+    /**
+     * Pomocna metoda koja provjerava da su sumarne i dnevne sume dva sabiranja jednake bit po bit
+     * @param expected - ocekivane sume
+     * @param actual - dobijene sume
+     */
+    private static void assertSameTotals(ResultsAccumulator expected, ResultsAccumulator actual) {
+        assertArrayEquals(expected.totals(), actual.totals());
+        SortedMap<LocalDate, double[]> expectedDaily = expected.dailyTotals();
+        SortedMap<LocalDate, double[]> actualDaily = actual.dailyTotals();
+        assertEquals(expectedDaily.keySet(), actualDaily.keySet());
+        for (Map.Entry<LocalDate, double[]> entry : expectedDaily.entrySet()) {
+            assertArrayEquals(entry.getValue(), actualDaily.get(entry.getKey()), "day " + entry.getKey());
+        }
+    }
+
+    /**
+     * Pomocna metoda koja pravi slucajna iznajmljivanja poredana po vremenu pocetka (vise dana, uze i sire podrucje,
+     * kvarovi, promocije), sa rednim brojevima korisnika dodijeljenim evidencijom popusta
+     * @param count - broj iznajmljivanja
+     * @param seed - pocetna vrijednost generatora
+     * @return vraca iznajmljivanja
+     */
+    private static List<Rental> rentals(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 8, 0);
+        List<Rental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rentals.add(new Rental(start.plusMinutes(i * 7L), "K" + random.nextInt(40),
+                    VEHICLES.get(random.nextInt(VEHICLES.size())),
+                    random.nextInt(20) + "," + random.nextInt(20), random.nextInt(20) + "," + random.nextInt(20),
+                    1 + random.nextInt(30) + random.nextDouble(), random.nextInt(8) == 0, random.nextInt(4) == 0,
+                    0, CONFIG));
+        }
+        new LoyaltyLedger().assign(rentals);
+        return rentals;
+    }
+}
@@ -0,0 +1,194 @@
+package rent;
+
+import handler.CSVHandler;
+import handler.ReceiptHandler;
+import handler.RejectionSink;
+import main.ExecutionMode;
+import main.SimulationManager;
+import model.EBike;
+import model.ECar;
+import model.EScooter;
+import model.Vehicle;
+import model.VehicleRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Testovi simulacije diskretnih dogadjaja nad primjerom iz resources (vozila.csv, iznajmljivanja.csv): racuni
+ * i rezultati poslovanja su isti kao u racunima koje je napravila ranija simulacija sa nitima i Thread.sleep
+ * (resources/receipts), u svakom nacinu izvrsavanja
+ */
+public class SimulationEngineTest {
+    private static final String RESOURCES = "src/main/java/resources/";
+    private static final double EPSILON = 1e-6;
+
+    private final Map<String, Set<Double>> samplePrices = new HashMap<>();
+
+    @BeforeAll
+    public static void noQuarantine() {
+        RejectionSink.setQuarantineFolder(null);
+    }
+
+    @BeforeEach
+    public void readSampleReceipts() throws IOException {
+        ReceiptHandler.setWriteToFile(false);
+        try (Stream<Path> files = Files.list(Path.of(RESOURCES, "receipts"))) {
+            for (Path file : files.toList()) {
+                Map<String, String> fields = new HashMap<>();
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    int colon = line.indexOf(": ");
+                    if (colon > 0) {
+                        fields.put(line.substring(0, colon), line.substring(colon + 2));
+                    }
+                }
+                samplePrices.computeIfAbsent(key(fields.get("Vehicle ID"), fields.get("User ID"),
+                                LocalDateTime.parse(fields.get("Start Time")), fields.get("Start Location"),
+                                fields.get("Destination"), fields.get("Promotion Applied"), fields.get("Fault Occurred")),
+                        k -> new TreeSet<>()).add(Double.parseDouble(fields.get("Price")));
+            }
+        }
+    }
+
+    @AfterEach
+    public void restoreDefaults() {
+        SimulationManager.setExecutionMode(ExecutionMode.EVENT_LOOP);
+        ReceiptHandler.setWriteToFile(true);
+    }
+
+    @Test
+    public void receiptsMatchSampleOutput() throws IOException {
+        List<Receipt> receipts = simulate(ExecutionMode.EVENT_LOOP, new ArrayList<>());
+
+        assertEquals(36, receipts.size(), "one receipt per loaded rental");
+        for (Receipt receipt : receipts) {
+            assertEquals(samplePrices.get(key(receipt)), Set.of(receipt.getTotalPrice()), "price of " + key(receipt));
+        }
+    }
+
+    @Test
+    public void resultsMatchSampleOutput() throws IOException {
+        List<Results> results = new ArrayList<>();
+        List<Receipt> receipts = simulate(ExecutionMode.EVENT_LOOP, results);
+        Results summary = results.get(0);
+        Map<String, Vehicle> vehicles = new HashMap<>();
+        CSVHandler.loadVehicles(RESOURCES + "vozila.csv").forEach(vehicle -> vehicles.put(vehicle.getId(), vehicle));
+
+        Map<LocalDate, Double> sampleDailyRevenue = new HashMap<>();
+        double revenue = 0;
+        double repair = 0;
+        for (Receipt receipt : receipts) {
+            double price = samplePrices.get(key(receipt)).iterator().next();
+            revenue += price;
+            sampleDailyRevenue.merge(receipt.getStartTime().toLocalDate(), price, Double::sum);
+            if (receipt.getFault().equals("yes")) {
+                repair += repairCost(vehicles.get(receipt.getVehicleId()));
+            }
+        }
+        assertEquals(revenue, summary.getTotalRevenue(), EPSILON);
+        assertEquals(revenue, summary.getTotalNarrowIncome() + summary.getTotalWideIncome(), EPSILON);
+        assertEquals(revenue * 0.2, summary.getMaintenanceCost(), EPSILON);
+        assertEquals(repair, summary.getRepairCost(), EPSILON);
+
+        List<Results> daily = results.subList(1, results.size());
+        assertEquals(sampleDailyRevenue.size(), daily.size());
+        for (Results day : daily) {
+            assertNotNull(sampleDailyRevenue.get(day.getResultDate()), "day " + day.getResultDate());
+            assertEquals(sampleDailyRevenue.get(day.getResultDate()), day.getTotalRevenue(), EPSILON);
+        }
+    }
+
+    @Test
+    public void everyExecutionModeGivesSampleReceipts() throws IOException {
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            List<Receipt> receipts = simulate(mode, new ArrayList<>());
+
+            assertEquals(36, receipts.size(), mode + ": one receipt per loaded rental");
+            for (Receipt receipt : receipts) {
+                assertEquals(samplePrices.get(key(receipt)), Set.of(receipt.getTotalPrice()), mode + ": price of " + key(receipt));
+            }
+        }
+    }
+
+    /**
+     * Pomocna metoda koja ucitava primjer i simulira ga punom brzinom, bez upisivanja racuna u fajlove
+     * @param mode - nacin izvrsavanja
+     * @param results - lista u koju se dodaju sumarni pa dnevni rezultati poslovanja
+     * @return vraca racune ove simulacije
+     * @throws IOException u slucaju greske prilikom ucitavanja ili simulacije
+     */
+    private static List<Receipt> simulate(ExecutionMode mode, List<Results> results) throws IOException {
+        SimulationManager.setExecutionMode(mode);
+        List<Vehicle> vehicles = CSVHandler.loadVehicles(RESOURCES + "vozila.csv");
+        List<Rental> rentals = CSVHandler.loadRentals(RESOURCES + "iznajmljivanja.csv", new VehicleRegistry(vehicles));
+        Properties userDocuments = new Properties(); // Dokumenti ne uticu na cijene, fajl se ne cita ni ne mijenja
+        SimulationListener listener = new SimulationListener() {
+            @Override
+            public void onSimulationFinished(Results summaryResults, List<Results> dailyResults) {
+                results.add(summaryResults);
+                results.addAll(dailyResults);
+            }
+        };
+
+        int before = ReceiptHandler.getReceipts().size();
+        SimulationManager.simulateGroups(SimulationManager.groupRentalsByTime(rentals), listener,
+                SimulationClock.fullSpeed(), new SplittableRandom(5), null, userDocuments);
+        SimulationManager.completeSimulation(rentals, RentalTable.of(rentals), vehicles, listener);
+        List<Receipt> all = ReceiptHandler.getReceipts();
+        synchronized (all) {
+            return new ArrayList<>(all.subList(before, all.size()));
+        }
+    }
+
+    /**
+     * Pomocna metoda koja racuna trosak popravke vozila prema vrsti vozila (procenat nabavne cijene)
+     * @param vehicle - vozilo
+     * @return vraca trosak popravke
+     */
+    private static double repairCost(Vehicle vehicle) {
+        if (vehicle instanceof ECar) return 0.07 * vehicle.getPrice();
+        if (vehicle instanceof EBike) return 0.04 * vehicle.getPrice();
+        if (vehicle instanceof EScooter) return 0.02 * vehicle.getPrice();
+        return 0;
+    }
+
+    /**
+     * Pomocna metoda koja pravi kljuc racuna od podataka iznajmljivanja (bez cijene i korisnickih dokumenata)
+     * @param receipt - racun
+     * @return vraca kljuc
+     */
+    private static String key(Receipt receipt) {
+        return key(receipt.getVehicleId(), receipt.getUserId(), receipt.getStartTime(), receipt.getStartLocation(),
+                receipt.getEndLocation(), receipt.getPromotion(), receipt.getFault());
+    }
+
+    /**
+     * Pomocna metoda koja pravi kljuc racuna od podataka iznajmljivanja
+     * @return vraca kljuc
+     */
+    private static String key(String vehicleId, String userId, LocalDateTime startTime, String startLocation,
+                              String endLocation, String promotion, String fault) {
+        return vehicleId + "|" + userId + "|" + startTime + "|" + startLocation + "|" + endLocation
+                + "|" + promotion + "|" + fault;
+    }
+}
@@ -0,0 +1,65 @@
+package rent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testovi redoslijeda dogadjaja simulacije: dogadjaji se obradjuju po vremenu, a dogadjaji sa istim vremenom
+ * po redoslijedu zakazivanja (kao u redu dogadjaja SimulationEngine)
+ */
+public class SimulationEventTest {
+
+    @Test
+    public void eventsAreOrderedByTimeThenSequence() {
+        SimulationEvent early = new SimulationEvent(1.0, 5, SimulationEvent.Type.STEP, null);
+        SimulationEvent first = new SimulationEvent(2.0, 1, SimulationEvent.Type.ARRIVAL, null);
+        SimulationEvent second = new SimulationEvent(2.0, 2, SimulationEvent.Type.STEP, null);
+
+        assertTrue(early.compareTo(first) < 0);
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(first) > 0);
+        assertEquals(0, first.compareTo(new SimulationEvent(2.0, 1, SimulationEvent.Type.FAULT, null)));
+    }
+
+    @Test
+    public void queuePollsInScheduleOrderForEqualTimes() {
+        PriorityQueue<SimulationEvent> queue = new PriorityQueue<>();
+        List<SimulationEvent> expected = new ArrayList<>();
+        long sequence = 0;
+        // Zakazivanje obrnutim redom vremena; za svako vrijeme vise dogadjaja
+        for (int time = 9; time >= 0; time--) {
+            for (int i = 0; i < 4; i++) {
+                SimulationEvent event = new SimulationEvent(time * 0.5, sequence++, SimulationEvent.Type.STEP, null);
+                queue.add(event);
+                expected.add(event);
+            }
+        }
+        expected.sort(null);
+
+        List<SimulationEvent> polled = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            polled.add(queue.poll());
+        }
+        assertEquals(expected, polled);
+        for (int i = 1; i < polled.size(); i++) {
+            assertTrue(polled.get(i - 1).getTime() <= polled.get(i).getTime());
+        }
+    }
+
+    @Test
+    public void resetEventIsReorderedByNewTime() {
+        SimulationEvent event = new SimulationEvent(5.0, 0, SimulationEvent.Type.STEP, null);
+        SimulationEvent other = new SimulationEvent(3.0, 1, SimulationEvent.Type.STEP, null);
+        assertTrue(event.compareTo(other) > 0);
+
+        event.reset(3.0, 2, SimulationEvent.Type.CHARGE);
+        assertEquals(SimulationEvent.Type.CHARGE, event.getType());
+        assertTrue(other.compareTo(event) < 0, "equal time, earlier schedule goes first");
+    }
+}